@@ -0,0 +1,649 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controller.AsyncIzvrsilac;
+import controller.KorisnikController;
+import controller.OdlozeniUpis;
+import controller.RezervacijaController;
+import controller.SportskaOpremaController;
+import database.DatabaseConnection;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+import model.Agregat;
+import model.Grupisanje;
+import model.IshodRezervacije;
+import model.Korisnik;
+import model.Poredak;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+import model.Strana;
+import repository.Repozitorijumi;
+import repository.RezervacijaRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * HTTP/JSON pristup kontrolerima, bez JavaFX-a, za veb rezervacije i testove opterećenja.
+ * <p>
+ * Server je {@link HttpServer} iz JDK-a. Svaki zahtev se obrađuje na sopstvenoj
+ * niti iz {@link AsyncIzvrsilac} (virtuelne niti na Javi 21+), pa blokirajući
+ * JDBC poziv ne zauzima nit platforme, a broj istovremenih upita ograničava
+ * pul konekcija. Veze ostaju otvorene između zahteva (HTTP/1.1 keep-alive): svaki
+ * odgovor ima dužinu ili je podeljen u delove, a telo zahteva se uvek pročita do kraja.
+ * </p>
+ * <p>
+ * Liste se šalju kao JSON niz, objekat po objekat, kroz mali bafer. Rezervacije
+ * se čitaju stranu po stranu po kursoru, pa konekcija ka bazi nije zauzeta dok
+ * spor klijent prima odgovor.
+ * </p>
+ * <pre>
+ * GET    /api/korisnici                     GET /api/korisnici/{id}
+ * POST   /api/korisnici                     {"ime", "email", "telefon"}
+ * PUT    /api/korisnici/{email}             {"telefon"}
+ * DELETE /api/korisnici/{email}
+ * GET    /api/oprema[?od=&amp;velicina=&amp;sort=&amp;opadajuce=da]   GET /api/oprema/{id}
+ * POST   /api/oprema                        {"naziv", "tipId", "dostupnost", "cena", "kolicina", "lokacija"}
+ * PUT    /api/oprema/{id}                   {"cena", "kolicina"}
+ * DELETE /api/oprema/{id}
+ * GET    /api/rezervacije[?korisnikId=&amp;opremaId=&amp;status=&amp;datumOd=&amp;datumDo=]
+ * GET    /api/rezervacije/pretraga?q=&amp;strana=&amp;velicina=
+ * GET    /api/rezervacije/zbirovi?grupisanje=korisnik|oprema|status|dan|mesec[&amp;filter]
+ * POST   /api/rezervacije                   {"korisnikId", "opremaId", "datumRezervacije", "datumVracanja", "kolicina"}
+ * PUT    /api/rezervacije/{id}              {"datumVracanja"}
+ * DELETE /api/rezervacije/{id}
+ * </pre>
+ * <p>
+ * Neispravan zahtev dobija 400, nepostojeći objekat 404, a rezervacija ili
+ * produženje koje nije uspelo 409 sa ishodom. Izmena ili brisanje koje skladište
+ * nije upisalo dobija 500. Svaki zahtev se meri kao operacija {@code api.resurs.METOD}.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class ApiServer {
+
+    private static final Logger LOG = Logging.logger("api");
+
+    /** Sistemsko svojstvo sa portom servera. */
+    public static final String SVOJSTVO_PORT = "api.port";
+
+    /** Port ako svojstvo nije zadato. */
+    public static final int PODRAZUMEVANI_PORT = 8080;
+
+    /** Najveće telo zahteva; objekti API-ja su mali. */
+    private static final int MAX_TELO = 64 * 1024;
+
+    /** Bafer za slanje listi; puni se i šalje kao jedan deo odgovora. */
+    private static final int BAFER = 16 * 1024;
+
+    /** Broj veza koje čekaju prihvatanje. */
+    private static final int RED_VEZA = 1_024;
+
+    /**
+     * Broj otvorenih veza bez zahteva koje JDK server drži; podrazumevano je 200,
+     * pa bi ostali klijenti morali da otvaraju novu vezu za svaki zahtev.
+     */
+    private static final String NEAKTIVNIH_VEZA = "10000";
+
+    private static final String JSON = "application/json; charset=utf-8";
+
+    private final HttpServer server;
+    private final KorisnikController korisnici;
+    private final SportskaOpremaController oprema;
+    private final RezervacijaController rezervacije;
+
+    /** Obrada zahteva nad jednim resursom. */
+    private interface Ruta {
+        void obradi(Zahtev zahtev, Metrics.Merenje merenje) throws IOException;
+    }
+
+    private ApiServer(HttpServer server, KorisnikController korisnici,
+                      SportskaOpremaController oprema, RezervacijaController rezervacije) {
+        this.server = server;
+        this.korisnici = korisnici;
+        this.oprema = oprema;
+        this.rezervacije = rezervacije;
+        server.createContext("/api/korisnici", ex -> obradi(ex, "korisnici", this::korisnici));
+        server.createContext("/api/oprema", ex -> obradi(ex, "oprema", this::oprema));
+        server.createContext("/api/rezervacije", ex -> obradi(ex, "rezervacije", this::rezervacije));
+        server.setExecutor(AsyncIzvrsilac.getIzvrsilac());
+    }
+
+    /**
+     * Pokreće server nad kontrolerima izabranog skladišta.
+     *
+     * @param port port; 0 bira slobodan
+     * @return pokrenut server
+     * @throws IOException ako port ne može da se zauzme
+     */
+    public static ApiServer pokreni(int port) throws IOException {
+        return pokreni(new InetSocketAddress(port), new KorisnikController(),
+                new SportskaOpremaController(), new RezervacijaController());
+    }
+
+    /**
+     * Pokreće server nad zadatim kontrolerima.
+     *
+     * @param adresa      adresa i port
+     * @param korisnici   kontroler korisnika
+     * @param oprema      kontroler opreme
+     * @param rezervacije kontroler rezervacija
+     * @return pokrenut server
+     * @throws IOException ako adresa ne može da se zauzme
+     */
+    public static ApiServer pokreni(InetSocketAddress adresa, KorisnikController korisnici,
+                                    SportskaOpremaController oprema, RezervacijaController rezervacije)
+            throws IOException {
+        // JDK server čita ovo svojstvo jednom, pri prvom pravljenju servera
+        if (System.getProperty("sun.net.httpserver.maxIdleConnections") == null) {
+            System.setProperty("sun.net.httpserver.maxIdleConnections", NEAKTIVNIH_VEZA);
+        }
+        ApiServer api = new ApiServer(HttpServer.create(adresa, RED_VEZA), korisnici, oprema, rezervacije);
+        api.server.start();
+        LOG.info("HTTP API sluša na portu " + api.getPort() + ".");
+        return api;
+    }
+
+    /** @return port na kome server sluša */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Zaustavlja server.
+     *
+     * @param sekundi koliko najviše se čeka da se započeti zahtevi završe
+     */
+    public void zaustavi(int sekundi) {
+        server.stop(sekundi);
+        LOG.info("HTTP API zaustavljen.");
+    }
+
+    /**
+     * Pokretanje bez korisničkog interfejsa:
+     * {@code ApiServer [--port=8080] [--repozitorijum=mysql|memorija]}.
+     *
+     * @param args port i motor skladišta
+     */
+    public static void main(String[] args) {
+        int port = Integer.getInteger(SVOJSTVO_PORT, PODRAZUMEVANI_PORT);
+        try {
+            for (String arg : args) {
+                if (arg.startsWith("--port=")) {
+                    port = Integer.parseInt(arg.substring("--port=".length()));
+                } else if (arg.startsWith("--" + Repozitorijumi.SVOJSTVO + "=")) {
+                    Repozitorijumi.izaberi(Repozitorijumi.Motor.poNazivu(arg.substring(arg.indexOf('=') + 1)));
+                } else {
+                    throw new IllegalArgumentException("Nepoznat argument: " + arg);
+                }
+            }
+            Repozitorijumi.pripremiBazuIzSvojstva();
+            Metrics.pokreniIspisIzSvojstva();
+            OdlozeniUpis.ukljuciIzSvojstva();
+            ApiServer api = pokreni(port);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                api.zaustavi(2);
+                OdlozeniUpis.zaustavi();
+                DatabaseConnection.zatvori();
+                Logging.zatvori();
+            }, "api-gasenje"));
+        } catch (IOException | SQLException | IllegalArgumentException | IllegalStateException e) {
+            System.err.println("Greška pri pokretanju API-ja: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void obradi(HttpExchange ex, String resurs, Ruta ruta) {
+        try (Metrics.Merenje merenje = Metrics.pocni(Metrics.operacija("api." + resurs + "." + ex.getRequestMethod()))) {
+            try {
+                ruta.obradi(new Zahtev(ex, "/api/" + resurs), merenje);
+            } catch (IllegalArgumentException e) {
+                posaljiAkoMoze(ex, 400, Json.objekat("greska", e.getMessage()));
+            } catch (IOException e) {
+                // Klijent je prekinuo vezu usred odgovora
+                merenje.oznaciGresku();
+                LOG.debug("Prekinut odgovor na " + ex.getRequestURI() + ": " + e.getMessage());
+            } catch (RuntimeException e) {
+                merenje.oznaciGresku();
+                LOG.greska("api", LogEvent.BEZ_ID, "Greška pri obradi zahteva " + ex.getRequestMethod()
+                        + " " + ex.getRequestURI(), e);
+                posaljiAkoMoze(ex, 500, Json.objekat("greska", "interna greška"));
+            }
+        } finally {
+            ex.close();
+        }
+    }
+
+    // --- korisnici ---
+
+    private void korisnici(Zahtev z, Metrics.Merenje merenje) throws IOException {
+        if (z.putanja.isEmpty()) {
+            switch (z.metod) {
+                case "GET":
+                    List<Korisnik> lista = korisnici.getSviKorisnici();
+                    NizPisac niz = new NizPisac(z.ex);
+                    for (Korisnik k : lista) {
+                        niz.dodaj(Json.korisnik(k));
+                    }
+                    merenje.setRedova(niz.zavrsi());
+                    return;
+                case "POST":
+                    Map<String, String> telo = z.telo();
+                    Korisnik k = new Korisnik(obavezno(telo, "ime"), obavezno(telo, "email"), obavezno(telo, "telefon"));
+                    if (!korisnici.isValidEmail(k.getEmail())) {
+                        throw new IllegalArgumentException("neispravan email: " + k.getEmail());
+                    }
+                    if (k.getTelefon().length() < KorisnikController.MIN_DUZINA_TELEFONA) {
+                        throw new IllegalArgumentException("neispravan telefon: " + k.getTelefon());
+                    }
+                    dodato(z.ex, korisnici.dodajKorisnike(List.of(k)));
+                    return;
+                default:
+                    nedozvoljeno(z.ex, "GET, POST");
+                    return;
+            }
+        }
+        String segment = z.jedanSegment();
+        switch (z.metod) {
+            case "GET":
+                Korisnik k = korisnici.getKorisnik(ceo(segment, "id"));
+                posalji(z.ex, k == null ? 404 : 200, k == null ? Json.objekat("greska", "korisnik ne postoji")
+                        : Json.korisnik(k));
+                return;
+            case "PUT":
+                izmenjeno(z.ex, korisnici.azurirajKorisnika(new Korisnik(null, segment, null),
+                        obavezno(z.telo(), "telefon")), "korisnik ne postoji");
+                return;
+            case "DELETE":
+                izmenjeno(z.ex, korisnici.obrisiKorisnika(segment), "korisnik ne postoji");
+                return;
+            default:
+                nedozvoljeno(z.ex, "GET, PUT, DELETE");
+        }
+    }
+
+    // --- oprema ---
+
+    private void oprema(Zahtev z, Metrics.Merenje merenje) throws IOException {
+        if (z.putanja.isEmpty()) {
+            switch (z.metod) {
+                case "GET":
+                    List<SportskaOprema> lista;
+                    if (z.upit.containsKey("od")) {
+                        String sort = z.upit.get("sort");
+                        Poredak poredak = sort == null ? null : new Poredak(sort, "da".equalsIgnoreCase(z.upit.get("opadajuce")));
+                        lista = oprema.getOpremaOpseg(poredak, ceo(z.upit.get("od"), "od"),
+                                ceo(z.upit.getOrDefault("velicina", "100"), "velicina"));
+                    } else {
+                        lista = oprema.getSvaOprema();
+                    }
+                    NizPisac niz = new NizPisac(z.ex);
+                    for (SportskaOprema o : lista) {
+                        niz.dodaj(Json.oprema(o));
+                    }
+                    merenje.setRedova(niz.zavrsi());
+                    return;
+                case "POST":
+                    Map<String, String> t = z.telo();
+                    SportskaOprema o = new SportskaOprema(0, obavezno(t, "naziv"), ceo(obavezno(t, "tipId"), "tipId"),
+                            logicka(t.getOrDefault("dostupnost", "true"), "dostupnost"),
+                            realan(obavezno(t, "cena"), "cena"), ceo(obavezno(t, "kolicina"), "kolicina"),
+                            t.get("lokacija"));
+                    if (o.getKolicina() < 0) {
+                        throw new IllegalArgumentException("količina ne može biti negativna");
+                    }
+                    if (o.getCena() <= 0) {
+                        throw new IllegalArgumentException("cena mora biti veća od 0");
+                    }
+                    dodato(z.ex, oprema.dodajOpremu(List.of(o)));
+                    return;
+                default:
+                    nedozvoljeno(z.ex, "GET, POST");
+                    return;
+            }
+        }
+        int id = ceo(z.jedanSegment(), "id");
+        switch (z.metod) {
+            case "GET":
+                SportskaOprema o = oprema.getOprema(id);
+                posalji(z.ex, o == null ? 404 : 200, o == null ? Json.objekat("greska", "oprema ne postoji")
+                        : Json.oprema(o));
+                return;
+            case "PUT":
+                Map<String, String> t = z.telo();
+                izmenjeno(z.ex, oprema.azurirajOprema(id, realan(obavezno(t, "cena"), "cena"),
+                        ceo(obavezno(t, "kolicina"), "kolicina")), "oprema ne postoji");
+                return;
+            case "DELETE":
+                izmenjeno(z.ex, oprema.obrisiOprema(id), "oprema ne postoji");
+                return;
+            default:
+                nedozvoljeno(z.ex, "GET, PUT, DELETE");
+        }
+    }
+
+    // --- rezervacije ---
+
+    private void rezervacije(Zahtev z, Metrics.Merenje merenje) throws IOException {
+        if (z.putanja.isEmpty()) {
+            switch (z.metod) {
+                case "GET":
+                    sveRezervacije(z, merenje);
+                    return;
+                case "POST":
+                    rezervisi(z);
+                    return;
+                default:
+                    nedozvoljeno(z.ex, "GET, POST");
+                    return;
+            }
+        }
+        String segment = z.jedanSegment();
+        if (segment.equals("pretraga") || segment.equals("zbirovi")) {
+            if (!z.metod.equals("GET")) {
+                nedozvoljeno(z.ex, "GET");
+                return;
+            }
+            if (segment.equals("pretraga")) {
+                List<Rezervacija> lista = rezervacije.pretraziRezervacije(z.upit.get("q"),
+                        ceo(z.upit.getOrDefault("strana", "0"), "strana"),
+                        ceo(z.upit.getOrDefault("velicina", "50"), "velicina"));
+                NizPisac niz = new NizPisac(z.ex);
+                for (Rezervacija r : lista) {
+                    niz.dodaj(Json.rezervacija(r));
+                }
+                merenje.setRedova(niz.zavrsi());
+            } else {
+                Grupisanje grupisanje = Grupisanje.valueOf(obavezno(z.upit, "grupisanje").toUpperCase(Locale.ROOT));
+                List<Agregat> lista = rezervacije.agregiraj(grupisanje, filter(z.upit));
+                NizPisac niz = new NizPisac(z.ex);
+                for (Agregat a : lista) {
+                    niz.dodaj(Json.agregat(a));
+                }
+                merenje.setRedova(niz.zavrsi());
+            }
+            return;
+        }
+        int id = ceo(segment, "id");
+        switch (z.metod) {
+            case "PUT":
+                int redova = rezervacije.azurirajRezervaciju(id,
+                        datum(obavezno(z.telo(), "datumVracanja"), "datumVracanja"));
+                if (redova == RezervacijaRepository.NEDOVOLJNO_OPREME) {
+                    posalji(z.ex, 409, Json.objekat("ishod", IshodRezervacije.NEDOVOLJNO_OPREME.name()));
+                } else {
+                    izmenjeno(z.ex, redova, "rezervacija ne postoji");
+                }
+                return;
+            case "DELETE":
+                izmenjeno(z.ex, rezervacije.obrisiRezervaciju(id), "rezervacija ne postoji");
+                return;
+            default:
+                nedozvoljeno(z.ex, "PUT, DELETE");
+        }
+    }
+
+    private void sveRezervacije(Zahtev z, Metrics.Merenje merenje) throws IOException {
+        RezervacijaFilter filter = filter(z.upit);
+        Strana<Rezervacija> strana = rezervacije.getRezervacijeStrana(filter, null, 0,
+                RezervacijaController.MAX_VELICINA_STRANE);
+        NizPisac niz = new NizPisac(z.ex);
+        while (true) {
+            if (!strana.isUspesna()) {
+                // Niz ostaje nezatvoren, pa klijent ne prima skraćenu listu kao potpunu
+                throw new IllegalStateException("Čitanje strane rezervacija nije uspelo posle " + niz.broj + " redova.");
+            }
+            for (Rezervacija r : strana.getStavke()) {
+                niz.dodaj(Json.rezervacija(r));
+            }
+            if (!strana.isImaSledecu()) {
+                break;
+            }
+            strana = rezervacije.getRezervacijeStrana(filter, strana.getKursorDatum(), strana.getKursorId(),
+                    RezervacijaController.MAX_VELICINA_STRANE);
+        }
+        merenje.setRedova(niz.zavrsi());
+    }
+
+    private void rezervisi(Zahtev z) throws IOException {
+        Map<String, String> t = z.telo();
+        Rezervacija r = new Rezervacija(ceo(obavezno(t, "korisnikId"), "korisnikId"),
+                ceo(obavezno(t, "opremaId"), "opremaId"),
+                datum(obavezno(t, "datumRezervacije"), "datumRezervacije"),
+                datum(obavezno(t, "datumVracanja"), "datumVracanja"),
+                ceo(obavezno(t, "kolicina"), "kolicina"), null);
+        if (r.getKolicina() <= 0) {
+            throw new IllegalArgumentException("količina mora biti veća od 0");
+        }
+        if (r.getDatumVracanja().compareTo(r.getDatumRezervacije()) <= 0) {
+            throw new IllegalArgumentException("datum vraćanja mora biti posle datuma rezervacije");
+        }
+        IshodRezervacije ishod = rezervacije.rezervisi(r);
+        if (ishod == IshodRezervacije.USPESNO) {
+            posalji(z.ex, 201, Json.rezervacija(r));
+        } else {
+            posalji(z.ex, 409, Json.objekat("ishod", ishod.name()));
+        }
+    }
+
+    private static RezervacijaFilter filter(Map<String, String> upit) {
+        RezervacijaFilter filter = new RezervacijaFilter();
+        if (upit.containsKey("korisnikId")) {
+            filter.setKorisnikId(ceo(upit.get("korisnikId"), "korisnikId"));
+        }
+        if (upit.containsKey("opremaId")) {
+            filter.setOpremaId(ceo(upit.get("opremaId"), "opremaId"));
+        }
+        filter.setStatus(upit.get("status"));
+        if (upit.containsKey("datumOd")) {
+            filter.setDatumOd(datum(upit.get("datumOd"), "datumOd"));
+        }
+        if (upit.containsKey("datumDo")) {
+            filter.setDatumDo(datum(upit.get("datumDo"), "datumDo"));
+        }
+        return filter;
+    }
+
+    // --- odgovori ---
+
+    /** Odgovor na pojedinačni unos: 201 sa ID-em, ili 500 sa porukom skladišta. */
+    private static void dodato(HttpExchange ex, RezultatUnosa rezultat) throws IOException {
+        if (rezultat.getBrojUspesnih() == 1) {
+            posalji(ex, 201, "{\"id\":" + rezultat.getGenerisaniId()[0] + "}");
+        } else {
+            String poruka = rezultat.getGreske().isEmpty() ? "upis nije uspeo" : rezultat.getGreske().get(0).getPoruka();
+            posalji(ex, 500, Json.objekat("greska", poruka));
+        }
+    }
+
+    /** Odgovor na izmenu ili brisanje po broju redova: 204, 404 kada reda nema, ili 500 kada upis nije uspeo. */
+    private static void izmenjeno(HttpExchange ex, int redova, String nePostoji) throws IOException {
+        if (redova > 0) {
+            posalji(ex, 204, null);
+        } else if (redova == 0) {
+            posalji(ex, 404, Json.objekat("greska", nePostoji));
+        } else {
+            posalji(ex, 500, Json.objekat("greska", "izmena nije upisana"));
+        }
+    }
+
+    private static void nedozvoljeno(HttpExchange ex, String dozvoljeno) throws IOException {
+        ex.getResponseHeaders().set("Allow", dozvoljeno);
+        posalji(ex, 405, Json.objekat("greska", "metod nije dozvoljen"));
+    }
+
+    /**
+     * Šalje ceo odgovor sa poznatom dužinom.
+     *
+     * @param json telo, ili {@code null} za odgovor bez tela
+     */
+    private static void posalji(HttpExchange ex, int status, String json) throws IOException {
+        if (json == null) {
+            ex.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] telo = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", JSON);
+        ex.sendResponseHeaders(status, telo.length);
+        ex.getResponseBody().write(telo);
+    }
+
+    /** Šalje grešku ako zaglavlja odgovora još nisu poslata; inače se veza samo zatvara. */
+    private static void posaljiAkoMoze(HttpExchange ex, int status, String json) {
+        if (ex.getResponseCode() != -1) {
+            return;
+        }
+        try {
+            posalji(ex, status, json);
+        } catch (IOException e) {
+            LOG.debug("Greška nije poslata klijentu: " + e.getMessage());
+        }
+    }
+
+    // --- čitanje zahteva ---
+
+    private static String obavezno(Map<String, String> polja, String ime) {
+        String vrednost = polja.get(ime);
+        if (vrednost == null || vrednost.isBlank()) {
+            throw new IllegalArgumentException("nedostaje polje: " + ime);
+        }
+        return vrednost;
+    }
+
+    private static int ceo(String s, String ime) {
+        try {
+            return Integer.parseInt(s.trim());
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("neispravan ceo broj za " + ime + ": " + s);
+        }
+    }
+
+    private static double realan(String s, String ime) {
+        try {
+            return Double.parseDouble(s.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("neispravan broj za " + ime + ": " + s);
+        }
+    }
+
+    private static boolean logicka(String s, String ime) {
+        if (s.equals("true") || s.equals("false")) {
+            return Boolean.parseBoolean(s);
+        }
+        throw new IllegalArgumentException("neispravna logička vrednost za " + ime + ": " + s);
+    }
+
+    private static String datum(String s, String ime) {
+        try {
+            return LocalDate.parse(s.trim()).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("neispravan datum za " + ime + " (YYYY-MM-DD): " + s);
+        }
+    }
+
+    /** Metod, putanja posle resursa i parametri upita jednog zahteva. */
+    private static final class Zahtev {
+
+        private final HttpExchange ex;
+        private final String metod;
+        private final List<String> putanja = new ArrayList<>();
+        private final Map<String, String> upit = new HashMap<>();
+
+        private Zahtev(HttpExchange ex, String koren) {
+            this.ex = ex;
+            this.metod = ex.getRequestMethod().toUpperCase(Locale.ROOT);
+            // getPath() je već dekodiran, pa segment može biti email sa '@'
+            String path = ex.getRequestURI().getPath();
+            for (String s : path.substring(Math.min(koren.length(), path.length())).split("/")) {
+                if (!s.isEmpty()) {
+                    putanja.add(s);
+                }
+            }
+            String q = ex.getRequestURI().getRawQuery();
+            if (q != null) {
+                for (String par : q.split("&")) {
+                    if (par.isEmpty()) {
+                        continue;
+                    }
+                    int jednako = par.indexOf('=');
+                    String ime = jednako < 0 ? par : par.substring(0, jednako);
+                    String vrednost = jednako < 0 ? "" : par.substring(jednako + 1);
+                    upit.put(URLDecoder.decode(ime, StandardCharsets.UTF_8),
+                            URLDecoder.decode(vrednost, StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        /** @return jedini segment putanje posle resursa */
+        String jedanSegment() {
+            if (putanja.size() != 1) {
+                throw new IllegalArgumentException("nepoznata putanja: " + ex.getRequestURI().getPath());
+            }
+            return putanja.get(0);
+        }
+
+        /** Čita telo kao ravan JSON objekat, najviše {@link #MAX_TELO} bajtova. */
+        Map<String, String> telo() throws IOException {
+            try (InputStream in = ex.getRequestBody()) {
+                byte[] bajtovi = in.readNBytes(MAX_TELO + 1);
+                if (bajtovi.length > MAX_TELO) {
+                    throw new IllegalArgumentException("telo zahteva je veće od " + MAX_TELO + " bajtova");
+                }
+                return Json.procitaj(new String(bajtovi, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * JSON niz koji se šalje dok se puni: zaglavlja idu odmah, bez dužine
+     * (podela u delove), a objekti kroz bafer od {@value #BAFER} znakova.
+     * Ako obrada pukne usred niza, zagrada se ne zatvara, pa klijent dobija
+     * neispravan JSON umesto skraćene liste koja izgleda potpuno.
+     */
+    private static final class NizPisac {
+
+        private final Writer writer;
+        private int broj;
+
+        private NizPisac(HttpExchange ex) throws IOException {
+            ex.getResponseHeaders().set("Content-Type", JSON);
+            ex.sendResponseHeaders(200, 0);
+            writer = new BufferedWriter(new OutputStreamWriter(ex.getResponseBody(), StandardCharsets.UTF_8), BAFER);
+            writer.write('[');
+        }
+
+        void dodaj(String json) throws IOException {
+            if (broj++ > 0) {
+                writer.write(',');
+            }
+            writer.write(json);
+        }
+
+        /** @return broj poslatih objekata */
+        int zavrsi() throws IOException {
+            writer.write(']');
+            writer.flush();
+            return broj;
+        }
+    }
+}
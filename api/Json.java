@@ -0,0 +1,259 @@
+package api;
+
+import model.Agregat;
+import model.Korisnik;
+import model.Rezervacija;
+import model.SportskaOprema;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON zapis modela i čitanje tela zahteva za {@link ApiServer}.
+ * <p>
+ * Zapis pravi po jedan objekat, koji server odmah šalje, pa lista nikad nije
+ * ceo tekst u memoriji. Telo zahteva je ravan objekat: vrednosti su tekst,
+ * broj, {@code true}/{@code false} ili {@code null}; ugnježdeni objekti i nizovi
+ * se odbijaju.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String korisnik(Korisnik k) {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"id\":").append(k.getId());
+        polje(sb, "ime", k.getIme());
+        polje(sb, "email", k.getEmail());
+        polje(sb, "telefon", k.getTelefon());
+        return sb.append('}').toString();
+    }
+
+    static String oprema(SportskaOprema o) {
+        StringBuilder sb = new StringBuilder(128);
+        sb.append("{\"id\":").append(o.getId());
+        polje(sb, "naziv", o.getNaziv());
+        sb.append(",\"tipId\":").append(o.getTipId())
+                .append(",\"dostupnost\":").append(o.isDostupnost())
+                .append(",\"cena\":").append(o.getCena())
+                .append(",\"kolicina\":").append(o.getKolicina());
+        polje(sb, "lokacija", o.getLokacija());
+        return sb.append('}').toString();
+    }
+
+    static String rezervacija(Rezervacija r) {
+        StringBuilder sb = new StringBuilder(192);
+        sb.append("{\"id\":").append(r.getId())
+                .append(",\"korisnikId\":").append(r.getKorisnikId())
+                .append(",\"opremaId\":").append(r.getOpremaId());
+        polje(sb, "korisnikIme", r.getKorisnikIme());
+        polje(sb, "opremaNaziv", r.getOpremaNaziv());
+        polje(sb, "datumRezervacije", r.getDatumRezervacije());
+        polje(sb, "datumVracanja", r.getDatumVracanja());
+        sb.append(",\"kolicina\":").append(r.getKolicina());
+        polje(sb, "status", r.getStatus());
+        return sb.append('}').toString();
+    }
+
+    static String agregat(Agregat a) {
+        StringBuilder sb = new StringBuilder(96);
+        sb.append("{\"kljuc\":").append(a.getKljuc());
+        polje(sb, "oznaka", a.getOznaka());
+        sb.append(",\"brojRezervacija\":").append(a.getBrojRezervacija())
+                .append(",\"ukupnaKolicina\":").append(a.getUkupnaKolicina());
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Objekat sa jednim tekstualnim poljem, npr. {@code {"greska":"..."}}.
+     */
+    static String objekat(String ime, String vrednost) {
+        StringBuilder sb = new StringBuilder(64).append('{');
+        tekst(sb, ime);
+        sb.append(':');
+        tekst(sb, vrednost);
+        return sb.append('}').toString();
+    }
+
+    private static void polje(StringBuilder sb, String ime, String vrednost) {
+        sb.append(',');
+        tekst(sb, ime);
+        sb.append(':');
+        tekst(sb, vrednost);
+    }
+
+    private static void tekst(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Čita ravan JSON objekat.
+     *
+     * @param json tekst objekta
+     * @return ime polja → vrednost kao tekst ({@code null} za JSON {@code null}), redom iz teksta
+     * @throws IllegalArgumentException ako tekst nije ravan JSON objekat
+     */
+    static Map<String, String> procitaj(String json) {
+        Citac c = new Citac(json);
+        Map<String, String> polja = new LinkedHashMap<>();
+        c.ocekuj('{');
+        if (!c.preskociAko('}')) {
+            do {
+                String ime = c.tekst();
+                c.ocekuj(':');
+                polja.put(ime, c.vrednost());
+            } while (c.preskociAko(','));
+            c.ocekuj('}');
+        }
+        c.preskociRazmake();
+        if (c.poz != json.length()) {
+            throw new IllegalArgumentException("višak teksta posle JSON objekta");
+        }
+        return polja;
+    }
+
+    /** Čitač ravnog JSON objekta, znak po znak. */
+    private static final class Citac {
+
+        private final String s;
+        private int poz;
+
+        private Citac(String s) {
+            this.s = s;
+        }
+
+        void preskociRazmake() {
+            while (poz < s.length() && Character.isWhitespace(s.charAt(poz))) {
+                poz++;
+            }
+        }
+
+        void ocekuj(char znak) {
+            preskociRazmake();
+            if (poz >= s.length() || s.charAt(poz) != znak) {
+                throw new IllegalArgumentException("neispravan JSON: očekivano '" + znak + "' na poziciji " + poz);
+            }
+            poz++;
+        }
+
+        boolean preskociAko(char znak) {
+            preskociRazmake();
+            if (poz < s.length() && s.charAt(poz) == znak) {
+                poz++;
+                return true;
+            }
+            return false;
+        }
+
+        String vrednost() {
+            preskociRazmake();
+            if (poz >= s.length()) {
+                throw new IllegalArgumentException("neispravan JSON: nedostaje vrednost");
+            }
+            char c = s.charAt(poz);
+            if (c == '"') {
+                return tekst();
+            }
+            if (c == '{' || c == '[') {
+                throw new IllegalArgumentException("neispravan JSON: ugnježdene vrednosti nisu podržane");
+            }
+            int pocetak = poz;
+            while (poz < s.length() && ",}".indexOf(s.charAt(poz)) < 0 && !Character.isWhitespace(s.charAt(poz))) {
+                poz++;
+            }
+            String rec = s.substring(pocetak, poz);
+            if (rec.equals("null")) {
+                return null;
+            }
+            if (rec.equals("true") || rec.equals("false") || rec.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+                return rec;
+            }
+            throw new IllegalArgumentException("neispravan JSON: nepoznata vrednost '" + rec + "'");
+        }
+
+        String tekst() {
+            ocekuj('"');
+            StringBuilder sb = new StringBuilder();
+            while (poz < s.length()) {
+                char c = s.charAt(poz++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (poz >= s.length()) {
+                    break;
+                }
+                char e = s.charAt(poz++);
+                switch (e) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (poz + 4 > s.length()) {
+                            throw new IllegalArgumentException("neispravan JSON: nepotpun \\u znak");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(s.substring(poz, poz + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalArgumentException("neispravan JSON: neispravan \\u znak");
+                        }
+                        poz += 4;
+                        break;
+                    default:
+                        sb.append(e);
+                }
+            }
+            throw new IllegalArgumentException("neispravan JSON: nezatvoren tekst");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package benchmark;
+
+import controller.KorisnikController;
+import controller.RezervacijaController;
+import controller.SportskaOpremaController;
+import database.DatabaseConnection;
+import database.Migracije;
+import model.Korisnik;
+import model.Rezervacija;
+import model.SportskaOprema;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Ugrađena H2 baza u memoriji (MySQL režim) sa šemom aplikacije i
+ * ponovljivim test podacima, za benchmark-ove kontrolera.
+ *
+ * @author DjuroPopara6271
+ */
+final class BenchmarkBaza {
+
+    /** Broj stavki opreme u svakoj bazi. */
+    static final int BROJ_OPREME = 200;
+
+    private static final String[] STATUSI = {"aktivna", "otkazana", "završena"};
+
+    private BenchmarkBaza() {
+    }
+
+    /**
+     * Usmerava {@link DatabaseConnection} na novu H2 bazu, pravi šemu i puni je podacima.
+     *
+     * @param brojKorisnika    broj korisnika
+     * @param brojRezervacija  broj rezervacija
+     * @throws SQLException ako šema ne može da se napravi
+     */
+    static void napravi(int brojKorisnika, int brojRezervacija) throws SQLException {
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("db.url", "jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            statement.execute("CREATE TABLE korisnik (id INT AUTO_INCREMENT PRIMARY KEY, ime VARCHAR(100), " +
+                    "email VARCHAR(100), telefon VARCHAR(30))");
+            statement.execute("CREATE TABLE oprema (id INT AUTO_INCREMENT PRIMARY KEY, naziv VARCHAR(100), tip_id INT, " +
+                    "dostupnost BOOLEAN, cena DOUBLE, kolicina INT, lokacija VARCHAR(100), verzija INT NOT NULL DEFAULT 0)");
+            statement.execute("CREATE TABLE rezervacija (id INT AUTO_INCREMENT PRIMARY KEY, korisnik_id INT, oprema_id INT, " +
+                    "datum_rezervacije DATE, datum_vracanja DATE, kolicina INT, status VARCHAR(20))");
+            statement.execute("CREATE TABLE rezervacija_brojac (dimenzija CHAR(1), kljuc INT, broj INT, kolicina INT, " +
+                    "PRIMARY KEY (dimenzija, kljuc))");
+            statement.execute("CREATE INDEX idx_rezervacija_korisnik ON rezervacija (korisnik_id)");
+            statement.execute("CREATE INDEX idx_rezervacija_oprema ON rezervacija (oprema_id, datum_rezervacije)");
+            statement.execute("CREATE INDEX idx_rezervacija_datum ON rezervacija (datum_rezervacije, id)");
+        }
+        KorisnikController.ocistiKes();
+        SportskaOpremaController.ocistiKes();
+
+        SplittableRandom random = new SplittableRandom(42);
+        List<Korisnik> korisnici = new ArrayList<>(brojKorisnika);
+        for (int i = 1; i <= brojKorisnika; i++) {
+            korisnici.add(new Korisnik("Korisnik " + i, "korisnik" + i + "@primer.rs", "06" + (1_000_000 + i)));
+        }
+        new KorisnikController().dodajKorisnike(korisnici);
+
+        List<SportskaOprema> oprema = new ArrayList<>(BROJ_OPREME);
+        for (int i = 1; i <= BROJ_OPREME; i++) {
+            oprema.add(new SportskaOprema(0, "Oprema " + i, 1 + i % 10, true, 500 + i, 1000, "Magacin " + (i % 5)));
+        }
+        new SportskaOpremaController().dodajOpremu(oprema);
+
+        LocalDate pocetak = LocalDate.of(2024, 1, 1);
+        List<Rezervacija> rezervacije = new ArrayList<>(brojRezervacija);
+        for (int i = 0; i < brojRezervacija; i++) {
+            LocalDate od = pocetak.plusDays(random.nextInt(730));
+            rezervacije.add(new Rezervacija(1 + random.nextInt(brojKorisnika), 1 + random.nextInt(BROJ_OPREME),
+                    od.toString(), od.plusDays(1 + random.nextInt(14)).toString(),
+                    1 + random.nextInt(3), STATUSI[random.nextInt(STATUSI.length)]));
+        }
+        new RezervacijaController().dodajRezervacije(rezervacije);
+    }
+
+    /**
+     * Uključuje materijalizovane brojače kao posle migracije
+     * {@value Migracije#VERZIJA_BROJACA}: okidači ({@link BrojacOkidac}), obnova
+     * brojača i zabeležena verzija šeme, po kojoj skladište zna da ih čita.
+     *
+     * @throws SQLException ako okidači ili brojači ne mogu da se naprave
+     */
+    static void ukljuciBrojace() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TRIGGER rezervacija_brojac AFTER INSERT, UPDATE, DELETE ON rezervacija " +
+                    "FOR EACH ROW CALL '" + BrojacOkidac.class.getName() + "'");
+            statement.execute("INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                    "SELECT 'K', korisnik_id, COUNT(*), SUM(kolicina) FROM rezervacija GROUP BY korisnik_id");
+            statement.execute("INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                    "SELECT 'O', oprema_id, COUNT(*), SUM(kolicina) FROM rezervacija GROUP BY oprema_id");
+            statement.execute("CREATE TABLE schema_verzija (verzija INT PRIMARY KEY, opis VARCHAR(200) NOT NULL)");
+            statement.execute("INSERT INTO schema_verzija (verzija, opis) VALUES (" + Migracije.VERZIJA_BROJACA +
+                    ", 'Brojači rezervacija preko okidača')");
+        }
+    }
+
+    /** Zatvara pul konekcija; baza u memoriji nestaje sa JVM-om. */
+    static void zatvori() {
+        DatabaseConnection.zatvori();
+    }
+}
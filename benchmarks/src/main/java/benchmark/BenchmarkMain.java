@@ -0,0 +1,29 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Pokreće JMH sa istim argumentima kao {@code org.openjdk.jmh.Main}, uz
+ * {@code gc} profiler ako nijedan profiler nije zadat, pa se uz propusnost i
+ * percentile latencije uvek vidi i stopa alokacije po operaciji.
+ *
+ * @author DjuroPopara6271
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder opcije = new OptionsBuilder().parent(cli);
+        if (cli.getProfilers().isEmpty()) {
+            opcije.addProfiler(GCProfiler.class);
+        }
+        new Runner(opcije.build()).run();
+    }
+}
@@ -0,0 +1,55 @@
+package benchmark;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * H2 zamena za MySQL okidače {@code rezervacija_brojac_*} iz migracije
+ * {@value database.Migracije#VERZIJA_BROJACA}: održava {@code rezervacija_brojac}
+ * pri svakom unosu, izmeni i brisanju rezervacije.
+ *
+ * @author DjuroPopara6271
+ */
+public class BrojacOkidac implements Trigger {
+
+    /** Kolone tabele {@code rezervacija} u redu koji okidač dobija. */
+    private static final int KORISNIK = 1;
+    private static final int OPREMA = 2;
+    private static final int KOLICINA = 5;
+
+    private static final String SQL_UVECAJ =
+            "INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) VALUES ('K', ?, 1, ?), ('O', ?, 1, ?) " +
+                    "ON DUPLICATE KEY UPDATE broj = broj + VALUES(broj), kolicina = kolicina + VALUES(kolicina)";
+
+    private static final String SQL_UMANJI =
+            "UPDATE rezervacija_brojac SET broj = broj - 1, kolicina = kolicina - ? " +
+                    "WHERE (dimenzija = 'K' AND kljuc = ?) OR (dimenzija = 'O' AND kljuc = ?)";
+
+    @Override
+    public void fire(Connection connection, Object[] stari, Object[] novi) throws SQLException {
+        if (stari != null && novi != null && stari[KORISNIK].equals(novi[KORISNIK])
+                && stari[OPREMA].equals(novi[OPREMA]) && stari[KOLICINA].equals(novi[KOLICINA])) {
+            return;
+        }
+        if (stari != null) {
+            try (PreparedStatement ps = connection.prepareStatement(SQL_UMANJI)) {
+                ps.setObject(1, stari[KOLICINA]);
+                ps.setObject(2, stari[KORISNIK]);
+                ps.setObject(3, stari[OPREMA]);
+                ps.executeUpdate();
+            }
+        }
+        if (novi != null) {
+            try (PreparedStatement ps = connection.prepareStatement(SQL_UVECAJ)) {
+                ps.setObject(1, novi[KORISNIK]);
+                ps.setObject(2, novi[KOLICINA]);
+                ps.setObject(3, novi[OPREMA]);
+                ps.setObject(4, novi[KOLICINA]);
+                ps.executeUpdate();
+            }
+        }
+    }
+}
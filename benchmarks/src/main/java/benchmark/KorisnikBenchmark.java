@@ -0,0 +1,78 @@
+package benchmark;
+
+import controller.KorisnikController;
+import model.Korisnik;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Čitanje korisnika (iz keša i iz baze) i provera email adrese.
+ *
+ * @author DjuroPopara6271
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KorisnikBenchmark {
+
+    /** Broj korisnika u bazi. */
+    @Param({"100", "10000"})
+    public int brojKorisnika;
+
+    private KorisnikController controller;
+
+    @Setup(Level.Trial)
+    public void pripremi() throws SQLException {
+        BenchmarkBaza.napravi(brojKorisnika, 0);
+        controller = new KorisnikController();
+    }
+
+    @TearDown(Level.Trial)
+    public void zatvori() {
+        BenchmarkBaza.zatvori();
+    }
+
+    @Benchmark
+    public List<Korisnik> getSviKorisnici() {
+        return controller.getSviKorisnici();
+    }
+
+    @Benchmark
+    public List<Korisnik> getSviKorisniciIzBaze() {
+        KorisnikController.ocistiKes();
+        return controller.getSviKorisnici();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean isValidEmail(EmailStanje stanje) {
+        return controller.isValidEmail(stanje.email);
+    }
+
+    /** Zasebno stanje, da parametar adrese ne umnožava benchmark-ove čitanja. */
+    @State(Scope.Benchmark)
+    public static class EmailStanje {
+
+        /** Adresa koja se proverava. */
+        @Param({"korisnik.123@primer.rs", "nije-email"})
+        public String email;
+    }
+}
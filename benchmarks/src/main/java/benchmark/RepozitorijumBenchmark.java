@@ -0,0 +1,77 @@
+package benchmark;
+
+import model.Korisnik;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.InMemoryKorisnikRepository;
+import repository.KorisnikRepository;
+import repository.MySqlKorisnikRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Čitanje korisnika po ID-u direktno iz skladišta, bez keša kontrolera:
+ * JDBC skladište nad bazom i skladište u memoriji.
+ *
+ * @author DjuroPopara6271
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepozitorijumBenchmark {
+
+    /** Motor skladišta. */
+    @Param({"mysql", "memorija"})
+    public String motor;
+
+    /** Broj korisnika u skladištu. */
+    @Param({"10000"})
+    public int brojKorisnika;
+
+    private KorisnikRepository repozitorijum;
+
+    @Setup(Level.Trial)
+    public void pripremi() throws SQLException {
+        if (motor.equals("mysql")) {
+            BenchmarkBaza.napravi(brojKorisnika, 0);
+            repozitorijum = new MySqlKorisnikRepository();
+        } else {
+            repozitorijum = new InMemoryKorisnikRepository();
+            List<Korisnik> korisnici = new ArrayList<>(brojKorisnika);
+            for (int i = 0; i < brojKorisnika; i++) {
+                korisnici.add(new Korisnik("Korisnik " + i, "korisnik" + i + "@primer.rs", "06" + (1_000_000 + i)));
+            }
+            repozitorijum.dodajSve(korisnici);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void zatvori() {
+        if (motor.equals("mysql")) {
+            BenchmarkBaza.zatvori();
+        }
+    }
+
+    @Benchmark
+    public Korisnik getPoId() {
+        return repozitorijum.getPoId(1 + ThreadLocalRandom.current().nextInt(brojKorisnika));
+    }
+}
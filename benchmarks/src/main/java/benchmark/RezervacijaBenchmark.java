@@ -0,0 +1,85 @@
+package benchmark;
+
+import controller.RezervacijaController;
+import model.Agregat;
+import model.Grupisanje;
+import model.Rezervacija;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Čitanje, grupisanje za grafikon i unos rezervacija nad H2 bazom sa
+ * {@code brojRezervacija} redova.
+ *
+ * @author DjuroPopara6271
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RezervacijaBenchmark {
+
+    /** Broj rezervacija u bazi; korisnika ima deset puta manje. */
+    @Param({"1000", "100000"})
+    public int brojRezervacija;
+
+    /** Da li grafikon čita materijalizovane brojače umesto {@code GROUP BY} upita. */
+    @Param({"false", "true"})
+    public boolean brojaci;
+
+    private RezervacijaController controller;
+    private int sledeci;
+
+    @Setup(Level.Trial)
+    public void pripremi() throws SQLException {
+        BenchmarkBaza.napravi(Math.max(10, brojRezervacija / 10), brojRezervacija);
+        if (brojaci) {
+            BenchmarkBaza.ukljuciBrojace();
+        }
+        controller = new RezervacijaController();
+    }
+
+    @TearDown(Level.Trial)
+    public void zatvori() throws SQLException {
+        BenchmarkBaza.zatvori();
+    }
+
+    @Benchmark
+    public List<Rezervacija> getSveRezervacije() {
+        return controller.getSveRezervacije();
+    }
+
+    /** Podaci za {@code GrafikonController}: broj rezervacija po korisniku. */
+    @Benchmark
+    public List<Agregat> grupisanjePoKorisniku() {
+        return controller.getBrojRezervacija(Grupisanje.KORISNIK);
+    }
+
+    @Benchmark
+    public Rezervacija dodajRezervaciju() {
+        int i = sledeci++;
+        LocalDate od = LocalDate.of(2026, 1, 1).plusDays(i % 365);
+        Rezervacija r = new Rezervacija(1 + i % 10, 1 + i % BenchmarkBaza.BROJ_OPREME,
+                od.toString(), od.plusDays(3).toString(), 1, "aktivna");
+        controller.dodajRezervaciju(r);
+        return r;
+    }
+}
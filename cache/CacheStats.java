@@ -0,0 +1,67 @@
+package cache;
+
+/**
+ * Nepromenljivi snimak statistike {@link EntityCache}-a.
+ *
+ * @author DjuroPopara6271
+ */
+public final class CacheStats {
+
+    private final String naziv;
+    private final long pogoci;
+    private final long promasaji;
+    private final long izbaceni;
+    private final long invalidacije;
+    private final int velicina;
+
+    CacheStats(String naziv, long pogoci, long promasaji, long izbaceni, long invalidacije, int velicina) {
+        this.naziv = naziv;
+        this.pogoci = pogoci;
+        this.promasaji = promasaji;
+        this.izbaceni = izbaceni;
+        this.invalidacije = invalidacije;
+        this.velicina = velicina;
+    }
+
+    /** @return ime keša */
+    public String getNaziv() {
+        return naziv;
+    }
+
+    /** @return broj čitanja posluženih iz keša */
+    public long getPogoci() {
+        return pogoci;
+    }
+
+    /** @return broj čitanja koja su išla u bazu */
+    public long getPromasaji() {
+        return promasaji;
+    }
+
+    /** @return broj unosa izbačenih zbog veličine ili starosti */
+    public long getIzbaceni() {
+        return izbaceni;
+    }
+
+    /** @return broj invalidacija posle upisa */
+    public long getInvalidacije() {
+        return invalidacije;
+    }
+
+    /** @return broj entiteta trenutno u kešu */
+    public int getVelicina() {
+        return velicina;
+    }
+
+    /** @return udeo pogodaka u svim čitanjima (0–1) */
+    public double getStopaPogodaka() {
+        long ukupno = pogoci + promasaji;
+        return ukupno == 0 ? 0 : (double) pogoci / ukupno;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: pogoci=%d, promasaji=%d (%.1f%%), izbaceni=%d, invalidacije=%d, velicina=%d",
+                naziv, pogoci, promasaji, getStopaPogodaka() * 100, izbaceni, invalidacije, velicina);
+    }
+}
@@ -0,0 +1,215 @@
+package cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through keš za entitete koji se učitavaju iz baze (korisnici, oprema).
+ * <p>
+ * Keš čuva dve stvari: snimak cele liste (za {@code getSvi*} pozive) sa mapom
+ * po ključu izgrađenom iz tog snimka, i pojedinačne unose učitane po ključu.
+ * Svaki unos zastareva posle {@code ttlMs}, a pojedinačnih unosa ima najviše
+ * {@code maxUnosa} (izbacuje se najdavnije korišćen). Lista duža od
+ * {@code maxUnosa} se ne kešira.
+ * </p>
+ * <p>
+ * Kontroleri pozivaju {@link #invaliduj()} ili {@link #invaliduj(Object)}
+ * posle svakog upisa, pa sledeće čitanje ide u bazu. Učitavanje koje je
+ * počelo pre invalidacije ne upisuje svoj (možda zastareli) rezultat u keš.
+ * </p>
+ * <p>
+ * Entiteti su promenljivi, pa keš čuva kopije učitanih i svakom pozivaocu
+ * vraća novu kopiju; izmena vraćenog objekta ne menja sadržaj keša.
+ * </p>
+ *
+ * @param <K> tip ključa (ID)
+ * @param <V> tip entiteta
+ * @author DjuroPopara6271
+ */
+public class EntityCache<K, V> {
+
+    private final String naziv;
+    private final long ttlMs;
+    private final int maxUnosa;
+    private final Function<V, K> kljucEntiteta;
+    private final UnaryOperator<V> kopija;
+
+    /** Snimak cele liste i mapa po ključu izgrađena iz njega; {@code null} ako nije učitan. */
+    private List<V> lista;
+    private Map<K, V> poKljucu;
+    private long listaUcitana;
+
+    /** Pojedinačno učitani entiteti, od najdavnije ka poslednje korišćenom. */
+    private final LinkedHashMap<K, Unos<V>> pojedinacni = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Povećava se pri svakoj invalidaciji; učitavanje pamti vrednost s početka. */
+    private long generacija;
+
+    private long pogoci;
+    private long promasaji;
+    private long izbaceni;
+    private long invalidacije;
+
+    /**
+     * Kreira keš.
+     *
+     * @param naziv         ime keša za statistiku
+     * @param ttlMs         posle koliko ms unos zastareva
+     * @param maxUnosa      najveći broj pojedinačnih unosa i najduža lista koja se kešira
+     * @param kljucEntiteta vraća ključ (ID) entiteta
+     * @param kopija        pravi nezavisnu kopiju entiteta
+     */
+    public EntityCache(String naziv, long ttlMs, int maxUnosa, Function<V, K> kljucEntiteta, UnaryOperator<V> kopija) {
+        this.naziv = naziv;
+        this.ttlMs = ttlMs;
+        this.maxUnosa = maxUnosa;
+        this.kljucEntiteta = kljucEntiteta;
+        this.kopija = kopija;
+    }
+
+    /**
+     * Vraća sve entitete iz keša ili ih učitava.
+     *
+     * @param ucitavac učitava sve entitete iz baze
+     * @return nova lista kopija (pozivalac može slobodno da menja i listu i entitete)
+     */
+    public List<V> getSve(Supplier<List<V>> ucitavac) {
+        long gen;
+        synchronized (this) {
+            if (lista != null && !istekao(listaUcitana)) {
+                pogoci++;
+                return kopije(lista);
+            }
+            promasaji++;
+            gen = generacija;
+        }
+
+        List<V> ucitana = ucitavac.get();
+
+        synchronized (this) {
+            if (gen == generacija && ucitana.size() <= maxUnosa) {
+                // Učitana lista ide pozivaocu, a keš čuva svoje kopije
+                List<V> snimak = kopije(ucitana);
+                Map<K, V> mapa = new HashMap<>(snimak.size() * 4 / 3 + 1);
+                for (V v : snimak) {
+                    mapa.put(kljucEntiteta.apply(v), v);
+                }
+                lista = Collections.unmodifiableList(snimak);
+                poKljucu = mapa;
+                listaUcitana = System.currentTimeMillis();
+            }
+        }
+        return new ArrayList<>(ucitana);
+    }
+
+    /**
+     * Vraća entitet po ključu iz keša ili ga učitava.
+     *
+     * @param kljuc    ključ (ID)
+     * @param ucitavac učitava jedan entitet iz baze; može vratiti {@code null}
+     * @return kopija entiteta ili {@code null} ako ne postoji
+     */
+    public V get(K kljuc, Function<K, V> ucitavac) {
+        long gen;
+        synchronized (this) {
+            if (lista != null && !istekao(listaUcitana) && poKljucu.containsKey(kljuc)) {
+                pogoci++;
+                V v = poKljucu.get(kljuc);
+                return v == null ? null : kopija.apply(v);
+            }
+            Unos<V> unos = pojedinacni.get(kljuc);
+            if (unos != null) {
+                if (!istekao(unos.ucitan)) {
+                    pogoci++;
+                    return kopija.apply(unos.vrednost);
+                }
+                pojedinacni.remove(kljuc);
+                izbaceni++;
+            }
+            promasaji++;
+            gen = generacija;
+        }
+
+        V vrednost = ucitavac.apply(kljuc);
+
+        synchronized (this) {
+            if (gen == generacija && vrednost != null) {
+                pojedinacni.put(kljuc, new Unos<>(kopija.apply(vrednost), System.currentTimeMillis()));
+                izbaciVisak();
+            }
+        }
+        return vrednost;
+    }
+
+    /** Briše ceo sadržaj keša; poziva se posle upisa koji može da promeni bilo koji entitet. */
+    public synchronized void invaliduj() {
+        generacija++;
+        invalidacije++;
+        lista = null;
+        poKljucu = null;
+        pojedinacni.clear();
+    }
+
+    /**
+     * Briše jedan entitet i snimak liste; poziva se posle upisa nad poznatim ključem.
+     *
+     * @param kljuc ključ (ID) izmenjenog entiteta
+     */
+    public synchronized void invaliduj(K kljuc) {
+        generacija++;
+        invalidacije++;
+        lista = null;
+        poKljucu = null;
+        pojedinacni.remove(kljuc);
+    }
+
+    /**
+     * Vraća statistiku keša.
+     *
+     * @return snimak brojača
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(naziv, pogoci, promasaji, izbaceni, invalidacije,
+                pojedinacni.size() + (lista == null ? 0 : lista.size()));
+    }
+
+    private List<V> kopije(List<V> entiteti) {
+        List<V> rezultat = new ArrayList<>(entiteti.size());
+        for (V v : entiteti) {
+            rezultat.add(kopija.apply(v));
+        }
+        return rezultat;
+    }
+
+    private boolean istekao(long ucitan) {
+        return System.currentTimeMillis() - ucitan >= ttlMs;
+    }
+
+    private void izbaciVisak() {
+        Iterator<Unos<V>> it = pojedinacni.values().iterator();
+        while (pojedinacni.size() > maxUnosa && it.hasNext()) {
+            it.next();
+            it.remove();
+            izbaceni++;
+        }
+    }
+
+    /** Pojedinačno učitan entitet sa vremenom učitavanja. */
+    private static final class Unos<V> {
+        private final V vrednost;
+        private final long ucitan;
+
+        Unos(V vrednost, long ucitan) {
+            this.vrednost = vrednost;
+            this.ucitan = ucitan;
+        }
+    }
+}
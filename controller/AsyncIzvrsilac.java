@@ -0,0 +1,68 @@
+package controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Zajednički izvršilac za asinhrone varijante metoda kontrolera.
+ * <p>
+ * Svaki zadatak dobija sopstvenu virtuelnu nit (Java 21+), pa blokirajući
+ * JDBC pozivi ne zauzimaju niti platforme. Na starijim JVM-ovima koristi se
+ * keširani pul daemon niti. Broj istovremenih upita ka bazi ionako ograničava
+ * {@link database.ConnectionPool}.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class AsyncIzvrsilac {
+
+    private static final ExecutorService IZVRSILAC = napravi();
+
+    private AsyncIzvrsilac() {
+    }
+
+    /**
+     * Pokreće zadatak u pozadini.
+     *
+     * @param zadatak zadatak koji vraća rezultat
+     * @param <T>     tip rezultata
+     * @return future koji se završava rezultatom zadatka ili njegovim izuzetkom
+     */
+    public static <T> CompletableFuture<T> izvrsi(Supplier<T> zadatak) {
+        return CompletableFuture.supplyAsync(zadatak, IZVRSILAC);
+    }
+
+    /**
+     * Pokreće zadatak bez rezultata u pozadini.
+     *
+     * @param zadatak zadatak
+     * @return future koji se završava kada se zadatak završi
+     */
+    public static CompletableFuture<Void> pokreni(Runnable zadatak) {
+        return CompletableFuture.runAsync(zadatak, IZVRSILAC);
+    }
+
+    /** @return izvršilac na kome se izvršavaju asinhroni pozivi */
+    public static ExecutorService getIzvrsilac() {
+        return IZVRSILAC;
+    }
+
+    private static ExecutorService napravi() {
+        try {
+            // Executors.newVirtualThreadPerTaskExecutor() postoji od Jave 21
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger broj = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "async-" + broj.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+}
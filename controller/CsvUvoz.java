@@ -0,0 +1,184 @@
+package controller;
+
+import database.DatabaseConnection;
+import model.Rezervacija;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Uvoz korisnika, opreme ili rezervacija iz CSV fajla preko grupnog unosa kontrolera.
+ * <p>
+ * Prva linija fajla je zaglavlje i preskače se. Polja su razdvojena zarezom, a
+ * polje pod navodnicima može da sadrži zarez ili udvojeni navodnik ({@code ""}).
+ * Očekivane kolone:
+ * </p>
+ * <ul>
+ *     <li>{@code korisnici}: ime, email, telefon</li>
+ *     <li>{@code oprema}: naziv, tip_id, dostupnost, cena, kolicina, lokacija</li>
+ *     <li>{@code rezervacije}: korisnik_id, oprema_id, datum_rezervacije, datum_vracanja, kolicina, status</li>
+ * </ul>
+ * <p>
+ * Greške (neispravna linija ili odbijen unos u bazi) prijavljuju se sa brojem linije u fajlu.
+ * Korisnike uvozi {@link UvozKorisnika}, koji ih još i normalizuje i odbija ponovljene email adrese.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class CsvUvoz {
+
+    private CsvUvoz() {
+    }
+
+    /**
+     * Pokretanje iz komandne linije: {@code CsvUvoz <korisnici|oprema|rezervacije> <fajl.csv>}.
+     *
+     * @param args vrsta podataka i putanja do fajla
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Upotreba: CsvUvoz <korisnici|oprema|rezervacije> <fajl.csv>");
+            System.exit(2);
+        }
+        try {
+            RezultatUnosa rezultat = uvezi(args[0], Paths.get(args[1]));
+            System.out.println("Upisano " + rezultat.getBrojUspesnih() + " od "
+                    + (rezultat.getBrojUspesnih() + rezultat.getGreske().size()) + " redova.");
+            for (RezultatUnosa.Greska g : rezultat.getGreske()) {
+                System.err.println("Linija " + g.getRed() + ": " + g.getPoruka());
+            }
+        } catch (IOException | SQLException | IllegalArgumentException e) {
+            System.err.println("Greška pri uvozu: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.zatvori();
+        }
+    }
+
+    /**
+     * Uvozi fajl zadate vrste.
+     *
+     * @param vrsta {@code korisnici}, {@code oprema} ili {@code rezervacije}
+     * @param fajl  CSV fajl (UTF-8)
+     * @return rezultat; {@link RezultatUnosa.Greska#getRed()} je broj linije u fajlu
+     * @throws IOException              ako fajl ne može da se pročita
+     * @throws SQLException             ako {@link UvozKorisnika} ne može da pročita postojeće email adrese
+     * @throws IllegalArgumentException za nepoznatu vrstu
+     */
+    public static RezultatUnosa uvezi(String vrsta, Path fajl) throws IOException, SQLException {
+        switch (vrsta) {
+            case "korisnici":
+                return new UvozKorisnika().uvezi(fajl);
+            case "oprema":
+                return uvezi(fajl, 6, CsvUvoz::oprema, r -> new SportskaOpremaController().dodajOpremu(r));
+            case "rezervacije":
+                return uvezi(fajl, 6, CsvUvoz::rezervacija, r -> new RezervacijaController().dodajRezervacije(r));
+            default:
+                throw new IllegalArgumentException("Nepoznata vrsta podataka: " + vrsta);
+        }
+    }
+
+    private static <T> RezultatUnosa uvezi(Path fajl, int brojKolona, Function<List<String>, T> mapiraj,
+                                           Function<List<T>, RezultatUnosa> unos) throws IOException {
+        List<T> redovi = new ArrayList<>();
+        List<Integer> linijeRedova = new ArrayList<>();
+        List<RezultatUnosa.Greska> greske = new ArrayList<>();
+
+        try (BufferedReader reader = Files.newBufferedReader(fajl, StandardCharsets.UTF_8)) {
+            reader.readLine(); // zaglavlje
+            String linija;
+            int broj = 1;
+            while ((linija = reader.readLine()) != null) {
+                broj++;
+                if (linija.isBlank()) {
+                    continue;
+                }
+                try {
+                    List<String> polja = podeli(linija);
+                    if (polja.size() != brojKolona) {
+                        throw new IllegalArgumentException("očekivano " + brojKolona + " kolona, pronađeno " + polja.size());
+                    }
+                    redovi.add(mapiraj.apply(polja));
+                    linijeRedova.add(broj);
+                } catch (IllegalArgumentException e) {
+                    greske.add(new RezultatUnosa.Greska(broj, e.getMessage()));
+                }
+            }
+        }
+
+        RezultatUnosa rezultat = unos.apply(redovi);
+        for (RezultatUnosa.Greska g : rezultat.getGreske()) {
+            greske.add(new RezultatUnosa.Greska(linijeRedova.get(g.getRed()), g.getPoruka()));
+        }
+        greske.sort((a, b) -> Integer.compare(a.getRed(), b.getRed()));
+        return new RezultatUnosa(rezultat.getGenerisaniId(), greske);
+    }
+
+    private static SportskaOprema oprema(List<String> p) {
+        return new SportskaOprema(0, p.get(0), Integer.parseInt(p.get(1)), logicka(p.get(2)),
+                Double.parseDouble(p.get(3)), Integer.parseInt(p.get(4)), p.get(5));
+    }
+
+    private static Rezervacija rezervacija(List<String> p) {
+        // Datumi se proveravaju već ovde, da greška nosi broj linije
+        java.sql.Date.valueOf(p.get(2));
+        java.sql.Date.valueOf(p.get(3));
+        String status = p.get(5).isEmpty() ? null : p.get(5);
+        return new Rezervacija(Integer.parseInt(p.get(0)), Integer.parseInt(p.get(1)),
+                p.get(2), p.get(3), Integer.parseInt(p.get(4)), status);
+    }
+
+    private static boolean logicka(String s) {
+        if (s.equalsIgnoreCase("true") || s.equals("1") || s.equalsIgnoreCase("da")) {
+            return true;
+        }
+        if (s.equalsIgnoreCase("false") || s.equals("0") || s.equalsIgnoreCase("ne")) {
+            return false;
+        }
+        throw new IllegalArgumentException("neispravna dostupnost: " + s);
+    }
+
+    /** Deli liniju na polja, uz podršku za polja pod navodnicima. */
+    static List<String> podeli(String linija) {
+        List<String> polja = new ArrayList<>();
+        StringBuilder polje = new StringBuilder();
+        boolean uNavodnicima = false;
+        for (int i = 0; i < linija.length(); i++) {
+            char c = linija.charAt(i);
+            if (uNavodnicima) {
+                if (c == '"') {
+                    if (i + 1 < linija.length() && linija.charAt(i + 1) == '"') {
+                        polje.append('"');
+                        i++;
+                    } else {
+                        uNavodnicima = false;
+                    }
+                } else {
+                    polje.append(c);
+                }
+            } else if (c == '"') {
+                uNavodnicima = true;
+            } else if (c == ',') {
+                polja.add(polje.toString().trim());
+                polje.setLength(0);
+            } else {
+                polje.append(c);
+            }
+        }
+        if (uNavodnicima) {
+            throw new IllegalArgumentException("nezatvoreni navodnici");
+        }
+        polja.add(polje.toString().trim());
+        return polja;
+    }
+}
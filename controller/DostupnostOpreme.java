@@ -0,0 +1,231 @@
+package controller;
+
+import index.IntervalMaxTree;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.SportskaOprema;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Zauzetost opreme po danima, za proveru dostupnosti u zadatom periodu.
+ * <p>
+ * Za svaku opremu čuva se {@link IntervalMaxTree} sa rezervisanom količinom
+ * po danu, pa se najveća zauzetost u periodu dobija u logaritamskom vremenu.
+ * Zauzeće prave samo aktivne rezervacije, u periodu
+ * {@code [datumRezervacije, datumVracanja)}: na dan vraćanja oprema je ponovo
+ * slobodna za novu rezervaciju.
+ * </p>
+ * <p>
+ * Podaci se učitavaju jednom, pri prvom pozivu {@link #getInstance()}, a zatim
+ * se održavaju preko {@link RezervacijaListener} događaja iz {@link RezervacijaController}-a.
+ * Brisanja i izmene koji stignu dok učitavanje traje pamte se do njegovog
+ * kraja ({@link PocetnoUcitavanje}), pa obrisana rezervacija ne ostaje u zauzeću.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class DostupnostOpreme implements RezervacijaListener {
+
+    private static volatile DostupnostOpreme instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** ID opreme → rezervisana količina po danu. */
+    private final Map<Integer, IntervalMaxTree> zauzetost = new HashMap<>();
+
+    /** ID rezervacije → period i količina koje je dodala, da bi izmena i brisanje mogli da ih oduzmu. */
+    private final Map<Integer, Zauzece> zauzeca = new HashMap<>();
+
+    private final PocetnoUcitavanje ucitavanje = new PocetnoUcitavanje();
+
+    private DostupnostOpreme() {
+    }
+
+    /**
+     * Vraća zajedničku instancu; pri prvom pozivu učitava aktivne rezervacije iz baze.
+     *
+     * @return dostupnost opreme
+     * @throws IllegalStateException ako čitanje iz baze nije uspelo; sledeći poziv pokušava ponovo
+     */
+    public static DostupnostOpreme getInstance() {
+        DostupnostOpreme d = instance;
+        if (d == null) {
+            synchronized (DostupnostOpreme.class) {
+                d = instance;
+                if (d == null) {
+                    d = new DostupnostOpreme();
+                    // Listener se registruje pre učitavanja da se ne izgubi izmena u međuvremenu
+                    RezervacijaController.dodajListener(d);
+                    RezervacijaFilter aktivne = new RezervacijaFilter();
+                    aktivne.setStatus("aktivna");
+                    if (!d.ucitavanje.ucitaj(aktivne, d::rezervacijaDodata)) {
+                        RezervacijaController.ukloniListener(d);
+                        throw new IllegalStateException("Dostupnost opreme nije učitana: čitanje rezervacija nije uspelo.");
+                    }
+                    instance = d;
+                }
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Učitava dostupnost u pozadini, ako već nije učitana.
+     *
+     * @return future sa instancom
+     */
+    public static CompletableFuture<DostupnostOpreme> getInstanceAsync() {
+        DostupnostOpreme d = instance;
+        return d != null ? CompletableFuture.completedFuture(d) : AsyncIzvrsilac.izvrsi(DostupnostOpreme::getInstance);
+    }
+
+    /**
+     * Vraća najveću količinu opreme rezervisanu za neki dan iz {@code [od, doDatuma)}.
+     *
+     * @param opremaId ID opreme
+     * @param od       prvi dan perioda
+     * @param doDatuma dan vraćanja (ne ulazi u period)
+     * @return najveća rezervisana količina u periodu
+     */
+    public int getMaxRezervisano(int opremaId, LocalDate od, LocalDate doDatuma) {
+        int prvi = dan(od);
+        int posle = dan(doDatuma);
+        lock.readLock().lock();
+        try {
+            IntervalMaxTree stablo = zauzetost.get(opremaId);
+            return stablo == null ? 0 : stablo.max(prvi, posle);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća količinu opreme koja je slobodna svakog dana u {@code [od, doDatuma)}.
+     *
+     * @param oprema   oprema; {@link SportskaOprema#getKolicina()} je ukupna količina
+     * @param od       prvi dan perioda
+     * @param doDatuma dan vraćanja (ne ulazi u period)
+     * @return slobodna količina, najmanje {@code 0}
+     */
+    public int getSlobodnaKolicina(SportskaOprema oprema, LocalDate od, LocalDate doDatuma) {
+        return Math.max(0, oprema.getKolicina() - getMaxRezervisano(oprema.getId(), od, doDatuma));
+    }
+
+    /**
+     * Vraća količinu opreme koja je slobodna svakog dana u {@code [od, doDatuma)}.
+     *
+     * @param opremaId ID opreme
+     * @param od       prvi dan perioda
+     * @param doDatuma dan vraćanja (ne ulazi u period)
+     * @return slobodna količina, {@code 0} ako oprema ne postoji
+     */
+    public int getSlobodnaKolicina(int opremaId, LocalDate od, LocalDate doDatuma) {
+        SportskaOprema oprema = new SportskaOpremaController().getOprema(opremaId);
+        return oprema == null ? 0 : getSlobodnaKolicina(oprema, od, doDatuma);
+    }
+
+    /**
+     * Asinhrona varijanta {@link #getSlobodnaKolicina(SportskaOprema, LocalDate, LocalDate)};
+     * pri prvom pozivu učitava podatke u pozadini.
+     *
+     * @param oprema   oprema
+     * @param od       prvi dan perioda
+     * @param doDatuma dan vraćanja (ne ulazi u period)
+     * @return future sa slobodnom količinom
+     */
+    public static CompletableFuture<Integer> getSlobodnaKolicinaAsync(SportskaOprema oprema, LocalDate od, LocalDate doDatuma) {
+        return getInstanceAsync().thenApply(d -> d.getSlobodnaKolicina(oprema, od, doDatuma));
+    }
+
+    @Override
+    public void rezervacijaDodata(Rezervacija r) {
+        if (r.getStatus() != null && !"aktivna".equals(r.getStatus())) {
+            return;
+        }
+        Zauzece z = new Zauzece(r.getOpremaId(), dan(r.getDatumRezervacije()), dan(r.getDatumVracanja()), r.getKolicina());
+        lock.writeLock().lock();
+        try {
+            Zauzece staro = zauzeca.put(r.getId(), z);
+            if (staro != null) {
+                primeni(staro, -1);
+            }
+            primeni(z, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void rezervacijaAzurirana(int id, String noviDatumVracanja) {
+        ucitavanje.azurirana(id, noviDatumVracanja, () -> azuriraj(id, noviDatumVracanja));
+    }
+
+    @Override
+    public void rezervacijaObrisana(int id) {
+        ucitavanje.obrisana(id, this::obrisi);
+    }
+
+    private void azuriraj(int id, String noviDatumVracanja) {
+        int posle = dan(noviDatumVracanja);
+        lock.writeLock().lock();
+        try {
+            Zauzece staro = zauzeca.get(id);
+            if (staro != null) {
+                Zauzece novo = new Zauzece(staro.opremaId, staro.od, posle, staro.kolicina);
+                primeni(staro, -1);
+                primeni(novo, 1);
+                zauzeca.put(id, novo);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void obrisi(int id) {
+        lock.writeLock().lock();
+        try {
+            Zauzece staro = zauzeca.remove(id);
+            if (staro != null) {
+                primeni(staro, -1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void primeni(Zauzece z, int znak) {
+        if (z.od < z.posle) {
+            zauzetost.computeIfAbsent(z.opremaId, k -> new IntervalMaxTree()).dodaj(z.od, z.posle, znak * z.kolicina);
+        }
+    }
+
+    private static int dan(String datum) {
+        return dan(LocalDate.parse(datum));
+    }
+
+    private static int dan(LocalDate datum) {
+        long dan = datum.toEpochDay();
+        return (int) Math.max(0, Math.min(IntervalMaxTree.BROJ_DANA, dan));
+    }
+
+    /** Period i količina jedne aktivne rezervacije. */
+    private static final class Zauzece {
+        final int opremaId;
+        final int od;
+        final int posle;
+        final int kolicina;
+
+        Zauzece(int opremaId, int od, int posle, int kolicina) {
+            this.opremaId = opremaId;
+            this.od = od;
+            this.posle = posle;
+            this.kolicina = kolicina;
+        }
+    }
+}
@@ -1,64 +1,121 @@
 package controller;
 
-import database.DatabaseConnection;
+import cache.CacheStats;
+import cache.EntityCache;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
 import model.Korisnik;
+import model.RezultatUnosa;
+import repository.KorisnikRepository;
+import repository.Repozitorijumi;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
 
 /**
  * Klasa koja upravlja korisnicima u sistemu, omogućavajući dodavanje,
  * ažuriranje, brisanje i preuzimanje podataka iz baze.
+ * Podacima pristupa preko {@link KorisnikRepository}-ja, pa ne zavisi od motora skladišta.
  * 
  * @author [DjuroPopara/6271
  */
 public class KorisnikController {
 
+    private static final Logger LOG = Logging.logger("korisnici");
+
+    /** Ispravan email; prevodi se jednom, a ne pri svakoj proveri kao kod {@code String.matches}. */
+    static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+
+    /** Najmanja dužina broja telefona. */
+    public static final int MIN_DUZINA_TELEFONA = 9;
+
+    /**
+     * Keš korisnika zajednički za sve instance kontrolera. Unosi zastarevaju
+     * posle 30 s, pa izmene sa drugih računara postaju vidljive najkasnije tada.
+     */
+    private static final EntityCache<Integer, Korisnik> KES =
+            new EntityCache<>("korisnici", 30_000, 10_000, Korisnik::getId, Korisnik::new);
+
+    private final KorisnikRepository repozitorijum;
+
+    /**
+     * Kontroler nad skladištem izabranim u {@link Repozitorijumi}.
+     */
+    public KorisnikController() {
+        this(Repozitorijumi.korisnici());
+    }
+
+    /**
+     * Kontroler nad zadatim skladištem korisnika.
+     *
+     * @param repozitorijum skladište korisnika
+     */
+    public KorisnikController(KorisnikRepository repozitorijum) {
+        this.repozitorijum = repozitorijum;
+    }
+
     /**
      * Dodaje novog korisnika u bazu podataka.
      * 
      * @param korisnik Objekat korisnika koji se dodaje
      */
     public void dodajKorisnika(Korisnik korisnik) {
-        String sql = "INSERT INTO korisnik (ime, email, telefon) VALUES (?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, korisnik.getIme());
-            preparedStatement.setString(2, korisnik.getEmail());
-            preparedStatement.setString(3, korisnik.getTelefon());
-            preparedStatement.executeUpdate();
-            System.out.println("Korisnik uspešno dodat u bazu.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri dodavanju korisnika: " + e.getMessage());
+        if (repozitorijum.dodaj(korisnik)) {
+            KES.invaliduj();
+            LOG.info("dodaj", korisnik.getId(), "Korisnik uspešno dodat u bazu.");
         }
     }
 
     /**
-     * Dohvata sve korisnike iz baze podataka.
+     * Grupno dodaje korisnike; kod MySQL skladišta JDBC batch-om, u transakcijama
+     * od po 500 redova. Upisanim korisnicima se postavlja ID.
+     *
+     * @param korisnici korisnici za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    public RezultatUnosa dodajKorisnike(List<Korisnik> korisnici) {
+        RezultatUnosa rezultat = repozitorijum.dodajSve(korisnici);
+        KES.invaliduj();
+        LOG.info("dodajSve", LogEvent.BEZ_ID, "Grupni unos korisnika: " + rezultat);
+        return rezultat;
+    }
+
+    /**
+     * Dohvata sve korisnike, iz keša ili iz baze podataka.
      * 
      * @return Lista svih korisnika iz baze
      */
     public List<Korisnik> getSviKorisnici() {
-        List<Korisnik> korisnici = new ArrayList<>();
-        String sql = "SELECT * FROM korisnik";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
-            while (resultSet.next()) {
-                int id = resultSet.getInt("id");
-                String ime = resultSet.getString("ime");
-                String email = resultSet.getString("email");
-                String telefon = resultSet.getString("telefon");
-                korisnici.add(new Korisnik(id, ime, email, telefon));
-            }
-        } catch (SQLException e) {
-            System.err.println("Greška pri čitanju korisnika: " + e.getMessage());
-        }
-        return korisnici;
+        return KES.getSve(repozitorijum::getSve);
+    }
+
+    /**
+     * Dohvata korisnika po ID-u, iz keša ili iz baze podataka.
+     *
+     * @param id ID korisnika
+     * @return korisnik ili {@code null} ako ne postoji
+     */
+    public Korisnik getKorisnik(int id) {
+        return KES.get(id, repozitorijum::getPoId);
+    }
+
+    /**
+     * Prazni keš korisnika, pa sledeće čitanje ide u bazu.
+     */
+    public static void ocistiKes() {
+        KES.invaliduj();
+    }
+
+    /**
+     * Vraća statistiku keša korisnika (pogoci, promašaji, izbacivanja).
+     *
+     * @return snimak statistike keša
+     */
+    public static CacheStats getStatistikaKesa() {
+        return KES.getStats();
     }
 
     /**
@@ -66,35 +123,31 @@ public class KorisnikController {
      * 
      * @param korisnik Objekat korisnika koji se ažurira
      * @param noviTelefon Novi broj telefona korisnika
+     * @return broj izmenjenih redova, ili {@code -1} ako izmena nije uspela
      */
-    public void azurirajKorisnika(Korisnik korisnik, String noviTelefon) {
-        String sql = "UPDATE korisnik SET telefon = ? WHERE email = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, noviTelefon);
-            preparedStatement.setString(2, korisnik.getEmail());
-            preparedStatement.executeUpdate();
-            System.out.println("Korisnik uspešno ažuriran.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri ažuriranju korisnika: " + e.getMessage());
+    public int azurirajKorisnika(Korisnik korisnik, String noviTelefon) {
+        int izmenjeno = repozitorijum.azurirajTelefon(korisnik.getEmail(), noviTelefon);
+        if (izmenjeno >= 0) {
+            // Izmena je po email-u, pa se ID ne zna pouzdano
+            KES.invaliduj();
+            LOG.info("azurirajTelefon", LogEvent.BEZ_ID, "Korisnik uspešno ažuriran.");
         }
+        return izmenjeno;
     }
 
     /**
      * Briše korisnika iz baze podataka na osnovu email adrese.
      * 
      * @param email Email korisnika koji se briše
+     * @return broj obrisanih redova, ili {@code -1} ako brisanje nije uspelo
      */
-    public void obrisiKorisnika(String email) {
-        String sql = "DELETE FROM korisnik WHERE email = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, email);
-            preparedStatement.executeUpdate();
-            System.out.println("Korisnik uspešno obrisan.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri brisanju korisnika: " + e.getMessage());
+    public int obrisiKorisnika(String email) {
+        int obrisano = repozitorijum.obrisiPoEmailu(email);
+        if (obrisano >= 0) {
+            KES.invaliduj();
+            LOG.info("obrisiPoEmailu", LogEvent.BEZ_ID, "Korisnik uspešno obrisan.");
         }
+        return obrisano;
     }
 
     /**
@@ -104,29 +157,34 @@ public class KorisnikController {
      */
     public void dodajKorisnika2(Korisnik korisnik) {
         if (!isValidEmail(korisnik.getEmail())) {
-            System.err.println("Nevalidan email format: " + korisnik.getEmail());
+            LOG.upozorenje("dodaj", LogEvent.BEZ_ID, "Nevalidan email format: " + korisnik.getEmail());
             return;
         }
-        if (korisnik.getTelefon().length() < 9) {
-            System.err.println("Nevalidan broj telefona: " + korisnik.getTelefon());
+        if (korisnik.getTelefon().length() < MIN_DUZINA_TELEFONA) {
+            LOG.upozorenje("dodaj", LogEvent.BEZ_ID, "Nevalidan broj telefona: " + korisnik.getTelefon());
             return;
         }
 
-        String sql = "INSERT INTO korisnik (ime, email, telefon) VALUES (?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, korisnik.getIme());
-            preparedStatement.setString(2, korisnik.getEmail());
-            preparedStatement.setString(3, korisnik.getTelefon());
-            preparedStatement.executeUpdate();
-            System.out.println("Korisnik uspešno dodat u bazu.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri dodavanju korisnika: " + e.getMessage());
-        }
-
-
+        dodajKorisnika(korisnik);
+    }
 
+    /**
+     * Email adrese svih korisnika, direktno iz skladišta (bez keša i ostalih kolona).
+     *
+     * @return email adrese
+     * @throws SQLException ako čitanje nije uspelo
+     */
+    public List<String> getEmailove() throws SQLException {
+        return repozitorijum.getEmailove();
+    }
 
+    /**
+     * Asinhrona varijanta {@link #getSviKorisnici()}, izvršava se van pozivajuće niti.
+     *
+     * @return future sa listom svih korisnika
+     */
+    public CompletableFuture<List<Korisnik>> getSviKorisniciAsync() {
+        return AsyncIzvrsilac.izvrsi(this::getSviKorisnici);
     }
 
     /**
@@ -136,7 +194,7 @@ public class KorisnikController {
      * @return true ako je email validan, false ako nije
      */
     public boolean isValidEmail(String email) {
-        return email.matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+$");
+        return email != null && EMAIL.matcher(email).matches();
     }
 }
 
@@ -0,0 +1,350 @@
+package controller;
+
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import model.IzmenaRezervacije;
+import repository.RezervacijaRepository;
+import repository.Repozitorijumi;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Odloženi upis (write-behind) izmena i brisanja rezervacija.
+ * <p>
+ * Kada je uključen, {@link RezervacijaController#azurirajRezervaciju} i
+ * {@link RezervacijaController#obrisiRezervaciju} ne idu odmah u bazu, već u red
+ * po ID-u rezervacije. Nova izmena rezervacije koja već čeka zamenjuje prethodnu
+ * (brisanje zamenjuje i promenu datuma), pa se nekoliko uzastopnih promena
+ * datuma upisuje kao jedna. Promena datuma iza brisanja koje čeka se odbija. Pozadinska nit upisuje red u grupama od najviše
+ * {@value #VELICINA_GRUPE} izmena, svaku jednom transakcijom
+ * ({@link RezervacijaRepository#primeniIzmene}).
+ * </p>
+ * <p>
+ * Izmena ne čeka duže od zadatog odlaganja: grupa se upisuje kada najstarija
+ * izmena u redu dostigne odlaganje ili kada se red napuni. Listeneri se obaveštavaju
+ * tek posle potvrde, a tada se završava i future koji je vratio
+ * {@link #azuriraj}/{@link #obrisi}, sa brojem izmenjenih redova, odnosno
+ * izuzetkom ako upis nije uspeo. Produženje za koje nema dovoljno opreme nije
+ * greška upisa: future dobija {@link RezervacijaRepository#NEDOVOLJNO_OPREME}. Do tada čitanja iz baze vide staru vrednost.
+ * </p>
+ * <p>
+ * Uključuje se svojstvom {@code -Dupis.odlaganje=<ms>}; {@link #zaustavi()} upisuje
+ * sve što čeka i poziva se pri gašenju aplikacije.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class OdlozeniUpis {
+
+    /** Sistemsko svojstvo sa najdužim odlaganjem upisa u milisekundama; 0 ili bez njega upisuje odmah. */
+    public static final String SVOJSTVO_ODLAGANJE = "upis.odlaganje";
+
+    /** Najveći broj izmena u jednoj transakciji. */
+    static final int VELICINA_GRUPE = 500;
+
+    private static final Logger LOG = Logging.logger("rezervacije");
+
+    private static volatile OdlozeniUpis aktivan;
+
+    private final RezervacijaRepository repozitorijum;
+
+    private final long odlaganjeNanos;
+
+    /** Izmene koje čekaju, po ID-u rezervacije, redom kojim su prvi put dodate. Čuva ga {@code this}. */
+    private final LinkedHashMap<Integer, Stavka> red = new LinkedHashMap<>();
+
+    private final Thread nit;
+
+    /** Da li je zatraženo zaustavljanje, posle kog nit upisuje ostatak reda i završava. */
+    private boolean zaustavljen;
+
+    /** Da li je nit završila; izmene posle toga se upisuju odmah. */
+    private boolean zavrsen;
+
+    /** Izmena jedne rezervacije sa svima koji čekaju njen upis. */
+    private static final class Stavka {
+        private IzmenaRezervacije izmena;
+        /** Kada je prva izmena dodata u red; spajanje je ne pomera, pa odlaganje ostaje ograničeno. */
+        private final long dodata = System.nanoTime();
+        private final List<CompletableFuture<Integer>> cekaju = new ArrayList<>(1);
+
+        private Stavka(IzmenaRezervacije izmena) {
+            this.izmena = izmena;
+        }
+    }
+
+    private OdlozeniUpis(RezervacijaRepository repozitorijum, long odlaganjeMs) {
+        this.repozitorijum = repozitorijum;
+        this.odlaganjeNanos = TimeUnit.MILLISECONDS.toNanos(odlaganjeMs);
+        this.nit = new Thread(this::radi, "odlozeni-upis");
+        nit.setDaemon(true);
+    }
+
+    /**
+     * Uključuje odloženi upis nad skladištem izabranim u {@link Repozitorijumi}.
+     * Ako je već uključen, prethodni red se prvo upisuje.
+     *
+     * @param odlaganjeMs najduže vreme koje izmena čeka na upis, u milisekundama
+     */
+    public static synchronized void ukljuci(long odlaganjeMs) {
+        if (odlaganjeMs <= 0) {
+            throw new IllegalArgumentException("Odlaganje mora biti pozitivno: " + odlaganjeMs);
+        }
+        zaustavi();
+        OdlozeniUpis upis = new OdlozeniUpis(Repozitorijumi.rezervacije(), odlaganjeMs);
+        upis.nit.start();
+        aktivan = upis;
+        LOG.info("Odloženi upis izmena rezervacija uključen, odlaganje " + odlaganjeMs + " ms.");
+    }
+
+    /**
+     * Uključuje odloženi upis ako je zadat svojstvom {@code -Dupis.odlaganje=<ms>}.
+     */
+    public static void ukljuciIzSvojstva() {
+        long odlaganje = Long.getLong(SVOJSTVO_ODLAGANJE, 0);
+        if (odlaganje > 0) {
+            ukljuci(odlaganje);
+        }
+    }
+
+    /**
+     * Isključuje odloženi upis i čeka da se upiše sve što je u redu.
+     * Izmene posle ovog poziva idu direktno u skladište.
+     *
+     * @return {@code true} ako je odloženi upis bio uključen
+     */
+    public static synchronized boolean zaustavi() {
+        OdlozeniUpis upis = aktivan;
+        if (upis == null) {
+            return false;
+        }
+        aktivan = null;
+        synchronized (upis) {
+            upis.zaustavljen = true;
+            upis.notifyAll();
+        }
+        boolean prekinut = false;
+        while (upis.nit.isAlive()) {
+            try {
+                upis.nit.join();
+            } catch (InterruptedException e) {
+                prekinut = true;
+            }
+        }
+        if (prekinut) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    /** @return {@code true} ako je odloženi upis uključen */
+    public static boolean isUkljucen() {
+        return aktivan != null;
+    }
+
+    /**
+     * @param repozitorijum skladište kontrolera
+     * @return odloženi upis nad tim skladištem, ili {@code null} ako ga nema
+     */
+    static OdlozeniUpis za(RezervacijaRepository repozitorijum) {
+        OdlozeniUpis upis = aktivan;
+        return upis != null && upis.repozitorijum == repozitorijum ? upis : null;
+    }
+
+    /** @return broj rezervacija čije izmene čekaju upis */
+    public synchronized int getBrojNaCekanju() {
+        return red.size();
+    }
+
+    /**
+     * Stavlja promenu datuma vraćanja u red.
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD)
+     * @return future sa brojem izmenjenih redova ili {@link RezervacijaRepository#NEDOVOLJNO_OPREME},
+     *         ili izuzetkom ako upis nije uspeo; {@link IllegalStateException} ako u redu
+     *         već čeka brisanje iste rezervacije
+     */
+    CompletableFuture<Integer> azuriraj(int id, String noviDatumVracanja) {
+        try {
+            LocalDate.parse(noviDatumVracanja);
+        } catch (DateTimeException | NullPointerException e) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Neispravan datum vraćanja: " + noviDatumVracanja, e));
+        }
+        return dodaj(new IzmenaRezervacije(id, noviDatumVracanja));
+    }
+
+    /**
+     * Stavlja brisanje rezervacije u red.
+     *
+     * @param id ID rezervacije
+     * @return future sa brojem obrisanih redova, ili izuzetkom ako upis nije uspeo
+     */
+    CompletableFuture<Integer> obrisi(int id) {
+        return dodaj(new IzmenaRezervacije(id, null));
+    }
+
+    private CompletableFuture<Integer> dodaj(IzmenaRezervacije izmena) {
+        CompletableFuture<Integer> upisana = new CompletableFuture<>();
+        Stavka odmah = null;
+        boolean obrisana = false;
+        synchronized (this) {
+            if (zavrsen) {
+                odmah = new Stavka(izmena);
+                odmah.cekaju.add(upisana);
+            } else {
+                Stavka stavka = red.get(izmena.getId());
+                if (stavka == null) {
+                    stavka = new Stavka(izmena);
+                    red.put(izmena.getId(), stavka);
+                    // Nit se budi samo kad se pojavi prvi rok ili kad je grupa puna
+                    if (red.size() == 1 || red.size() >= VELICINA_GRUPE) {
+                        notifyAll();
+                    }
+                } else if (stavka.izmena.isBrisanje() && !izmena.isBrisanje()) {
+                    // Posle brisanja promena datuma nema na šta da se primeni
+                    obrisana = true;
+                } else {
+                    stavka.izmena = izmena;
+                }
+                if (!obrisana) {
+                    stavka.cekaju.add(upisana);
+                }
+            }
+        }
+        if (obrisana) {
+            upisana.completeExceptionally(new IllegalStateException("Rezervacija " + izmena.getId() + " je obrisana."));
+        }
+        if (odmah != null) {
+            upisi(List.of(odmah));
+        }
+        return upisana;
+    }
+
+    private void radi() {
+        while (true) {
+            List<Stavka> grupa;
+            synchronized (this) {
+                if (!sacekajGrupu()) {
+                    zavrsen = true;
+                    return;
+                }
+                grupa = uzmiGrupu();
+            }
+            upisi(grupa);
+        }
+    }
+
+    /**
+     * Čeka dok najstarija izmena ne dostigne odlaganje, red se ne napuni ili se ne zatraži zaustavljanje.
+     *
+     * @return {@code false} ako je zaustavljanje zatraženo, a red je prazan
+     */
+    private boolean sacekajGrupu() {
+        while (true) {
+            if (red.isEmpty()) {
+                if (zaustavljen) {
+                    return false;
+                }
+                cekaj(0);
+                continue;
+            }
+            long preostalo = red.values().iterator().next().dodata + odlaganjeNanos - System.nanoTime();
+            if (preostalo <= 0 || red.size() >= VELICINA_GRUPE || zaustavljen) {
+                return true;
+            }
+            cekaj(preostalo);
+        }
+    }
+
+    private void cekaj(long nanos) {
+        try {
+            if (nanos > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, nanos);
+            } else {
+                wait();
+            }
+        } catch (InterruptedException e) {
+            // Prekid znači gašenje; ono što čeka se ipak upisuje
+            zaustavljen = true;
+        }
+    }
+
+    /** Uzima najviše {@value #VELICINA_GRUPE} najstarijih izmena iz reda. */
+    private List<Stavka> uzmiGrupu() {
+        List<Stavka> grupa = new ArrayList<>(Math.min(red.size(), VELICINA_GRUPE));
+        Iterator<Stavka> it = red.values().iterator();
+        while (it.hasNext() && grupa.size() < VELICINA_GRUPE) {
+            grupa.add(it.next());
+            it.remove();
+        }
+        return grupa;
+    }
+
+    /**
+     * Upisuje grupu jednom transakcijom; ako ona ne uspe, izmene se upisuju
+     * jedna po jedna, pa neispravna izmena ne obara ostale.
+     */
+    private void upisi(List<Stavka> grupa) {
+        List<IzmenaRezervacije> izmene = new ArrayList<>(grupa.size());
+        for (Stavka s : grupa) {
+            izmene.add(s.izmena);
+        }
+
+        long pocetak = System.nanoTime();
+        int[] rezultat;
+        try {
+            rezultat = repozitorijum.primeniIzmene(izmene);
+            if (grupa.size() > 1 && svePale(rezultat)) {
+                for (int i = 0; i < rezultat.length; i++) {
+                    rezultat[i] = repozitorijum.primeniIzmene(List.of(izmene.get(i)))[0];
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.greska("primeniIzmene", LogEvent.BEZ_ID, "Greška pri odloženom upisu izmena", e);
+            for (Stavka s : grupa) {
+                s.cekaju.forEach(f -> f.completeExceptionally(e));
+            }
+            return;
+        }
+        LOG.info("primeniIzmene", LogEvent.BEZ_ID, System.nanoTime() - pocetak,
+                "Odloženo upisano " + grupa.size() + " izmena rezervacija.");
+
+        for (int i = 0; i < grupa.size(); i++) {
+            Stavka s = grupa.get(i);
+            IzmenaRezervacije izmena = s.izmena;
+            if (rezultat[i] < 0 && rezultat[i] != RezervacijaRepository.NEDOVOLJNO_OPREME) {
+                LOG.upozorenje("primeniIzmene", izmena.getId(), "Odložena izmena nije upisana: " + izmena);
+                IllegalStateException greska = new IllegalStateException(
+                        "Izmena rezervacije " + izmena.getId() + " nije upisana.");
+                s.cekaju.forEach(f -> f.completeExceptionally(greska));
+                continue;
+            }
+            if (rezultat[i] > 0) {
+                RezervacijaController.obavesti(izmena.isBrisanje()
+                        ? l -> l.rezervacijaObrisana(izmena.getId())
+                        : l -> l.rezervacijaAzurirana(izmena.getId(), izmena.getNoviDatumVracanja()));
+            }
+            int broj = rezultat[i];
+            s.cekaju.forEach(f -> f.complete(broj));
+        }
+    }
+
+    private static boolean svePale(int[] rezultat) {
+        for (int r : rezultat) {
+            if (r >= 0 || r == RezervacijaRepository.NEDOVOLJNO_OPREME) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package controller;
+
+import model.Rezervacija;
+import model.RezervacijaFilter;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Prvo učitavanje strukture u memoriji koja se zatim održava preko
+ * {@link RezervacijaListener} događaja.
+ * <p>
+ * Listener se registruje pre čitanja iz baze, da se ne izgubi izmena u
+ * međuvremenu, pa događaj može da stigne pre reda na koji se odnosi. Zato se
+ * za vreme učitavanja pamte obrisani ID-jevi i poslednji novi datum vraćanja:
+ * obrisan red se ne dodaje kada ga čitanje kasnije preda, a izmenjenom se
+ * postavlja novi datum.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+final class PocetnoUcitavanje {
+
+    private final Set<Integer> obrisane = new HashSet<>();
+    private final Map<Integer, String> noviDatumi = new HashMap<>();
+    private volatile boolean zavrseno;
+
+    /**
+     * Primenjuje brisanje i, dok učitavanje traje, pamti ID.
+     *
+     * @param id     ID obrisane rezervacije
+     * @param ukloni uklanja rezervaciju iz strukture
+     */
+    void obrisana(int id, IntConsumer ukloni) {
+        if (zavrseno) {
+            ukloni.accept(id);
+            return;
+        }
+        synchronized (this) {
+            if (!zavrseno) {
+                obrisane.add(id);
+                noviDatumi.remove(id);
+            }
+            ukloni.accept(id);
+        }
+    }
+
+    /**
+     * Primenjuje promenu datuma vraćanja i, dok učitavanje traje, pamti novi datum.
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja
+     * @param azuriraj          menja rezervaciju u strukturi
+     */
+    void azurirana(int id, String noviDatumVracanja, Runnable azuriraj) {
+        if (zavrseno) {
+            azuriraj.run();
+            return;
+        }
+        synchronized (this) {
+            if (!zavrseno) {
+                noviDatumi.put(id, noviDatumVracanja);
+            }
+            azuriraj.run();
+        }
+    }
+
+    /**
+     * Čita rezervacije iz baze i predaje ih strukturi, osim obrisanih u međuvremenu.
+     *
+     * @param filter kriterijumi, može biti {@code null}
+     * @param dodaj  dodaje rezervaciju u strukturu
+     * @return {@code true} ako je čitanje uspelo; inače struktura nije potpuna
+     */
+    boolean ucitaj(RezervacijaFilter filter, Consumer<Rezervacija> dodaj) {
+        try {
+            return new RezervacijaController().streamRezervacije(filter, r -> ucitana(r, dodaj)) >= 0;
+        } finally {
+            synchronized (this) {
+                zavrseno = true;
+                obrisane.clear();
+                noviDatumi.clear();
+            }
+        }
+    }
+
+    private synchronized void ucitana(Rezervacija r, Consumer<Rezervacija> dodaj) {
+        if (obrisane.contains(r.getId())) {
+            return;
+        }
+        String noviDatum = noviDatumi.get(r.getId());
+        if (noviDatum != null) {
+            r.setDatumVracanja(noviDatum);
+        }
+        dodaj.accept(r);
+    }
+}
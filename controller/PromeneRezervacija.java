@@ -0,0 +1,361 @@
+package controller;
+
+import logging.LogEvent;
+import logging.LogLevel;
+import logging.Logger;
+import logging.Logging;
+import model.PromenaRezervacije;
+import model.Rezervacija;
+import repository.Repozitorijumi;
+import repository.RezervacijaRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Tok promena rezervacija za prikaze koji drže učitane redove.
+ * <p>
+ * Promene stižu iz dva izvora: iz {@link RezervacijaListener} događaja ove
+ * aplikacije, koji se obrađuju odmah, i iz dnevnika promena u bazi
+ * ({@link RezervacijaRepository#getPromene}), koji se periodično čita od
+ * poslednje viđene verzije i donosi izmene sa drugih računara. Za dodate i
+ * izmenjene rezervacije čita se samo njihov trenutni red, pa cena osvežavanja
+ * zavisi od broja promena, a ne od broja rezervacija.
+ * </p>
+ * <p>
+ * Verzije iz {@code AUTO_INCREMENT}-a se dodeljuju pri upisu, a vidljive postaju
+ * pri potvrdi transakcije, pa kraća transakcija može da se pojavi pre duže sa
+ * manjom verzijom. Zato se poslednja verzija ne pomera preko rupe dok rupa ne
+ * potraje {@value #CEKANJE_RUPE_MS} ms (tada je transakcija verovatno poništena);
+ * promene iza rupe se do tada isporučuju ponovo, što je bezbedno jer pretplatnici
+ * promene primenjuju po ID-u.
+ * </p>
+ * <p>
+ * Dok se dnevnik čita, jednom u {@value #PERIOD_CISCENJA_MS} ms iz njega se
+ * brišu promene starije od {@value #ZADRZAVANJE_MS} ms. Čitalac koji radi
+ * zaostaje najviše nekoliko perioda čitanja, a novi počinje od poslednje
+ * verzije, pa mu starije promene ne trebaju.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class PromeneRezervacija implements RezervacijaListener {
+
+    /** Podrazumevani razmak između dva čitanja dnevnika promena. */
+    public static final long PERIOD_MS = 2_000;
+
+    /** Najviše promena iz dnevnika u jednom čitanju; ostatak se čita odmah zatim. */
+    private static final int MAX_PROMENA = 1_000;
+
+    /** Koliko dugo se čeka da se rupa u verzijama popuni pre nego što se preskoči. */
+    private static final long CEKANJE_RUPE_MS = 5_000;
+
+    /** Koliko dugo promene ostaju u dnevniku. */
+    private static final long ZADRZAVANJE_MS = 24 * 60 * 60 * 1_000L;
+
+    /** Razmak između dva čišćenja dnevnika. */
+    private static final long PERIOD_CISCENJA_MS = 60 * 60 * 1_000L;
+
+    private static final Logger LOG = Logging.logger("promene");
+
+    private static volatile PromeneRezervacija instance;
+
+    /**
+     * Jedna isporuka promena.
+     */
+    public static final class Izmene {
+
+        private final List<Rezervacija> dodateIliIzmenjene;
+        private final Set<Integer> obrisane;
+
+        Izmene(List<Rezervacija> dodateIliIzmenjene, Set<Integer> obrisane) {
+            this.dodateIliIzmenjene = dodateIliIzmenjene;
+            this.obrisane = obrisane;
+        }
+
+        /** @return trenutno stanje novih i izmenjenih rezervacija, sa imenima za prikaz */
+        public List<Rezervacija> getDodateIliIzmenjene() {
+            return dodateIliIzmenjene;
+        }
+
+        /** @return ID-jevi obrisanih rezervacija */
+        public Set<Integer> getObrisane() {
+            return obrisane;
+        }
+
+        @Override
+        public String toString() {
+            return "Izmene{dodateIliIzmenjene=" + dodateIliIzmenjene.size() + ", obrisane=" + obrisane.size() + '}';
+        }
+    }
+
+    private final RezervacijaRepository repozitorijum;
+
+    private final List<Consumer<Izmene>> pretplatnici = new CopyOnWriteArrayList<>();
+
+    /** Lokalne promene koje čekaju obradu: ID → da li je rezervacija obrisana. */
+    private final ConcurrentMap<Integer, Boolean> lokalne = new ConcurrentHashMap<>();
+
+    /** Da li je obrada lokalnih promena već zakazana. */
+    private final AtomicBoolean zakazano = new AtomicBoolean();
+
+    private final ScheduledExecutorService nit = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "promene-rezervacija");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ScheduledFuture<?> citanje;
+
+    /** Poslednja verzija dnevnika koja je obrađena, ili {@code -1} ako dnevnika nema. Menja je samo {@link #nit}. */
+    private volatile long verzija = -1;
+
+    /** Da li je početna verzija već pročitana. */
+    private boolean pokrenut;
+
+    /** Kada se sledeći put pokušava čitanje početne verzije, odnosno čišćenje dnevnika. */
+    private long sledeciPocetak;
+    private long sledeceCiscenje;
+
+    /** Da li je već upozoreno da dnevnik nije dostupan. */
+    private boolean upozoreno;
+
+    /** Verzija posle koje je uočena rupa i kada, za {@link #CEKANJE_RUPE_MS}. */
+    private long rupaPosle = -1;
+    private long rupaOd;
+
+    private PromeneRezervacija(RezervacijaRepository repozitorijum) {
+        this.repozitorijum = repozitorijum;
+    }
+
+    /**
+     * Vraća zajednički tok promena, registrovan kao listener {@link RezervacijaController}-a.
+     *
+     * @return tok promena
+     */
+    public static PromeneRezervacija getInstance() {
+        PromeneRezervacija p = instance;
+        if (p == null) {
+            synchronized (PromeneRezervacija.class) {
+                p = instance;
+                if (p == null) {
+                    p = new PromeneRezervacija(Repozitorijumi.rezervacije());
+                    RezervacijaController.dodajListener(p);
+                    instance = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Prijavljuje pretplatnika. Sa prvim pretplatnikom počinje čitanje dnevnika
+     * promena od njegove trenutne poslednje verzije.
+     * <p>
+     * Pretplatnik se poziva na pozadinskoj niti toka; prikaz treba sam da
+     * prebaci izmene na JavaFX nit.
+     * </p>
+     *
+     * @param pretplatnik prima svaku nepraznu isporuku promena
+     */
+    public synchronized void pretplati(Consumer<Izmene> pretplatnik) {
+        pretplatnici.add(pretplatnik);
+        if (citanje == null) {
+            citanje = nit.scheduleWithFixedDelay(this::obradiBezustanka, 0, PERIOD_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Odjavljuje pretplatnika; bez pretplatnika dnevnik se više ne čita.
+     *
+     * @param pretplatnik ranije prijavljen pretplatnik
+     */
+    public synchronized void otkaziPretplatu(Consumer<Izmene> pretplatnik) {
+        pretplatnici.remove(pretplatnik);
+        if (pretplatnici.isEmpty() && citanje != null) {
+            citanje.cancel(false);
+            citanje = null;
+        }
+    }
+
+    /**
+     * @return {@code true} ako se čita dnevnik promena u bazi, pa stižu i izmene
+     * sa drugih računara; inače samo izmene iz ove aplikacije
+     */
+    public boolean isPratiDrugeRacunare() {
+        return verzija >= 0;
+    }
+
+    @Override
+    public void rezervacijaDodata(Rezervacija rezervacija) {
+        lokalnaPromena(rezervacija.getId(), false);
+    }
+
+    @Override
+    public void rezervacijaAzurirana(int id, String noviDatumVracanja) {
+        lokalnaPromena(id, false);
+    }
+
+    @Override
+    public void rezervacijaObrisana(int id) {
+        lokalnaPromena(id, true);
+    }
+
+    private void lokalnaPromena(int id, boolean obrisana) {
+        // Brisanje je konačno: ID se ne koristi ponovo, pa ga kasnija izmena ne poništava
+        lokalne.merge(id, obrisana, Boolean::logicalOr);
+        if (!pretplatnici.isEmpty() && zakazano.compareAndSet(false, true)) {
+            // Grupni unos zakazuje samo jednu obradu za sve svoje redove
+            nit.execute(this::obradiBezustanka);
+        }
+    }
+
+    private void obradiBezustanka() {
+        try {
+            while (obradi()) {
+                // Dnevnik je imao više od MAX_PROMENA promena; čita se dalje
+            }
+        } catch (RuntimeException e) {
+            // Izuzetak bi zaustavio periodično čitanje
+            LOG.greska("obradi", LogEvent.BEZ_ID, "Greška pri obradi promena rezervacija", e);
+        }
+    }
+
+    /** @return {@code true} ako dnevnik verovatno ima još nepročitanih promena */
+    private boolean obradi() {
+        zakazano.set(false);
+        long sada = System.currentTimeMillis();
+        if (!pokrenut && sada >= sledeciPocetak) {
+            pocni(sada);
+        }
+        if (verzija >= 0 && sada >= sledeceCiscenje) {
+            sledeceCiscenje = sada + PERIOD_CISCENJA_MS;
+            repozitorijum.obrisiPromene(sada - ZADRZAVANJE_MS);
+        }
+
+        Map<Integer, Boolean> lokalnePromene = new HashMap<>();
+        for (Integer id : lokalne.keySet()) {
+            Boolean obrisana = lokalne.remove(id);
+            if (obrisana != null) {
+                lokalnePromene.merge(id, obrisana, Boolean::logicalOr);
+            }
+        }
+        Map<Integer, Boolean> promene = new HashMap<>(lokalnePromene);
+
+        // Verzija se pomera tek kada su promene isporučene
+        long nova = verzija;
+        boolean jos = false;
+        if (nova >= 0) {
+            List<PromenaRezervacije> dnevnik = repozitorijum.getPromene(nova, MAX_PROMENA);
+            boolean zastoj = false;
+            for (PromenaRezervacije p : dnevnik) {
+                promene.merge(p.getRezervacijaId(), p.getVrsta() == PromenaRezervacije.Vrsta.OBRISANA,
+                        Boolean::logicalOr);
+                if (!zastoj) {
+                    if (p.getVerzija() == nova + 1 || rupaIstekla(nova)) {
+                        nova = p.getVerzija();
+                    } else {
+                        zastoj = true;
+                    }
+                }
+            }
+            jos = !zastoj && dnevnik.size() == MAX_PROMENA;
+        }
+
+        if (!promene.isEmpty()) {
+            try {
+                isporuci(promene);
+            } catch (SQLException e) {
+                // Dnevnik se čita ponovo od iste verzije, a lokalne promene se vraćaju u red
+                lokalnePromene.forEach((id, obrisana) -> lokalne.merge(id, obrisana, Boolean::logicalOr));
+                return false;
+            }
+        }
+        verzija = nova;
+        return jos;
+    }
+
+    /**
+     * Uzima poslednju verziju dnevnika kao početnu tačku. Ako dnevnik nije
+     * dostupan, npr. zbog prolazne greške baze, čitanje se ponavlja najranije
+     * posle {@value #PERIOD_MS} ms, a do tada se prate samo lokalne izmene.
+     */
+    private void pocni(long sada) {
+        long poslednja = repozitorijum.getPoslednjaVerzija();
+        if (poslednja >= 0) {
+            verzija = poslednja;
+            pokrenut = true;
+            if (upozoreno) {
+                LOG.info("Dnevnik promena je ponovo dostupan, od verzije " + poslednja + ".");
+            }
+            return;
+        }
+        sledeciPocetak = sada + PERIOD_MS;
+        if (!upozoreno) {
+            upozoreno = true;
+            LOG.upozorenje("pocni", LogEvent.BEZ_ID,
+                    "Dnevnik promena nije dostupan; prate se samo izmene iz ove aplikacije.");
+        }
+    }
+
+    private boolean rupaIstekla(long posle) {
+        long sada = System.currentTimeMillis();
+        if (rupaPosle != posle) {
+            rupaPosle = posle;
+            rupaOd = sada;
+            return false;
+        }
+        if (sada - rupaOd < CEKANJE_RUPE_MS) {
+            return false;
+        }
+        LOG.upozorenje("obradi", LogEvent.BEZ_ID, "Preskočena rupa u dnevniku promena posle verzije " + posle);
+        return true;
+    }
+
+    /** @throws SQLException ako izmenjene rezervacije ne mogu da se pročitaju; ništa nije isporučeno */
+    private void isporuci(Map<Integer, Boolean> promene) throws SQLException {
+        Set<Integer> obrisane = new HashSet<>();
+        List<Integer> zaCitanje = new ArrayList<>();
+        promene.forEach((id, obrisana) -> (obrisana ? obrisane : zaCitanje).add(id));
+
+        List<Rezervacija> procitane = repozitorijum.getPoId(zaCitanje);
+        if (procitane.size() < zaCitanje.size()) {
+            // Red koji više ne postoji je obrisan posle upisa u dnevnik
+            Set<Integer> nadjene = new HashSet<>();
+            for (Rezervacija r : procitane) {
+                nadjene.add(r.getId());
+            }
+            for (int id : zaCitanje) {
+                if (!nadjene.contains(id)) {
+                    obrisane.add(id);
+                }
+            }
+        }
+
+        Izmene izmene = new Izmene(procitane, obrisane);
+        if (LOG.isUkljucen(LogLevel.DEBUG)) {
+            LOG.debug("Isporuka promena rezervacija: " + izmene);
+        }
+        for (Consumer<Izmene> p : pretplatnici) {
+            try {
+                p.accept(izmene);
+            } catch (RuntimeException e) {
+                LOG.greska("isporuci", LogEvent.BEZ_ID, "Greška u pretplatniku promena rezervacija", e);
+            }
+        }
+    }
+}
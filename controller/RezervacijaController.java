@@ -1,121 +1,480 @@
 package controller;
 
-import database.DatabaseConnection;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import model.Agregat;
+import model.Grupisanje;
+import model.IshodRezervacije;
+import model.Korisnik;
+import model.Poredak;
 import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+import model.Strana;
+import repository.RezervacijaRepository;
+import repository.Repozitorijumi;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Klasa koja upravlja rezervacijama u sistemu, omogućavajući dodavanje,
  * ažuriranje, brisanje i preuzimanje podataka iz baze.
+ * Podacima pristupa preko {@link RezervacijaRepository}-ja, pa ne zavisi od
+ * motora skladišta; kontroler ograničava veličinu strana i obaveštava listenere.
  *
  * @author DjuroPopara/6271
  */
 public class RezervacijaController {
 
+    /** Najveća dozvoljena veličina jedne strane u {@link #getRezervacijeStrana}. */
+    public static final int MAX_VELICINA_STRANE = 500;
 
+    private static final Logger LOG = Logging.logger("rezervacije");
+
+    /** Listeneri koji se obaveštavaju o uspešnim izmenama, zajednički za sve instance. */
+    private static final List<RezervacijaListener> LISTENERI = new CopyOnWriteArrayList<>();
+
+    private final RezervacijaRepository repozitorijum;
+
+    /**
+     * Kontroler nad skladištem izabranim u {@link Repozitorijumi}.
+     */
+    public RezervacijaController() {
+        this(Repozitorijumi.rezervacije());
+    }
+
+    /**
+     * Kontroler nad zadatim skladištem rezervacija.
+     *
+     * @param repozitorijum skladište rezervacija
+     */
+    public RezervacijaController(RezervacijaRepository repozitorijum) {
+        this.repozitorijum = repozitorijum;
+    }
 
     public List<Rezervacija> getSveRezervacije() {
-        List<Rezervacija> rezervacije = new ArrayList<>();
-        String sql = "SELECT r.id, r.korisnik_id, r.oprema_id, k.ime AS korisnik_ime, o.naziv AS oprema_naziv, " +
-                "r.datum_rezervacije, r.datum_vracanja, r.kolicina, r.status " +
-                "FROM rezervacija r " +
-                "JOIN korisnik k ON r.korisnik_id = k.id " +
-                "JOIN oprema o ON r.oprema_id = o.id";
-
-
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet rs = preparedStatement.executeQuery()) {
-
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                int korisnikId = rs.getInt("korisnik_id");
-                int opremaId = rs.getInt("oprema_id");
-                String datumRezervacije = rs.getDate("datum_rezervacije").toString();
-                String datumVracanja = rs.getDate("datum_vracanja").toString();
-                int kolicina = rs.getInt("kolicina");
-                String status = rs.getString("status");
-                String korisnikIme = rs.getString("korisnik_ime");
-                String opremaNaziv = rs.getString("oprema_naziv");
-
-                Rezervacija r = new Rezervacija(id, korisnikId, opremaId, korisnikIme, opremaNaziv, datumRezervacije, datumVracanja, kolicina, status);
-                r.setKorisnikIme(korisnikIme);
-                r.setOpremaNaziv(opremaNaziv);
-                rezervacije.add(r);
-            }
+        return repozitorijum.getSve();
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Greška pri prikazu rezervacija: " + e.getMessage());
-            System.err.println("Greška pri dodavanju rezervacije: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Vraća jednu stranu rezervacija sortiranih po datumu rezervacije i ID-u.
+     * <p>
+     * Umesto {@code OFFSET}-a koristi se kursor (datum, id) poslednjeg reda
+     * prethodne strane, pa je cena svake strane ista bez obzira na to koliko
+     * je daleko od početka. Filter i sortiranje se izvršavaju u skladištu.
+     * </p>
+     *
+     * @param filter      kriterijumi filtriranja, može biti {@code null}
+     * @param posleDatuma datum iz {@link Strana#getKursorDatum()} prethodne strane,
+     *                    ili {@code null} za prvu stranu
+     * @param posleId     ID iz {@link Strana#getKursorId()} prethodne strane
+     * @param velicina    broj redova na strani, najviše {@link #MAX_VELICINA_STRANE}
+     * @return strana rezervacija sa kursorom za sledeću
+     */
+    public Strana<Rezervacija> getRezervacijeStrana(RezervacijaFilter filter,
+                                                    String posleDatuma, int posleId, int velicina) {
+        int limit = Math.max(1, Math.min(velicina, MAX_VELICINA_STRANE));
+        return repozitorijum.getStrana(filter, posleDatuma, posleId, limit);
+    }
 
-        }
+    /**
+     * Vraća rezervacije na pozicijama {@code [od, od + velicina)} u zadatom redosledu,
+     * za tabelu koja učitava samo strane koje se vide. Sortiranje se izvršava u skladištu.
+     *
+     * @param filter   kriterijumi filtriranja, može biti {@code null}
+     * @param poredak  redosled po svojstvu rezervacije, ili {@code null} za datum rezervacije i ID
+     * @param od       pozicija prvog reda
+     * @param velicina broj redova, najviše {@link #MAX_VELICINA_STRANE}
+     * @return rezervacije u opsegu
+     */
+    public List<Rezervacija> getRezervacijeOpseg(RezervacijaFilter filter, Poredak poredak, int od, int velicina) {
+        int limit = Math.max(1, Math.min(velicina, MAX_VELICINA_STRANE));
+        return repozitorijum.getOpseg(filter, poredak, Math.max(0, od), limit);
+    }
 
-        return rezervacije;
+    /**
+     * @param filter kriterijumi filtriranja, može biti {@code null}
+     * @return broj rezervacija koje zadovoljavaju filter, ili {@code -1} ako brojanje nije uspelo
+     */
+    public int prebrojRezervacije(RezervacijaFilter filter) {
+        return repozitorijum.prebroj(filter);
     }
 
+    /**
+     * Prolazi kroz sve rezervacije koje zadovoljavaju filter i predaje ih
+     * potrošaču jednu po jednu, bez pravljenja liste u memoriji.
+     * <p>
+     * Kod MySQL skladišta drajver dohvata redove u blokovima (serverski kursor),
+     * pa zauzeće memorije ne zavisi od broja redova. Konekcija je zauzeta dok
+     * potrošač radi, zato potrošač treba da bude brz.
+     * </p>
+     *
+     * @param filter   kriterijumi filtriranja, može biti {@code null}
+     * @param potrosac prima svaku rezervaciju redom po datumu rezervacije i ID-u
+     * @return broj predatih rezervacija, ili {@code -1} ako čitanje nije uspelo
+     *         (potrošač je možda već primio deo redova)
+     */
+    public int streamRezervacije(RezervacijaFilter filter, Consumer<Rezervacija> potrosac) {
+        return repozitorijum.stream(filter, potrosac);
+    }
 
-    public void azurirajRezervaciju(int id, String noviDatumVracanja) {
-        String sql = "UPDATE rezervacija SET datum_vracanja = ? WHERE id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+    /**
+     * Pretražuje rezervacije po imenu korisnika ili nazivu opreme.
+     * <p>
+     * Pretraga se izvršava u skladištu preko indeksa, pa njena cena zavisi od broja
+     * pogodaka, a ne od veličine tabele. Svaka reč upita mora da se pojavi kao
+     * početak neke reči u imenu korisnika ili nazivu opreme. Rezultati su
+     * poređani po relevantnosti, pa po datumu rezervacije od najnovijeg.
+     * </p>
+     *
+     * @param upit     tekst pretrage
+     * @param strana   redni broj strane, počev od 0
+     * @param velicina broj redova na strani, najviše {@link #MAX_VELICINA_STRANE}
+     * @return rezervacije na traženoj strani; prazna lista ako je upit prazan
+     */
+    public List<Rezervacija> pretraziRezervacije(String upit, int strana, int velicina) {
+        String ociscen = upit == null ? "" : upit.trim();
+        if (ociscen.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int limit = Math.max(1, Math.min(velicina, MAX_VELICINA_STRANE));
+        int offset = Math.max(0, strana) * limit;
+        return repozitorijum.pretrazi(ociscen, limit, offset);
+    }
 
-            preparedStatement.setDate(1, java.sql.Date.valueOf(noviDatumVracanja));
-            preparedStatement.setInt(2, id);
-            preparedStatement.executeUpdate();
-            System.out.println("Rezervacija uspešno ažurirana.");
+    /**
+     * Menja datum vraćanja rezervacije.
+     * <p>
+     * Ako je uključen {@link OdlozeniUpis}, izmena ide u njegov red, a metoda
+     * čeka da je grupa sa njom upisana.
+     * </p>
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD)
+     * @return broj izmenjenih redova ({@code 0} ako rezervacija ne postoji),
+     *         {@link RezervacijaRepository#NEDOVOLJNO_OPREME} ako za produženje
+     *         nema dovoljno opreme, ili {@code -1} ako izmena nije uspela
+     */
+    public int azurirajRezervaciju(int id, String noviDatumVracanja) {
+        OdlozeniUpis odlozeni = OdlozeniUpis.za(repozitorijum);
+        if (odlozeni != null) {
+            return sacekaj(odlozeni.azuriraj(id, noviDatumVracanja));
+        }
+        int izmenjeno = repozitorijum.azurirajDatumVracanja(id, noviDatumVracanja);
+        if (izmenjeno > 0) {
+            obavesti(l -> l.rezervacijaAzurirana(id, noviDatumVracanja));
+        }
+        if (izmenjeno == RezervacijaRepository.NEDOVOLJNO_OPREME) {
+            LOG.upozorenje("azurirajDatumVracanja", id, "Nema dovoljno slobodne opreme za produženje rezervacije.");
+        } else if (izmenjeno >= 0) {
+            LOG.info("azurirajDatumVracanja", id, "Rezervacija uspešno ažurirana.");
+        }
+        return izmenjeno;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Greška pri ažuriranju rezervacije: " + e.getMessage());
+    /**
+     * Briše rezervaciju; uz {@link OdlozeniUpis} čeka da je brisanje upisano.
+     *
+     * @param id ID rezervacije
+     * @return broj obrisanih redova ({@code 0} ako rezervacija ne postoji), ili {@code -1} ako brisanje nije uspelo
+     */
+    public int obrisiRezervaciju(int id) {
+        OdlozeniUpis odlozeni = OdlozeniUpis.za(repozitorijum);
+        if (odlozeni != null) {
+            return sacekaj(odlozeni.obrisi(id));
+        }
+        int obrisano = repozitorijum.obrisi(id);
+        if (obrisano > 0) {
+            obavesti(l -> l.rezervacijaObrisana(id));
+        }
+        if (obrisano >= 0) {
+            LOG.info("obrisi", id, "Rezervacija uspešno obrisana.");
         }
+        return obrisano;
     }
 
-    public void obrisiRezervaciju(int id) {
-        String sql = "DELETE FROM rezervacija WHERE id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+    /**
+     * Dodaje rezervaciju bez provere dostupnosti; bez statusa dobija "aktivna".
+     *
+     * @param rezervacija rezervacija; posle uspeha dobija ID
+     */
+    public void dodajRezervaciju(Rezervacija rezervacija) {
+        if (repozitorijum.dodaj(rezervacija)) {
+            obavestiDodata(rezervacija);
+            LOG.info("dodaj", rezervacija.getId(), "Rezervacija uspešno dodata u bazu.");
+        }
+    }
 
-            preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
-            System.out.println("Rezervacija uspešno obrisana.");
+    /**
+     * Atomično rezerviše opremu: proverava slobodnu količinu u periodu i upisuje
+     * rezervaciju u jednoj transakciji.
+     * <p>
+     * Provera se radi u skladištu, nad trenutnim stanjem, a ne nad objektom opreme
+     * učitanim ranije u formi. MySQL skladište štiti proveru verzijom reda opreme
+     * i ponavlja transakciju pri sudaru sa drugim računarom; rezervacije iste
+     * opreme u ovom procesu čekaju na bravu trake, a različite opreme idu paralelno.
+     * </p>
+     * <p>
+     * Period je {@code [datumRezervacije, datumVracanja)}; zauzeće prave samo aktivne rezervacije.
+     * </p>
+     *
+     * @param rezervacija rezervacija; posle uspeha dobija ID i status "aktivna" ako ga nije imala
+     * @return ishod rezervacije
+     */
+    public IshodRezervacije rezervisi(Rezervacija rezervacija) {
+        IshodRezervacije ishod = repozitorijum.rezervisi(rezervacija);
+        if (ishod == IshodRezervacije.USPESNO) {
+            obavestiDodata(rezervacija);
+            LOG.info("rezervisi", rezervacija.getId(), "Rezervacija uspešno dodata u bazu.");
+        }
+        return ishod;
+    }
 
-        } catch (SQLException e) {
-            System.err.println("Greška pri brisanju rezervacije: " + e.getMessage());
+    /**
+     * Grupno dodaje rezervacije.
+     * <p>
+     * Kod MySQL skladišta redovi se upisuju JDBC batch-om u transakcijama od po
+     * 500. Rezervacijama koje su upisane postavlja se ID, a listeneri se
+     * obaveštavaju tek posle potvrde grupe.
+     * </p>
+     *
+     * @param rezervacije rezervacije za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    public RezultatUnosa dodajRezervacije(List<Rezervacija> rezervacije) {
+        RezultatUnosa rezultat = repozitorijum.dodajSve(rezervacije);
+        int[] ids = rezultat.getGenerisaniId();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                obavestiDodata(rezervacije.get(i));
+            }
         }
+        LOG.info("dodajSve", LogEvent.BEZ_ID, "Grupni unos rezervacija: " + rezultat);
+        return rezultat;
     }
 
+    /**
+     * Vraća broj rezervacija i ukupnu količinu po zadatoj dimenziji.
+     * <p>
+     * Grupisanje i brojanje se izvršavaju u skladištu (u bazi {@code GROUP BY}),
+     * pa se prenosi samo po jedan red za svaku grupu. Korisnici i oprema se grupišu
+     * po ID-u, tako da se dva korisnika sa istim imenom ne spajaju.
+     * </p>
+     *
+     * @param grupisanje dimenzija grupisanja
+     * @param filter     kriterijumi filtriranja, može biti {@code null}
+     * @return po jedan {@link Agregat} za svaku grupu, od najveće ka najmanjoj
+     *         (za vremenske periode hronološki)
+     */
+    public List<Agregat> agregiraj(Grupisanje grupisanje, RezervacijaFilter filter) {
+        return repozitorijum.agregiraj(grupisanje, filter);
+    }
 
-    public void dodajRezervaciju(Rezervacija rezervacija) {
-        String sql = "INSERT INTO rezervacija (korisnik_id, oprema_id, datum_rezervacije, datum_vracanja, kolicina, status) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+    /**
+     * Vraća broj rezervacija po korisniku ili opremi za grafikone.
+     * <p>
+     * Ako baza održava materijalizovane brojače, MySQL skladište čita tabelu
+     * {@code rezervacija_brojac}, pa je cena srazmerna broju kolona na grafikonu.
+     * U suprotnom se koristi {@link #agregiraj} nad svim rezervacijama.
+     * </p>
+     *
+     * @param grupisanje {@link Grupisanje#KORISNIK} ili {@link Grupisanje#OPREMA}
+     * @return po jedan {@link Agregat} za svakog korisnika ili opremu sa rezervacijama
+     */
+    public List<Agregat> getBrojRezervacija(Grupisanje grupisanje) {
+        if (grupisanje != Grupisanje.KORISNIK && grupisanje != Grupisanje.OPREMA) {
+            throw new IllegalArgumentException("Brojači postoje samo po korisniku i opremi.");
+        }
+        return repozitorijum.getBrojRezervacija(grupisanje);
+    }
+
+    /**
+     * @return {@code true} ako izabrano skladište održava materijalizovane brojače;
+     * za MySQL to rade okidači u bazi, pa važi za sve procese nad istom bazom
+     */
+    public static boolean isMaterijalizovaniBrojaci() {
+        return Repozitorijumi.rezervacije().isMaterijalizovaniBrojaci();
+    }
+
+    /**
+     * Asinhrona varijanta {@link #getSveRezervacije()}.
+     *
+     * @return future sa listom svih rezervacija
+     */
+    public CompletableFuture<List<Rezervacija>> getSveRezervacijeAsync() {
+        return AsyncIzvrsilac.izvrsi(this::getSveRezervacije);
+    }
+
+    /**
+     * Asinhrona varijanta {@link #getRezervacijeStrana}.
+     *
+     * @param filter      kriterijumi filtriranja, može biti {@code null}
+     * @param posleDatuma kursor prethodne strane ili {@code null}
+     * @param posleId     ID kursora prethodne strane
+     * @param velicina    broj redova na strani
+     * @return future sa traženom stranom
+     */
+    public CompletableFuture<Strana<Rezervacija>> getRezervacijeStranaAsync(RezervacijaFilter filter,
+                                                                          String posleDatuma, int posleId, int velicina) {
+        return AsyncIzvrsilac.izvrsi(() -> getRezervacijeStrana(filter, posleDatuma, posleId, velicina));
+    }
+
+    /**
+     * Asinhrona varijanta {@link #pretraziRezervacije}.
+     *
+     * @param upit     tekst pretrage
+     * @param strana   redni broj strane, počev od 0
+     * @param velicina broj redova na strani
+     * @return future sa pronađenim rezervacijama
+     */
+    public CompletableFuture<List<Rezervacija>> pretraziRezervacijeAsync(String upit, int strana, int velicina) {
+        return AsyncIzvrsilac.izvrsi(() -> pretraziRezervacije(upit, strana, velicina));
+    }
+
+    /**
+     * Asinhrona varijanta {@link #getBrojRezervacija}.
+     *
+     * @param grupisanje {@link Grupisanje#KORISNIK} ili {@link Grupisanje#OPREMA}
+     * @return future sa brojem rezervacija po grupi
+     */
+    public CompletableFuture<List<Agregat>> getBrojRezervacijaAsync(Grupisanje grupisanje) {
+        return AsyncIzvrsilac.izvrsi(() -> getBrojRezervacija(grupisanje));
+    }
 
-            // Konvertuj string datume u LocalDate
-            java.sql.Date datumRez = java.sql.Date.valueOf(rezervacija.getDatumRezervacije());
-            java.sql.Date datumVrac = java.sql.Date.valueOf(rezervacija.getDatumVracanja());
+    /**
+     * Asinhrona varijanta {@link #dodajRezervaciju}.
+     *
+     * @param rezervacija rezervacija koja se dodaje
+     * @return future koji se završava posle pokušaja unosa
+     */
+    public CompletableFuture<Void> dodajRezervacijuAsync(Rezervacija rezervacija) {
+        return AsyncIzvrsilac.pokreni(() -> dodajRezervaciju(rezervacija));
+    }
 
-            preparedStatement.setInt(1, rezervacija.getKorisnikId());
-            preparedStatement.setInt(2, rezervacija.getOpremaId());
-            preparedStatement.setDate(3, datumRez);
-            preparedStatement.setDate(4, datumVrac);
-            preparedStatement.setInt(5, rezervacija.getKolicina());
-            preparedStatement.setString(6, rezervacija.getStatus() != null ? rezervacija.getStatus() : "aktivna");
+    /**
+     * Asinhrona varijanta {@link #dodajRezervacije}.
+     *
+     * @param rezervacije rezervacije za unos
+     * @return future sa rezultatom unosa
+     */
+    public CompletableFuture<RezultatUnosa> dodajRezervacijeAsync(List<Rezervacija> rezervacije) {
+        return AsyncIzvrsilac.izvrsi(() -> dodajRezervacije(rezervacije));
+    }
 
-            preparedStatement.executeUpdate();
-            System.out.println("Rezervacija uspešno dodata u bazu.");
+    /**
+     * Asinhrona varijanta {@link #rezervisi}.
+     *
+     * @param rezervacija rezervacija
+     * @return future sa ishodom rezervacije
+     */
+    public CompletableFuture<IshodRezervacije> rezervisiAsync(Rezervacija rezervacija) {
+        return AsyncIzvrsilac.izvrsi(() -> rezervisi(rezervacija));
+    }
 
-        } catch (SQLException | IllegalArgumentException e) {
-            System.err.println("Greška pri dodavanju rezervacije: " + e.getMessage());
+    /**
+     * Asinhrona varijanta {@link #azurirajRezervaciju}.
+     * <p>
+     * Uz {@link OdlozeniUpis} izmena samo ulazi u red, a future se završava
+     * posle upisa grupe, ili izuzetkom ako izmena nije upisana.
+     * </p>
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD)
+     * @return future sa rezultatom kao u {@link #azurirajRezervaciju}
+     */
+    public CompletableFuture<Integer> azurirajRezervacijuAsync(int id, String noviDatumVracanja) {
+        OdlozeniUpis odlozeni = OdlozeniUpis.za(repozitorijum);
+        if (odlozeni != null) {
+            return odlozeni.azuriraj(id, noviDatumVracanja);
         }
+        return AsyncIzvrsilac.izvrsi(() -> azurirajRezervaciju(id, noviDatumVracanja));
     }
 
+    /**
+     * Asinhrona varijanta {@link #obrisiRezervaciju}; uz {@link OdlozeniUpis}
+     * future se završava izuzetkom ako brisanje nije upisano.
+     *
+     * @param id ID rezervacije
+     * @return future sa brojem obrisanih redova
+     */
+    public CompletableFuture<Integer> obrisiRezervacijuAsync(int id) {
+        OdlozeniUpis odlozeni = OdlozeniUpis.za(repozitorijum);
+        if (odlozeni != null) {
+            return odlozeni.obrisi(id);
+        }
+        return AsyncIzvrsilac.izvrsi(() -> obrisiRezervaciju(id));
+    }
 
+    /**
+     * Registruje listener koji se obaveštava o svakoj uspešnoj izmeni rezervacija,
+     * bez obzira na to koja instanca kontrolera ju je izvršila.
+     *
+     * @param listener listener koji se dodaje
+     */
+    public static void dodajListener(RezervacijaListener listener) {
+        LISTENERI.add(listener);
+    }
 
-}
+    /**
+     * Uklanja prethodno registrovan listener.
+     *
+     * @param listener listener koji se uklanja
+     */
+    public static void ukloniListener(RezervacijaListener listener) {
+        LISTENERI.remove(listener);
+    }
+
+    /**
+     * Obaveštava listenere o novoj rezervaciji. Listeneri dobijaju kopiju, a ne
+     * objekat pozivaoca, sa imenom korisnika i nazivom opreme iz keša ako ih
+     * pozivalac nije postavio (API, CSV uvoz), da bi indeksi u memoriji mogli
+     * odmah da je pronađu.
+     */
+    private static void obavestiDodata(Rezervacija rezervacija) {
+        if (LISTENERI.isEmpty()) {
+            return;
+        }
+        Rezervacija kopija = new Rezervacija(rezervacija);
+        if (kopija.getKorisnikIme() == null) {
+            Korisnik k = new KorisnikController().getKorisnik(kopija.getKorisnikId());
+            if (k != null) {
+                kopija.setKorisnikIme(k.getIme());
+            }
+        }
+        if (kopija.getOpremaNaziv() == null) {
+            SportskaOprema o = new SportskaOpremaController().getOprema(kopija.getOpremaId());
+            if (o != null) {
+                kopija.setOpremaNaziv(o.getNaziv());
+            }
+        }
+        obavesti(l -> l.rezervacijaDodata(kopija));
+    }
 
+    /** Greška u jednom listeneru ne sme da poništi već upisanu izmenu niti da preskoči ostale. */
+    static void obavesti(Consumer<RezervacijaListener> dogadjaj) {
+        for (RezervacijaListener l : LISTENERI) {
+            try {
+                dogadjaj.accept(l);
+            } catch (RuntimeException e) {
+                LOG.greska("obavesti", LogEvent.BEZ_ID, "Greška u listeneru rezervacija", e);
+            }
+        }
+    }
+
+    /** Kao i direktan upis, sinhrona varijanta ne baca izuzetak; greške je već zabeležio {@link OdlozeniUpis}. */
+    private static int sacekaj(CompletableFuture<Integer> upis) {
+        try {
+            return upis.join();
+        } catch (CompletionException e) {
+            LOG.upozorenje("Odložena izmena nije upisana: " + e.getCause().getMessage());
+            return -1;
+        }
+    }
+}
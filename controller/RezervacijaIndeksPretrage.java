@@ -0,0 +1,122 @@
+package controller;
+
+import index.TrigramIndex;
+import model.Rezervacija;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Zajednički indeks trigrama nad imenom korisnika i nazivom opreme svih rezervacija,
+ * za trenutnu pretragu dok korisnik kuca.
+ * <p>
+ * Indeks se puni jednom, pri prvom pozivu {@link #getInstance()}, a zatim se
+ * održava inkrementalno preko {@link RezervacijaListener} događaja iz
+ * {@link RezervacijaController}-a. Brisanje koje stigne dok se indeks puni
+ * pamti se do kraja punjenja ({@link PocetnoUcitavanje}), pa obrisana
+ * rezervacija ne ostaje u rezultatima.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class RezervacijaIndeksPretrage implements RezervacijaListener {
+
+    private static volatile RezervacijaIndeksPretrage instance;
+
+    private final TrigramIndex<Rezervacija> indeks = new TrigramIndex<>();
+
+    private final PocetnoUcitavanje ucitavanje = new PocetnoUcitavanje();
+
+    private RezervacijaIndeksPretrage() {
+    }
+
+    /**
+     * Vraća zajednički indeks; pri prvom pozivu učitava sve rezervacije iz baze.
+     *
+     * @return indeks pretrage rezervacija
+     * @throws IllegalStateException ako čitanje iz baze nije uspelo; sledeći poziv pokušava ponovo
+     */
+    public static RezervacijaIndeksPretrage getInstance() {
+        RezervacijaIndeksPretrage i = instance;
+        if (i == null) {
+            synchronized (RezervacijaIndeksPretrage.class) {
+                i = instance;
+                if (i == null) {
+                    i = new RezervacijaIndeksPretrage();
+                    // Listener se registruje pre učitavanja da se ne izgubi izmena u međuvremenu
+                    RezervacijaController.dodajListener(i);
+                    if (!i.ucitavanje.ucitaj(null, i::rezervacijaDodata)) {
+                        RezervacijaController.ukloniListener(i);
+                        throw new IllegalStateException("Indeks pretrage nije učitan: čitanje rezervacija nije uspelo.");
+                    }
+                    instance = i;
+                }
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Učitava indeks u pozadini, ako već nije učitan.
+     *
+     * @return future sa indeksom
+     */
+    public static CompletableFuture<RezervacijaIndeksPretrage> getInstanceAsync() {
+        RezervacijaIndeksPretrage i = instance;
+        return i != null ? CompletableFuture.completedFuture(i) : AsyncIzvrsilac.izvrsi(RezervacijaIndeksPretrage::getInstance);
+    }
+
+    /**
+     * Traži rezervacije čije ime korisnika ili naziv opreme sadrži upit.
+     *
+     * @param upit  tekst pretrage (velika i mala slova se ne razlikuju)
+     * @param limit najveći broj rezultata
+     * @return pronađene rezervacije
+     */
+    public List<Rezervacija> pretrazi(String upit, int limit) {
+        return indeks.pretrazi(upit, limit);
+    }
+
+    /** @return broj rezervacija u indeksu */
+    public int getBrojRezervacija() {
+        return indeks.getBrojDokumenata();
+    }
+
+    /** @return približno zauzeće memorije indeksa u bajtovima */
+    public long procenaMemorijeBajtova() {
+        return indeks.procenaMemorijeBajtova();
+    }
+
+    @Override
+    public void rezervacijaDodata(Rezervacija r) {
+        // Indeks čuva svoju kopiju; pozivalac može kasnije da menja svoj objekat
+        indeks.dodaj(r.getId(), tekst(r), new Rezervacija(r));
+    }
+
+    @Override
+    public void rezervacijaAzurirana(int id, String noviDatumVracanja) {
+        ucitavanje.azurirana(id, noviDatumVracanja, () -> {
+            // Tekst se ne menja, samo vrednost koja se prikazuje
+            Rezervacija stara = indeks.vrednost(id);
+            if (stara != null) {
+                Rezervacija nova = new Rezervacija(stara.getId(), stara.getKorisnikId(), stara.getOpremaId(),
+                        stara.getKorisnikIme(), stara.getOpremaNaziv(), stara.getDatumRezervacije(),
+                        noviDatumVracanja, stara.getKolicina(), stara.getStatus());
+                indeks.zameniVrednost(id, nova);
+            }
+        });
+    }
+
+    @Override
+    public void rezervacijaObrisana(int id) {
+        ucitavanje.obrisana(id, indeks::ukloni);
+    }
+
+    private static String tekst(Rezervacija r) {
+        return nullKaoPrazno(r.getKorisnikIme()) + TrigramIndex.GRANICA + nullKaoPrazno(r.getOpremaNaziv());
+    }
+
+    private static String nullKaoPrazno(String s) {
+        return s == null ? "" : s;
+    }
+}
@@ -0,0 +1,43 @@
+package controller;
+
+import model.Rezervacija;
+
+/**
+ * Obaveštenje o uspešnim izmenama rezervacija u bazi.
+ * <p>
+ * {@link RezervacijaController} poziva registrovane listenere tek kada je
+ * izmena zaista upisana, pa strukture u memoriji (indeksi, brojači, keševi)
+ * mogu da se održavaju inkrementalno umesto ponovnog učitavanja svih redova.
+ * Sve metode imaju prazne podrazumevane implementacije.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public interface RezervacijaListener {
+
+    /**
+     * Poziva se posle uspešnog unosa rezervacije.
+     *
+     * @param rezervacija nova rezervacija, sa ID-jem koji je dodelila baza, imenom
+     *                    korisnika i nazivom opreme; kopija, ne objekat pozivaoca
+     */
+    default void rezervacijaDodata(Rezervacija rezervacija) {
+    }
+
+    /**
+     * Poziva se posle uspešne promene datuma vraćanja.
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD)
+     */
+    default void rezervacijaAzurirana(int id, String noviDatumVracanja) {
+    }
+
+    /**
+     * Poziva se posle uspešnog brisanja rezervacije.
+     *
+     * @param id ID obrisane rezervacije
+     */
+    default void rezervacijaObrisana(int id) {
+    }
+}
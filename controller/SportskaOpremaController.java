@@ -1,70 +1,141 @@
 package controller;
 
-import database.DatabaseConnection;
+import cache.CacheStats;
+import cache.EntityCache;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import model.Poredak;
+import model.RezultatUnosa;
 import model.SportskaOprema;
+import repository.Repozitorijumi;
+import repository.SportskaOpremaRepository;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Klasa koja upravlja sportskom opremom u sistemu, omogućavajući dodavanje,
  * ažuriranje, brisanje i preuzimanje podataka iz baze.
+ * Podacima pristupa preko {@link SportskaOpremaRepository}-ja, pa ne zavisi od motora skladišta.
  * 
  * @author [DjuroPopara/6271
  */
 public class SportskaOpremaController {
 
+    private static final Logger LOG = Logging.logger("oprema");
+
+    /**
+     * Keš opreme zajednički za sve instance kontrolera. Unosi zastarevaju
+     * posle 30 s, pa izmene sa drugih računara postaju vidljive najkasnije tada.
+     */
+    private static final EntityCache<Integer, SportskaOprema> KES =
+            new EntityCache<>("oprema", 30_000, 10_000, SportskaOprema::getId, SportskaOprema::new);
+
+    private final SportskaOpremaRepository repozitorijum;
+
+    /**
+     * Kontroler nad skladištem izabranim u {@link Repozitorijumi}.
+     */
+    public SportskaOpremaController() {
+        this(Repozitorijumi.oprema());
+    }
+
+    /**
+     * Kontroler nad zadatim skladištem opreme.
+     *
+     * @param repozitorijum skladište sportske opreme
+     */
+    public SportskaOpremaController(SportskaOpremaRepository repozitorijum) {
+        this.repozitorijum = repozitorijum;
+    }
+
     /**
      * Dodaje novu sportsku opremu u bazu podataka.
      * 
      * @param oprema Objekat sportske opreme koji se dodaje
      */
     public void dodajOprema(SportskaOprema oprema) {
-        String sql = "INSERT INTO oprema (naziv, tip_id, dostupnost, cena, kolicina, lokacija) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, oprema.getNaziv());
-            preparedStatement.setInt(2, oprema.getTipId());
-            preparedStatement.setBoolean(3, oprema.isDostupnost());
-            preparedStatement.setDouble(4, oprema.getCena());
-            preparedStatement.setInt(5, oprema.getKolicina());
-            preparedStatement.setString(6, oprema.getLokacija());
-            preparedStatement.executeUpdate();
-            System.out.println("Oprema uspešno dodata u bazu.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri dodavanju opreme: " + e.getMessage());
+        if (repozitorijum.dodaj(oprema)) {
+            KES.invaliduj();
+            LOG.info("dodaj", oprema.getId(), "Oprema uspešno dodata u bazu.");
         }
     }
 
     /**
-     * Dohvata svu sportsku opremu iz baze podataka.
+     * Grupno dodaje opremu; kod MySQL skladišta JDBC batch-om, u transakcijama
+     * od po 500 redova. Upisanoj opremi se postavlja ID.
+     *
+     * @param oprema oprema za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    public RezultatUnosa dodajOpremu(List<SportskaOprema> oprema) {
+        RezultatUnosa rezultat = repozitorijum.dodajSve(oprema);
+        KES.invaliduj();
+        LOG.info("dodajSve", LogEvent.BEZ_ID, "Grupni unos opreme: " + rezultat);
+        return rezultat;
+    }
+
+    /**
+     * Dohvata svu sportsku opremu, iz keša ili iz baze podataka.
      * 
      * @return Lista sve sportske opreme iz baze
      */
     public List<SportskaOprema> getSvaOprema() {
-        List<SportskaOprema> opreme = new ArrayList<>();
-        String sql = "SELECT * FROM oprema";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
-            while (resultSet.next()) {
-                int id = resultSet.getInt("id");
-                String naziv = resultSet.getString("naziv");
-                int tipId = resultSet.getInt("tip_id");
-                boolean dostupnost = resultSet.getBoolean("dostupnost");
-                double cena = resultSet.getDouble("cena");
-                int kolicina = resultSet.getInt("kolicina");
-                String lokacija = resultSet.getString("lokacija");
-                opreme.add(new SportskaOprema(id, naziv, tipId, dostupnost, cena, kolicina, lokacija));
-            }
-        } catch (SQLException e) {
-            System.err.println("Greška pri prikazu opreme: " + e.getMessage());
-        }
-        return opreme;
+        return KES.getSve(repozitorijum::getSve);
+    }
+
+    /**
+     * Dohvata opremu na pozicijama {@code [od, od + velicina)} u zadatom redosledu,
+     * direktno iz baze, za tabelu koja učitava samo strane koje se vide.
+     *
+     * @param poredak  redosled po svojstvu opreme, ili {@code null} za ID
+     * @param od       pozicija prvog reda
+     * @param velicina broj redova
+     * @return oprema u opsegu
+     */
+    public List<SportskaOprema> getOpremaOpseg(Poredak poredak, int od, int velicina) {
+        return repozitorijum.getOpseg(poredak, Math.max(0, od), Math.max(1, velicina));
+    }
+
+    /** @return broj stavki opreme, ili {@code -1} ako brojanje nije uspelo */
+    public int prebrojOpremu() {
+        return repozitorijum.prebroj();
+    }
+
+    /**
+     * Dohvata sportsku opremu po ID-u, iz keša ili iz baze podataka.
+     *
+     * @param id ID opreme
+     * @return oprema ili {@code null} ako ne postoji
+     */
+    public SportskaOprema getOprema(int id) {
+        return KES.get(id, repozitorijum::getPoId);
+    }
+
+    /**
+     * Prazni keš opreme, pa sledeće čitanje ide u bazu.
+     */
+    public static void ocistiKes() {
+        KES.invaliduj();
+    }
+
+    /**
+     * Vraća statistiku keša opreme (pogoci, promašaji, izbacivanja).
+     *
+     * @return snimak statistike keša
+     */
+    public static CacheStats getStatistikaKesa() {
+        return KES.getStats();
+    }
+
+    /**
+     * Asinhrona varijanta {@link #getSvaOprema()}, izvršava se van pozivajuće niti.
+     *
+     * @return future sa listom sve sportske opreme
+     */
+    public CompletableFuture<List<SportskaOprema>> getSvaOpremaAsync() {
+        return AsyncIzvrsilac.izvrsi(this::getSvaOprema);
     }
 
     /**
@@ -73,36 +144,30 @@ public class SportskaOpremaController {
      * @param id ID sportske opreme
      * @param novaCena Nova cena sportske opreme
      * @param novaKolicina Nova količina sportske opreme
+     * @return broj izmenjenih redova, ili {@code -1} ako izmena nije uspela
      */
-    public void azurirajOprema(int id, double novaCena, int novaKolicina) {
-        String sql = "UPDATE oprema SET cena = ?, kolicina = ? WHERE id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setDouble(1, novaCena);
-            preparedStatement.setInt(2, novaKolicina);
-            preparedStatement.setInt(3, id);
-            preparedStatement.executeUpdate();
-            System.out.println("Oprema uspešno ažurirana.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri ažuriranju opreme: " + e.getMessage());
+    public int azurirajOprema(int id, double novaCena, int novaKolicina) {
+        int izmenjeno = repozitorijum.azuriraj(id, novaCena, novaKolicina);
+        if (izmenjeno >= 0) {
+            KES.invaliduj(id);
+            LOG.info("azuriraj", id, "Oprema uspešno ažurirana.");
         }
+        return izmenjeno;
     }
 
     /**
      * Briše sportsku opremu iz baze podataka na osnovu ID-a.
      * 
      * @param id ID sportske opreme koja se briše
+     * @return broj obrisanih redova, ili {@code -1} ako brisanje nije uspelo
      */
-    public void obrisiOprema(int id) {
-        String sql = "DELETE FROM oprema WHERE id = ?";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
-            System.out.println("Oprema uspešno obrisana.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri brisanju opreme: " + e.getMessage());
+    public int obrisiOprema(int id) {
+        int obrisano = repozitorijum.obrisi(id);
+        if (obrisano >= 0) {
+            KES.invaliduj(id);
+            LOG.info("obrisi", id, "Oprema uspešno obrisana.");
         }
+        return obrisano;
     }
 
     /**
@@ -112,27 +177,14 @@ public class SportskaOpremaController {
      */
     public void dodajOprema2(SportskaOprema oprema) {
         if (oprema.getKolicina() < 0) {
-            System.err.println("Količina ne može biti negativna.");
+            LOG.upozorenje("dodaj", LogEvent.BEZ_ID, "Količina ne može biti negativna.");
             return;
         }
         if (oprema.getCena() <= 0) {
-            System.err.println("Cena mora biti veća od 0.");
+            LOG.upozorenje("dodaj", LogEvent.BEZ_ID, "Cena mora biti veća od 0.");
             return;
         }
 
-        String sql = "INSERT INTO oprema (naziv, tip_id, dostupnost, cena, kolicina, lokacija) VALUES (?, ?, ?, ?, ?, ?)";
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, oprema.getNaziv());
-            preparedStatement.setInt(2, oprema.getTipId());
-            preparedStatement.setBoolean(3, oprema.isDostupnost());
-            preparedStatement.setDouble(4, oprema.getCena());
-            preparedStatement.setInt(5, oprema.getKolicina());
-            preparedStatement.setString(6, oprema.getLokacija());
-            preparedStatement.executeUpdate();
-            System.out.println("Oprema uspešno dodata u bazu.");
-        } catch (SQLException e) {
-            System.err.println("Greška pri dodavanju opreme: " + e.getMessage());
-        }
+        dodajOprema(oprema);
     }
 }
@@ -0,0 +1,220 @@
+package controller;
+
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import model.Korisnik;
+import model.RezultatUnosa;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.regex.Pattern;
+
+/**
+ * Uvoz velikih spiskova korisnika iz CSV-a sa kolonama ime, email, telefon.
+ * <p>
+ * Linije se dele, normalizuju i proveravaju paralelno, u {@link ForkJoinPool}-u,
+ * sa unapred prevedenim regularnim izrazima. Ime dobija jednostruke razmake,
+ * email mala slova, a iz telefona se uklanjaju razmaci, crtice, kose crte,
+ * tačke i zagrade.
+ * </p>
+ * <p>
+ * Email adrese iz baze se učitaju jednom, u {@link HashSet}, pa se odbijaju
+ * adrese koje već postoje, kao i adrese ponovljene u samom fajlu (upisuje se
+ * prva pojava). Ispravni korisnici se upisuju grupnim unosom
+ * ({@link KorisnikController#dodajKorisnike}). Svaka odbijena linija se
+ * prijavljuje sa brojem linije i razlogom.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class UvozKorisnika {
+
+    private static final Logger LOG = Logging.logger("korisnici");
+
+    /** Broj linija koje jedan zadatak obrađuje bez daljeg deljenja. */
+    private static final int PRAG_DELJENJA = 2_048;
+
+    private static final Pattern RAZMACI = Pattern.compile("\\s+");
+
+    /** Znakovi koji se uklanjaju iz broja telefona. */
+    private static final Pattern ZNAKOVI_TELEFONA = Pattern.compile("[\\s\\-/.()]");
+
+    /** Telefon posle uklanjanja znakova: opcioni {@code +} i bar {@value KorisnikController#MIN_DUZINA_TELEFONA} cifara. */
+    private static final Pattern TELEFON = Pattern.compile(
+            "\\+?[0-9]{" + KorisnikController.MIN_DUZINA_TELEFONA + ",15}");
+
+    private final KorisnikController kontroler;
+
+    /**
+     * Uvoz preko kontrolera nad skladištem izabranim u {@link repository.Repozitorijumi}.
+     */
+    public UvozKorisnika() {
+        this(new KorisnikController());
+    }
+
+    /**
+     * Uvoz preko zadatog kontrolera.
+     *
+     * @param kontroler kontroler korisnika
+     */
+    public UvozKorisnika(KorisnikController kontroler) {
+        this.kontroler = kontroler;
+    }
+
+    /**
+     * Uvozi CSV fajl; prva linija je zaglavlje i preskače se.
+     *
+     * @param fajl CSV fajl (UTF-8)
+     * @return rezultat; {@link RezultatUnosa.Greska#getRed()} je broj linije u fajlu
+     * @throws IOException  ako fajl ne može da se pročita
+     * @throws SQLException ako postojeće email adrese ne mogu da se pročitaju; ništa nije upisano
+     */
+    public RezultatUnosa uvezi(Path fajl) throws IOException, SQLException {
+        List<String> linije = Files.readAllLines(fajl, StandardCharsets.UTF_8);
+        return uvezi(linije.subList(Math.min(1, linije.size()), linije.size()), 2);
+    }
+
+    /**
+     * Uvozi linije bez zaglavlja.
+     *
+     * @param linije     linije CSV-a
+     * @param prvaLinija broj prve linije u fajlu, za prijavu grešaka
+     * @return rezultat; {@link RezultatUnosa.Greska#getRed()} je broj linije u fajlu
+     * @throws SQLException ako postojeće email adrese ne mogu da se pročitaju; ništa nije upisano
+     */
+    public RezultatUnosa uvezi(List<String> linije, int prvaLinija) throws SQLException {
+        long pocetak = System.nanoTime();
+        int n = linije.size();
+        Korisnik[] korisnici = new Korisnik[n];
+        String[] odbijeno = new String[n];
+        ForkJoinPool.commonPool().invoke(new Obrada(linije, korisnici, odbijeno, 0, n));
+
+        Set<String> postojeci = new HashSet<>();
+        for (String email : kontroler.getEmailove()) {
+            if (email != null) {
+                postojeci.add(normalizujEmail(email));
+            }
+        }
+
+        // Duplikati se traže redom linija, pa se uvek upisuje prva pojava
+        Map<String, Integer> uFajlu = new HashMap<>();
+        List<Korisnik> zaUnos = new ArrayList<>(n);
+        List<Integer> linijeUnosa = new ArrayList<>(n);
+        List<RezultatUnosa.Greska> greske = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int linija = prvaLinija + i;
+            if (odbijeno[i] != null) {
+                greske.add(new RezultatUnosa.Greska(linija, odbijeno[i]));
+                continue;
+            }
+            Korisnik k = korisnici[i];
+            if (k == null) {
+                continue; // prazna linija
+            }
+            if (postojeci.contains(k.getEmail())) {
+                greske.add(new RezultatUnosa.Greska(linija, "email već postoji: " + k.getEmail()));
+                continue;
+            }
+            Integer ranija = uFajlu.putIfAbsent(k.getEmail(), linija);
+            if (ranija != null) {
+                greske.add(new RezultatUnosa.Greska(linija, "email je već na liniji " + ranija + ": " + k.getEmail()));
+                continue;
+            }
+            zaUnos.add(k);
+            linijeUnosa.add(linija);
+        }
+
+        RezultatUnosa rezultat = kontroler.dodajKorisnike(zaUnos);
+        for (RezultatUnosa.Greska g : rezultat.getGreske()) {
+            greske.add(new RezultatUnosa.Greska(linijeUnosa.get(g.getRed()), g.getPoruka()));
+        }
+        greske.sort(Comparator.comparingInt(RezultatUnosa.Greska::getRed));
+        LOG.info("uvoz", LogEvent.BEZ_ID, System.nanoTime() - pocetak,
+                "Uvoz korisnika: " + rezultat.getBrojUspesnih() + " upisano, " + greske.size() + " odbijeno.");
+        return new RezultatUnosa(rezultat.getGenerisaniId(), greske);
+    }
+
+    /**
+     * Pravi normalizovanog korisnika od jedne linije.
+     *
+     * @return korisnik, ili {@code null} za praznu liniju
+     * @throws IllegalArgumentException ako linija nije ispravna; poruka je razlog
+     */
+    static Korisnik obradi(String linija) {
+        if (linija.isBlank()) {
+            return null;
+        }
+        List<String> polja = CsvUvoz.podeli(linija);
+        if (polja.size() != 3) {
+            throw new IllegalArgumentException("očekivano 3 kolona, pronađeno " + polja.size());
+        }
+        String ime = RAZMACI.matcher(polja.get(0)).replaceAll(" ");
+        String email = normalizujEmail(polja.get(1));
+        String telefon = ZNAKOVI_TELEFONA.matcher(polja.get(2)).replaceAll("");
+        if (ime.isEmpty()) {
+            throw new IllegalArgumentException("ime je prazno");
+        }
+        if (!KorisnikController.EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("neispravan email: " + polja.get(1));
+        }
+        if (!TELEFON.matcher(telefon).matches()) {
+            throw new IllegalArgumentException("neispravan telefon: " + polja.get(2));
+        }
+        return new Korisnik(ime, email, telefon);
+    }
+
+    private static String normalizujEmail(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Obrađuje opseg linija, deleći ga na pola dok ne postane dovoljno mali. */
+    private static final class Obrada extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> linije;
+        private final Korisnik[] korisnici;
+        private final String[] odbijeno;
+        private final int od;
+        private final int doIndeksa;
+
+        private Obrada(List<String> linije, Korisnik[] korisnici, String[] odbijeno, int od, int doIndeksa) {
+            this.linije = linije;
+            this.korisnici = korisnici;
+            this.odbijeno = odbijeno;
+            this.od = od;
+            this.doIndeksa = doIndeksa;
+        }
+
+        @Override
+        protected void compute() {
+            if (doIndeksa - od <= PRAG_DELJENJA) {
+                for (int i = od; i < doIndeksa; i++) {
+                    try {
+                        korisnici[i] = obradi(linije.get(i));
+                    } catch (IllegalArgumentException e) {
+                        odbijeno[i] = e.getMessage();
+                    }
+                }
+                return;
+            }
+            int sredina = (od + doIndeksa) >>> 1;
+            invokeAll(new Obrada(linije, korisnici, odbijeno, od, sredina),
+                    new Obrada(linije, korisnici, odbijeno, sredina, doIndeksa));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package controller;
+
+import model.Rezervacija;
+import model.Rezolucija;
+import model.TackaNiza;
+import model.VremenskiNiz;
+import store.DnevniZbirovi;
+import store.Lttb;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Vremenski nizovi rezervacija (broj i količina po danu, nedelji ili mesecu)
+ * za grafikone, ukupno ili za jednu opremu.
+ * <p>
+ * Zbirovi po danu ({@link DnevniZbirovi}) prave se jednom, pri prvom pozivu
+ * {@link #getInstance()}, a zatim se održavaju preko {@link RezervacijaListener}
+ * događaja iz {@link RezervacijaController}-a, pa grafikon ne čita rezervacije iz baze.
+ * Promena datuma vraćanja ne menja zbirove, koji se vode po danu rezervacije.
+ * Brisanja koja stignu dok učitavanje traje pamte se do njegovog kraja
+ * ({@link PocetnoUcitavanje}), pa se obrisana rezervacija ne broji.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class VremenskiZbirovi implements RezervacijaListener {
+
+    /**
+     * Koliko puta više intervala od traženog broja tačaka sme da ima izabrana
+     * rezolucija; višak uklanja {@link Lttb}, koji čuva vrhove bolje od šireg intervala.
+     */
+    private static final int VISAK_INTERVALA = 4;
+
+    private static volatile VremenskiZbirovi instance;
+
+    private final DnevniZbirovi zbirovi = new DnevniZbirovi();
+
+    private final PocetnoUcitavanje ucitavanje = new PocetnoUcitavanje();
+
+    private VremenskiZbirovi() {
+    }
+
+    /**
+     * Vraća zajedničke zbirove; pri prvom pozivu prolazi kroz sve rezervacije iz baze.
+     *
+     * @return zbirovi
+     * @throws IllegalStateException ako čitanje iz baze nije uspelo; sledeći poziv pokušava ponovo
+     */
+    public static VremenskiZbirovi getInstance() {
+        VremenskiZbirovi z = instance;
+        if (z == null) {
+            synchronized (VremenskiZbirovi.class) {
+                z = instance;
+                if (z == null) {
+                    z = new VremenskiZbirovi();
+                    // Listener se registruje pre učitavanja da se ne izgubi izmena u međuvremenu
+                    RezervacijaController.dodajListener(z);
+                    if (!z.ucitavanje.ucitaj(null, z::rezervacijaDodata)) {
+                        RezervacijaController.ukloniListener(z);
+                        throw new IllegalStateException("Zbirovi nisu učitani: čitanje rezervacija nije uspelo.");
+                    }
+                    instance = z;
+                }
+            }
+        }
+        return z;
+    }
+
+    /**
+     * Učitava zbirove u pozadini, ako već nisu učitani.
+     *
+     * @return future sa zbirovima
+     */
+    public static CompletableFuture<VremenskiZbirovi> getInstanceAsync() {
+        VremenskiZbirovi z = instance;
+        return z != null ? CompletableFuture.completedFuture(z) : AsyncIzvrsilac.izvrsi(VremenskiZbirovi::getInstance);
+    }
+
+    /**
+     * Vraća niz za period, sa najviše {@code maxTacaka} tačaka po meri.
+     * <p>
+     * Rezolucija se bira prema dužini perioda (dani za kratke, nedelje ili
+     * meseci za duže), a ako intervala i dalje ima više od {@code maxTacaka},
+     * tačke se biraju algoritmom LTTB.
+     * </p>
+     *
+     * @param opremaId  ID opreme, ili {@code null} za svu opremu
+     * @param od        prvi dan perioda
+     * @param doDatuma  dan posle poslednjeg dana perioda
+     * @param maxTacaka najveći broj tačaka po meri
+     * @return niz broja rezervacija i niz količine
+     */
+    public VremenskiNiz getNiz(Integer opremaId, LocalDate od, LocalDate doDatuma, int maxTacaka) {
+        Rezolucija rezolucija = Rezolucija.za(od, doDatuma, maxTacaka * VISAK_INTERVALA);
+        List<TackaNiza> tacke = zbirovi.getNiz(opremaId, od, doDatuma, rezolucija);
+        return new VremenskiNiz(od, doDatuma, rezolucija,
+                Lttb.smanji(tacke, TackaNiza::getDan, TackaNiza::getBrojRezervacija, maxTacaka),
+                Lttb.smanji(tacke, TackaNiza::getDan, TackaNiza::getUkupnaKolicina, maxTacaka));
+    }
+
+    /**
+     * Vraća niz za celu istoriju, od prvog do poslednjeg dana sa rezervacijom
+     * (bez rezervacija, za današnji dan).
+     *
+     * @param opremaId  ID opreme, ili {@code null} za svu opremu
+     * @param maxTacaka najveći broj tačaka po meri
+     * @return niz broja rezervacija i niz količine
+     */
+    public VremenskiNiz getNiz(Integer opremaId, int maxTacaka) {
+        LocalDate[] period = getPeriod(opremaId);
+        if (period == null) {
+            LocalDate danas = LocalDate.now();
+            return getNiz(opremaId, danas, danas.plusDays(1), maxTacaka);
+        }
+        return getNiz(opremaId, period[0], period[1].plusDays(1), maxTacaka);
+    }
+
+    /**
+     * @param opremaId ID opreme, ili {@code null} za svu opremu
+     * @return prvi i poslednji dan sa rezervacijom, ili {@code null} ako ih nema
+     */
+    public LocalDate[] getPeriod(Integer opremaId) {
+        return zbirovi.getPeriod(opremaId);
+    }
+
+    /** @return broj rezervacija u zbirovima */
+    public int getBrojRezervacija() {
+        return zbirovi.getBroj();
+    }
+
+    @Override
+    public void rezervacijaDodata(Rezervacija r) {
+        zbirovi.dodaj(r);
+    }
+
+    @Override
+    public void rezervacijaObrisana(int id) {
+        ucitavanje.obrisana(id, zbirovi::ukloni);
+    }
+}
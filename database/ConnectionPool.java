@@ -0,0 +1,387 @@
+package database;
+
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ograničeni pul JDBC konekcija ka MySQL bazi.
+ * <p>
+ * Umesto da svaki poziv otvara novu fizičku konekciju (TCP + autentifikacija),
+ * pul drži najviše {@code maxVelicina} konekcija i ponovo ih koristi.
+ * Konekcija koju pul vrati je omotač čiji {@link Connection#close()} ne zatvara
+ * fizičku konekciju, već je vraća u pul, pa postojeći
+ * {@code try-with-resources} blokovi u kontrolerima rade bez izmena.
+ * Svako preuzimanje dobija novi omotač: posle {@code close()} on odbija sve
+ * pozive, pa zadržana referenca ne može da koristi ni da vrati konekciju
+ * koja je u međuvremenu data drugoj niti.
+ * Isto važi i za {@code prepareStatement(sql)}: svaka fizička konekcija
+ * ima svoj {@link StatementCache}, pa se ista naredba priprema samo jednom.
+ * </p>
+ * <p>
+ * Pul proverava konekcije koje su duže stajale neiskorišćene, izbacuje one
+ * koje su predugo besposlene ili su prešle maksimalni životni vek, i vodi
+ * statistiku o aktivnim, slobodnim konekcijama i vremenu čekanja.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class ConnectionPool {
+
+    private static final Logger LOG = Logging.logger("baza");
+
+    /** Konekcija se ne proverava ako je vraćena u pul pre manje od ovoliko ms. */
+    private static final long VALIDACIJA_PRESKOCI_MS = 500;
+
+    /** Vreme (u sekundama) koje se daje drajveru za {@link Connection#isValid(int)}. */
+    private static final int VALIDACIJA_TIMEOUT_S = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxVelicina;
+    private final int minSlobodnih;
+    private final long acquireTimeoutMs;
+    private final long idleTimeoutMs;
+    private final long maxLifetimeMs;
+
+    /** Slobodne konekcije; poslednja vraćena se prva ponovo koristi (LIFO). */
+    private final LinkedBlockingDeque<PooledConnection> slobodne = new LinkedBlockingDeque<>();
+
+    /** Dozvole ograničavaju ukupan broj izdatih konekcija na {@link #maxVelicina}. */
+    private final Semaphore dozvole;
+
+    private final ScheduledExecutorService cistac;
+
+    private final AtomicInteger aktivne = new AtomicInteger();
+    private final AtomicInteger ukupno = new AtomicInteger();
+    private final AtomicLong brojPreuzimanja = new AtomicLong();
+    private final AtomicLong ukupnoCekanjeNanos = new AtomicLong();
+    private final AtomicLong maxCekanjeNanos = new AtomicLong();
+    private final AtomicLong brojIsteklih = new AtomicLong();
+    private final AtomicLong brojKreiranih = new AtomicLong();
+    private final AtomicLong brojUnistenih = new AtomicLong();
+
+    private volatile boolean zatvoren;
+
+    /**
+     * Kreira pul i pokreće pozadinski zadatak za izbacivanje zastarelih konekcija.
+     *
+     * @param url              JDBC URL baze
+     * @param user             korisničko ime
+     * @param password         lozinka
+     * @param maxVelicina      najveći broj istovremeno otvorenih konekcija
+     * @param minSlobodnih     broj slobodnih konekcija koje čistač ne zatvara
+     * @param acquireTimeoutMs koliko najduže {@link #getConnection()} čeka na slobodnu konekciju
+     * @param idleTimeoutMs    posle koliko ms besposlena konekcija može biti zatvorena
+     * @param maxLifetimeMs    najduži životni vek fizičke konekcije
+     */
+    public ConnectionPool(String url, String user, String password,
+                          int maxVelicina, int minSlobodnih,
+                          long acquireTimeoutMs, long idleTimeoutMs, long maxLifetimeMs) {
+        if (maxVelicina <= 0) {
+            throw new IllegalArgumentException("Veličina pula mora biti veća od 0.");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxVelicina = maxVelicina;
+        this.minSlobodnih = Math.min(minSlobodnih, maxVelicina);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLifetimeMs = maxLifetimeMs;
+        this.dozvole = new Semaphore(maxVelicina, true);
+
+        this.cistac = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-cistac");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMs, maxLifetimeMs) / 2);
+        cistac.scheduleWithFixedDelay(this::izbaciZastarele, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Preuzima konekciju iz pula, po potrebi otvarajući novu.
+     * <p>
+     * Ako su sve konekcije zauzete, čeka najviše {@code acquireTimeoutMs}
+     * i zatim baca {@link SQLTimeoutException}. Metoda nikad ne vraća {@code null}.
+     * </p>
+     *
+     * @return konekcija čiji {@code close()} vraća konekciju u pul
+     * @throws SQLException ako je pul zatvoren, ako je isteklo vreme čekanja
+     *                      ili ako nije moguće otvoriti novu konekciju
+     */
+    public Connection getConnection() throws SQLException {
+        if (zatvoren) {
+            throw new SQLException("Pul konekcija je zatvoren.");
+        }
+        long pocetak = System.nanoTime();
+        try {
+            if (!dozvole.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                brojIsteklih.incrementAndGet();
+                throw new SQLTimeoutException("Nije dobijena konekcija iz pula za "
+                        + acquireTimeoutMs + " ms (aktivne: " + aktivne.get() + "/" + maxVelicina + ").");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Prekinuto čekanje na konekciju iz pula.", e);
+        }
+        zabeleziCekanje(System.nanoTime() - pocetak);
+
+        try {
+            PooledConnection pc = uzmiIspravnuSlobodnu();
+            if (pc == null) {
+                pc = otvoriNovu();
+            }
+            aktivne.incrementAndGet();
+            return pc.pozajmi();
+        } catch (SQLException | RuntimeException e) {
+            dozvole.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Vraća trenutno stanje pula.
+     *
+     * @return nepromenljivi snimak statistike pula
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                aktivne.get(),
+                slobodne.size(),
+                ukupno.get(),
+                maxVelicina,
+                dozvole.getQueueLength(),
+                brojPreuzimanja.get(),
+                ukupnoCekanjeNanos.get(),
+                maxCekanjeNanos.get(),
+                brojIsteklih.get(),
+                brojKreiranih.get(),
+                brojUnistenih.get());
+    }
+
+    /**
+     * Zatvara pul: zaustavlja čistač i zatvara sve slobodne konekcije.
+     * Konekcije koje su trenutno u upotrebi zatvaraju se kada ih pozivalac vrati.
+     */
+    public void close() {
+        zatvoren = true;
+        cistac.shutdownNow();
+        PooledConnection pc;
+        while ((pc = slobodne.pollFirst()) != null) {
+            unisti(pc);
+        }
+    }
+
+    private PooledConnection uzmiIspravnuSlobodnu() {
+        PooledConnection pc;
+        while ((pc = slobodne.pollFirst()) != null) {
+            long sada = System.currentTimeMillis();
+            if (sada - pc.kreirana >= maxLifetimeMs) {
+                unisti(pc);
+                continue;
+            }
+            if (sada - pc.poslednjaUpotreba < VALIDACIJA_PRESKOCI_MS || jeIspravna(pc)) {
+                return pc;
+            }
+            unisti(pc);
+        }
+        return null;
+    }
+
+    private boolean jeIspravna(PooledConnection pc) {
+        try {
+            return pc.fizicka.isValid(VALIDACIJA_TIMEOUT_S);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection otvoriNovu() throws SQLException {
+        long pocetak = System.nanoTime();
+        Connection fizicka = DriverManager.getConnection(url, user, password);
+        ukupno.incrementAndGet();
+        brojKreiranih.incrementAndGet();
+        LOG.info("otvoriKonekciju", LogEvent.BEZ_ID, System.nanoTime() - pocetak,
+                "Konekcija sa bazom je uspešno uspostavljena!");
+        return new PooledConnection(fizicka);
+    }
+
+    /** Poziva se iz omotača kada pozivalac zatvori konekciju, tačno jednom po preuzimanju. */
+    private void vrati(PooledConnection pc) {
+        aktivne.decrementAndGet();
+        try {
+            boolean zadrzi = !zatvoren
+                    && System.currentTimeMillis() - pc.kreirana < maxLifetimeMs
+                    && pripremiZaPonovnuUpotrebu(pc);
+            if (zadrzi) {
+                pc.poslednjaUpotreba = System.currentTimeMillis();
+                slobodne.offerFirst(pc);
+            } else {
+                unisti(pc);
+            }
+        } finally {
+            dozvole.release();
+        }
+    }
+
+    /**
+     * Vraća konekciju u podrazumevano stanje (auto-commit, bez otvorene transakcije)
+     * kako sledeći korisnik ne bi nasledio tuđu transakciju.
+     */
+    private boolean pripremiZaPonovnuUpotrebu(PooledConnection pc) {
+        try {
+            if (pc.fizicka.isClosed()) {
+                return false;
+            }
+            if (!pc.fizicka.getAutoCommit()) {
+                pc.fizicka.rollback();
+                pc.fizicka.setAutoCommit(true);
+            }
+            if (pc.fizicka.isReadOnly()) {
+                pc.fizicka.setReadOnly(false);
+            }
+            pc.fizicka.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void unisti(PooledConnection pc) {
+        pc.kes.zatvoriSve();
+        try {
+            pc.fizicka.close();
+        } catch (SQLException e) {
+            LOG.upozorenje("zatvoriKonekciju", LogEvent.BEZ_ID, "Greška pri zatvaranju konekcije: " + e.getMessage());
+        }
+        ukupno.decrementAndGet();
+        brojUnistenih.incrementAndGet();
+    }
+
+    /** Periodično zatvara besposlene i prestare konekcije, čuvajući {@link #minSlobodnih}. */
+    private void izbaciZastarele() {
+        long sada = System.currentTimeMillis();
+        Iterator<PooledConnection> it = slobodne.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pc = it.next();
+            boolean prestara = sada - pc.kreirana >= maxLifetimeMs;
+            boolean besposlena = sada - pc.poslednjaUpotreba >= idleTimeoutMs
+                    && slobodne.size() > minSlobodnih;
+            if ((prestara || besposlena) && slobodne.removeFirstOccurrence(pc)) {
+                unisti(pc);
+            }
+        }
+    }
+
+    private void zabeleziCekanje(long nanos) {
+        brojPreuzimanja.incrementAndGet();
+        ukupnoCekanjeNanos.addAndGet(nanos);
+        maxCekanjeNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Fizička konekcija sa kešom pripremljenih naredbi.
+     */
+    private final class PooledConnection {
+
+        private final Connection fizicka;
+        private final StatementCache kes;
+        private final long kreirana = System.currentTimeMillis();
+        private volatile long poslednjaUpotreba = kreirana;
+
+        PooledConnection(Connection fizicka) {
+            this.fizicka = fizicka;
+            this.kes = new StatementCache(fizicka);
+        }
+
+        /** @return novi omotač za jedno preuzimanje */
+        Connection pozajmi() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Pozajmica(this));
+        }
+    }
+
+    /**
+     * Omotač jednog preuzimanja; važi od {@link #getConnection()} do prvog {@code close()}.
+     */
+    private final class Pozajmica implements InvocationHandler {
+
+        private final PooledConnection pc;
+        private final Connection fizicka;
+        private final StatementCache kes;
+        private final AtomicBoolean vracena = new AtomicBoolean();
+
+        Pozajmica(PooledConnection pc) {
+            this.pc = pc;
+            this.fizicka = pc.fizicka;
+            this.kes = pc.kes;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    // Samo prvo zatvaranje vraća konekciju; ponovljeno ne dira tuđu pozajmicu
+                    if (vracena.compareAndSet(false, true)) {
+                        vrati(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return vracena.get() || fizicka.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + fizicka + "]";
+                default:
+                    break;
+            }
+            if (vracena.get()) {
+                throw new SQLException("Konekcija je već vraćena u pul.");
+            }
+            if (jeKesiranaPriprema(method)) {
+                int generisaniKljucevi = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                return kes.pripremi((String) args[0], generisaniKljucevi);
+            }
+            try {
+                return method.invoke(fizicka, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /** {@code prepareStatement(String)} i {@code prepareStatement(String, int)} idu kroz keš. */
+        private boolean jeKesiranaPriprema(Method method) {
+            if (!method.getName().equals("prepareStatement")) {
+                return false;
+            }
+            Class<?>[] tipovi = method.getParameterTypes();
+            return tipovi.length == 1 || (tipovi.length == 2 && tipovi[1] == int.class);
+        }
+    }
+}
@@ -1,23 +1,39 @@
 package database;
 
+import metrics.Metrics;
+import metrics.OperationMetrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Utility klasa za uspostavljanje konekcije sa MySQL bazom podataka.
+ * Utility klasa za dobijanje konekcije sa MySQL bazom podataka.
+ * <p>
+ * Konekcije se uzimaju iz zajedničkog {@link ConnectionPool}-a koji se
+ * povezuje na bazu čiji su podaci specificirani u konstantama {@link #URL},
+ * {@link #USER} i {@link #PASSWORD}. Zatvaranjem konekcije ona se vraća u pul.
+ * </p>
  * <p>
- * Koristi {@link DriverManager} da se poveže na bazu čiji su podaci
- * specificirani u konstanti {@link #URL}, {@link #USER} i {@link #PASSWORD}.
+ * Sistemska svojstva {@code db.url}, {@code db.user}, {@code db.password} i
+ * {@code db.driver} zamenjuju konstante, npr. da bi benchmark radio nad
+ * ugrađenom bazom u memoriji.
  * </p>
  *
  * @author DjuroPopara6271
  */
 public class DatabaseConnection {
 
-    /** JDBC URL baze podataka (sa parametrima za SSL i vremensku zonu). */
+    /**
+     * JDBC URL baze podataka (sa parametrima za SSL i vremensku zonu).
+     * {@code useServerPrepStmts} uključuje pripremu naredbi na serveru, koje
+     * {@link StatementCache} zatim čuva po konekciji, a {@code useCursorFetch}
+     * omogućava da {@code setFetchSize} čita velike rezultate u blokovima.
+     * {@code rewriteBatchedStatements} spaja JDBC batch {@code INSERT} naredbi
+     * u jedan višeredni {@code INSERT}, što koristi grupni unos.
+     */
     private static final String URL =
-            "jdbc:mysql://localhost:3306/rezervacijasportskeopreme?useSSL=false&serverTimezone=UTC";
+            "jdbc:mysql://localhost:3306/rezervacijasportskeopreme?useSSL=false&serverTimezone=UTC"
+                    + "&useServerPrepStmts=true&useCursorFetch=true&rewriteBatchedStatements=true";
 
     /** Korisničko ime za pristup MySQL bazi. */
     private static final String USER = "root";
@@ -25,24 +41,88 @@ public class DatabaseConnection {
     /** Lozinka za pristup MySQL bazi. */
     private static final String PASSWORD = "";
 
+    /** Klasa JDBC drajvera. */
+    private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
+
+    /** Najveći broj istovremeno otvorenih konekcija. */
+    private static final int POOL_MAX = 10;
+
+    /** Broj slobodnih konekcija koje se čuvaju i kad nema saobraćaja. */
+    private static final int POOL_MIN_SLOBODNIH = 2;
+
+    /** Koliko najduže (ms) se čeka na slobodnu konekciju. */
+    private static final long POOL_ACQUIRE_TIMEOUT_MS = 5_000;
+
+    /** Posle koliko ms neiskorišćena konekcija može biti zatvorena. */
+    private static final long POOL_IDLE_TIMEOUT_MS = 5 * 60_000;
+
+    /** Najduži životni vek konekcije (ms), kraći od MySQL {@code wait_timeout}. */
+    private static final long POOL_MAX_LIFETIME_MS = 30 * 60_000;
+
+    /** Vreme čekanja na konekciju iz pula, uključujući otvaranje nove. */
+    private static final OperationMetrics PREUZIMANJE = Metrics.operacija("konekcija.preuzimanje");
+
+    /** Zajednički pul, kreira se pri prvom pozivu {@link #getConnection()}. */
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Vraća konekciju iz zajedničkog pula.
+     *
+     * @return konekcija ka bazi, nikad {@code null}
+     * @throws SQLException ako drajver nije pronađen, baza nije dostupna
+     *                      ili nijedna konekcija nije oslobođena na vreme
+     */
+    public static Connection getConnection() throws SQLException {
+        try (Metrics.Merenje m = Metrics.pocni(PREUZIMANJE)) {
+            try {
+                Connection connection = getPool().getConnection();
+                m.setRedova(1);
+                return connection;
+            } catch (SQLException e) {
+                m.oznaciGresku();
+                throw e;
+            }
+        }
+    }
+
     /**
-     * Uspostavlja i vraća novu {@link Connection} ka bazi podataka.
+     * Vraća zajednički pul konekcija, kreirajući ga pri prvom pozivu.
      *
-     * @return nova konekcija ako je uspostavljena, inače {@code null}
+     * @return pul konekcija
+     * @throws SQLException ako JDBC drajver nije pronađen
+     */
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool p = pool;
+        if (p == null) {
+            synchronized (DatabaseConnection.class) {
+                p = pool;
+                if (p == null) {
+                    try {
+                        // Učitaj JDBC drajver (samo jednom)
+                        Class.forName(System.getProperty("db.driver", DRIVER));
+                    } catch (ClassNotFoundException e) {
+                        throw new SQLException("JDBC drajver nije pronađen: " + e.getMessage(), e);
+                    }
+                    p = new ConnectionPool(System.getProperty("db.url", URL),
+                            System.getProperty("db.user", USER),
+                            System.getProperty("db.password", PASSWORD),
+                            POOL_MAX, POOL_MIN_SLOBODNIH,
+                            POOL_ACQUIRE_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_MAX_LIFETIME_MS);
+                    pool = p;
+                }
+            }
+        }
+        return p;
+    }
+
+    /**
+     * Zatvara zajednički pul i sve slobodne konekcije.
+     * Poziva se pri gašenju aplikacije.
      */
-    public static Connection getConnection() {
-        Connection connection = null;
-        try {
-            // Učitaj JDBC drajver
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            // Poveži se na bazu
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("Konekcija sa bazom je uspešno uspostavljena!");
-        } catch (ClassNotFoundException e) {
-            System.err.println("MySQL JDBC drajver nije pronađen: " + e.getMessage());
-        } catch (SQLException e) {
-            System.err.println("Greška pri konekciji sa bazom: " + e.getMessage());
+    public static synchronized void zatvori() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
-        return connection;
     }
 }
@@ -0,0 +1,295 @@
+package database;
+
+import logging.Logger;
+import logging.Logging;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Verzionisane migracije MySQL šeme: tabele {@code korisnik}, {@code oprema}
+ * i {@code rezervacija} sa indeksima koje upiti skladišta koriste, brojači,
+ * verzija opreme, dnevnik promena sa vremenom upisa i okidači brojača.
+ * <p>
+ * Primenjene verzije se beleže u tabeli {@code schema_verzija}, pa svako
+ * pokretanje primenjuje samo nove migracije, redom. MySQL DDL se ne može
+ * poništiti, zato svaki korak prvo proverava da li tabela, kolona, indeks ili
+ * okidač već postoji: prekinuta migracija se ponavlja bez greške, a i baza
+ * napravljena ranije kroz phpMyAdmin dobija samo ono što joj nedostaje.
+ * </p>
+ * <p>
+ * Nova migracija se dodaje na kraj liste {@link #MIGRACIJE} sa sledećim
+ * brojem; već primenjene se ne menjaju.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Migracije {
+
+    private static final Logger LOG = Logging.logger("baza");
+
+    private static final String SQL_TABELA_VERZIJA =
+            "CREATE TABLE IF NOT EXISTS schema_verzija (verzija INT PRIMARY KEY, opis VARCHAR(200) NOT NULL, " +
+                    "primenjena TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String SQL_VERZIJA = StatementRegistry.registruj("migracije.verzija",
+            "SELECT COALESCE(MAX(verzija), 0) FROM schema_verzija");
+
+    private static final String SQL_ZABELEZI = StatementRegistry.registruj("migracije.zabelezi",
+            "INSERT INTO schema_verzija (verzija, opis) VALUES (?, ?)");
+
+    private static final String SQL_OKIDAC_POSTOJI = StatementRegistry.registruj("migracije.okidac",
+            "SELECT COUNT(*) FROM information_schema.TRIGGERS WHERE TRIGGER_SCHEMA = DATABASE() AND TRIGGER_NAME = ?");
+
+    /** Jedan korak migracije; preskače se ako ono što pravi već postoji. */
+    private interface Korak {
+        void izvrsi(Connection connection, Statement statement) throws SQLException;
+    }
+
+    /** Migracija sa rednim brojem verzije koju daje šemi. */
+    private static final class Migracija {
+        private final int verzija;
+        private final String opis;
+        private final List<Korak> koraci;
+
+        private Migracija(int verzija, String opis, Korak... koraci) {
+            this.verzija = verzija;
+            this.opis = opis;
+            this.koraci = List.of(koraci);
+        }
+    }
+
+    /** Verzija šeme od koje okidači održavaju {@code rezervacija_brojac}. */
+    public static final int VERZIJA_BROJACA = 7;
+
+    private static final List<Migracija> MIGRACIJE = List.of(
+            new Migracija(1, "Tabele korisnik, oprema i rezervacija",
+                    tabela("korisnik", "CREATE TABLE korisnik (id INT AUTO_INCREMENT PRIMARY KEY, " +
+                            "ime VARCHAR(100) NOT NULL, email VARCHAR(100) NOT NULL, telefon VARCHAR(30)) " +
+                            "ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    tabela("oprema", "CREATE TABLE oprema (id INT AUTO_INCREMENT PRIMARY KEY, " +
+                            "naziv VARCHAR(100) NOT NULL, tip_id INT, dostupnost BOOLEAN NOT NULL DEFAULT TRUE, " +
+                            "cena DOUBLE NOT NULL DEFAULT 0, kolicina INT NOT NULL DEFAULT 0, lokacija VARCHAR(100)) " +
+                            "ENGINE=InnoDB DEFAULT CHARSET=utf8mb4"),
+                    tabela("rezervacija", "CREATE TABLE rezervacija (id INT AUTO_INCREMENT PRIMARY KEY, " +
+                            "korisnik_id INT NOT NULL, oprema_id INT NOT NULL, datum_rezervacije DATE NOT NULL, " +
+                            "datum_vracanja DATE NOT NULL, kolicina INT NOT NULL, " +
+                            "status VARCHAR(20) NOT NULL DEFAULT 'aktivna') ENGINE=InnoDB DEFAULT CHARSET=utf8mb4")),
+
+            new Migracija(2, "Indeksi za uslove, spojeve i sortiranje",
+                    // Izmena i brisanje korisnika idu po email-u
+                    indeks("korisnik", "idx_korisnik_email", "(email)"),
+                    // Prefiks pretraga (LIKE 'ab%') i sortiranje po imenu i nazivu
+                    indeks("korisnik", "idx_korisnik_ime", "(ime)"),
+                    indeks("oprema", "idx_oprema_naziv", "(naziv)"),
+                    // Spoj i filter po korisniku
+                    indeks("rezervacija", "idx_rezervacija_korisnik", "(korisnik_id)"),
+                    // Spoj i filter po opremi, i zauzeće opreme u periodu
+                    indeks("rezervacija", "idx_rezervacija_oprema", "(oprema_id, datum_rezervacije)"),
+                    // Strane po kursoru (datum, id) i opseg datuma
+                    indeks("rezervacija", "idx_rezervacija_datum", "(datum_rezervacije, id)"),
+                    indeks("rezervacija", "idx_rezervacija_vracanje", "(datum_vracanja, id)"),
+                    indeks("rezervacija", "idx_rezervacija_status", "(status, datum_rezervacije)")),
+
+            new Migracija(3, "FULLTEXT indeksi za pretragu rezervacija",
+                    fulltext("korisnik", "ft_korisnik_ime", "(ime)"),
+                    fulltext("oprema", "ft_oprema_naziv", "(naziv)")),
+
+            new Migracija(4, "Verzija opreme i materijalizovani brojači",
+                    kolona("oprema", "verzija", "INT NOT NULL DEFAULT 0"),
+                    tabela("rezervacija_brojac", "CREATE TABLE rezervacija_brojac (dimenzija CHAR(1) NOT NULL, " +
+                            "kljuc INT NOT NULL, broj INT NOT NULL, kolicina INT NOT NULL, " +
+                            "PRIMARY KEY (dimenzija, kljuc)) ENGINE=InnoDB")),
+
+            new Migracija(5, "Dnevnik promena rezervacija",
+                    tabela("rezervacija_promena", "CREATE TABLE rezervacija_promena (" +
+                            "verzija BIGINT AUTO_INCREMENT PRIMARY KEY, rezervacija_id INT NOT NULL, " +
+                            "vrsta CHAR(1) NOT NULL) ENGINE=InnoDB"),
+                    okidac("rezervacija_ai", "CREATE TRIGGER rezervacija_ai AFTER INSERT ON rezervacija FOR EACH ROW " +
+                            "INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (NEW.id, 'I')"),
+                    okidac("rezervacija_au", "CREATE TRIGGER rezervacija_au AFTER UPDATE ON rezervacija FOR EACH ROW " +
+                            "INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (NEW.id, 'U')"),
+                    okidac("rezervacija_ad", "CREATE TRIGGER rezervacija_ad AFTER DELETE ON rezervacija FOR EACH ROW " +
+                            "INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (OLD.id, 'D')")),
+
+            new Migracija(6, "Vreme promene za čišćenje dnevnika",
+                    kolona("rezervacija_promena", "vreme", "TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP"),
+                    indeks("rezervacija_promena", "idx_rezervacija_promena_vreme", "(vreme)")),
+
+            new Migracija(VERZIJA_BROJACA, "Brojači rezervacija preko okidača",
+                    okidac("rezervacija_brojac_ai", "CREATE TRIGGER rezervacija_brojac_ai AFTER INSERT ON rezervacija " +
+                            "FOR EACH ROW INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                            "VALUES ('K', NEW.korisnik_id, 1, NEW.kolicina), ('O', NEW.oprema_id, 1, NEW.kolicina) " +
+                            "ON DUPLICATE KEY UPDATE broj = broj + VALUES(broj), kolicina = kolicina + VALUES(kolicina)"),
+                    okidac("rezervacija_brojac_ad", "CREATE TRIGGER rezervacija_brojac_ad AFTER DELETE ON rezervacija " +
+                            "FOR EACH ROW UPDATE rezervacija_brojac SET broj = broj - 1, kolicina = kolicina - OLD.kolicina " +
+                            "WHERE (dimenzija = 'K' AND kljuc = OLD.korisnik_id) OR (dimenzija = 'O' AND kljuc = OLD.oprema_id)"),
+                    // Aplikacija menja samo datum vraćanja, ali druge alatke mogu i korisnika, opremu ili količinu
+                    okidac("rezervacija_brojac_au", "CREATE TRIGGER rezervacija_brojac_au AFTER UPDATE ON rezervacija " +
+                            "FOR EACH ROW BEGIN " +
+                            "IF NEW.korisnik_id <> OLD.korisnik_id OR NEW.oprema_id <> OLD.oprema_id " +
+                            "OR NEW.kolicina <> OLD.kolicina THEN " +
+                            "UPDATE rezervacija_brojac SET broj = broj - 1, kolicina = kolicina - OLD.kolicina " +
+                            "WHERE (dimenzija = 'K' AND kljuc = OLD.korisnik_id) OR (dimenzija = 'O' AND kljuc = OLD.oprema_id); " +
+                            "INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                            "VALUES ('K', NEW.korisnik_id, 1, NEW.kolicina), ('O', NEW.oprema_id, 1, NEW.kolicina) " +
+                            "ON DUPLICATE KEY UPDATE broj = broj + VALUES(broj), kolicina = kolicina + VALUES(kolicina); " +
+                            "END IF; END"),
+                    // Posle okidača, da se ne izgubi upis između obnove i njihovog nastanka
+                    obnovaBrojaca())
+    );
+
+    private Migracije() {
+    }
+
+    /** @return verzija šeme koju daje poslednja migracija */
+    public static int getPoslednjaVerzija() {
+        return MIGRACIJE.get(MIGRACIJE.size() - 1).verzija;
+    }
+
+    /**
+     * Primenjuje migracije koje baza još nema.
+     *
+     * @return broj primenjenih migracija
+     * @throws SQLException ako neki korak ne uspe; ranije migracije ostaju zabeležene
+     */
+    public static synchronized int primeni() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement()) {
+            connection.setAutoCommit(true);
+            statement.execute(SQL_TABELA_VERZIJA);
+            int trenutna = verzija(connection);
+
+            int primenjeno = 0;
+            for (Migracija m : MIGRACIJE) {
+                if (m.verzija <= trenutna) {
+                    continue;
+                }
+                long pocetak = System.nanoTime();
+                for (Korak k : m.koraci) {
+                    k.izvrsi(connection, statement);
+                }
+                try (PreparedStatement zabelezi = connection.prepareStatement(SQL_ZABELEZI)) {
+                    zabelezi.setInt(1, m.verzija);
+                    zabelezi.setString(2, m.opis);
+                    zabelezi.executeUpdate();
+                }
+                LOG.info("migracija", m.verzija, System.nanoTime() - pocetak, "Primenjena migracija: " + m.opis);
+                primenjeno++;
+            }
+            if (primenjeno == 0) {
+                LOG.info("Šema baze je ažurna (verzija " + trenutna + ").");
+            }
+            return primenjeno;
+        }
+    }
+
+    /**
+     * @return verzija šeme zabeležena u bazi, ili 0 ako migracije nisu primenjivane
+     * @throws SQLException ako čitanje ne uspe
+     */
+    public static int getVerzija() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return postojiTabela(connection.getMetaData(), "schema_verzija") ? verzija(connection) : 0;
+        }
+    }
+
+    private static int verzija(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(SQL_VERZIJA);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static Korak tabela(String tabela, String ddl) {
+        return (connection, statement) -> {
+            if (!postojiTabela(connection.getMetaData(), tabela)) {
+                statement.execute(ddl);
+            }
+        };
+    }
+
+    private static Korak kolona(String tabela, String kolona, String definicija) {
+        return (connection, statement) -> {
+            DatabaseMetaData meta = connection.getMetaData();
+            try (ResultSet rs = meta.getColumns(connection.getCatalog(), null, tabela, kolona)) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+            statement.execute("ALTER TABLE " + tabela + " ADD COLUMN " + kolona + " " + definicija);
+        };
+    }
+
+    private static Korak indeks(String tabela, String naziv, String kolone) {
+        return noviIndeks(tabela, naziv, "CREATE INDEX " + naziv + " ON " + tabela + " " + kolone);
+    }
+
+    private static Korak fulltext(String tabela, String naziv, String kolone) {
+        return noviIndeks(tabela, naziv, "CREATE FULLTEXT INDEX " + naziv + " ON " + tabela + " " + kolone);
+    }
+
+    private static Korak noviIndeks(String tabela, String naziv, String ddl) {
+        return (connection, statement) -> {
+            DatabaseMetaData meta = connection.getMetaData();
+            try (ResultSet rs = meta.getIndexInfo(connection.getCatalog(), null, tabela, false, true)) {
+                while (rs.next()) {
+                    if (naziv.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return;
+                    }
+                }
+            }
+            statement.execute(ddl);
+        };
+    }
+
+    private static Korak okidac(String naziv, String ddl) {
+        return (connection, statement) -> {
+            try (PreparedStatement ps = connection.prepareStatement(SQL_OKIDAC_POSTOJI)) {
+                ps.setString(1, naziv);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next() && rs.getInt(1) > 0) {
+                        return;
+                    }
+                }
+            }
+            statement.execute(ddl);
+        };
+    }
+
+    /**
+     * Ponovo izračunava brojače iz tabele {@code rezervacija}, u jednoj
+     * transakciji. {@code INSERT ... SELECT} zaključava pročitane redove, pa
+     * istovremeni upis čeka kraj obnove, a njegov okidač zatim menja već
+     * obnovljene brojače.
+     */
+    private static Korak obnovaBrojaca() {
+        return (connection, statement) -> {
+            connection.setAutoCommit(false);
+            try {
+                statement.executeUpdate("DELETE FROM rezervacija_brojac");
+                statement.executeUpdate("INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                        "SELECT 'K', korisnik_id, COUNT(*), SUM(kolicina) FROM rezervacija GROUP BY korisnik_id");
+                statement.executeUpdate("INSERT INTO rezervacija_brojac (dimenzija, kljuc, broj, kolicina) " +
+                        "SELECT 'O', oprema_id, COUNT(*), SUM(kolicina) FROM rezervacija GROUP BY oprema_id");
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        };
+    }
+
+    private static boolean postojiTabela(DatabaseMetaData meta, String tabela) throws SQLException {
+        try (ResultSet rs = meta.getTables(meta.getConnection().getCatalog(), null, tabela, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+}
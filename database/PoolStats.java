@@ -0,0 +1,108 @@
+package database;
+
+/**
+ * Nepromenljivi snimak statistike {@link ConnectionPool}-a.
+ *
+ * @author DjuroPopara6271
+ */
+public final class PoolStats {
+
+    private final int aktivne;
+    private final int slobodne;
+    private final int ukupno;
+    private final int maxVelicina;
+    private final int naCekanju;
+    private final long brojPreuzimanja;
+    private final long ukupnoCekanjeNanos;
+    private final long maxCekanjeNanos;
+    private final long brojIsteklih;
+    private final long brojKreiranih;
+    private final long brojUnistenih;
+
+    PoolStats(int aktivne, int slobodne, int ukupno, int maxVelicina, int naCekanju,
+              long brojPreuzimanja, long ukupnoCekanjeNanos, long maxCekanjeNanos,
+              long brojIsteklih, long brojKreiranih, long brojUnistenih) {
+        this.aktivne = aktivne;
+        this.slobodne = slobodne;
+        this.ukupno = ukupno;
+        this.maxVelicina = maxVelicina;
+        this.naCekanju = naCekanju;
+        this.brojPreuzimanja = brojPreuzimanja;
+        this.ukupnoCekanjeNanos = ukupnoCekanjeNanos;
+        this.maxCekanjeNanos = maxCekanjeNanos;
+        this.brojIsteklih = brojIsteklih;
+        this.brojKreiranih = brojKreiranih;
+        this.brojUnistenih = brojUnistenih;
+    }
+
+    /** @return broj konekcija koje su trenutno kod pozivalaca */
+    public int getAktivne() {
+        return aktivne;
+    }
+
+    /** @return broj otvorenih konekcija koje čekaju u pulu */
+    public int getSlobodne() {
+        return slobodne;
+    }
+
+    /** @return ukupan broj otvorenih fizičkih konekcija */
+    public int getUkupno() {
+        return ukupno;
+    }
+
+    /** @return najveći dozvoljeni broj konekcija */
+    public int getMaxVelicina() {
+        return maxVelicina;
+    }
+
+    /** @return približan broj niti koje trenutno čekaju na konekciju */
+    public int getNaCekanju() {
+        return naCekanju;
+    }
+
+    /** @return ukupan broj uspešnih preuzimanja konekcije */
+    public long getBrojPreuzimanja() {
+        return brojPreuzimanja;
+    }
+
+    /** @return prosečno vreme čekanja na konekciju u mikrosekundama */
+    public double getProsecnoCekanjeMikros() {
+        return brojPreuzimanja == 0 ? 0 : ukupnoCekanjeNanos / 1000.0 / brojPreuzimanja;
+    }
+
+    /** @return najduže zabeleženo čekanje na konekciju u mikrosekundama */
+    public double getMaxCekanjeMikros() {
+        return maxCekanjeNanos / 1000.0;
+    }
+
+    /** @return broj poziva koji su odustali jer je isteklo vreme čekanja */
+    public long getBrojIsteklih() {
+        return brojIsteklih;
+    }
+
+    /** @return ukupan broj otvorenih fizičkih konekcija od pokretanja */
+    public long getBrojKreiranih() {
+        return brojKreiranih;
+    }
+
+    /** @return ukupan broj zatvorenih fizičkih konekcija od pokretanja */
+    public long getBrojUnistenih() {
+        return brojUnistenih;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "aktivne=" + aktivne +
+                ", slobodne=" + slobodne +
+                ", ukupno=" + ukupno + "/" + maxVelicina +
+                ", naCekanju=" + naCekanju +
+                ", preuzimanja=" + brojPreuzimanja +
+                String.format(", prosCekanje=%.1fus, maxCekanje=%.1fus",
+                        getProsecnoCekanjeMikros(), getMaxCekanjeMikros()) +
+                ", isteklo=" + brojIsteklih +
+                ", kreirano=" + brojKreiranih +
+                ", zatvoreno=" + brojUnistenih +
+                '}';
+    }
+}
@@ -0,0 +1,135 @@
+package database;
+
+import logging.Logger;
+import logging.Logging;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Proverava plan izvršavanja ({@code EXPLAIN}) SQL naredbi i pronalazi one
+ * koje bi čitale celu tabelu jer nijedan indeks ne odgovara uslovu.
+ * <p>
+ * Tabela je problem ako je u planu čitana celom dužinom ({@code type = ALL})
+ * a {@code possible_keys} je prazno. Ako indeks postoji, a optimizator ga ipak
+ * zaobiđe (npr. nad malom razvojnom bazom), naredba prolazi: proverava se da li
+ * indeks postoji, ne koliko je baza velika. Naredbe bez {@code WHERE}-a čitaju
+ * sve redove namerno i ne proveravaju se, kao ni {@code INSERT ... VALUES} i
+ * upiti nad {@code information_schema}.
+ * </p>
+ * <p>
+ * Parametri se zamenjuju primerom: {@code 1} posle {@code LIMIT} i {@code OFFSET},
+ * a inače datumom, koji MySQL može da uporedi i sa brojem i sa tekstom, pa
+ * uslov ne postaje nemoguć i plan ostaje isti kao za prave vrednosti.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class ProveraPlanova {
+
+    private static final Logger LOG = Logging.logger("baza");
+
+    /** Vrednost parametra koja nije u {@code LIMIT}/{@code OFFSET}. */
+    private static final String PRIMER_VREDNOSTI = "2024-01-01";
+
+    private ProveraPlanova() {
+    }
+
+    /**
+     * Proverava sve naredbe.
+     *
+     * @param naredbe SQL tekst → ime naredbe za izveštaj
+     * @return po jedan opis za svaku tabelu koja bi bila čitana celom dužinom; prazna lista ako ih nema
+     * @throws SQLException ako konekcija ne uspe
+     */
+    public static List<String> proveri(Map<String, String> naredbe) throws SQLException {
+        List<String> problemi = new ArrayList<>();
+        int provereno = 0;
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            for (Map.Entry<String, String> e : naredbe.entrySet()) {
+                String sql = e.getKey();
+                if (!trebaProveriti(sql)) {
+                    continue;
+                }
+                provereno++;
+                try {
+                    problemi.addAll(proveri(connection, e.getValue(), sql));
+                } catch (SQLException greska) {
+                    problemi.add(e.getValue() + ": EXPLAIN nije uspeo (" + greska.getMessage() + ")");
+                }
+            }
+        }
+        LOG.info("Provereni planovi " + provereno + " naredbi, problema: " + problemi.size() + ".");
+        return problemi;
+    }
+
+    private static List<String> proveri(Connection connection, String naziv, String sql) throws SQLException {
+        List<String> problemi = new ArrayList<>();
+        // Običan Statement, da EXPLAIN ne bi zauzimao keš pripremljenih naredbi konekcije
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + saPrimerima(sql))) {
+            while (rs.next()) {
+                String tabela = rs.getString("table");
+                String vrsta = rs.getString("type");
+                String moguci = rs.getString("possible_keys");
+                if (tabela == null || tabela.startsWith("<")) {
+                    // Izvedene tabele (<derived2>, <union1,2>) su rezultat drugog dela plana
+                    continue;
+                }
+                if ("ALL".equalsIgnoreCase(vrsta) && (moguci == null || moguci.isEmpty())) {
+                    problemi.add(naziv + ": tabela " + tabela + " bez indeksa za uslov – " + sql);
+                }
+            }
+        }
+        return problemi;
+    }
+
+    private static boolean trebaProveriti(String sql) {
+        String s = sql.trim().toUpperCase(Locale.ROOT);
+        if (s.startsWith("INSERT")) {
+            return s.contains(" SELECT ");
+        }
+        return (s.startsWith("SELECT") || s.startsWith("UPDATE") || s.startsWith("DELETE"))
+                && s.contains(" WHERE ")
+                && !s.contains("INFORMATION_SCHEMA.");
+    }
+
+    /** Zamenjuje svaki {@code ?} van navodnika primerom vrednosti. */
+    static String saPrimerima(String sql) {
+        StringBuilder rezultat = new StringBuilder(sql.length() + 64);
+        boolean uNavodnicima = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                uNavodnicima = !uNavodnicima;
+            }
+            if (c != '?' || uNavodnicima) {
+                rezultat.append(c);
+                continue;
+            }
+            String prethodna = prethodnaRec(sql, i).toUpperCase(Locale.ROOT);
+            rezultat.append(prethodna.equals("LIMIT") || prethodna.equals("OFFSET")
+                    ? "1"
+                    : "'" + PRIMER_VREDNOSTI + "'");
+        }
+        return rezultat.toString();
+    }
+
+    private static String prethodnaRec(String sql, int pozicija) {
+        int kraj = pozicija;
+        while (kraj > 0 && Character.isWhitespace(sql.charAt(kraj - 1))) {
+            kraj--;
+        }
+        int pocetak = kraj;
+        while (pocetak > 0 && Character.isLetter(sql.charAt(pocetak - 1))) {
+            pocetak--;
+        }
+        return sql.substring(pocetak, kraj);
+    }
+}
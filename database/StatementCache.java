@@ -0,0 +1,218 @@
+package database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keš pripremljenih naredbi za jednu fizičku konekciju iz {@link ConnectionPool}-a.
+ * <p>
+ * Prvi {@code prepareStatement(sql)} za dati SQL priprema naredbu na serveru,
+ * a svaki sledeći na istoj konekciji dobija istu naredbu. Pozivaočev
+ * {@code close()} ne zatvara naredbu, već briše parametre, vraća podešavanja
+ * kao što su {@code setFetchSize}, {@code setMaxRows} i {@code setQueryTimeout}
+ * na vrednosti drajvera i vraća je u keš, pa ih sledeći korisnik ne nasleđuje.
+ * Keš je ograničen i izbacuje najdavnije korišćenu naredbu.
+ * </p>
+ * <p>
+ * Konekciju u jednom trenutku koristi samo jedna nit, pa keš nije sinhronizovan.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+final class StatementCache {
+
+    /** Najveći broj pripremljenih naredbi po konekciji. */
+    private static final int MAX_NAREDBI = 64;
+
+    private final Connection fizicka;
+
+    private final LinkedHashMap<Kljuc, Unos> naredbe = new LinkedHashMap<>(16, 0.75f, true);
+
+    StatementCache(Connection fizicka) {
+        this.fizicka = fizicka;
+    }
+
+    /**
+     * Vraća pripremljenu naredbu za dati SQL, iz keša ili novu.
+     *
+     * @param sql               SQL tekst
+     * @param generisaniKljucevi {@link Statement#RETURN_GENERATED_KEYS} ili
+     *                          {@link Statement#NO_GENERATED_KEYS}
+     * @return omotač naredbe čiji {@code close()} vraća naredbu u keš
+     * @throws SQLException ako priprema ne uspe
+     */
+    PreparedStatement pripremi(String sql, int generisaniKljucevi) throws SQLException {
+        Kljuc kljuc = new Kljuc(sql, generisaniKljucevi);
+        Unos unos = naredbe.get(kljuc);
+        if (unos != null && unos.neispravna) {
+            naredbe.remove(kljuc);
+            zatvoriTiho(unos.prava);
+            unos = null;
+        }
+        if (unos != null && !unos.uUpotrebi) {
+            StatementRegistry.pogodak(sql);
+            unos.uUpotrebi = true;
+            return unos.proxy;
+        }
+
+        StatementRegistry.promasaj(sql);
+        PreparedStatement ps = fizicka.prepareStatement(sql, generisaniKljucevi);
+        if (unos != null) {
+            // Ista naredba je već otvorena na ovoj konekciji; ova se ne kešira
+            return ps;
+        }
+        try {
+            unos = new Unos(ps);
+        } catch (SQLException e) {
+            zatvoriTiho(ps);
+            throw e;
+        }
+        unos.uUpotrebi = true;
+        naredbe.put(kljuc, unos);
+        izbaciVisak();
+        return unos.proxy;
+    }
+
+    /** Zatvara sve keširane naredbe; poziva se pre zatvaranja fizičke konekcije. */
+    void zatvoriSve() {
+        for (Unos unos : naredbe.values()) {
+            zatvoriTiho(unos.prava);
+        }
+        naredbe.clear();
+    }
+
+    private void izbaciVisak() {
+        Iterator<Map.Entry<Kljuc, Unos>> it = naredbe.entrySet().iterator();
+        while (naredbe.size() > MAX_NAREDBI && it.hasNext()) {
+            Unos najstariji = it.next().getValue();
+            if (!najstariji.uUpotrebi) {
+                zatvoriTiho(najstariji.prava);
+                it.remove();
+            }
+        }
+    }
+
+    private static void zatvoriTiho(Statement s) {
+        try {
+            s.close();
+        } catch (SQLException ignored) {
+            // Konekcija se svakako zatvara ili je naredba već neupotrebljiva
+        }
+    }
+
+    /** Ključ keša: SQL tekst i način vraćanja generisanih ključeva. */
+    private static final class Kljuc {
+        private final String sql;
+        private final int generisaniKljucevi;
+
+        Kljuc(String sql, int generisaniKljucevi) {
+            this.sql = sql;
+            this.generisaniKljucevi = generisaniKljucevi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Kljuc)) return false;
+            Kljuc that = (Kljuc) o;
+            return generisaniKljucevi == that.generisaniKljucevi && sql.equals(that.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + generisaniKljucevi;
+        }
+    }
+
+    /** Podešavanja naredbe koja se pri vraćanju u keš vraćaju na vrednosti drajvera. */
+    private static final Set<String> PODESAVANJA = Set.of("setFetchSize", "setFetchDirection",
+            "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout");
+
+    /** Keširana naredba i omotač koji se daje pozivaocu. */
+    private static final class Unos implements InvocationHandler {
+        private final PreparedStatement prava;
+        private final PreparedStatement proxy;
+        private final int velicinaDohvata;
+        private final int smerDohvata;
+        private final long maxRedova;
+        private final int maxVelicinaPolja;
+        private final int vremeUpita;
+        private boolean uUpotrebi;
+        private boolean izmenjenaPodesavanja;
+        private boolean neispravna;
+
+        Unos(PreparedStatement prava) throws SQLException {
+            this.prava = prava;
+            this.velicinaDohvata = prava.getFetchSize();
+            this.smerDohvata = prava.getFetchDirection();
+            this.maxRedova = prava.getLargeMaxRows();
+            this.maxVelicinaPolja = prava.getMaxFieldSize();
+            this.vremeUpita = prava.getQueryTimeout();
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(
+                    StatementCache.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        /** Vraća naredbu u stanje u kome je pripremljena. */
+        private void vratiPodesavanja() {
+            try {
+                prava.clearParameters();
+                prava.clearBatch();
+                if (izmenjenaPodesavanja) {
+                    // Najpre granica redova: neki drajveri ne dozvoljavaju dohvat veći od nje
+                    prava.setLargeMaxRows(maxRedova);
+                    prava.setMaxFieldSize(maxVelicinaPolja);
+                    prava.setQueryTimeout(vremeUpita);
+                    prava.setFetchDirection(smerDohvata);
+                    prava.setFetchSize(velicinaDohvata);
+                    izmenjenaPodesavanja = false;
+                }
+            } catch (SQLException e) {
+                // Naredba sa nepoznatim stanjem se ne daje dalje; sledeći poziv pravi novu
+                neispravna = true;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (uUpotrebi) {
+                        uUpotrebi = false;
+                        vratiPodesavanja();
+                    }
+                    return null;
+                case "isClosed":
+                    return !uUpotrebi || prava.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (!uUpotrebi) {
+                throw new SQLException("Naredba je već zatvorena.");
+            }
+            if (PODESAVANJA.contains(method.getName())) {
+                izmenjenaPodesavanja = true;
+            }
+            try {
+                return method.invoke(prava, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registar imenovanih SQL naredbi koje kontroleri koriste.
+ * <p>
+ * Kontroleri registruju svoje naredbe jednom, kao konstante, a zatim ih
+ * pripremaju na uobičajen način preko {@code connection.prepareStatement(sql)}.
+ * Konekcije iz {@link ConnectionPool}-a pripremaju svaku naredbu samo jednom
+ * po fizičkoj konekciji ({@link StatementCache}), a registar za svaku naredbu
+ * broji pogotke (ponovo iskorišćena) i promašaje (nova priprema).
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class StatementRegistry {
+
+    /** Statistika po SQL tekstu; ključ je tačan SQL koji se prosleđuje drajveru. */
+    private static final Map<String, Brojac> PO_SQL = new ConcurrentHashMap<>();
+
+    private StatementRegistry() {
+    }
+
+    /**
+     * Registruje imenovanu SQL naredbu.
+     *
+     * @param naziv kratko ime naredbe, npr. {@code "rezervacija.dodaj"}
+     * @param sql   tekst SQL naredbe
+     * @return isti {@code sql}, radi dodele konstanti
+     */
+    public static String registruj(String naziv, String sql) {
+        PO_SQL.computeIfAbsent(sql, s -> new Brojac(naziv, s));
+        return sql;
+    }
+
+    /** Beleži da je naredba ponovo iskorišćena iz keša konekcije. */
+    static void pogodak(String sql) {
+        brojac(sql).pogoci.increment();
+    }
+
+    /** Beleži da je naredba morala ponovo da se pripremi. */
+    static void promasaj(String sql) {
+        brojac(sql).promasaji.increment();
+    }
+
+    private static Brojac brojac(String sql) {
+        // Neregistrovane naredbe se vode pod sopstvenim SQL tekstom
+        return PO_SQL.computeIfAbsent(sql, s -> new Brojac(s, s));
+    }
+
+    /**
+     * Vraća statistiku keša za sve poznate naredbe.
+     *
+     * @return lista snimaka statistike, po jedan za svaku naredbu
+     */
+    public static List<Statistika> getStatistika() {
+        List<Statistika> lista = new ArrayList<>();
+        for (Brojac b : PO_SQL.values()) {
+            lista.add(new Statistika(b.naziv, b.sql, b.pogoci.sum(), b.promasaji.sum()));
+        }
+        return lista;
+    }
+
+    /** Interni brojači za jednu naredbu. */
+    private static final class Brojac {
+        private final String naziv;
+        private final String sql;
+        private final LongAdder pogoci = new LongAdder();
+        private final LongAdder promasaji = new LongAdder();
+
+        Brojac(String naziv, String sql) {
+            this.naziv = naziv;
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Snimak statistike keša za jednu imenovanu naredbu.
+     */
+    public static final class Statistika {
+
+        private final String naziv;
+        private final String sql;
+        private final long pogoci;
+        private final long promasaji;
+
+        Statistika(String naziv, String sql, long pogoci, long promasaji) {
+            this.naziv = naziv;
+            this.sql = sql;
+            this.pogoci = pogoci;
+            this.promasaji = promasaji;
+        }
+
+        /** @return ime naredbe */
+        public String getNaziv() {
+            return naziv;
+        }
+
+        /** @return SQL tekst naredbe */
+        public String getSql() {
+            return sql;
+        }
+
+        /** @return broj ponovnih upotreba već pripremljene naredbe */
+        public long getPogoci() {
+            return pogoci;
+        }
+
+        /** @return broj novih priprema naredbe */
+        public long getPromasaji() {
+            return promasaji;
+        }
+
+        /** @return udeo pogodaka u ukupnom broju priprema (0–1) */
+        public double getStopaPogodaka() {
+            long ukupno = pogoci + promasaji;
+            return ukupno == 0 ? 0 : (double) pogoci / ukupno;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: pogoci=%d, promasaji=%d (%.1f%%)",
+                    naziv, pogoci, promasaji, getStopaPogodaka() * 100);
+        }
+    }
+}
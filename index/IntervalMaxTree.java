@@ -0,0 +1,132 @@
+package index;
+
+import java.util.Arrays;
+
+/**
+ * Dinamičko segmentno stablo nad danima: dodavanje vrednosti na opseg dana i
+ * najveća vrednost u opsegu, obe operacije u {@code O(log D)}.
+ * <p>
+ * Dan je broj dana od 1970-01-01 ({@link java.time.LocalDate#toEpochDay()}),
+ * u opsegu {@code [0, }{@value #BROJ_DANA}{@code )}, tj. do 2149. godine.
+ * Čvorovi se prave tek kada su potrebni, pa stablo za opremu sa malo
+ * rezervacija zauzima malo memorije. Čvor čuva dodatak koji važi za ceo
+ * njegov opseg i maksimum podstabla uključujući taj dodatak, pa dodavanje
+ * ne mora da se spušta do listova.
+ * </p>
+ * <p>
+ * Klasa nije bezbedna za istovremeni pristup; sinhronizaciju obezbeđuje pozivalac.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class IntervalMaxTree {
+
+    /** Broj dana koje stablo pokriva. */
+    public static final int BROJ_DANA = 1 << 16;
+
+    /** Indeks 0 znači "nema deteta"; koren je čvor 1. */
+    private static final int KOREN = 1;
+
+    private int[] levo = new int[16];
+    private int[] desno = new int[16];
+    private int[] dodatak = new int[16];
+    private int[] max = new int[16];
+    private int brojCvorova = 2;
+
+    /**
+     * Dodaje vrednost na sve dane u {@code [od, doDana)}; negativna vrednost oduzima.
+     *
+     * @param od       prvi dan (uključen)
+     * @param doDana   dan posle poslednjeg (isključen)
+     * @param vrednost vrednost koja se dodaje
+     * @throws IllegalArgumentException ako je opseg van podržanih dana
+     */
+    public void dodaj(int od, int doDana, int vrednost) {
+        proveri(od, doDana);
+        if (od < doDana && vrednost != 0) {
+            dodaj(KOREN, 0, BROJ_DANA - 1, od, doDana - 1, vrednost);
+        }
+    }
+
+    /**
+     * Vraća najveći zbir vrednosti za neki dan iz {@code [od, doDana)}.
+     *
+     * @param od     prvi dan (uključen)
+     * @param doDana dan posle poslednjeg (isključen)
+     * @return najveća vrednost u opsegu, {@code 0} za prazan opseg
+     * @throws IllegalArgumentException ako je opseg van podržanih dana
+     */
+    public int max(int od, int doDana) {
+        proveri(od, doDana);
+        return od < doDana ? max(KOREN, 0, BROJ_DANA - 1, od, doDana - 1) : 0;
+    }
+
+    /** @return broj napravljenih čvorova */
+    public int getBrojCvorova() {
+        return brojCvorova - 1;
+    }
+
+    /** @return približno zauzeće memorije u bajtovima */
+    public long procenaMemorijeBajtova() {
+        return 4L * 4 * levo.length;
+    }
+
+    private void dodaj(int cvor, int nl, int nd, int od, int doDana, int vrednost) {
+        if (od <= nl && nd <= doDana) {
+            dodatak[cvor] += vrednost;
+            max[cvor] += vrednost;
+            return;
+        }
+        int sredina = (nl + nd) >>> 1;
+        if (od <= sredina) {
+            if (levo[cvor] == 0) {
+                int novi = noviCvor();
+                levo[cvor] = novi;
+            }
+            dodaj(levo[cvor], nl, sredina, od, doDana, vrednost);
+        }
+        if (doDana > sredina) {
+            if (desno[cvor] == 0) {
+                int novi = noviCvor();
+                desno[cvor] = novi;
+            }
+            dodaj(desno[cvor], sredina + 1, nd, od, doDana, vrednost);
+        }
+        max[cvor] = dodatak[cvor] + Math.max(max[levo[cvor]], max[desno[cvor]]);
+    }
+
+    private int max(int cvor, int nl, int nd, int od, int doDana) {
+        if (cvor == 0) {
+            return 0;
+        }
+        if (od <= nl && nd <= doDana) {
+            return max[cvor];
+        }
+        int sredina = (nl + nd) >>> 1;
+        int rezultat = Integer.MIN_VALUE;
+        if (od <= sredina) {
+            rezultat = max(levo[cvor], nl, sredina, od, doDana);
+        }
+        if (doDana > sredina) {
+            rezultat = Math.max(rezultat, max(desno[cvor], sredina + 1, nd, od, doDana));
+        }
+        return dodatak[cvor] + rezultat;
+    }
+
+    private int noviCvor() {
+        if (brojCvorova == levo.length) {
+            int nova = levo.length * 2;
+            levo = Arrays.copyOf(levo, nova);
+            desno = Arrays.copyOf(desno, nova);
+            dodatak = Arrays.copyOf(dodatak, nova);
+            max = Arrays.copyOf(max, nova);
+        }
+        return brojCvorova++;
+    }
+
+    private static void proveri(int od, int doDana) {
+        if (od < 0 || doDana > BROJ_DANA || od > doDana) {
+            throw new IllegalArgumentException("Neispravan opseg dana: [" + od + ", " + doDana + ")");
+        }
+    }
+}
@@ -0,0 +1,508 @@
+package index;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Kompresovani skup nenegativnih celih brojeva po uzoru na Roaring bitmape.
+ * <p>
+ * Broj se deli na gornjih i donjih 16 bitova. Za svaku vrednost gornjih bitova
+ * postoji jedan kontejner sa donjim bitovima: dok ih ima najviše
+ * {@value #MAX_NIZ}, to je sortiran niz {@code char}-ova (2 bajta po broju), a
+ * preko toga bitmapa od 65 536 bitova (8 KB). Zato su retki skupovi mali, a
+ * gusti se sabiraju i presecaju reč po reč. Operacije {@link #and}, {@link #or}
+ * i {@link #andNot} vraćaju novi skup i ne menjaju ulazne.
+ * </p>
+ * <p>
+ * Klasa nije bezbedna za istovremeni pristup; sinhronizaciju obezbeđuje pozivalac.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class RoaringBitmap {
+
+    /** Najveći broj elemenata kontejnera koji se čuva kao sortiran niz. */
+    static final int MAX_NIZ = 4096;
+
+    private char[] kljucevi = new char[4];
+    private Kontejner[] kontejneri = new Kontejner[4];
+    private int brojKontejnera;
+
+    /**
+     * Pravi skup od zadatih brojeva.
+     *
+     * @param brojevi nenegativni brojevi
+     * @return novi skup
+     */
+    public static RoaringBitmap od(int... brojevi) {
+        RoaringBitmap b = new RoaringBitmap();
+        for (int x : brojevi) {
+            b.dodaj(x);
+        }
+        return b;
+    }
+
+    /**
+     * Dodaje broj u skup.
+     *
+     * @param x nenegativan broj
+     * @return {@code true} ako broj ranije nije bio u skupu
+     */
+    public boolean dodaj(int x) {
+        if (x < 0) {
+            throw new IllegalArgumentException("Broj mora biti nenegativan: " + x);
+        }
+        char gornji = (char) (x >>> 16);
+        int i = nadji(gornji);
+        if (i < 0) {
+            i = -i - 1;
+            umetni(i, gornji, new Kontejner());
+        }
+        return kontejneri[i].dodaj((char) x);
+    }
+
+    /**
+     * Uklanja broj iz skupa.
+     *
+     * @param x broj
+     * @return {@code true} ako je broj bio u skupu
+     */
+    public boolean ukloni(int x) {
+        if (x < 0) {
+            return false;
+        }
+        int i = nadji((char) (x >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        boolean uklonjen = kontejneri[i].ukloni((char) x);
+        if (kontejneri[i].broj == 0) {
+            izbaci(i);
+        }
+        return uklonjen;
+    }
+
+    /**
+     * @param x broj
+     * @return {@code true} ako je broj u skupu
+     */
+    public boolean sadrzi(int x) {
+        if (x < 0) {
+            return false;
+        }
+        int i = nadji((char) (x >>> 16));
+        return i >= 0 && kontejneri[i].sadrzi((char) x);
+    }
+
+    /** @return broj elemenata skupa */
+    public int getKardinalnost() {
+        int ukupno = 0;
+        for (int i = 0; i < brojKontejnera; i++) {
+            ukupno += kontejneri[i].broj;
+        }
+        return ukupno;
+    }
+
+    /** @return {@code true} ako je skup prazan */
+    public boolean isPrazan() {
+        return brojKontejnera == 0;
+    }
+
+    /**
+     * Presek dva skupa.
+     *
+     * @param a prvi skup
+     * @param b drugi skup
+     * @return novi skup sa brojevima koji su u oba
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap rezultat = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.brojKontejnera && j < b.brojKontejnera) {
+            char ka = a.kljucevi[i];
+            char kb = b.kljucevi[j];
+            if (ka < kb) {
+                i++;
+            } else if (ka > kb) {
+                j++;
+            } else {
+                Kontejner k = Kontejner.and(a.kontejneri[i], b.kontejneri[j]);
+                if (k.broj > 0) {
+                    rezultat.umetni(rezultat.brojKontejnera, ka, k);
+                }
+                i++;
+                j++;
+            }
+        }
+        return rezultat;
+    }
+
+    /**
+     * Unija dva skupa.
+     *
+     * @param a prvi skup
+     * @param b drugi skup
+     * @return novi skup sa brojevima koji su u bar jednom
+     */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap rezultat = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.brojKontejnera || j < b.brojKontejnera) {
+            int ka = i < a.brojKontejnera ? a.kljucevi[i] : Integer.MAX_VALUE;
+            int kb = j < b.brojKontejnera ? b.kljucevi[j] : Integer.MAX_VALUE;
+            if (ka < kb) {
+                rezultat.umetni(rezultat.brojKontejnera, (char) ka, a.kontejneri[i++].kopija());
+            } else if (ka > kb) {
+                rezultat.umetni(rezultat.brojKontejnera, (char) kb, b.kontejneri[j++].kopija());
+            } else {
+                rezultat.umetni(rezultat.brojKontejnera, (char) ka, Kontejner.or(a.kontejneri[i++], b.kontejneri[j++]));
+            }
+        }
+        return rezultat;
+    }
+
+    /**
+     * Razlika skupova; sa skupom svih elemenata kao {@code a} daje negaciju skupa {@code b}.
+     *
+     * @param a skup od koga se oduzima
+     * @param b skup koji se oduzima
+     * @return novi skup sa brojevima koji su u {@code a}, a nisu u {@code b}
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap rezultat = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.brojKontejnera; i++) {
+            char ka = a.kljucevi[i];
+            while (j < b.brojKontejnera && b.kljucevi[j] < ka) {
+                j++;
+            }
+            Kontejner k = j < b.brojKontejnera && b.kljucevi[j] == ka
+                    ? Kontejner.andNot(a.kontejneri[i], b.kontejneri[j])
+                    : a.kontejneri[i].kopija();
+            if (k.broj > 0) {
+                rezultat.umetni(rezultat.brojKontejnera, ka, k);
+            }
+        }
+        return rezultat;
+    }
+
+    /** Uklanja sve brojeve iz skupa. */
+    public void ocisti() {
+        Arrays.fill(kontejneri, null);
+        brojKontejnera = 0;
+    }
+
+    /** @return nezavisna kopija skupa */
+    public RoaringBitmap kopija() {
+        RoaringBitmap k = new RoaringBitmap();
+        k.kljucevi = Arrays.copyOf(kljucevi, Math.max(4, brojKontejnera));
+        k.kontejneri = new Kontejner[k.kljucevi.length];
+        for (int i = 0; i < brojKontejnera; i++) {
+            k.kontejneri[i] = kontejneri[i].kopija();
+        }
+        k.brojKontejnera = brojKontejnera;
+        return k;
+    }
+
+    /**
+     * Predaje potrošaču sve brojeve skupa, u rastućem redosledu.
+     *
+     * @param potrosac prima svaki broj
+     */
+    public void forEach(IntConsumer potrosac) {
+        for (int i = 0; i < brojKontejnera; i++) {
+            kontejneri[i].forEach(kljucevi[i] << 16, potrosac);
+        }
+    }
+
+    /** @return brojevi skupa u rastućem redosledu */
+    public int[] toArray() {
+        int[] niz = new int[getKardinalnost()];
+        int[] pozicija = {0};
+        forEach(x -> niz[pozicija[0]++] = x);
+        return niz;
+    }
+
+    /** @return približno zauzeće memorije u bajtovima */
+    public long procenaMemorijeBajtova() {
+        long ukupno = 16L + 6L * kljucevi.length;
+        for (int i = 0; i < brojKontejnera; i++) {
+            ukupno += kontejneri[i].procenaMemorijeBajtova();
+        }
+        return ukupno;
+    }
+
+    @Override
+    public String toString() {
+        return "RoaringBitmap{kardinalnost=" + getKardinalnost() + ", kontejnera=" + brojKontejnera + '}';
+    }
+
+    private int nadji(char gornji) {
+        return Arrays.binarySearch(kljucevi, 0, brojKontejnera, gornji);
+    }
+
+    private void umetni(int i, char kljuc, Kontejner k) {
+        if (brojKontejnera == kljucevi.length) {
+            kljucevi = Arrays.copyOf(kljucevi, brojKontejnera * 2);
+            kontejneri = Arrays.copyOf(kontejneri, brojKontejnera * 2);
+        }
+        System.arraycopy(kljucevi, i, kljucevi, i + 1, brojKontejnera - i);
+        System.arraycopy(kontejneri, i, kontejneri, i + 1, brojKontejnera - i);
+        kljucevi[i] = kljuc;
+        kontejneri[i] = k;
+        brojKontejnera++;
+    }
+
+    private void izbaci(int i) {
+        System.arraycopy(kljucevi, i + 1, kljucevi, i, brojKontejnera - i - 1);
+        System.arraycopy(kontejneri, i + 1, kontejneri, i, brojKontejnera - i - 1);
+        kontejneri[--brojKontejnera] = null;
+    }
+
+    /**
+     * Donjih 16 bitova brojeva sa istim gornjim bitovima: sortiran niz ({@code niz != null})
+     * ili bitmapa od 1024 reči ({@code bitovi != null}).
+     */
+    private static final class Kontejner {
+        char[] niz;
+        long[] bitovi;
+        int broj;
+
+        Kontejner() {
+            niz = new char[4];
+        }
+
+        private Kontejner(char[] niz, long[] bitovi, int broj) {
+            this.niz = niz;
+            this.bitovi = bitovi;
+            this.broj = broj;
+        }
+
+        boolean dodaj(char x) {
+            if (bitovi != null) {
+                long stara = bitovi[x >>> 6];
+                long nova = stara | (1L << x);
+                bitovi[x >>> 6] = nova;
+                if (nova == stara) {
+                    return false;
+                }
+                broj++;
+                return true;
+            }
+            int i = Arrays.binarySearch(niz, 0, broj, x);
+            if (i >= 0) {
+                return false;
+            }
+            if (broj == MAX_NIZ) {
+                uBitmapu();
+                return dodaj(x);
+            }
+            i = -i - 1;
+            if (broj == niz.length) {
+                niz = Arrays.copyOf(niz, Math.min(MAX_NIZ, broj * 2));
+            }
+            System.arraycopy(niz, i, niz, i + 1, broj - i);
+            niz[i] = x;
+            broj++;
+            return true;
+        }
+
+        boolean ukloni(char x) {
+            if (bitovi != null) {
+                long stara = bitovi[x >>> 6];
+                long nova = stara & ~(1L << x);
+                bitovi[x >>> 6] = nova;
+                if (nova == stara) {
+                    return false;
+                }
+                // Niži prag nego pri prelasku u bitmapu, da dodavanje i uklanjanje oko granice ne konvertuju stalno
+                if (--broj <= MAX_NIZ / 2) {
+                    uNiz();
+                }
+                return true;
+            }
+            int i = Arrays.binarySearch(niz, 0, broj, x);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(niz, i + 1, niz, i, broj - i - 1);
+            broj--;
+            return true;
+        }
+
+        boolean sadrzi(char x) {
+            if (bitovi != null) {
+                return (bitovi[x >>> 6] & (1L << x)) != 0;
+            }
+            return Arrays.binarySearch(niz, 0, broj, x) >= 0;
+        }
+
+        void forEach(int osnova, IntConsumer potrosac) {
+            if (bitovi == null) {
+                for (int i = 0; i < broj; i++) {
+                    potrosac.accept(osnova | niz[i]);
+                }
+                return;
+            }
+            for (int w = 0; w < bitovi.length; w++) {
+                long rec = bitovi[w];
+                while (rec != 0) {
+                    potrosac.accept(osnova | (w << 6) | Long.numberOfTrailingZeros(rec));
+                    rec &= rec - 1;
+                }
+            }
+        }
+
+        Kontejner kopija() {
+            return new Kontejner(niz != null ? Arrays.copyOf(niz, Math.max(4, broj)) : null,
+                    bitovi != null ? bitovi.clone() : null, broj);
+        }
+
+        long procenaMemorijeBajtova() {
+            return 32L + (bitovi != null ? 8L * bitovi.length : 2L * niz.length);
+        }
+
+        private void uBitmapu() {
+            bitovi = new long[1024];
+            for (int i = 0; i < broj; i++) {
+                char x = niz[i];
+                bitovi[x >>> 6] |= 1L << x;
+            }
+            niz = null;
+        }
+
+        private void uNiz() {
+            char[] n = new char[Math.max(4, broj)];
+            int k = 0;
+            for (int w = 0; w < bitovi.length; w++) {
+                long rec = bitovi[w];
+                while (rec != 0) {
+                    n[k++] = (char) ((w << 6) | Long.numberOfTrailingZeros(rec));
+                    rec &= rec - 1;
+                }
+            }
+            niz = n;
+            bitovi = null;
+        }
+
+        /** Pravi kontejner od bitmape, kao niz ako je element malo. */
+        private static Kontejner izBitova(long[] bitovi) {
+            int broj = 0;
+            for (long rec : bitovi) {
+                broj += Long.bitCount(rec);
+            }
+            Kontejner k = new Kontejner(null, bitovi, broj);
+            if (broj <= MAX_NIZ) {
+                k.uNiz();
+            }
+            return k;
+        }
+
+        static Kontejner and(Kontejner a, Kontejner b) {
+            if (a.bitovi != null && b.bitovi != null) {
+                long[] rezultat = new long[1024];
+                for (int w = 0; w < 1024; w++) {
+                    rezultat[w] = a.bitovi[w] & b.bitovi[w];
+                }
+                return izBitova(rezultat);
+            }
+            if (a.bitovi != null) {
+                return and(b, a);
+            }
+            char[] n = new char[Math.max(4, Math.min(a.broj, b.broj))];
+            int k = 0;
+            if (b.bitovi != null) {
+                for (int i = 0; i < a.broj; i++) {
+                    if (b.sadrzi(a.niz[i])) {
+                        n[k++] = a.niz[i];
+                    }
+                }
+            } else {
+                int i = 0;
+                int j = 0;
+                while (i < a.broj && j < b.broj) {
+                    char x = a.niz[i];
+                    char y = b.niz[j];
+                    if (x < y) {
+                        i++;
+                    } else if (x > y) {
+                        j++;
+                    } else {
+                        n[k++] = x;
+                        i++;
+                        j++;
+                    }
+                }
+            }
+            return new Kontejner(n, null, k);
+        }
+
+        static Kontejner or(Kontejner a, Kontejner b) {
+            if (a.bitovi != null || b.bitovi != null || a.broj + b.broj > MAX_NIZ) {
+                long[] rezultat = a.bitovi != null ? a.bitovi.clone() : uBitove(a);
+                if (b.bitovi != null) {
+                    for (int w = 0; w < 1024; w++) {
+                        rezultat[w] |= b.bitovi[w];
+                    }
+                } else {
+                    for (int j = 0; j < b.broj; j++) {
+                        char y = b.niz[j];
+                        rezultat[y >>> 6] |= 1L << y;
+                    }
+                }
+                return izBitova(rezultat);
+            }
+            char[] n = new char[Math.max(4, a.broj + b.broj)];
+            int i = 0;
+            int j = 0;
+            int k = 0;
+            while (i < a.broj || j < b.broj) {
+                if (j == b.broj || (i < a.broj && a.niz[i] < b.niz[j])) {
+                    n[k++] = a.niz[i++];
+                } else if (i == a.broj || b.niz[j] < a.niz[i]) {
+                    n[k++] = b.niz[j++];
+                } else {
+                    n[k++] = a.niz[i++];
+                    j++;
+                }
+            }
+            return new Kontejner(n, null, k);
+        }
+
+        static Kontejner andNot(Kontejner a, Kontejner b) {
+            if (a.bitovi != null) {
+                long[] rezultat = a.bitovi.clone();
+                if (b.bitovi != null) {
+                    for (int w = 0; w < 1024; w++) {
+                        rezultat[w] &= ~b.bitovi[w];
+                    }
+                } else {
+                    for (int j = 0; j < b.broj; j++) {
+                        char y = b.niz[j];
+                        rezultat[y >>> 6] &= ~(1L << y);
+                    }
+                }
+                return izBitova(rezultat);
+            }
+            char[] n = new char[Math.max(4, a.broj)];
+            int k = 0;
+            for (int i = 0; i < a.broj; i++) {
+                if (!b.sadrzi(a.niz[i])) {
+                    n[k++] = a.niz[i];
+                }
+            }
+            return new Kontejner(n, null, k);
+        }
+
+        private static long[] uBitove(Kontejner a) {
+            long[] bitovi = new long[1024];
+            for (int i = 0; i < a.broj; i++) {
+                char x = a.niz[i];
+                bitovi[x >>> 6] |= 1L << x;
+            }
+            return bitovi;
+        }
+    }
+}
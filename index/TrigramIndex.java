@@ -0,0 +1,404 @@
+package index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Invertovani indeks trigrama za brzu pretragu podstringa u memoriji.
+ * <p>
+ * Svaki dokument ima celobrojni ID, tekst po kome se pretražuje i vrednost
+ * koja se vraća kao rezultat. Za svaki trigram (tri uzastopna znaka, bez
+ * obzira na velika i mala slova) indeks čuva sortiranu listu ID-jeva kao
+ * {@code int[]}. Upit od tri i više znakova preseca liste svojih trigrama,
+ * počevši od najkraće, pa cena zavisi od broja kandidata, a ne od broja
+ * dokumenata. Kandidati se na kraju proveravaju sa {@link String#contains}.
+ * </p>
+ * <p>
+ * Indeks se održava inkrementalno ({@link #dodaj}, {@link #ukloni}) i bezbedan
+ * je za istovremeno čitanje iz više niti.
+ * </p>
+ *
+ * @param <T> tip vrednosti koja se vraća za pronađene dokumente
+ * @author DjuroPopara6271
+ */
+public class TrigramIndex<T> {
+
+    /**
+     * Znak kojim se tekst dopunjuje na kraju i kojim se razdvajaju polja.
+     * Ne pojavljuje se u upitima, pa trigrami koji ga sadrže ne spajaju polja.
+     */
+    public static final char GRANICA = '\u0001';
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Trigram (tri znaka spakovana u {@code long}) → sortirani ID-jevi dokumenata. */
+    private final Map<Long, IntLista> liste = new HashMap<>();
+
+    /** ID → dokument. */
+    private final Map<Integer, Dokument<T>> dokumenti = new HashMap<>();
+
+    /**
+     * Dodaje dokument u indeks ili zamenjuje postojeći sa istim ID-jem.
+     *
+     * @param id       ID dokumenta
+     * @param tekst    tekst po kome se pretražuje; više polja spojiti sa {@link #GRANICA}
+     * @param vrednost vrednost koja se vraća iz pretrage
+     */
+    public void dodaj(int id, String tekst, T vrednost) {
+        String normalizovan = normalizuj(tekst) + GRANICA + GRANICA;
+        lock.writeLock().lock();
+        try {
+            Dokument<T> stari = dokumenti.put(id, new Dokument<>(normalizovan, vrednost));
+            if (stari != null) {
+                if (stari.tekst.equals(normalizovan)) {
+                    return;
+                }
+                for (long t : trigrami(stari.tekst)) {
+                    ukloniIzListe(t, id);
+                }
+            }
+            for (long t : trigrami(normalizovan)) {
+                liste.computeIfAbsent(t, k -> new IntLista()).dodaj(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća vrednost dokumenta sa datim ID-jem.
+     *
+     * @param id ID dokumenta
+     * @return vrednost ili {@code null} ako dokument ne postoji
+     */
+    public T vrednost(int id) {
+        lock.readLock().lock();
+        try {
+            Dokument<T> d = dokumenti.get(id);
+            return d == null ? null : d.vrednost;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Menja samo vrednost dokumenta; tekst i liste trigrama ostaju isti.
+     *
+     * @param id       ID dokumenta
+     * @param vrednost nova vrednost
+     * @return {@code false} ako dokument ne postoji
+     */
+    public boolean zameniVrednost(int id, T vrednost) {
+        lock.writeLock().lock();
+        try {
+            Dokument<T> d = dokumenti.get(id);
+            if (d == null) {
+                return false;
+            }
+            dokumenti.put(id, new Dokument<>(d.tekst, vrednost));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Uklanja dokument iz indeksa.
+     *
+     * @param id ID dokumenta
+     * @return {@code true} ako je dokument postojao
+     */
+    public boolean ukloni(int id) {
+        lock.writeLock().lock();
+        try {
+            Dokument<T> stari = dokumenti.remove(id);
+            if (stari == null) {
+                return false;
+            }
+            for (long t : trigrami(stari.tekst)) {
+                ukloniIzListe(t, id);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Briše ceo sadržaj indeksa. */
+    public void ocisti() {
+        lock.writeLock().lock();
+        try {
+            liste.clear();
+            dokumenti.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća ID-jeve dokumenata čiji tekst sadrži upit kao podstring.
+     *
+     * @param upit  tekst pretrage (velika i mala slova se ne razlikuju)
+     * @param limit najveći broj rezultata
+     * @return sortirani ID-jevi pogodaka, najviše {@code limit}
+     */
+    public int[] pretraziId(String upit, int limit) {
+        String q = normalizuj(upit);
+        if (q.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            return q.length() >= 3 ? presek(q, limit) : unijaPrefiksa(q, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća vrednosti dokumenata čiji tekst sadrži upit kao podstring.
+     *
+     * @param upit  tekst pretrage
+     * @param limit najveći broj rezultata
+     * @return vrednosti pogodaka, po rastućem ID-u
+     */
+    public List<T> pretrazi(String upit, int limit) {
+        int[] ids = pretraziId(upit, limit);
+        List<T> rezultat = new ArrayList<>(ids.length);
+        lock.readLock().lock();
+        try {
+            for (int id : ids) {
+                Dokument<T> d = dokumenti.get(id);
+                if (d != null) {
+                    rezultat.add(d.vrednost);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return rezultat;
+    }
+
+    /** @return broj dokumenata u indeksu */
+    public int getBrojDokumenata() {
+        lock.readLock().lock();
+        try {
+            return dokumenti.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return broj različitih trigrama u indeksu */
+    public int getBrojTrigrama() {
+        lock.readLock().lock();
+        try {
+            return liste.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Procenjuje zauzeće memorije indeksa (liste trigrama, mape i tekstovi
+     * dokumenata), bez samih vrednosti koje indeks samo referencira.
+     * Procena pretpostavlja 64-bitni JVM sa kompresovanim pokazivačima.
+     *
+     * @return približan broj bajtova
+     */
+    public long procenaMemorijeBajtova() {
+        lock.readLock().lock();
+        try {
+            // HashMap.Node (32) + Long/Integer ključ (16) + pokazivač u tabeli (4)
+            final long unosMape = 52;
+            long bajtova = 0;
+            for (IntLista l : liste.values()) {
+                bajtova += unosMape + 24 + 16 + 4L * l.niz.length;
+            }
+            for (Dokument<T> d : dokumenti.values()) {
+                // Dokument (16) + String (24) + byte[] (16 + dužina, LATIN1) ili dvostruko (UTF16)
+                bajtova += unosMape + 16 + 24 + 16 + 2L * d.tekst.length();
+            }
+            return bajtova;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Preseca liste trigrama upita polazeći od najkraće; kandidat koji je u svim
+     * listama proverava se na tekstu. Staje čim nađe {@code limit} pogodaka.
+     */
+    private int[] presek(String q, int limit) {
+        Set<Long> jedinstveni = new HashSet<>();
+        for (long t : trigrami(q)) {
+            jedinstveni.add(t);
+        }
+        List<IntLista> trazene = new ArrayList<>(jedinstveni.size());
+        for (long t : jedinstveni) {
+            IntLista l = liste.get(t);
+            if (l == null) {
+                return new int[0];
+            }
+            trazene.add(l);
+        }
+        trazene.sort((a, b) -> Integer.compare(a.velicina, b.velicina));
+
+        IntLista najkraca = trazene.get(0);
+        int[] rezultat = new int[Math.min(najkraca.velicina, limit)];
+        int n = 0;
+        kandidat:
+        for (int i = 0; i < najkraca.velicina && n < rezultat.length; i++) {
+            int id = najkraca.niz[i];
+            for (int j = 1; j < trazene.size(); j++) {
+                if (!trazene.get(j).sadrzi(id)) {
+                    continue kandidat;
+                }
+            }
+            if (dokumenti.get(id).tekst.contains(q)) {
+                rezultat[n++] = id;
+            }
+        }
+        return n == rezultat.length ? rezultat : Arrays.copyOf(rezultat, n);
+    }
+
+    /**
+     * Za upite od jednog ili dva znaka: unija lista svih trigrama koji počinju
+     * upitom. Pošto je svaki tekst dopunjen sa dva znaka {@link #GRANICA},
+     * svaka pozicija u tekstu je početak nekog trigrama, pa provera teksta nije potrebna.
+     * Liste su sortirane, pa se spajaju preko hipa po tekućem ID-u svake liste
+     * i spajanje staje posle {@code limit} različitih ID-jeva.
+     */
+    private int[] unijaPrefiksa(String q, int limit) {
+        PriorityQueue<Kursor> hip = new PriorityQueue<>();
+        for (Map.Entry<Long, IntLista> e : liste.entrySet()) {
+            long t = e.getKey();
+            char c0 = (char) (t >>> 32);
+            char c1 = (char) (t >>> 16);
+            if (c0 == q.charAt(0) && (q.length() == 1 || c1 == q.charAt(1))) {
+                hip.add(new Kursor(e.getValue()));
+            }
+        }
+        int[] rezultat = new int[Math.min(limit, 16)];
+        int n = 0;
+        while (!hip.isEmpty() && n < limit) {
+            Kursor k = hip.poll();
+            int id = k.tekuci();
+            if (n == 0 || rezultat[n - 1] != id) {
+                if (n == rezultat.length) {
+                    rezultat = Arrays.copyOf(rezultat, Math.min(limit, rezultat.length * 2));
+                }
+                rezultat[n++] = id;
+            }
+            if (++k.poz < k.lista.velicina) {
+                hip.add(k);
+            }
+        }
+        return n == rezultat.length ? rezultat : Arrays.copyOf(rezultat, n);
+    }
+
+    private void ukloniIzListe(long trigram, int id) {
+        IntLista l = liste.get(trigram);
+        if (l != null && l.ukloni(id) && l.velicina == 0) {
+            liste.remove(trigram);
+        }
+    }
+
+    private static long[] trigrami(String tekst) {
+        int n = Math.max(0, tekst.length() - 2);
+        long[] rezultat = new long[n];
+        for (int i = 0; i < n; i++) {
+            rezultat[i] = ((long) tekst.charAt(i) << 32)
+                    | ((long) tekst.charAt(i + 1) << 16)
+                    | tekst.charAt(i + 2);
+        }
+        return rezultat;
+    }
+
+    private static String normalizuj(String tekst) {
+        return tekst == null ? "" : tekst.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Položaj u jednoj listi pri spajanju lista, poređen po tekućem ID-u. */
+    private static final class Kursor implements Comparable<Kursor> {
+        private final IntLista lista;
+        private int poz;
+
+        Kursor(IntLista lista) {
+            this.lista = lista;
+        }
+
+        int tekuci() {
+            return lista.niz[poz];
+        }
+
+        @Override
+        public int compareTo(Kursor o) {
+            return Integer.compare(tekuci(), o.tekuci());
+        }
+    }
+
+    /** Tekst i vrednost jednog dokumenta. */
+    private static final class Dokument<T> {
+        private final String tekst;
+        private final T vrednost;
+
+        Dokument(String tekst, T vrednost) {
+            this.tekst = tekst;
+            this.vrednost = vrednost;
+        }
+    }
+
+    /**
+     * Sortirana lista ID-jeva nad {@code int[]}. Novi ID-jevi su obično veći
+     * od svih postojećih, pa je dodavanje najčešće obično dopisivanje na kraj.
+     */
+    private static final class IntLista {
+        private int[] niz = new int[4];
+        private int velicina;
+
+        void dodaj(int id) {
+            int pos = velicina == 0 || niz[velicina - 1] < id
+                    ? velicina
+                    : Arrays.binarySearch(niz, 0, velicina, id);
+            if (pos >= 0 && pos < velicina) {
+                return; // već postoji
+            }
+            if (pos < 0) {
+                pos = -pos - 1;
+            }
+            if (velicina == niz.length) {
+                niz = Arrays.copyOf(niz, niz.length + (niz.length >> 1) + 1);
+            }
+            System.arraycopy(niz, pos, niz, pos + 1, velicina - pos);
+            niz[pos] = id;
+            velicina++;
+        }
+
+        boolean ukloni(int id) {
+            int pos = Arrays.binarySearch(niz, 0, velicina, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(niz, pos + 1, niz, pos, velicina - pos - 1);
+            velicina--;
+            if (velicina > 0 && velicina < niz.length / 4) {
+                niz = Arrays.copyOf(niz, Math.max(4, velicina * 2));
+            }
+            return true;
+        }
+
+        boolean sadrzi(int id) {
+            return Arrays.binarySearch(niz, 0, velicina, id) >= 0;
+        }
+    }
+}
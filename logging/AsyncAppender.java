@@ -0,0 +1,198 @@
+package logging;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prosleđuje poruke odredištima iz jedne pozadinske niti.
+ * <p>
+ * Nit koja beleži poruku samo popuni jedno mesto u {@link RingBuffer}-u i vrati se,
+ * bez zaključavanja i bez čekanja na disk ili konzolu. Pozadinska nit čita bafer
+ * u grupama i prazni bafere odredišta tek kada ostane bez poruka. Ako se bafer
+ * napuni, {@link OverflowPolicy} određuje da li se poruka odbacuje ili pozivalac čeka.
+ * Odbačene poruke se broje, a njihov broj se povremeno upisuje u sam dnevnik.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class AsyncAppender {
+
+    /** Najviše poruka koje se obrade pre nego što se proveri da li treba isprazniti bafere. */
+    private static final int GRUPA = 1024;
+
+    /** Koliko pozadinska nit spava kada nema poruka. */
+    private static final long PAUZA_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Koliko nit koja čeka na mesto u baferu spava između dva pokušaja. */
+    private static final long PAUZA_CEKANJA_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final RingBuffer bafer;
+    private final long budjenjeMaska;
+    private final OverflowPolicy politika;
+    private final List<LogAppender> odredista;
+    private final Thread nit;
+    private final LongAdder odbacenih = new LongAdder();
+
+    /** Koliko odbačenih poruka je već prijavljeno; menja ga samo pozadinska nit. */
+    private long prijavljenoOdbacenih;
+
+    private volatile boolean radi = true;
+
+    /**
+     * Pravi appender i pokreće njegovu pozadinsku (daemon) nit.
+     *
+     * @param kapacitet broj poruka koje mogu da čekaju na upis
+     * @param politika  šta se radi kada je bafer pun
+     * @param odredista odredišta kojima se prosleđuju sve poruke
+     */
+    public AsyncAppender(int kapacitet, OverflowPolicy politika, List<LogAppender> odredista) {
+        this.bafer = new RingBuffer(kapacitet);
+        this.budjenjeMaska = bafer.getKapacitet() / 2 - 1;
+        this.politika = politika;
+        this.odredista = List.copyOf(odredista);
+        this.nit = new Thread(this::petlja, "log-upis");
+        nit.setDaemon(true);
+        nit.start();
+    }
+
+    /**
+     * Stavlja poruku u red za upis.
+     *
+     * @return {@code false} ako je poruka odbačena jer je bafer pun ili je appender zatvoren
+     */
+    boolean dodaj(LogLevel nivo, String logger, String operacija, long id, long trajanjeNanos,
+                  String poruka, Throwable greska) {
+        if (!radi) {
+            odbacenih.increment();
+            return false;
+        }
+        long pozicija = bafer.zauzmi();
+        for (int pokusaj = 0; pozicija < 0; pokusaj++) {
+            if (politika == OverflowPolicy.ODBACI || !radi) {
+                odbacenih.increment();
+                return false;
+            }
+            LockSupport.unpark(nit);
+            if (pokusaj < 100) {
+                Thread.onSpinWait();
+            } else {
+                // Pozadinska nit mora da upiše celu grupu; ne treba joj oduzimati procesor
+                LockSupport.parkNanos(PAUZA_CEKANJA_NANOS);
+            }
+            pozicija = bafer.zauzmi();
+        }
+        if ((pozicija & budjenjeMaska) == 0) {
+            // Bafer se puni brže nego što pozadinska nit spava; budi se jednom po polovini bafera
+            LockSupport.unpark(nit);
+        }
+        Thread tekuca = Thread.currentThread();
+        String imeNiti = tekuca.getName();
+        if (imeNiti.isEmpty()) {
+            // Virtuelne niti nemaju ime
+            imeNiti = "nit-" + tekuca.getId();
+        }
+        bafer.mesto(pozicija).postavi(System.currentTimeMillis(), nivo, logger, imeNiti,
+                operacija, id, trajanjeNanos, poruka, greska);
+        bafer.objavi(pozicija);
+        return true;
+    }
+
+    /** @return ukupan broj poruka odbačenih zbog punog bafera */
+    public long getOdbacenih() {
+        return odbacenih.sum();
+    }
+
+    /** @return približan broj poruka koje čekaju na upis */
+    public int getBrojNaCekanju() {
+        return bafer.getBrojNaCekanju();
+    }
+
+    /** @return broj mesta u baferu */
+    public int getKapacitet() {
+        return bafer.getKapacitet();
+    }
+
+    /**
+     * Upisuje sve poruke koje čekaju, zaustavlja pozadinsku nit i zatvara odredišta.
+     * Poruke zabeležene posle zatvaranja se odbacuju.
+     *
+     * @param cekanjeMs koliko najduže se čeka da se bafer isprazni
+     */
+    public void zatvori(long cekanjeMs) {
+        radi = false;
+        LockSupport.unpark(nit);
+        try {
+            nit.join(cekanjeMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (LogAppender odrediste : odredista) {
+            try {
+                odrediste.zatvori();
+            } catch (IOException e) {
+                System.err.println("Greška pri zatvaranju dnevnika: " + e.getMessage());
+            }
+        }
+    }
+
+    private void petlja() {
+        boolean nijeIspraznjeno = false;
+        while (true) {
+            int procitano = bafer.isprazni(this::prosledi, GRUPA);
+            if (procitano > 0) {
+                nijeIspraznjeno = true;
+                continue;
+            }
+            prijaviOdbacene();
+            if (nijeIspraznjeno) {
+                isprazniOdredista();
+                nijeIspraznjeno = false;
+            }
+            if (!radi) {
+                // Poslednji krug: upisivači koji su zauzeli mesto pre zatvaranja su objavili
+                if (bafer.isprazni(this::prosledi, Integer.MAX_VALUE) > 0) {
+                    isprazniOdredista();
+                }
+                return;
+            }
+            LockSupport.parkNanos(this, PAUZA_NANOS);
+        }
+    }
+
+    private void prosledi(LogEvent dogadjaj) {
+        for (LogAppender odrediste : odredista) {
+            try {
+                odrediste.upisi(dogadjaj);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Greška pri upisu u dnevnik: " + e.getMessage());
+            }
+        }
+    }
+
+    private void isprazniOdredista() {
+        for (LogAppender odrediste : odredista) {
+            try {
+                odrediste.isprazni();
+            } catch (IOException e) {
+                System.err.println("Greška pri upisu u dnevnik: " + e.getMessage());
+            }
+        }
+    }
+
+    private void prijaviOdbacene() {
+        long ukupno = odbacenih.sum();
+        if (ukupno == prijavljenoOdbacenih) {
+            return;
+        }
+        // Pozadinska nit ne upisuje u sopstveni bafer, već direktno u odredišta
+        LogEvent dogadjaj = new LogEvent();
+        dogadjaj.postavi(System.currentTimeMillis(), LogLevel.WARN, "log", nit.getName(), "odbaci",
+                LogEvent.BEZ_ID, LogEvent.BEZ_TRAJANJA,
+                "Bafer dnevnika je bio pun; odbačeno poruka: " + (ukupno - prijavljenoOdbacenih), null);
+        prosledi(dogadjaj);
+        prijavljenoOdbacenih = ukupno;
+    }
+}
@@ -0,0 +1,48 @@
+package logging;
+
+import java.io.PrintStream;
+
+/**
+ * Prepisuje važnije poruke na standardni izlaz za greške, da bi se greške
+ * videle u konzoli kao i pre uvođenja dnevnika.
+ *
+ * @author DjuroPopara6271
+ */
+public final class ConsoleAppender implements LogAppender {
+
+    private final LogLevel minNivo;
+    private final PrintStream izlaz;
+    private final StringBuilder red = new StringBuilder(256);
+
+    /**
+     * @param minNivo najniži nivo koji se ispisuje
+     */
+    public ConsoleAppender(LogLevel minNivo) {
+        this(minNivo, System.err);
+    }
+
+    ConsoleAppender(LogLevel minNivo, PrintStream izlaz) {
+        this.minNivo = minNivo;
+        this.izlaz = izlaz;
+    }
+
+    @Override
+    public void upisi(LogEvent dogadjaj) {
+        if (dogadjaj.getNivo().compareTo(minNivo) < 0) {
+            return;
+        }
+        red.setLength(0);
+        dogadjaj.formatiraj(red);
+        izlaz.println(red);
+    }
+
+    @Override
+    public void isprazni() {
+        izlaz.flush();
+    }
+
+    @Override
+    public void zatvori() {
+        izlaz.flush();
+    }
+}
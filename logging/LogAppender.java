@@ -0,0 +1,38 @@
+package logging;
+
+import java.io.IOException;
+
+/**
+ * Odredište u koje se upisuju poruke dnevnika.
+ * <p>
+ * Metode poziva samo jedna nit (nit {@link AsyncAppender}-a), pa implementacije
+ * ne moraju biti thread-safe.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public interface LogAppender {
+
+    /**
+     * Upisuje jedan događaj, po potrebi samo u bafer.
+     *
+     * @param dogadjaj događaj; važi samo tokom poziva
+     * @throws IOException ako upis ne uspe
+     */
+    void upisi(LogEvent dogadjaj) throws IOException;
+
+    /**
+     * Prosleđuje baferisane događaje do odredišta. Poziva se kada nema
+     * novih događaja, pa se disk ne dira za svaku poruku.
+     *
+     * @throws IOException ako upis ne uspe
+     */
+    void isprazni() throws IOException;
+
+    /**
+     * Prazni bafer i oslobađa resurse.
+     *
+     * @throws IOException ako zatvaranje ne uspe
+     */
+    void zatvori() throws IOException;
+}
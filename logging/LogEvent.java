@@ -0,0 +1,182 @@
+package logging;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Jedna poruka dnevnika sa strukturiranim poljima.
+ * <p>
+ * Objekti se ne prave po poruci: {@link RingBuffer} ih pravi unapred, po jedan
+ * za svako mesto u baferu, i pri svakom upisu ponovo popunjava. Zato appender
+ * ne sme da zadrži referencu na događaj posle {@link LogAppender#upisi}.
+ * </p>
+ * <p>
+ * Red u dnevniku je u {@code ključ=vrednost} obliku, pa se lako filtrira
+ * alatima kao što su {@code grep} i {@code awk}:
+ * </p>
+ * <pre>
+ * 2024-05-01T10:15:30.123 INFO  [main] korisnici op=dodaj id=42 trajanje_us=310.5 poruka="Korisnik uspešno dodat u bazu."
+ * </pre>
+ *
+ * @author DjuroPopara6271
+ */
+public final class LogEvent {
+
+    /** Vrednost {@link #getId()} kada poruka nije vezana za jedan red. */
+    public static final long BEZ_ID = Long.MIN_VALUE;
+
+    /** Vrednost {@link #getTrajanjeNanos()} kada trajanje nije izmereno. */
+    public static final long BEZ_TRAJANJA = -1;
+
+    private static final DateTimeFormatter VREME =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    /** Poslednje formatirano vreme; uzastopne poruke iste milisekunde ga ne formatiraju ponovo. */
+    private static volatile FormatiranoVreme poslednje = new FormatiranoVreme(Long.MIN_VALUE, "");
+
+    private long vreme;
+    private LogLevel nivo;
+    private String logger;
+    private String nit;
+    private String operacija;
+    private long id;
+    private long trajanjeNanos;
+    private String poruka;
+    private Throwable greska;
+
+    LogEvent() {
+    }
+
+    void postavi(long vreme, LogLevel nivo, String logger, String nit, String operacija,
+                 long id, long trajanjeNanos, String poruka, Throwable greska) {
+        this.vreme = vreme;
+        this.nivo = nivo;
+        this.logger = logger;
+        this.nit = nit;
+        this.operacija = operacija;
+        this.id = id;
+        this.trajanjeNanos = trajanjeNanos;
+        this.poruka = poruka;
+        this.greska = greska;
+    }
+
+    /** Pušta reference na poruku i izuzetak kada je događaj upisan. */
+    void ocisti() {
+        poruka = null;
+        greska = null;
+    }
+
+    /** @return vreme nastanka u milisekundama od epohe */
+    public long getVreme() {
+        return vreme;
+    }
+
+    public LogLevel getNivo() {
+        return nivo;
+    }
+
+    /** @return ime logera, npr. {@code korisnici} */
+    public String getLogger() {
+        return logger;
+    }
+
+    /** @return ime niti koja je zabeležila poruku */
+    public String getNit() {
+        return nit;
+    }
+
+    /** @return naziv operacije ili {@code null} */
+    public String getOperacija() {
+        return operacija;
+    }
+
+    /** @return ID reda na koji se poruka odnosi ili {@link #BEZ_ID} */
+    public long getId() {
+        return id;
+    }
+
+    /** @return trajanje operacije u nanosekundama ili {@link #BEZ_TRAJANJA} */
+    public long getTrajanjeNanos() {
+        return trajanjeNanos;
+    }
+
+    public String getPoruka() {
+        return poruka;
+    }
+
+    /** @return izuzetak koji je prouzrokovao poruku ili {@code null} */
+    public Throwable getGreska() {
+        return greska;
+    }
+
+    /**
+     * Dodaje događaj kao jedan red (bez znaka za novi red) na kraj bafera.
+     *
+     * @param sb bafer u koji se piše
+     */
+    public void formatiraj(StringBuilder sb) {
+        FormatiranoVreme f = poslednje;
+        if (f.milis != vreme) {
+            f = new FormatiranoVreme(vreme, VREME.format(Instant.ofEpochMilli(vreme)));
+            poslednje = f;
+        }
+        sb.append(f.tekst);
+        sb.append(' ').append(nivo.name());
+        for (int i = nivo.name().length(); i < 5; i++) {
+            sb.append(' ');
+        }
+        sb.append(" [").append(nit).append("] ").append(logger);
+        if (operacija != null) {
+            sb.append(" op=").append(operacija);
+        }
+        if (id != BEZ_ID) {
+            sb.append(" id=").append(id);
+        }
+        if (trajanjeNanos != BEZ_TRAJANJA) {
+            // Jedna decimala mikrosekunde, bez String.format-a
+            long desetine = trajanjeNanos / 100;
+            sb.append(" trajanje_us=").append(desetine / 10).append('.').append(desetine % 10);
+        }
+        if (poruka != null) {
+            sb.append(" poruka=");
+            citiraj(sb, poruka);
+        }
+        if (greska != null) {
+            sb.append(" greska=");
+            citiraj(sb, greska.getClass().getName() + ": " + greska.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(128);
+        formatiraj(sb);
+        return sb.toString();
+    }
+
+    private static void citiraj(StringBuilder sb, String tekst) {
+        sb.append('"');
+        for (int i = 0; i < tekst.length(); i++) {
+            char c = tekst.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private static final class FormatiranoVreme {
+        final long milis;
+        final String tekst;
+
+        FormatiranoVreme(long milis, String tekst) {
+            this.milis = milis;
+            this.tekst = tekst;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package logging;
+
+/**
+ * Nivo važnosti poruke u dnevniku, od najmanje do najveće.
+ *
+ * @author DjuroPopara6271
+ */
+public enum LogLevel {
+    /** Detalji za otklanjanje grešaka; podrazumevano se ne beleže. */
+    DEBUG,
+    /** Uobičajeni događaji: upisi, izmene, brisanja. */
+    INFO,
+    /** Neočekivano stanje od kog se aplikacija oporavila. */
+    WARN,
+    /** Neuspela operacija. */
+    ERROR;
+
+    /**
+     * Nivo po nazivu, bez obzira na velika i mala slova.
+     *
+     * @param naziv npr. "info" ili "WARN"
+     * @return nivo
+     * @throws IllegalArgumentException ako nivo ne postoji
+     */
+    public static LogLevel poNazivu(String naziv) {
+        for (LogLevel nivo : values()) {
+            if (nivo.name().equalsIgnoreCase(naziv.trim())) {
+                return nivo;
+            }
+        }
+        throw new IllegalArgumentException("Nepoznat nivo dnevnika: " + naziv);
+    }
+}
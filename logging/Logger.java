@@ -0,0 +1,106 @@
+package logging;
+
+/**
+ * Imenovani loger, npr. {@code korisnici} ili {@code baza}.
+ * <p>
+ * Poruke se ne formatiraju u niti koja ih beleži: polja (operacija, ID, trajanje,
+ * izuzetak) se samo prepišu u bafer, a red teksta pravi pozadinska nit
+ * {@link AsyncAppender}-a. Poruke ispod nivoa {@link Logging#getNivo()} se
+ * odbacuju pre bilo kakvog rada, pa je isključen {@code debug} skoro besplatan.
+ * Loger se dobija preko {@link Logging#logger(String)}.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Logger {
+
+    private final String naziv;
+
+    Logger(String naziv) {
+        this.naziv = naziv;
+    }
+
+    public String getNaziv() {
+        return naziv;
+    }
+
+    /**
+     * @param nivo nivo poruke
+     * @return {@code true} ako bi poruka tog nivoa bila zabeležena
+     */
+    public boolean isUkljucen(LogLevel nivo) {
+        return nivo.compareTo(Logging.getNivo()) >= 0;
+    }
+
+    public void debug(String poruka) {
+        zabelezi(LogLevel.DEBUG, null, LogEvent.BEZ_ID, LogEvent.BEZ_TRAJANJA, poruka, null);
+    }
+
+    public void info(String poruka) {
+        zabelezi(LogLevel.INFO, null, LogEvent.BEZ_ID, LogEvent.BEZ_TRAJANJA, poruka, null);
+    }
+
+    /**
+     * Beleži uspešnu operaciju nad jednim redom.
+     *
+     * @param operacija naziv operacije, npr. {@code dodaj}
+     * @param id        ID reda ili {@link LogEvent#BEZ_ID}
+     * @param poruka    opis
+     */
+    public void info(String operacija, long id, String poruka) {
+        zabelezi(LogLevel.INFO, operacija, id, LogEvent.BEZ_TRAJANJA, poruka, null);
+    }
+
+    /**
+     * Beleži operaciju sa izmerenim trajanjem.
+     *
+     * @param operacija     naziv operacije
+     * @param id            ID reda ili {@link LogEvent#BEZ_ID}
+     * @param trajanjeNanos trajanje u nanosekundama
+     * @param poruka        opis
+     */
+    public void info(String operacija, long id, long trajanjeNanos, String poruka) {
+        zabelezi(LogLevel.INFO, operacija, id, trajanjeNanos, poruka, null);
+    }
+
+    public void upozorenje(String poruka) {
+        zabelezi(LogLevel.WARN, null, LogEvent.BEZ_ID, LogEvent.BEZ_TRAJANJA, poruka, null);
+    }
+
+    public void upozorenje(String operacija, long id, String poruka) {
+        zabelezi(LogLevel.WARN, operacija, id, LogEvent.BEZ_TRAJANJA, poruka, null);
+    }
+
+    public void greska(String poruka, Throwable greska) {
+        zabelezi(LogLevel.ERROR, null, LogEvent.BEZ_ID, LogEvent.BEZ_TRAJANJA, poruka, greska);
+    }
+
+    /**
+     * Beleži neuspelu operaciju.
+     *
+     * @param operacija naziv operacije
+     * @param id        ID reda ili {@link LogEvent#BEZ_ID}
+     * @param poruka    opis, npr. "Greška pri dodavanju korisnika"
+     * @param greska    uzrok ili {@code null}
+     */
+    public void greska(String operacija, long id, String poruka, Throwable greska) {
+        zabelezi(LogLevel.ERROR, operacija, id, LogEvent.BEZ_TRAJANJA, poruka, greska);
+    }
+
+    /**
+     * Beleži poruku sa svim poljima; ostale metode su skraćenice za nju.
+     *
+     * @param nivo          nivo poruke
+     * @param operacija     naziv operacije ili {@code null}
+     * @param id            ID reda ili {@link LogEvent#BEZ_ID}
+     * @param trajanjeNanos trajanje ili {@link LogEvent#BEZ_TRAJANJA}
+     * @param poruka        opis ili {@code null}
+     * @param greska        uzrok ili {@code null}
+     */
+    public void zabelezi(LogLevel nivo, String operacija, long id, long trajanjeNanos,
+                         String poruka, Throwable greska) {
+        if (isUkljucen(nivo)) {
+            Logging.appender().dodaj(nivo, naziv, operacija, id, trajanjeNanos, poruka, greska);
+        }
+    }
+}
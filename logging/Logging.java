@@ -0,0 +1,136 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Podešavanje dnevnika i registar logera.
+ * <p>
+ * Sve poruke idu kroz jedan {@link AsyncAppender} u fajl koji se rotira
+ * ({@link RollingFileAppender}), a upozorenja i greške se prepisuju i na konzolu.
+ * Appender se pravi pri prvoj poruci i podešava sistemskim svojstvima:
+ * </p>
+ * <ul>
+ *     <li>{@code log.nivo} – najniži nivo koji se beleži (podrazumevano {@code info})</li>
+ *     <li>{@code log.fajl} – putanja dnevnika (podrazumevano {@code logs/projekatfx.log})</li>
+ *     <li>{@code log.maxMb} – veličina fajla posle koje se rotira (podrazumevano 10)</li>
+ *     <li>{@code log.rezervnih} – broj starih fajlova koji se čuvaju (podrazumevano 5)</li>
+ *     <li>{@code log.kapacitet} – broj poruka koje mogu da čekaju na upis (podrazumevano 8192)</li>
+ *     <li>{@code log.prepunjenost} – {@code odbaci} ili {@code cekaj} kada je bafer pun
+ *         (podrazumevano {@code odbaci}, da beleženje nikad ne uspori upit)</li>
+ *     <li>{@code log.konzola} – najniži nivo koji se prepisuje na konzolu ili {@code ne}
+ *         (podrazumevano {@code warn})</li>
+ * </ul>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Logging {
+
+    public static final String SVOJSTVO_NIVO = "log.nivo";
+    public static final String SVOJSTVO_FAJL = "log.fajl";
+    public static final String SVOJSTVO_MAX_MB = "log.maxMb";
+    public static final String SVOJSTVO_REZERVNIH = "log.rezervnih";
+    public static final String SVOJSTVO_KAPACITET = "log.kapacitet";
+    public static final String SVOJSTVO_PREPUNJENOST = "log.prepunjenost";
+    public static final String SVOJSTVO_KONZOLA = "log.konzola";
+
+    private static final ConcurrentMap<String, Logger> LOGERI = new ConcurrentHashMap<>();
+
+    private static volatile LogLevel nivo =
+            LogLevel.poNazivu(System.getProperty(SVOJSTVO_NIVO, LogLevel.INFO.name()));
+
+    private static volatile AsyncAppender appender;
+
+    /** Da li je dodata kuka za gašenje JVM-a; menja se pod bravom klase. */
+    private static boolean kukaDodata;
+
+    private Logging() {
+    }
+
+    /**
+     * Vraća loger sa zadatim imenom, praveći ga pri prvom pozivu.
+     *
+     * @param naziv ime logera, upisuje se u svaki red
+     * @return loger
+     */
+    public static Logger logger(String naziv) {
+        return LOGERI.computeIfAbsent(naziv, Logger::new);
+    }
+
+    /** @return najniži nivo koji se beleži */
+    public static LogLevel getNivo() {
+        return nivo;
+    }
+
+    /**
+     * Menja nivo za sve logere, bez ponovnog pokretanja.
+     *
+     * @param noviNivo najniži nivo koji se beleži
+     */
+    public static void setNivo(LogLevel noviNivo) {
+        nivo = noviNivo;
+    }
+
+    /** @return broj poruka odbačenih zbog punog bafera, od pokretanja */
+    public static long getOdbacenih() {
+        AsyncAppender a = appender;
+        return a == null ? 0 : a.getOdbacenih();
+    }
+
+    /**
+     * Upisuje poruke koje čekaju i zatvara fajl. Poziva se pri gašenju
+     * aplikacije; sledeća poruka ponovo otvara dnevnik.
+     */
+    public static synchronized void zatvori() {
+        AsyncAppender a = appender;
+        if (a != null) {
+            appender = null;
+            a.zatvori(5_000);
+        }
+    }
+
+    static AsyncAppender appender() {
+        AsyncAppender a = appender;
+        if (a != null) {
+            return a;
+        }
+        synchronized (Logging.class) {
+            if (appender == null) {
+                appender = napravi();
+            }
+            return appender;
+        }
+    }
+
+    private static AsyncAppender napravi() {
+        List<LogAppender> odredista = new ArrayList<>(2);
+        Path fajl = Paths.get(System.getProperty(SVOJSTVO_FAJL, "logs/projekatfx.log"));
+        long maxBajtova = Long.getLong(SVOJSTVO_MAX_MB, 10) * 1024 * 1024;
+        int rezervnih = Integer.getInteger(SVOJSTVO_REZERVNIH, 5);
+        String konzola = System.getProperty(SVOJSTVO_KONZOLA, LogLevel.WARN.name());
+        try {
+            odredista.add(new RollingFileAppender(fajl, maxBajtova, rezervnih));
+        } catch (IOException e) {
+            System.err.println("Greška pri otvaranju dnevnika " + fajl + ": " + e.getMessage());
+            // Bez fajla sve ide na konzolu
+            konzola = LogLevel.DEBUG.name();
+        }
+        if (!konzola.equalsIgnoreCase("ne")) {
+            odredista.add(new ConsoleAppender(LogLevel.poNazivu(konzola)));
+        }
+        OverflowPolicy politika = OverflowPolicy.poNazivu(
+                System.getProperty(SVOJSTVO_PREPUNJENOST, OverflowPolicy.ODBACI.name()));
+        AsyncAppender a = new AsyncAppender(Integer.getInteger(SVOJSTVO_KAPACITET, 8192), politika, odredista);
+        if (!kukaDodata) {
+            // Za programe bez MainApp.stop(), npr. CsvUvoz i benchmark-ove
+            Runtime.getRuntime().addShutdownHook(new Thread(Logging::zatvori, "log-zatvaranje"));
+            kukaDodata = true;
+        }
+        return a;
+    }
+}
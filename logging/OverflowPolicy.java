@@ -0,0 +1,29 @@
+package logging;
+
+/**
+ * Šta radi nit koja beleži poruku kada je bafer asinhronog upisa pun.
+ *
+ * @author DjuroPopara6271
+ */
+public enum OverflowPolicy {
+    /** Poruka se odbacuje i samo broji; pozivalac nikad ne čeka na disk. */
+    ODBACI,
+    /** Pozivalac čeka da se u baferu oslobodi mesto; nijedna poruka se ne gubi. */
+    CEKAJ;
+
+    /**
+     * Politika po nazivu, bez obzira na velika i mala slova.
+     *
+     * @param naziv "odbaci" ili "cekaj"
+     * @return politika
+     * @throws IllegalArgumentException ako politika ne postoji
+     */
+    public static OverflowPolicy poNazivu(String naziv) {
+        for (OverflowPolicy p : values()) {
+            if (p.name().equalsIgnoreCase(naziv.trim())) {
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("Nepoznata politika prepunjenosti: " + naziv);
+    }
+}
@@ -0,0 +1,113 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Ograničen kružni bafer događaja bez zaključavanja: više niti upisuje, jedna čita.
+ * <p>
+ * Mesta i {@link LogEvent} objekti prave se jednom, pri kreiranju. Svako mesto ima
+ * svoj redni broj (sekvencu) koji govori čiji je red: upisivač sme da popuni mesto
+ * {@code i} u krugu {@code n} kada je sekvenca {@code n}, a čitalac sme da ga pročita
+ * kada upisivač objavi {@code n + 1}. Upisivači se takmiče samo jednim
+ * {@code compareAndSet} nad repom; čitalac ne koristi nijednu atomsku izmenu osim
+ * oslobađanja mesta.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+final class RingBuffer {
+
+    private final LogEvent[] mesta;
+    private final AtomicLongArray sekvence;
+    private final int maska;
+
+    /** Sledeća pozicija za upis; menjaju je svi upisivači. */
+    private final AtomicLong rep = new AtomicLong();
+
+    /** Sledeća pozicija za čitanje; menja je samo nit čitaoca. */
+    private long glava;
+
+    /**
+     * @param kapacitet broj mesta; zaokružuje se naviše na stepen dvojke
+     */
+    RingBuffer(int kapacitet) {
+        int n = Integer.highestOneBit(Math.max(2, kapacitet) - 1) << 1;
+        mesta = new LogEvent[n];
+        sekvence = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            mesta[i] = new LogEvent();
+            sekvence.set(i, i);
+        }
+        maska = n - 1;
+    }
+
+    int getKapacitet() {
+        return mesta.length;
+    }
+
+    /**
+     * Zauzima jedno mesto za upis.
+     *
+     * @return pozicija koju treba popuniti preko {@link #mesto(long)} i zatim
+     * {@link #objavi(long)}, ili {@code -1} ako je bafer pun
+     */
+    long zauzmi() {
+        while (true) {
+            long pozicija = rep.get();
+            long sekvenca = sekvence.get((int) pozicija & maska);
+            if (sekvenca == pozicija) {
+                if (rep.compareAndSet(pozicija, pozicija + 1)) {
+                    return pozicija;
+                }
+            } else if (sekvenca < pozicija) {
+                // Čitalac još nije oslobodio mesto iz prethodnog kruga
+                return -1;
+            }
+            // Druga nit je u međuvremenu zauzela poziciju; pokušava se sa sledećom
+        }
+    }
+
+    LogEvent mesto(long pozicija) {
+        return mesta[(int) pozicija & maska];
+    }
+
+    /** Čini popunjeno mesto vidljivim čitaocu. */
+    void objavi(long pozicija) {
+        sekvence.set((int) pozicija & maska, pozicija + 1);
+    }
+
+    /**
+     * Čita objavljene događaje redom, najviše do prvog koji još nije objavljen.
+     * Sme da je poziva samo jedna nit.
+     *
+     * @param obrada poziva se za svaki događaj; događaj se ne sme zadržati
+     * @param max    najviše događaja u jednom pozivu
+     * @return broj pročitanih događaja
+     */
+    int isprazni(Consumer<LogEvent> obrada, int max) {
+        int procitano = 0;
+        while (procitano < max) {
+            int indeks = (int) glava & maska;
+            if (sekvence.get(indeks) != glava + 1) {
+                break;
+            }
+            LogEvent dogadjaj = mesta[indeks];
+            try {
+                obrada.accept(dogadjaj);
+            } finally {
+                dogadjaj.ocisti();
+                sekvence.set(indeks, glava + mesta.length);
+                glava++;
+            }
+            procitano++;
+        }
+        return procitano;
+    }
+
+    /** @return približan broj događaja koji čekaju na čitanje */
+    int getBrojNaCekanju() {
+        return (int) Math.max(0, rep.get() - glava);
+    }
+}
@@ -0,0 +1,156 @@
+package logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Upisuje dnevnik u fajl koji se rotira kada pređe zadatu veličinu.
+ * <p>
+ * Pri rotaciji {@code app.log} postaje {@code app.log.1}, {@code app.log.1} postaje
+ * {@code app.log.2} i tako do zadatog broja rezervnih fajlova; najstariji se briše.
+ * Ako rotacija ne uspe, upis se nastavlja u tekući fajl, a rotacija se ponovo
+ * pokušava kada on naraste za još jednu zadatu veličinu.
+ * Upis ide kroz bafer od 64 KB koji se prazni tek kada {@link AsyncAppender} ostane
+ * bez poruka, pa se pri velikom broju poruka disk dira retko i u velikim blokovima.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class RollingFileAppender implements LogAppender {
+
+    private static final int BAFER = 64 * 1024;
+
+    private final Path fajl;
+    private final long maxBajtova;
+    private final int brojRezervnih;
+    private final StringBuilder red = new StringBuilder(256);
+
+    /** Tekući fajl, ili {@code null} ako ponovno otvaranje posle rotacije nije uspelo. */
+    private Writer pisac;
+    private long velicina;
+
+    /** Veličina posle koje se fajl rotira; raste posle neuspele rotacije. */
+    private long prag;
+
+    /**
+     * @param fajl          putanja dnevnika; direktorijum se pravi ako ne postoji
+     * @param maxBajtova    veličina posle koje se fajl rotira
+     * @param brojRezervnih koliko starih fajlova se čuva
+     * @throws IOException ako fajl ne može da se otvori
+     */
+    public RollingFileAppender(Path fajl, long maxBajtova, int brojRezervnih) throws IOException {
+        if (maxBajtova <= 0 || brojRezervnih < 0) {
+            throw new IllegalArgumentException("Veličina mora biti pozitivna, a broj rezervnih fajlova nenegativan.");
+        }
+        this.fajl = fajl.toAbsolutePath();
+        this.maxBajtova = maxBajtova;
+        this.brojRezervnih = brojRezervnih;
+        this.prag = maxBajtova;
+        Path direktorijum = this.fajl.getParent();
+        if (direktorijum != null) {
+            Files.createDirectories(direktorijum);
+        }
+        otvori();
+    }
+
+    /** @return putanja tekućeg fajla dnevnika */
+    public Path getFajl() {
+        return fajl;
+    }
+
+    @Override
+    public void upisi(LogEvent dogadjaj) throws IOException {
+        red.setLength(0);
+        dogadjaj.formatiraj(red);
+        red.append(System.lineSeparator());
+        long bajtova = utf8Duzina(red);
+        if (pisac == null) {
+            otvori();
+        }
+        if (velicina > 0 && velicina + bajtova > prag) {
+            try {
+                rotiraj();
+                prag = maxBajtova;
+            } catch (IOException e) {
+                if (pisac == null) {
+                    throw e;
+                }
+                prag = velicina + maxBajtova;
+                System.err.println("Rotacija dnevnika nije uspela, upis se nastavlja u " + fajl + ": " + e.getMessage());
+            }
+        }
+        pisac.append(red);
+        velicina += bajtova;
+    }
+
+    @Override
+    public void isprazni() throws IOException {
+        if (pisac != null) {
+            pisac.flush();
+        }
+    }
+
+    @Override
+    public void zatvori() throws IOException {
+        if (pisac != null) {
+            pisac.close();
+        }
+    }
+
+    private void otvori() throws IOException {
+        pisac = new BufferedWriter(Files.newBufferedWriter(fajl, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), BAFER);
+        velicina = Files.size(fajl);
+    }
+
+    /** Rotira fajlove; tekući fajl se ponovo otvara i kada pomeranje ne uspe. */
+    private void rotiraj() throws IOException {
+        pisac.close();
+        pisac = null;
+        try {
+            if (brojRezervnih == 0) {
+                Files.delete(fajl);
+            } else {
+                for (int i = brojRezervnih - 1; i >= 1; i--) {
+                    Path stari = rezervni(i);
+                    if (Files.exists(stari)) {
+                        Files.move(stari, rezervni(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                Files.move(fajl, rezervni(1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            otvori();
+        }
+    }
+
+    private Path rezervni(int redniBroj) {
+        return fajl.resolveSibling(fajl.getFileName() + "." + redniBroj);
+    }
+
+    /** Broj bajtova u UTF-8 zapisu, bez pravljenja niza bajtova. */
+    private static long utf8Duzina(CharSequence tekst) {
+        long n = 0;
+        for (int i = 0; i < tekst.length(); i++) {
+            char c = tekst.charAt(i);
+            if (c < 0x80) {
+                n++;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                // Par surogata je jedan znak od 4 bajta
+                n += 4;
+                i++;
+            } else {
+                n += 3;
+            }
+        }
+        return n;
+    }
+}
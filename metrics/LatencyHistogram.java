@@ -0,0 +1,132 @@
+package metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram latencija sa log-linearnim korpama, po uzoru na HdrHistogram.
+ * <p>
+ * Vrednosti do {@value #LINEARNO} ns imaju sopstvenu korpu; iznad toga svaki
+ * stepen dvojke deli se na {@value #POD_KORPI} korpi, pa je greška percentila
+ * najviše oko 1,6% bez obzira na to da li je latencija mikrosekunda ili minut.
+ * Ceo opseg do oko 18 minuta staje u nekoliko hiljada brojača fiksne veličine.
+ * </p>
+ * <p>
+ * Upis je jedan {@code incrementAndGet} nad korpom i ne zaključava ništa, pa
+ * ga mogu pozivati sve niti istovremeno. Percentili se računaju nad snimkom
+ * korpi koji ne mora biti tačan trenutak, što je za nadzor dovoljno.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class LatencyHistogram {
+
+    /** Broj korpi po stepenu dvojke (6 bita preciznosti). */
+    private static final int POD_KORPI = 64;
+
+    /** Vrednosti ispod ove granice (ns) broje se tačno. */
+    private static final int LINEARNO = 2 * POD_KORPI;
+
+    /** Najveći stepen dvojke koji se razlikuje (~18 min u ns); veće vrednosti idu u poslednju korpu. */
+    private static final int MAX_STEPEN = 40;
+
+    private static final int BROJ_KORPI = (MAX_STEPEN - 4) * POD_KORPI;
+
+    private final AtomicLongArray korpe = new AtomicLongArray(BROJ_KORPI);
+    private final LongAdder broj = new LongAdder();
+    private final LongAdder zbir = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Beleži jednu latenciju.
+     *
+     * @param nanos trajanje u nanosekundama; negativne vrednosti se beleže kao 0
+     */
+    public void zabelezi(long nanos) {
+        long v = Math.max(0, nanos);
+        korpe.incrementAndGet(korpa(v));
+        broj.increment();
+        zbir.add(v);
+        max.accumulate(v);
+    }
+
+    /** @return broj zabeleženih vrednosti */
+    public long getBroj() {
+        return broj.sum();
+    }
+
+    /** @return prosečna latencija u nanosekundama, ili 0 ako nema vrednosti */
+    public double getProsek() {
+        long n = broj.sum();
+        return n == 0 ? 0 : (double) zbir.sum() / n;
+    }
+
+    /** @return najveća zabeležena latencija u nanosekundama */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Vraća vrednosti za više percentila iz istog snimka korpi.
+     *
+     * @param kvantili kvantili iz {@code [0, 1]}, rastuće (npr. 0.5, 0.99)
+     * @return gornja granica korpe u kojoj je svaki kvantil, u nanosekundama
+     */
+    public long[] percentili(double... kvantili) {
+        long[] snimak = new long[BROJ_KORPI];
+        long ukupno = 0;
+        for (int i = 0; i < BROJ_KORPI; i++) {
+            snimak[i] = korpe.get(i);
+            ukupno += snimak[i];
+        }
+        long[] rezultat = new long[kvantili.length];
+        if (ukupno == 0) {
+            return rezultat;
+        }
+        long najveca = max.get();
+        int korpa = 0;
+        long doSada = snimak[0];
+        for (int k = 0; k < kvantili.length; k++) {
+            long rang = Math.max(1, (long) Math.ceil(kvantili[k] * ukupno));
+            while (doSada < rang && korpa < BROJ_KORPI - 1) {
+                doSada += snimak[++korpa];
+            }
+            // Gornja granica korpe ne sme da pređe stvarni maksimum
+            rezultat[k] = Math.min(gornjaGranica(korpa), najveca);
+        }
+        return rezultat;
+    }
+
+    /** Prazni histogram. Upisi koji se dese istovremeno mogu delimično ostati. */
+    public void resetuj() {
+        for (int i = 0; i < BROJ_KORPI; i++) {
+            korpe.set(i, 0);
+        }
+        broj.reset();
+        zbir.reset();
+        max.reset();
+    }
+
+    static int korpa(long v) {
+        if (v < LINEARNO) {
+            return (int) v;
+        }
+        int stepen = 63 - Long.numberOfLeadingZeros(v);
+        if (stepen > MAX_STEPEN) {
+            return BROJ_KORPI - 1;
+        }
+        int pomak = stepen - 6;
+        // v >>> pomak je u [64, 128), pa se korpe svih stepena nastavljaju jedna na drugu
+        return (pomak << 6) + (int) (v >>> pomak);
+    }
+
+    static long gornjaGranica(int korpa) {
+        if (korpa < LINEARNO) {
+            return korpa;
+        }
+        int pomak = (korpa >> 6) - 1;
+        long pod = korpa - ((long) pomak << 6);
+        return ((pod + 1) << pomak) - 1;
+    }
+}
@@ -0,0 +1,294 @@
+package metrics;
+
+import logging.Logger;
+import logging.Logging;
+import model.IshodRezervacije;
+import model.RezultatUnosa;
+import model.Strana;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zajednički registar metrika pristupa podacima.
+ * <p>
+ * Svaka operacija (npr. {@code rezervacije.getSve} ili {@code konekcija.preuzimanje})
+ * ima svoj {@link OperationMetrics}, koji se pri prvom korišćenju registruje i kao
+ * JMX MXBean {@code projekatfx:type=Operacija,name=...}, pa se vidi u JConsole-u
+ * ili VisualVM-u. {@link #meri} obmotava skladište tako da se meri svaki poziv,
+ * a {@link #pokreniIspis} periodično ispisuje tabelu svih operacija.
+ * </p>
+ * <p>
+ * Greške koje skladište uhvati i samo prijavi označavaju se pozivom
+ * {@link #oznaciGresku()} iz {@code catch} bloka; on se odnosi na merenje koje
+ * je u toku na tekućoj niti.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Metrics {
+
+    /** Sistemsko svojstvo sa periodom ispisa u sekundama; 0 ili odsustvo isključuje ispis. */
+    public static final String SVOJSTVO_ISPIS = "metrike.ispis";
+
+    private static final String JMX_DOMEN = "projekatfx";
+
+    private static final Logger LOG = Logging.logger("metrike");
+
+    /** Operacije po imenu, sortirane radi preglednog ispisa. */
+    private static final ConcurrentMap<String, OperationMetrics> OPERACIJE = new ConcurrentSkipListMap<>();
+
+    /** Merenje koje je u toku na tekućoj niti, za {@link #oznaciGresku()}. */
+    private static final ThreadLocal<Merenje> TEKUCE = new ThreadLocal<>();
+
+    private static ScheduledExecutorService ispis;
+
+    private Metrics() {
+    }
+
+    /**
+     * Vraća metrike operacije, praveći ih i registrujući u JMX-u pri prvom pozivu.
+     *
+     * @param naziv ime operacije
+     * @return metrike operacije
+     */
+    public static OperationMetrics operacija(String naziv) {
+        OperationMetrics op = OPERACIJE.get(naziv);
+        return op != null ? op : OPERACIJE.computeIfAbsent(naziv, Metrics::napravi);
+    }
+
+    /**
+     * Počinje merenje jednog poziva. Koristi se u {@code try}-with-resources bloku,
+     * a trajanje se beleži pri zatvaranju.
+     *
+     * @param operacija metrike operacije
+     * @return merenje u toku
+     */
+    public static Merenje pocni(OperationMetrics operacija) {
+        Merenje m = new Merenje(operacija, TEKUCE.get());
+        TEKUCE.set(m);
+        return m;
+    }
+
+    /**
+     * Označava grešku u merenju koje je u toku na tekućoj niti, ako ga ima.
+     */
+    public static void oznaciGresku() {
+        Merenje m = TEKUCE.get();
+        if (m != null) {
+            m.oznaciGresku();
+        }
+    }
+
+    /**
+     * Obmotava objekat tako da se meri svaki poziv metoda interfejsa.
+     * <p>
+     * Operacija se zove {@code prefiks.imeMetode}. Broj redova se određuje iz
+     * rezultata: veličina liste ili strane, broj upisanih redova, vraćeni broj,
+     * odnosno 1 za uspešan pojedinačni upis ili pronađen objekat.
+     * Izuzetak iz poziva se broji kao greška i prosleđuje dalje.
+     * </p>
+     *
+     * @param tip     interfejs koji se meri
+     * @param prefiks prefiks imena operacija, npr. {@code rezervacije}
+     * @param cilj    objekat koji obavlja posao
+     * @param <T>     tip interfejsa
+     * @return objekat istog interfejsa koji meri pozive
+     */
+    public static <T> T meri(Class<T> tip, String prefiks, T cilj) {
+        Map<Method, OperationMetrics> poMetodi = new HashMap<>();
+        for (Method metoda : tip.getMethods()) {
+            poMetodi.put(metoda, operacija(prefiks + "." + metoda.getName()));
+        }
+        Object proxy = Proxy.newProxyInstance(tip.getClassLoader(), new Class<?>[]{tip}, (p, metoda, argumenti) -> {
+            OperationMetrics op = poMetodi.get(metoda);
+            if (op == null) {
+                // equals, hashCode i toString iz Object-a
+                return pozovi(cilj, metoda, argumenti);
+            }
+            try (Merenje m = pocni(op)) {
+                try {
+                    Object rezultat = pozovi(cilj, metoda, argumenti);
+                    m.setRedova(redova(rezultat));
+                    return rezultat;
+                } catch (Throwable t) {
+                    m.oznaciGresku();
+                    throw t;
+                }
+            }
+        });
+        return tip.cast(proxy);
+    }
+
+    /** @return snimak svih operacija, po imenu */
+    public static List<OperationStats> getSnimak() {
+        List<OperationStats> snimak = new ArrayList<>(OPERACIJE.size());
+        for (OperationMetrics op : OPERACIJE.values()) {
+            snimak.add(op.snimak());
+        }
+        return snimak;
+    }
+
+    /**
+     * Pravi tekstualnu tabelu svih operacija koje su bar jednom pozvane.
+     * Vremena su u mikrosekundama.
+     *
+     * @return izveštaj, po jedan red za operaciju
+     */
+    public static String izvestaj() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-36s %9s %7s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operacija", "poziva", "greške", "redova", "prosek", "p50", "p90", "p99", "p99.9", "max"));
+        for (OperationStats s : getSnimak()) {
+            if (s.getBrojPoziva() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-36s %9d %7d %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    s.getNaziv(), s.getBrojPoziva(), s.getBrojGresaka(), s.getBrojRedova(),
+                    s.getProsek(), s.getP50(), s.getP90(), s.getP99(), s.getP999(), s.getMax()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Pokreće periodičan ispis {@link #izvestaj()}-a na standardni izlaz, u pozadinskoj niti.
+     * Ponovni poziv menja period.
+     *
+     * @param periodSekundi razmak između dva ispisa
+     */
+    public static synchronized void pokreniIspis(long periodSekundi) {
+        zaustaviIspis();
+        ispis = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrike-ispis");
+            t.setDaemon(true);
+            return t;
+        });
+        ispis.scheduleAtFixedRate(() -> System.out.print("Metrike (µs):\n" + izvestaj()),
+                periodSekundi, periodSekundi, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Pokreće periodičan ispis ako je zadat sistemskim svojstvom {@value #SVOJSTVO_ISPIS}.
+     */
+    public static void pokreniIspisIzSvojstva() {
+        long period = Long.getLong(SVOJSTVO_ISPIS, 0);
+        if (period > 0) {
+            pokreniIspis(period);
+        }
+    }
+
+    /**
+     * Zaustavlja periodičan ispis, ako je pokrenut.
+     *
+     * @return {@code true} ako je ispis bio pokrenut
+     */
+    public static synchronized boolean zaustaviIspis() {
+        if (ispis == null) {
+            return false;
+        }
+        ispis.shutdownNow();
+        ispis = null;
+        return true;
+    }
+
+    private static OperationMetrics napravi(String naziv) {
+        OperationMetrics op = new OperationMetrics(naziv);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName ime = new ObjectName(JMX_DOMEN, new java.util.Hashtable<>(Map.of(
+                    "type", "Operacija", "name", ObjectName.quote(naziv))));
+            if (!server.isRegistered(ime)) {
+                server.registerMBean(op, ime);
+            }
+        } catch (JMException | RuntimeException e) {
+            // Metrike rade i bez JMX-a, npr. kada platformski MBean server nije dostupan
+            LOG.upozorenje("Metrika " + naziv + " nije registrovana u JMX-u: " + e.getMessage());
+        }
+        return op;
+    }
+
+    private static Object pozovi(Object cilj, Method metoda, Object[] argumenti) throws Throwable {
+        try {
+            return metoda.invoke(cilj, argumenti);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long redova(Object rezultat) {
+        if (rezultat == null) {
+            return 0;
+        }
+        if (rezultat instanceof Collection) {
+            return ((Collection<?>) rezultat).size();
+        }
+        if (rezultat instanceof Strana) {
+            return ((Strana<?>) rezultat).getStavke().size();
+        }
+        if (rezultat instanceof RezultatUnosa) {
+            return ((RezultatUnosa) rezultat).getBrojUspesnih();
+        }
+        if (rezultat instanceof Integer) {
+            return Math.max(0, (Integer) rezultat);
+        }
+        if (rezultat instanceof Boolean) {
+            return (Boolean) rezultat ? 1 : 0;
+        }
+        if (rezultat instanceof IshodRezervacije) {
+            return rezultat == IshodRezervacije.USPESNO ? 1 : 0;
+        }
+        return 1;
+    }
+
+    /**
+     * Jedno merenje u toku; zatvaranjem se trajanje upisuje u metrike operacije.
+     */
+    public static final class Merenje implements AutoCloseable {
+
+        private final OperationMetrics operacija;
+        private final Merenje prethodno;
+        private final long pocetak = System.nanoTime();
+        private long redova;
+        private boolean greska;
+
+        private Merenje(OperationMetrics operacija, Merenje prethodno) {
+            this.operacija = operacija;
+            this.prethodno = prethodno;
+        }
+
+        /** @param redova broj vraćenih ili upisanih redova */
+        public void setRedova(long redova) {
+            this.redova = redova;
+        }
+
+        /** Označava da je poziv završio greškom. */
+        public void oznaciGresku() {
+            greska = true;
+        }
+
+        @Override
+        public void close() {
+            operacija.zabelezi(System.nanoTime() - pocetak, redova, greska);
+            if (prethodno == null) {
+                TEKUCE.remove();
+            } else {
+                TEKUCE.set(prethodno);
+            }
+        }
+    }
+}
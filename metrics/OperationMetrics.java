@@ -0,0 +1,114 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrike jedne operacije: histogram latencija, broj poziva, grešaka i redova.
+ * Sve metode su bezbedne za istovremene pozive iz više niti.
+ *
+ * @author DjuroPopara6271
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private static final double NS_U_MIKROS = 1_000.0;
+
+    private final String naziv;
+    private final LatencyHistogram latencije = new LatencyHistogram();
+    private final LongAdder greske = new LongAdder();
+    private final LongAdder redovi = new LongAdder();
+
+    OperationMetrics(String naziv) {
+        this.naziv = naziv;
+    }
+
+    /**
+     * Beleži jedan završen poziv.
+     *
+     * @param nanos  trajanje poziva u nanosekundama
+     * @param redova broj vraćenih ili upisanih redova
+     * @param greska {@code true} ako je poziv završio greškom
+     */
+    public void zabelezi(long nanos, long redova, boolean greska) {
+        latencije.zabelezi(nanos);
+        if (redova > 0) {
+            redovi.add(redova);
+        }
+        if (greska) {
+            greske.increment();
+        }
+    }
+
+    /** @return ime operacije */
+    public String getNaziv() {
+        return naziv;
+    }
+
+    /** @return histogram latencija */
+    public LatencyHistogram getLatencije() {
+        return latencije;
+    }
+
+    /**
+     * Pravi snimak svih vrednosti, sa percentilima iz istog stanja histograma.
+     *
+     * @return snimak metrika
+     */
+    public OperationStats snimak() {
+        long[] p = latencije.percentili(0.5, 0.9, 0.99, 0.999);
+        return new OperationStats(naziv, latencije.getBroj(), greske.sum(), redovi.sum(),
+                latencije.getProsek() / NS_U_MIKROS, p[0] / NS_U_MIKROS, p[1] / NS_U_MIKROS,
+                p[2] / NS_U_MIKROS, p[3] / NS_U_MIKROS, latencije.getMax() / NS_U_MIKROS);
+    }
+
+    @Override
+    public long getBrojPoziva() {
+        return latencije.getBroj();
+    }
+
+    @Override
+    public long getBrojGresaka() {
+        return greske.sum();
+    }
+
+    @Override
+    public long getBrojRedova() {
+        return redovi.sum();
+    }
+
+    @Override
+    public double getProsekMikros() {
+        return latencije.getProsek() / NS_U_MIKROS;
+    }
+
+    @Override
+    public double getP50Mikros() {
+        return latencije.percentili(0.5)[0] / NS_U_MIKROS;
+    }
+
+    @Override
+    public double getP90Mikros() {
+        return latencije.percentili(0.9)[0] / NS_U_MIKROS;
+    }
+
+    @Override
+    public double getP99Mikros() {
+        return latencije.percentili(0.99)[0] / NS_U_MIKROS;
+    }
+
+    @Override
+    public double getP999Mikros() {
+        return latencije.percentili(0.999)[0] / NS_U_MIKROS;
+    }
+
+    @Override
+    public double getMaxMikros() {
+        return latencije.getMax() / NS_U_MIKROS;
+    }
+
+    @Override
+    public void resetuj() {
+        latencije.resetuj();
+        greske.reset();
+        redovi.reset();
+    }
+}
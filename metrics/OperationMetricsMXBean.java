@@ -0,0 +1,39 @@
+package metrics;
+
+/**
+ * JMX pogled na metrike jedne operacije. Vremena su u mikrosekundama.
+ *
+ * @author DjuroPopara6271
+ */
+public interface OperationMetricsMXBean {
+
+    /** @return broj završenih poziva */
+    long getBrojPoziva();
+
+    /** @return broj poziva koji su završili greškom */
+    long getBrojGresaka();
+
+    /** @return ukupan broj vraćenih ili upisanih redova */
+    long getBrojRedova();
+
+    /** @return prosečno trajanje poziva */
+    double getProsekMikros();
+
+    /** @return medijana trajanja */
+    double getP50Mikros();
+
+    /** @return 90. percentil trajanja */
+    double getP90Mikros();
+
+    /** @return 99. percentil trajanja */
+    double getP99Mikros();
+
+    /** @return 99,9. percentil trajanja */
+    double getP999Mikros();
+
+    /** @return najduže trajanje */
+    double getMaxMikros();
+
+    /** Počinje merenje iz početka. */
+    void resetuj();
+}
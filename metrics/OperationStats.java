@@ -0,0 +1,98 @@
+package metrics;
+
+/**
+ * Nepromenljivi snimak metrika jedne operacije. Vremena su u mikrosekundama.
+ *
+ * @author DjuroPopara6271
+ */
+public final class OperationStats {
+
+    private final String naziv;
+    private final long brojPoziva;
+    private final long brojGresaka;
+    private final long brojRedova;
+    private final double prosek;
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+    private final double max;
+
+    OperationStats(String naziv, long brojPoziva, long brojGresaka, long brojRedova,
+                   double prosek, double p50, double p90, double p99, double p999, double max) {
+        this.naziv = naziv;
+        this.brojPoziva = brojPoziva;
+        this.brojGresaka = brojGresaka;
+        this.brojRedova = brojRedova;
+        this.prosek = prosek;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /** @return ime operacije, npr. {@code rezervacije.getSve} */
+    public String getNaziv() {
+        return naziv;
+    }
+
+    /** @return broj završenih poziva */
+    public long getBrojPoziva() {
+        return brojPoziva;
+    }
+
+    /** @return broj poziva koji su završili greškom */
+    public long getBrojGresaka() {
+        return brojGresaka;
+    }
+
+    /** @return ukupan broj vraćenih ili upisanih redova */
+    public long getBrojRedova() {
+        return brojRedova;
+    }
+
+    /** @return prosečno trajanje */
+    public double getProsek() {
+        return prosek;
+    }
+
+    /** @return medijana trajanja */
+    public double getP50() {
+        return p50;
+    }
+
+    /** @return 90. percentil trajanja */
+    public double getP90() {
+        return p90;
+    }
+
+    /** @return 99. percentil trajanja */
+    public double getP99() {
+        return p99;
+    }
+
+    /** @return 99,9. percentil trajanja */
+    public double getP999() {
+        return p999;
+    }
+
+    /** @return najduže trajanje */
+    public double getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return "OperationStats{" +
+                "naziv='" + naziv + '\'' +
+                ", brojPoziva=" + brojPoziva +
+                ", brojGresaka=" + brojGresaka +
+                ", brojRedova=" + brojRedova +
+                ", prosek=" + String.format("%.1f", prosek) +
+                ", p50=" + String.format("%.1f", p50) +
+                ", p99=" + String.format("%.1f", p99) +
+                ", max=" + String.format("%.1f", max) +
+                '}';
+    }
+}
@@ -0,0 +1,70 @@
+package model;
+
+/**
+ * Jedan red rezultata agregatnog upita nad rezervacijama.
+ * <p>
+ * Ključ je ID korisnika ili opreme kod grupisanja po njima, a za ostala
+ * grupisanja je {@code 0}; oznaka je tekst za prikaz (ime, naziv, status ili period).
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class Agregat {
+
+    /** ID grupe (korisnika ili opreme), ili {@code 0}. */
+    private final int kljuc;
+
+    /** Oznaka grupe za prikaz. */
+    private final String oznaka;
+
+    /** Broj rezervacija u grupi. */
+    private final long brojRezervacija;
+
+    /** Ukupna rezervisana količina u grupi. */
+    private final long ukupnaKolicina;
+
+    /**
+     * Kreira red agregata.
+     *
+     * @param kljuc           ID grupe ili {@code 0}
+     * @param oznaka          oznaka grupe za prikaz
+     * @param brojRezervacija broj rezervacija
+     * @param ukupnaKolicina  zbir količina
+     */
+    public Agregat(int kljuc, String oznaka, long brojRezervacija, long ukupnaKolicina) {
+        this.kljuc = kljuc;
+        this.oznaka = oznaka;
+        this.brojRezervacija = brojRezervacija;
+        this.ukupnaKolicina = ukupnaKolicina;
+    }
+
+    /** @return ID grupe ili {@code 0} */
+    public int getKljuc() {
+        return kljuc;
+    }
+
+    /** @return oznaka grupe za prikaz */
+    public String getOznaka() {
+        return oznaka;
+    }
+
+    /** @return broj rezervacija u grupi */
+    public long getBrojRezervacija() {
+        return brojRezervacija;
+    }
+
+    /** @return ukupna rezervisana količina u grupi */
+    public long getUkupnaKolicina() {
+        return ukupnaKolicina;
+    }
+
+    @Override
+    public String toString() {
+        return "Agregat{" +
+                "kljuc=" + kljuc +
+                ", oznaka='" + oznaka + '\'' +
+                ", brojRezervacija=" + brojRezervacija +
+                ", ukupnaKolicina=" + ukupnaKolicina +
+                '}';
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Dimenzija po kojoj se rezervacije grupišu u agregatnim upitima.
+ *
+ * @author DjuroPopara6271
+ */
+public enum Grupisanje {
+
+    /** Po korisniku ({@code korisnik_id}); oznaka je ime korisnika. */
+    KORISNIK,
+
+    /** Po opremi ({@code oprema_id}); oznaka je naziv opreme. */
+    OPREMA,
+
+    /** Po statusu rezervacije. */
+    STATUS,
+
+    /** Po danu rezervacije (YYYY-MM-DD). */
+    DAN,
+
+    /** Po mesecu rezervacije (YYYY-MM). */
+    MESEC,
+
+    /** Po godini rezervacije (YYYY). */
+    GODINA
+}
@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Ishod atomične rezervacije opreme.
+ *
+ * @author DjuroPopara6271
+ */
+public enum IshodRezervacije {
+
+    /** Rezervacija je upisana i dobila je ID. */
+    USPESNO,
+
+    /** U traženom periodu nema dovoljno slobodne opreme. */
+    NEDOVOLJNO_OPREME,
+
+    /** Oprema ne postoji. */
+    NEPOSTOJECA_OPREMA,
+
+    /** Istu opremu su stalno menjali drugi, pa ni posle ponovljenih pokušaja izmena nije uspela. */
+    KONFLIKT,
+
+    /** Greška pri radu sa bazom ili neispravni podaci. */
+    GRESKA
+}
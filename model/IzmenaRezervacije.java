@@ -0,0 +1,49 @@
+package model;
+
+/**
+ * Izmena postojeće rezervacije koja se upisuje zajedno sa drugima:
+ * novi datum vraćanja ili brisanje.
+ *
+ * @author DjuroPopara6271
+ */
+public class IzmenaRezervacije {
+
+    /** ID rezervacije. */
+    private final int id;
+
+    /** Novi datum vraćanja (YYYY-MM-DD), ili {@code null} za brisanje. */
+    private final String noviDatumVracanja;
+
+    /**
+     * Kreira izmenu.
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD), ili {@code null} za brisanje
+     */
+    public IzmenaRezervacije(int id, String noviDatumVracanja) {
+        this.id = id;
+        this.noviDatumVracanja = noviDatumVracanja;
+    }
+
+    /** @return ID rezervacije */
+    public int getId() {
+        return id;
+    }
+
+    /** @return novi datum vraćanja, ili {@code null} za brisanje */
+    public String getNoviDatumVracanja() {
+        return noviDatumVracanja;
+    }
+
+    /** @return {@code true} ako se rezervacija briše */
+    public boolean isBrisanje() {
+        return noviDatumVracanja == null;
+    }
+
+    @Override
+    public String toString() {
+        return isBrisanje()
+                ? "IzmenaRezervacije{id=" + id + ", brisanje}"
+                : "IzmenaRezervacije{id=" + id + ", noviDatumVracanja=" + noviDatumVracanja + '}';
+    }
+}
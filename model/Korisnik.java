@@ -52,6 +52,15 @@ public class Korisnik {
         this.telefon = telefon;
     }
 
+    /**
+     * Konstruktor kopije.
+     *
+     * @param drugi korisnik čiji se podaci kopiraju
+     */
+    public Korisnik(Korisnik drugi) {
+        this(drugi.id, drugi.ime, drugi.email, drugi.telefon);
+    }
+
     /**
      * Vraća jedinstveni identifikator korisnika.
      *
@@ -0,0 +1,61 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Redosled sortiranja po jednoj koloni, npr. iz zaglavlja tabele.
+ * <p>
+ * Kolona se zadaje imenom svojstva modela (npr. {@code datumRezervacije}),
+ * a skladište ga prevodi u kolonu baze; ID je uvek drugi ključ, pa je
+ * redosled jednoznačan i strane se ne preklapaju.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class Poredak {
+
+    /** Ime svojstva po kome se sortira. */
+    private final String kolona;
+
+    /** {@code true} za opadajući redosled. */
+    private final boolean opadajuce;
+
+    /**
+     * Kreira redosled.
+     *
+     * @param kolona    ime svojstva modela
+     * @param opadajuce {@code true} za opadajući redosled
+     */
+    public Poredak(String kolona, boolean opadajuce) {
+        this.kolona = Objects.requireNonNull(kolona);
+        this.opadajuce = opadajuce;
+    }
+
+    /** @return ime svojstva po kome se sortira */
+    public String getKolona() {
+        return kolona;
+    }
+
+    /** @return {@code true} za opadajući redosled */
+    public boolean isOpadajuce() {
+        return opadajuce;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Poredak)) return false;
+        Poredak that = (Poredak) o;
+        return opadajuce == that.opadajuce && kolona.equals(that.kolona);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kolona, opadajuce);
+    }
+
+    @Override
+    public String toString() {
+        return kolona + (opadajuce ? " DESC" : " ASC");
+    }
+}
@@ -0,0 +1,91 @@
+package model;
+
+/**
+ * Jedan zapis iz dnevnika promena rezervacija: koja rezervacija je promenjena,
+ * kako, i pod kojom verzijom.
+ * <p>
+ * Verzije rastu sa svakom promenom, pa pozivalac koji zapamti poslednju
+ * viđenu verziju sledeći put traži samo promene posle nje.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class PromenaRezervacije {
+
+    /** Vrsta promene, sa oznakom kojom se čuva u dnevniku. */
+    public enum Vrsta {
+        /** Nova rezervacija. */
+        DODATA('I'),
+        /** Izmenjena postojeća rezervacija. */
+        IZMENJENA('U'),
+        /** Obrisana rezervacija. */
+        OBRISANA('D');
+
+        private final char oznaka;
+
+        Vrsta(char oznaka) {
+            this.oznaka = oznaka;
+        }
+
+        /** @return oznaka u koloni {@code vrsta} dnevnika */
+        public char getOznaka() {
+            return oznaka;
+        }
+
+        /**
+         * @param oznaka 'I', 'U' ili 'D'
+         * @return vrsta promene
+         * @throws IllegalArgumentException ako oznaka nije poznata
+         */
+        public static Vrsta poOznaci(char oznaka) {
+            for (Vrsta v : values()) {
+                if (v.oznaka == oznaka) {
+                    return v;
+                }
+            }
+            throw new IllegalArgumentException("Nepoznata vrsta promene: " + oznaka);
+        }
+    }
+
+    /** Redni broj promene u dnevniku. */
+    private final long verzija;
+
+    /** ID promenjene rezervacije. */
+    private final int rezervacijaId;
+
+    /** Vrsta promene. */
+    private final Vrsta vrsta;
+
+    /**
+     * Kreira zapis o promeni.
+     *
+     * @param verzija       redni broj promene
+     * @param rezervacijaId ID rezervacije
+     * @param vrsta         vrsta promene
+     */
+    public PromenaRezervacije(long verzija, int rezervacijaId, Vrsta vrsta) {
+        this.verzija = verzija;
+        this.rezervacijaId = rezervacijaId;
+        this.vrsta = vrsta;
+    }
+
+    /** @return redni broj promene u dnevniku */
+    public long getVerzija() {
+        return verzija;
+    }
+
+    /** @return ID promenjene rezervacije */
+    public int getRezervacijaId() {
+        return rezervacijaId;
+    }
+
+    /** @return vrsta promene */
+    public Vrsta getVrsta() {
+        return vrsta;
+    }
+
+    @Override
+    public String toString() {
+        return "PromenaRezervacije{verzija=" + verzija + ", rezervacijaId=" + rezervacijaId + ", vrsta=" + vrsta + '}';
+    }
+}
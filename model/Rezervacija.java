@@ -125,6 +125,16 @@ public class Rezervacija {
         this.status = status;
     }
 
+    /**
+     * Konstruktor kopije.
+     *
+     * @param druga rezervacija čiji se podaci kopiraju
+     */
+    public Rezervacija(Rezervacija druga) {
+        this(druga.id, druga.korisnikId, druga.opremaId, druga.korisnikIme, druga.opremaNaziv,
+                druga.datumRezervacije, druga.datumVracanja, druga.kolicina, druga.status);
+    }
+
     /** @return ID rezervacije */
     public int getId() {
         return id;
@@ -218,21 +228,22 @@ public class Rezervacija {
     /**
      * {@inheritDoc}
      * <p>
-     * Uključuje sve atribute za lakšu dijagnostiku.
+     * Uključuje sve atribute za lakšu dijagnostiku. Čita ih preko getera,
+     * da bi radilo i za poglede koji podatke čuvaju van polja.
      * </p>
      */
     @Override
     public String toString() {
         return "Rezervacija{" +
-                "id=" + id +
-                ", korisnikId=" + korisnikId +
-                ", opremaId=" + opremaId +
-                ", korisnikIme='" + korisnikIme + '\'' +
-                ", opremaNaziv='" + opremaNaziv + '\'' +
-                ", datumRezervacije='" + datumRezervacije + '\'' +
-                ", datumVracanja='" + datumVracanja + '\'' +
-                ", kolicina=" + kolicina +
-                ", status='" + status + '\'' +
+                "id=" + getId() +
+                ", korisnikId=" + getKorisnikId() +
+                ", opremaId=" + getOpremaId() +
+                ", korisnikIme='" + getKorisnikIme() + '\'' +
+                ", opremaNaziv='" + getOpremaNaziv() + '\'' +
+                ", datumRezervacije='" + getDatumRezervacije() + '\'' +
+                ", datumVracanja='" + getDatumVracanja() + '\'' +
+                ", kolicina=" + getKolicina() +
+                ", status='" + getStatus() + '\'' +
                 '}';
     }
 
@@ -244,11 +255,11 @@ public class Rezervacija {
         if (this == o) return true;
         if (!(o instanceof Rezervacija)) return false;
         Rezervacija that = (Rezervacija) o;
-        return id == that.id;
+        return getId() == that.getId();
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Objects.hash(getId());
     }
 }
@@ -0,0 +1,93 @@
+package model;
+
+/**
+ * Kriterijumi za filtriranje rezervacija koji se prevode u {@code WHERE} deo upita.
+ * <p>
+ * Svako polje koje je {@code null} se ne uzima u obzir, pa prazan filter
+ * vraća sve rezervacije.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class RezervacijaFilter {
+
+    /** ID korisnika čije se rezervacije traže. */
+    private Integer korisnikId;
+
+    /** ID opreme čije se rezervacije traže. */
+    private Integer opremaId;
+
+    /** Status rezervacije (npr. "aktivna"). */
+    private String status;
+
+    /** Najraniji datum rezervacije, uključivo (YYYY-MM-DD). */
+    private String datumOd;
+
+    /** Najkasniji datum rezervacije, uključivo (YYYY-MM-DD). */
+    private String datumDo;
+
+    /** Prazan filter, bez ograničenja. */
+    public RezervacijaFilter() {
+    }
+
+    /** @return ID korisnika ili {@code null} */
+    public Integer getKorisnikId() {
+        return korisnikId;
+    }
+
+    /** @param korisnikId ID korisnika ili {@code null} */
+    public void setKorisnikId(Integer korisnikId) {
+        this.korisnikId = korisnikId;
+    }
+
+    /** @return ID opreme ili {@code null} */
+    public Integer getOpremaId() {
+        return opremaId;
+    }
+
+    /** @param opremaId ID opreme ili {@code null} */
+    public void setOpremaId(Integer opremaId) {
+        this.opremaId = opremaId;
+    }
+
+    /** @return Status ili {@code null} */
+    public String getStatus() {
+        return status;
+    }
+
+    /** @param status Status ili {@code null} */
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    /** @return Najraniji datum rezervacije (YYYY-MM-DD) ili {@code null} */
+    public String getDatumOd() {
+        return datumOd;
+    }
+
+    /** @param datumOd Najraniji datum rezervacije (YYYY-MM-DD) ili {@code null} */
+    public void setDatumOd(String datumOd) {
+        this.datumOd = datumOd;
+    }
+
+    /** @return Najkasniji datum rezervacije (YYYY-MM-DD) ili {@code null} */
+    public String getDatumDo() {
+        return datumDo;
+    }
+
+    /** @param datumDo Najkasniji datum rezervacije (YYYY-MM-DD) ili {@code null} */
+    public void setDatumDo(String datumDo) {
+        this.datumDo = datumDo;
+    }
+
+    @Override
+    public String toString() {
+        return "RezervacijaFilter{" +
+                "korisnikId=" + korisnikId +
+                ", opremaId=" + opremaId +
+                ", status='" + status + '\'' +
+                ", datumOd='" + datumOd + '\'' +
+                ", datumDo='" + datumDo + '\'' +
+                '}';
+    }
+}
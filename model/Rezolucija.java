@@ -0,0 +1,73 @@
+package model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Širina jednog intervala vremenskog niza rezervacija.
+ *
+ * @author DjuroPopara6271
+ */
+public enum Rezolucija {
+
+    /** Jedan dan. */
+    DAN,
+
+    /** Nedelja od ponedeljka. */
+    NEDELJA,
+
+    /** Kalendarski mesec. */
+    MESEC;
+
+    /**
+     * @param dan bilo koji dan
+     * @return prvi dan intervala kome dan pripada
+     */
+    public LocalDate pocetak(LocalDate dan) {
+        switch (this) {
+            case NEDELJA:
+                return dan.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MESEC:
+                return dan.withDayOfMonth(1);
+            default:
+                return dan;
+        }
+    }
+
+    /**
+     * @param pocetak prvi dan intervala
+     * @return prvi dan sledećeg intervala
+     */
+    public LocalDate sledeci(LocalDate pocetak) {
+        switch (this) {
+            case NEDELJA:
+                return pocetak.plusWeeks(1);
+            case MESEC:
+                return pocetak.plusMonths(1);
+            default:
+                return pocetak.plusDays(1);
+        }
+    }
+
+    /**
+     * Najfinija rezolucija sa kojom period {@code [od, doDatuma)} nema više od
+     * zadatog broja intervala; za duže periode {@link #MESEC}.
+     *
+     * @param od           prvi dan perioda
+     * @param doDatuma     dan posle poslednjeg dana perioda
+     * @param maxIntervala najveći željeni broj intervala
+     * @return rezolucija
+     */
+    public static Rezolucija za(LocalDate od, LocalDate doDatuma, int maxIntervala) {
+        long dana = ChronoUnit.DAYS.between(od, doDatuma);
+        if (dana <= maxIntervala) {
+            return DAN;
+        }
+        if (dana / 7 <= maxIntervala) {
+            return NEDELJA;
+        }
+        return MESEC;
+    }
+}
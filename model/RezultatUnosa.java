@@ -0,0 +1,96 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rezultat grupnog unosa: ID dodeljen svakom redu i greške po redovima.
+ *
+ * @author DjuroPopara6271
+ */
+public class RezultatUnosa {
+
+    /** ID koji je baza dodelila svakom ulaznom redu, ili {@code 0} ako red nije upisan. */
+    private final int[] generisaniId;
+
+    /** Redovi koji nisu upisani, sa razlogom. */
+    private final List<Greska> greske;
+
+    /**
+     * Kreira rezultat.
+     *
+     * @param generisaniId ID po ulaznom redu ({@code 0} za neupisane)
+     * @param greske       greške po redovima
+     */
+    public RezultatUnosa(int[] generisaniId, List<Greska> greske) {
+        this.generisaniId = generisaniId;
+        this.greske = Collections.unmodifiableList(new ArrayList<>(greske));
+    }
+
+    /** @return ID po ulaznom redu, {@code 0} za redove koji nisu upisani */
+    public int[] getGenerisaniId() {
+        return generisaniId;
+    }
+
+    /** @return greške po redovima */
+    public List<Greska> getGreske() {
+        return greske;
+    }
+
+    /** @return broj uspešno upisanih redova */
+    public int getBrojUspesnih() {
+        int broj = 0;
+        for (int id : generisaniId) {
+            if (id != 0) {
+                broj++;
+            }
+        }
+        return broj;
+    }
+
+    @Override
+    public String toString() {
+        return "RezultatUnosa{" +
+                "ukupno=" + generisaniId.length +
+                ", uspesno=" + getBrojUspesnih() +
+                ", greske=" + greske.size() +
+                '}';
+    }
+
+    /**
+     * Greška za jedan red ulaza.
+     */
+    public static class Greska {
+
+        /** Redni broj reda: indeks u ulaznoj listi ili broj linije u fajlu. */
+        private final int red;
+
+        /** Opis greške. */
+        private final String poruka;
+
+        /**
+         * @param red    redni broj reda
+         * @param poruka opis greške
+         */
+        public Greska(int red, String poruka) {
+            this.red = red;
+            this.poruka = poruka;
+        }
+
+        /** @return redni broj reda */
+        public int getRed() {
+            return red;
+        }
+
+        /** @return opis greške */
+        public String getPoruka() {
+            return poruka;
+        }
+
+        @Override
+        public String toString() {
+            return "red " + red + ": " + poruka;
+        }
+    }
+}
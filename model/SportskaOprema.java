@@ -61,6 +61,15 @@ public class SportskaOprema {
         this.lokacija = lokacija;
     }
 
+    /**
+     * Konstruktor kopije.
+     *
+     * @param druga oprema čiji se podaci kopiraju
+     */
+    public SportskaOprema(SportskaOprema druga) {
+        this(druga.id, druga.naziv, druga.tipId, druga.dostupnost, druga.cena, druga.kolicina, druga.lokacija);
+    }
+
     /** @return Jedinstveni ID opreme */
     public int getId() {
         return id;
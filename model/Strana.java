@@ -0,0 +1,98 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Jedna strana rezultata upita sa kursorom za sledeću stranu.
+ * <p>
+ * Kursor čine datum rezervacije i ID poslednjeg reda na strani; sledeća
+ * strana počinje od prvog reda koji je po tom paru strogo veći.
+ * </p>
+ *
+ * @param <T> tip elemenata na strani
+ * @author DjuroPopara6271
+ */
+public class Strana<T> {
+
+    /** Elementi na ovoj strani. */
+    private final List<T> stavke;
+
+    /** Datum poslednjeg reda na strani (YYYY-MM-DD), ili {@code null} ako je strana prazna. */
+    private final String kursorDatum;
+
+    /** ID poslednjeg reda na strani. */
+    private final int kursorId;
+
+    /** {@code true} ako postoji bar još jedna strana. */
+    private final boolean imaSledecu;
+
+    /** {@code false} ako čitanje nije uspelo, pa prazna strana ne znači kraj rezultata. */
+    private final boolean uspesna;
+
+    /**
+     * Kreira stranu rezultata.
+     *
+     * @param stavke      elementi na strani
+     * @param kursorDatum datum poslednjeg reda
+     * @param kursorId    ID poslednjeg reda
+     * @param imaSledecu  da li postoji sledeća strana
+     */
+    public Strana(List<T> stavke, String kursorDatum, int kursorId, boolean imaSledecu) {
+        this(stavke, kursorDatum, kursorId, imaSledecu, true);
+    }
+
+    private Strana(List<T> stavke, String kursorDatum, int kursorId, boolean imaSledecu, boolean uspesna) {
+        this.stavke = Collections.unmodifiableList(stavke);
+        this.kursorDatum = kursorDatum;
+        this.kursorId = kursorId;
+        this.imaSledecu = imaSledecu;
+        this.uspesna = uspesna;
+    }
+
+    /**
+     * Prazna strana koju skladište vraća kada čitanje nije uspelo.
+     *
+     * @param <T> tip elemenata
+     * @return prazna strana bez sledeće, sa {@link #isUspesna()} {@code false}
+     */
+    public static <T> Strana<T> neuspela() {
+        return new Strana<>(Collections.emptyList(), null, 0, false, false);
+    }
+
+    /** @return nepromenljiva lista elemenata na strani */
+    public List<T> getStavke() {
+        return stavke;
+    }
+
+    /** @return datum poslednjeg reda, za upit sledeće strane */
+    public String getKursorDatum() {
+        return kursorDatum;
+    }
+
+    /** @return ID poslednjeg reda, za upit sledeće strane */
+    public int getKursorId() {
+        return kursorId;
+    }
+
+    /** @return {@code true} ako postoji sledeća strana */
+    public boolean isImaSledecu() {
+        return imaSledecu;
+    }
+
+    /** @return {@code false} ako je strana prazna zato što čitanje nije uspelo */
+    public boolean isUspesna() {
+        return uspesna;
+    }
+
+    @Override
+    public String toString() {
+        return "Strana{" +
+                "broj=" + stavke.size() +
+                ", kursorDatum='" + kursorDatum + '\'' +
+                ", kursorId=" + kursorId +
+                ", imaSledecu=" + imaSledecu +
+                (uspesna ? "" : ", neuspela") +
+                '}';
+    }
+}
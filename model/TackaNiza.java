@@ -0,0 +1,63 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Jedan interval vremenskog niza rezervacija: broj rezervacija i rezervisana
+ * količina sa datumom rezervacije u intervalu.
+ *
+ * @author DjuroPopara6271
+ */
+public class TackaNiza {
+
+    /** Prvi dan intervala, kao broj dana od 1970-01-01. */
+    private final int dan;
+
+    /** Broj rezervacija u intervalu. */
+    private final long brojRezervacija;
+
+    /** Ukupna rezervisana količina u intervalu. */
+    private final long ukupnaKolicina;
+
+    /**
+     * Kreira tačku niza.
+     *
+     * @param dan             prvi dan intervala, kao broj dana od 1970-01-01
+     * @param brojRezervacija broj rezervacija
+     * @param ukupnaKolicina  zbir količina
+     */
+    public TackaNiza(int dan, long brojRezervacija, long ukupnaKolicina) {
+        this.dan = dan;
+        this.brojRezervacija = brojRezervacija;
+        this.ukupnaKolicina = ukupnaKolicina;
+    }
+
+    /** @return prvi dan intervala, kao broj dana od 1970-01-01 */
+    public int getDan() {
+        return dan;
+    }
+
+    /** @return prvi dan intervala */
+    public LocalDate getDatum() {
+        return LocalDate.ofEpochDay(dan);
+    }
+
+    /** @return broj rezervacija u intervalu */
+    public long getBrojRezervacija() {
+        return brojRezervacija;
+    }
+
+    /** @return ukupna rezervisana količina u intervalu */
+    public long getUkupnaKolicina() {
+        return ukupnaKolicina;
+    }
+
+    @Override
+    public String toString() {
+        return "TackaNiza{" +
+                "datum=" + getDatum() +
+                ", brojRezervacija=" + brojRezervacija +
+                ", ukupnaKolicina=" + ukupnaKolicina +
+                '}';
+    }
+}
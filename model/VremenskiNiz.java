@@ -0,0 +1,87 @@
+package model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vremenski niz rezervacija za grafikon, sa brojem tačaka ograničenim bez
+ * obzira na dužinu perioda.
+ * <p>
+ * Broj rezervacija i količina se smanjuju nezavisno, pa svaki niz zadržava
+ * svoje vrhove i može imati tačke u drugim intervalima.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class VremenskiNiz {
+
+    /** Prvi dan perioda. */
+    private final LocalDate od;
+
+    /** Dan posle poslednjeg dana perioda. */
+    private final LocalDate doDatuma;
+
+    /** Širina intervala iz koje su tačke uzete. */
+    private final Rezolucija rezolucija;
+
+    /** Tačke izabrane po broju rezervacija. */
+    private final List<TackaNiza> poBroju;
+
+    /** Tačke izabrane po količini. */
+    private final List<TackaNiza> poKolicini;
+
+    /**
+     * Kreira niz.
+     *
+     * @param od         prvi dan perioda
+     * @param doDatuma   dan posle poslednjeg dana perioda
+     * @param rezolucija širina intervala
+     * @param poBroju    tačke izabrane po broju rezervacija
+     * @param poKolicini tačke izabrane po količini
+     */
+    public VremenskiNiz(LocalDate od, LocalDate doDatuma, Rezolucija rezolucija,
+                        List<TackaNiza> poBroju, List<TackaNiza> poKolicini) {
+        this.od = od;
+        this.doDatuma = doDatuma;
+        this.rezolucija = rezolucija;
+        this.poBroju = Collections.unmodifiableList(poBroju);
+        this.poKolicini = Collections.unmodifiableList(poKolicini);
+    }
+
+    /** @return prvi dan perioda */
+    public LocalDate getOd() {
+        return od;
+    }
+
+    /** @return dan posle poslednjeg dana perioda */
+    public LocalDate getDoDatuma() {
+        return doDatuma;
+    }
+
+    /** @return širina intervala */
+    public Rezolucija getRezolucija() {
+        return rezolucija;
+    }
+
+    /** @return tačke za niz broja rezervacija, hronološki */
+    public List<TackaNiza> getPoBroju() {
+        return poBroju;
+    }
+
+    /** @return tačke za niz količine, hronološki */
+    public List<TackaNiza> getPoKolicini() {
+        return poKolicini;
+    }
+
+    @Override
+    public String toString() {
+        return "VremenskiNiz{" +
+                "od=" + od +
+                ", doDatuma=" + doDatuma +
+                ", rezolucija=" + rezolucija +
+                ", poBroju=" + poBroju.size() +
+                ", poKolicini=" + poKolicini.size() +
+                '}';
+    }
+}
@@ -2,10 +2,13 @@ module com.example.projekatfx {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires java.management;
+    requires jdk.httpserver;
 
     opens view to javafx.fxml;
     exports view;
     exports controller;
+    exports metrics;  // MXBean interfejsi moraju biti dostupni JMX-u
 
     opens model to javafx.base;  // ✅ OTVARA model paket za JavaFX
 }
@@ -0,0 +1,139 @@
+package repository;
+
+import database.DatabaseConnection;
+import metrics.Metrics;
+import model.RezultatUnosa;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Zajednička logika grupnog unosa za MySQL repozitorijume.
+ * <p>
+ * Redovi se šalju JDBC batch-om u grupama od {@value #VELICINA_GRUPE}, svaka
+ * grupa u sopstvenoj transakciji. Uz {@code rewriteBatchedStatements} drajver
+ * svaku grupu šalje kao jedan {@code INSERT ... VALUES (...), (...)}. Ako grupa
+ * ne uspe, poništava se i ponavlja red po red, pa se ispravni redovi ipak upisuju,
+ * a za neispravne se beleži greška.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+final class BatchInsert {
+
+    /** Broj redova u jednoj grupi (jednoj transakciji). */
+    static final int VELICINA_GRUPE = 500;
+
+    private BatchInsert() {
+    }
+
+    /** Postavlja parametre naredbe za jedan red. */
+    interface Parametri<T> {
+        void postavi(PreparedStatement ps, T red) throws SQLException;
+    }
+
+    /**
+     * Upisuje sve redove i vraća dodeljene ID-jeve i greške po redovima.
+     *
+     * @param sql       {@code INSERT} naredba
+     * @param redovi    redovi za upis
+     * @param parametri postavlja parametre za jedan red
+     * @param <T>       tip reda
+     * @return rezultat; indeks greške je indeks reda u {@code redovi}
+     */
+    static <T> RezultatUnosa izvrsi(String sql, List<T> redovi, Parametri<T> parametri) {
+        int[] ids = new int[redovi.size()];
+        List<RezultatUnosa.Greska> greske = new ArrayList<>();
+        boolean[] obradjen = new boolean[redovi.size()];
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            connection.setAutoCommit(false);
+
+            for (int od = 0; od < redovi.size(); od += VELICINA_GRUPE) {
+                int doIndeksa = Math.min(redovi.size(), od + VELICINA_GRUPE);
+                List<Integer> uGrupi = new ArrayList<>(doIndeksa - od);
+                for (int i = od; i < doIndeksa; i++) {
+                    try {
+                        parametri.postavi(ps, redovi.get(i));
+                        ps.addBatch();
+                        uGrupi.add(i);
+                    } catch (SQLException | RuntimeException e) {
+                        ps.clearParameters();
+                        greske.add(new RezultatUnosa.Greska(i, poruka(e)));
+                        obradjen[i] = true;
+                    }
+                }
+                if (uGrupi.isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    ps.executeBatch();
+                    procitajKljuceve(ps, uGrupi, ids);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    ps.clearBatch();
+                    for (int i : uGrupi) {
+                        ids[i] = 0;
+                    }
+                    upisiRedPoRed(connection, ps, redovi, uGrupi, parametri, ids, greske);
+                }
+                for (int i : uGrupi) {
+                    obradjen[i] = true;
+                }
+            }
+        } catch (SQLException e) {
+            // Konekcija ili transakcija su pale; neobrađeni redovi nisu upisani
+            Metrics.oznaciGresku();
+            for (int i = 0; i < obradjen.length; i++) {
+                if (!obradjen[i]) {
+                    ids[i] = 0;
+                    greske.add(new RezultatUnosa.Greska(i, poruka(e)));
+                }
+            }
+        }
+
+        greske.sort(Comparator.comparingInt(RezultatUnosa.Greska::getRed));
+        return new RezultatUnosa(ids, greske);
+    }
+
+    private static <T> void upisiRedPoRed(Connection connection, PreparedStatement ps, List<T> redovi,
+                                          List<Integer> uGrupi, Parametri<T> parametri,
+                                          int[] ids, List<RezultatUnosa.Greska> greske) throws SQLException {
+        for (int i : uGrupi) {
+            try {
+                parametri.postavi(ps, redovi.get(i));
+                ps.executeUpdate();
+                procitajKljuceve(ps, List.of(i), ids);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                ids[i] = 0;
+                greske.add(new RezultatUnosa.Greska(i, poruka(e)));
+            }
+        }
+    }
+
+    private static void procitajKljuceve(PreparedStatement ps, List<Integer> uGrupi, int[] ids) throws SQLException {
+        try (ResultSet kljucevi = ps.getGeneratedKeys()) {
+            for (int i : uGrupi) {
+                if (!kljucevi.next()) {
+                    break;
+                }
+                ids[i] = kljucevi.getInt(1);
+            }
+        }
+    }
+
+    private static String poruka(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,159 @@
+package repository;
+
+import model.Korisnik;
+import model.RezultatUnosa;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skladište korisnika u memoriji procesa, bez baze.
+ * <p>
+ * Korisnici se čuvaju u {@link TreeMap}-i po ID-u, pa {@link #getSve()} vraća
+ * isti redosled kao baza, a uz nju se održava heš indeks email → ID-jevi za
+ * izmene i brisanje po email-u. Čitanje po ID-u je jedno traženje u stablu.
+ * Spolja se uvek vraćaju kopije, pa pozivalac ne može da zaobiđe indekse.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class InMemoryKorisnikRepository implements KorisnikRepository {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<Integer, Korisnik> poId = new TreeMap<>();
+
+    /** Email → ID-jevi korisnika; email u šemi nije jedinstven. */
+    private final Map<String, Set<Integer>> poEmailu = new HashMap<>();
+
+    private final AtomicInteger sledeciId = new AtomicInteger();
+
+    @Override
+    public boolean dodaj(Korisnik korisnik) {
+        lock.writeLock().lock();
+        try {
+            upisi(korisnik);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public RezultatUnosa dodajSve(List<Korisnik> korisnici) {
+        int[] ids = new int[korisnici.size()];
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = upisi(korisnici.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new RezultatUnosa(ids, new ArrayList<>());
+    }
+
+    @Override
+    public List<Korisnik> getSve() {
+        lock.readLock().lock();
+        try {
+            List<Korisnik> korisnici = new ArrayList<>(poId.size());
+            for (Korisnik k : poId.values()) {
+                korisnici.add(kopija(k));
+            }
+            return korisnici;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> getEmailove() {
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(poEmailu.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Korisnik getPoId(int id) {
+        lock.readLock().lock();
+        try {
+            Korisnik k = poId.get(id);
+            return k == null ? null : kopija(k);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int azurirajTelefon(String email, String noviTelefon) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = poEmailu.getOrDefault(email, Set.of());
+            for (int id : ids) {
+                poId.get(id).setTelefon(noviTelefon);
+            }
+            return ids.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int obrisiPoEmailu(String email) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> ids = poEmailu.remove(email);
+            if (ids == null) {
+                return 0;
+            }
+            for (int id : ids) {
+                poId.remove(id);
+            }
+            return ids.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ime korisnika; skladište rezervacija ga koristi umesto spoja i stranog ključa.
+     *
+     * @param id ID korisnika
+     * @return ime korisnika ili {@code null} ako ne postoji
+     */
+    String getIme(int id) {
+        lock.readLock().lock();
+        try {
+            Korisnik k = poId.get(id);
+            return k == null ? null : k.getIme();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Poziva se pod bravom za pisanje; dodeljuje ID i vraća ga. */
+    private int upisi(Korisnik korisnik) {
+        int id = sledeciId.incrementAndGet();
+        korisnik.setId(id);
+        poId.put(id, kopija(korisnik));
+        poEmailu.computeIfAbsent(korisnik.getEmail(), e -> new TreeSet<>()).add(id);
+        return id;
+    }
+
+    private static Korisnik kopija(Korisnik k) {
+        return new Korisnik(k.getId(), k.getIme(), k.getEmail(), k.getTelefon());
+    }
+}
@@ -0,0 +1,614 @@
+package repository;
+
+import index.RoaringBitmap;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+import model.Agregat;
+import model.Grupisanje;
+import model.IshodRezervacije;
+import model.Korisnik;
+import model.Poredak;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+import model.Strana;
+import store.RezervacijaKolone;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Skladište rezervacija u memoriji procesa, bez baze.
+ * <p>
+ * Redovi se čuvaju u kolonskom skladištu {@link RezervacijaKolone}, čiji bitmap
+ * indeksi rešavaju filtere po korisniku, opremi i statusu. Uz njega se održava
+ * uređen skup ključeva (dan rezervacije, ID), koji ima ulogu B-tree indeksa nad
+ * {@code (datum_rezervacije, id)}: daje redosled za strane i stream, kursor
+ * strane je jedno traženje u stablu, a opseg datuma iz filtera je podskup.
+ * </p>
+ * <p>
+ * Ime korisnika i naziv opreme uzimaju se iz skladišta korisnika i opreme u
+ * memoriji, koja zamenjuju spoj i strani ključ: rezervacija za nepostojećeg
+ * korisnika ili opremu se ne upisuje.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class InMemoryRezervacijaRepository implements RezervacijaRepository {
+
+    private static final Logger LOG = Logging.logger("rezervacije");
+
+    /** Bit oznake početka rezervacije u događajima za {@link #zauzetoMax}. */
+    private static final int POCETAK = 1 << 30;
+
+    private final InMemoryKorisnikRepository korisnici;
+    private final InMemorySportskaOpremaRepository oprema;
+
+    private final RezervacijaKolone kolone = new RezervacijaKolone();
+
+    /** Ključevi {@code (dan rezervacije << 32) | id}, uređeni kao {@code ORDER BY datum_rezervacije, id}. */
+    private final NavigableSet<Long> poredak = new ConcurrentSkipListSet<>();
+
+    private final AtomicInteger sledeciId = new AtomicInteger();
+
+    /** Brave po opremi: provera dostupnosti i upis iste opreme ne smeju da se prepliću. */
+    private final StripedLocks braveOpreme = new StripedLocks();
+
+    /**
+     * Kreira skladište rezervacija nad datim skladištima korisnika i opreme.
+     *
+     * @param korisnici skladište korisnika u memoriji
+     * @param oprema    skladište opreme u memoriji
+     */
+    public InMemoryRezervacijaRepository(InMemoryKorisnikRepository korisnici, InMemorySportskaOpremaRepository oprema) {
+        this.korisnici = korisnici;
+        this.oprema = oprema;
+    }
+
+    @Override
+    public List<Rezervacija> getSve() {
+        List<Rezervacija> rezervacije = new ArrayList<>(kolone.getBroj());
+        stream(null, rezervacije::add);
+        return rezervacije;
+    }
+
+    @Override
+    public List<Rezervacija> getPoId(Collection<Integer> ids) {
+        List<Rezervacija> rezervacije = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Rezervacija r = kolone.get(id);
+            if (r != null) {
+                rezervacije.add(r);
+            }
+        }
+        return rezervacije;
+    }
+
+    @Override
+    public Strana<Rezervacija> getStrana(RezervacijaFilter filter, String posleDatuma, int posleId, int limit) {
+        List<Rezervacija> rezervacije = new ArrayList<>(limit + 1);
+        try {
+            NavigableSet<Long> opseg = opseg(filter);
+            if (posleDatuma != null) {
+                long kursor = kljuc(dan(posleDatuma), posleId);
+                opseg = opseg.tailSet(kursor, false);
+            }
+            RoaringBitmap dozvoljeni = dozvoljeni(filter);
+            // Jedan red više od strane govori da li postoji sledeća
+            for (long k : opseg) {
+                if (rezervacije.size() > limit) {
+                    break;
+                }
+                Rezervacija r = procitaj(k, dozvoljeni);
+                if (r != null) {
+                    rezervacije.add(r);
+                }
+            }
+        } catch (DateTimeException e) {
+            LOG.greska("getStrana", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+            return Strana.neuspela();
+        }
+        return Strane.napravi(rezervacije, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Redosled po datumu rezervacije čita se direktno iz uređenog skupa ključeva;
+     * za ostala svojstva rezervacije iz filtera se sortiraju pri svakom pozivu.
+     * </p>
+     */
+    @Override
+    public List<Rezervacija> getOpseg(RezervacijaFilter filter, Poredak poredak, int od, int limit) {
+        List<Rezervacija> rezervacije = new ArrayList<>(limit);
+        try {
+            if (poredak == null || poredak.getKolona().equals("datumRezervacije")) {
+                NavigableSet<Long> opseg = opseg(filter);
+                if (poredak != null && poredak.isOpadajuce()) {
+                    opseg = opseg.descendingSet();
+                }
+                RoaringBitmap dozvoljeni = dozvoljeni(filter);
+                int preskoceno = 0;
+                for (long k : opseg) {
+                    if (rezervacije.size() >= limit) {
+                        break;
+                    }
+                    Rezervacija r = procitaj(k, dozvoljeni);
+                    if (r != null && preskoceno++ >= od) {
+                        rezervacije.add(r);
+                    }
+                }
+            } else {
+                Comparator<Rezervacija> redosled = komparator(poredak.getKolona()).thenComparingInt(Rezervacija::getId);
+                List<Rezervacija> sve = new ArrayList<>();
+                stream(filter, sve::add);
+                sve.sort(poredak.isOpadajuce() ? redosled.reversed() : redosled);
+                rezervacije.addAll(sve.subList(Math.min(od, sve.size()), Math.min(od + limit, sve.size())));
+            }
+        } catch (DateTimeException | IllegalArgumentException e) {
+            LOG.greska("getOpseg", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+        }
+        return rezervacije;
+    }
+
+    @Override
+    public int prebroj(RezervacijaFilter filter) {
+        if (filter == null) {
+            return kolone.getBroj();
+        }
+        try {
+            RoaringBitmap dozvoljeni = dozvoljeni(filter);
+            int broj = 0;
+            for (long k : opseg(filter)) {
+                if (procitaj(k, dozvoljeni) != null) {
+                    broj++;
+                }
+            }
+            return broj;
+        } catch (DateTimeException e) {
+            LOG.greska("prebroj", LogEvent.BEZ_ID, "Greška pri brojanju rezervacija", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public int stream(RezervacijaFilter filter, Consumer<Rezervacija> potrosac) {
+        int broj = 0;
+        try {
+            RoaringBitmap dozvoljeni = dozvoljeni(filter);
+            for (long k : opseg(filter)) {
+                Rezervacija r = procitaj(k, dozvoljeni);
+                if (r != null) {
+                    potrosac.accept(r);
+                    broj++;
+                }
+            }
+        } catch (DateTimeException e) {
+            LOG.greska("stream", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+        return broj;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Prvo se nađu korisnici i oprema čije ime, odnosno naziv, sadrži sve reči upita
+     * kao početke reči, a zatim se njihove rezervacije uzimaju iz bitmap indeksa.
+     * Relevantnost je broj polja koja se poklapaju, kao kod FULLTEXT pretrage u bazi.
+     * </p>
+     */
+    @Override
+    public List<Rezervacija> pretrazi(String upit, int limit, int offset) {
+        String[] reci = upit.toLowerCase(Locale.ROOT).split("\\s+");
+        RoaringBitmap poKorisniku = new RoaringBitmap();
+        for (Korisnik k : korisnici.getSve()) {
+            if (sadrziPrefikse(k.getIme(), reci)) {
+                poKorisniku = RoaringBitmap.or(poKorisniku, kolone.getPoKorisniku(k.getId()));
+            }
+        }
+        RoaringBitmap poOpremi = new RoaringBitmap();
+        for (SportskaOprema o : oprema.getSve()) {
+            if (sadrziPrefikse(o.getNaziv(), reci)) {
+                poOpremi = RoaringBitmap.or(poOpremi, kolone.getPoOpremi(o.getId()));
+            }
+        }
+        RoaringBitmap oba = RoaringBitmap.and(poKorisniku, poOpremi);
+        RoaringBitmap jedno = RoaringBitmap.andNot(RoaringBitmap.or(poKorisniku, poOpremi), oba);
+
+        // Relevantnost opadajuće, pa datum i ID opadajuće
+        long[] prvi = kljucevi(oba);
+        long[] drugi = kljucevi(jedno);
+        List<Rezervacija> rezervacije = new ArrayList<>(Math.min(limit, prvi.length + drugi.length));
+        int preskoceno = 0;
+        for (long[] grupa : new long[][]{prvi, drugi}) {
+            for (int i = grupa.length - 1; i >= 0 && rezervacije.size() < limit; i--) {
+                if (preskoceno < offset) {
+                    preskoceno++;
+                    continue;
+                }
+                Rezervacija r = kolone.get((int) grupa[i]);
+                if (r != null) {
+                    rezervacije.add(r);
+                }
+            }
+        }
+        return rezervacije;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Filter se rešava bitmap indeksima, a grupe se sabiraju u jednom prolazu kroz pronađene redove.
+     * </p>
+     */
+    @Override
+    public List<Agregat> agregiraj(Grupisanje grupisanje, RezervacijaFilter filter) {
+        RoaringBitmap ids;
+        try {
+            ids = kolone.filtriraj(filter);
+        } catch (DateTimeException e) {
+            LOG.greska("agregiraj", LogEvent.BEZ_ID, "Greška pri grupisanju rezervacija", e);
+            Metrics.oznaciGresku();
+            return new ArrayList<>();
+        }
+        boolean vremenski = grupisanje == Grupisanje.DAN || grupisanje == Grupisanje.MESEC
+                || grupisanje == Grupisanje.GODINA;
+        // Vremenski periodi hronološki, ostale grupe po broju rezervacija
+        Map<Object, long[]> grupe = vremenski ? new TreeMap<>() : new HashMap<>();
+        kolone.forEach(ids, r -> {
+            long[] zbir = grupe.computeIfAbsent(kljucGrupe(grupisanje, r), g -> new long[2]);
+            zbir[0]++;
+            zbir[1] += r.getKolicina();
+        });
+
+        List<Agregat> agregati = new ArrayList<>(grupe.size());
+        for (Map.Entry<Object, long[]> e : grupe.entrySet()) {
+            long[] zbir = e.getValue();
+            switch (grupisanje) {
+                case KORISNIK: {
+                    int id = (Integer) e.getKey();
+                    String ime = korisnici.getIme(id);
+                    if (ime != null) {
+                        agregati.add(new Agregat(id, ime, zbir[0], zbir[1]));
+                    }
+                    break;
+                }
+                case OPREMA: {
+                    int id = (Integer) e.getKey();
+                    String naziv = oprema.getNaziv(id);
+                    if (naziv != null) {
+                        agregati.add(new Agregat(id, naziv, zbir[0], zbir[1]));
+                    }
+                    break;
+                }
+                default:
+                    agregati.add(new Agregat(0, (String) e.getKey(), zbir[0], zbir[1]));
+            }
+        }
+        if (!vremenski) {
+            agregati.sort(Comparator.comparingLong(Agregat::getBrojRezervacija).reversed());
+        }
+        return agregati;
+    }
+
+    @Override
+    public boolean dodaj(Rezervacija rezervacija) {
+        ReentrantLock brava = braveOpreme.get(rezervacija.getOpremaId());
+        brava.lock();
+        try {
+            upisi(rezervacija, rezervacija.getStatus() != null ? rezervacija.getStatus() : "aktivna");
+            return true;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            LOG.greska("dodaj", LogEvent.BEZ_ID, "Greška pri dodavanju rezervacije", e);
+            Metrics.oznaciGresku();
+            return false;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    @Override
+    public RezultatUnosa dodajSve(List<Rezervacija> rezervacije) {
+        int[] ids = new int[rezervacije.size()];
+        List<RezultatUnosa.Greska> greske = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            Rezervacija r = rezervacije.get(i);
+            ReentrantLock brava = braveOpreme.get(r.getOpremaId());
+            brava.lock();
+            try {
+                ids[i] = upisi(r, r.getStatus() != null ? r.getStatus() : "aktivna");
+            } catch (IllegalArgumentException | DateTimeException e) {
+                greske.add(new RezultatUnosa.Greska(i, e.getMessage()));
+            } finally {
+                brava.unlock();
+            }
+        }
+        return new RezultatUnosa(ids, greske);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Pod bravom trake opreme čitaju se aktivne rezervacije te opreme iz bitmap
+     * indeksa, a najveća zauzetost u periodu računa se jednim prolazom kroz
+     * sortirane početke i krajeve preklopljenih rezervacija.
+     * </p>
+     */
+    @Override
+    public IshodRezervacije rezervisi(Rezervacija rezervacija) {
+        int opremaId = rezervacija.getOpremaId();
+        ReentrantLock brava = braveOpreme.get(opremaId);
+        brava.lock();
+        try {
+            int ukupno = oprema.getKolicina(opremaId);
+            if (ukupno < 0) {
+                return IshodRezervacije.NEPOSTOJECA_OPREMA;
+            }
+            int od = dan(rezervacija.getDatumRezervacije());
+            int doDana = dan(rezervacija.getDatumVracanja());
+            if (ukupno - zauzetoMax(opremaId, od, doDana) < rezervacija.getKolicina()) {
+                return IshodRezervacije.NEDOVOLJNO_OPREME;
+            }
+            upisi(rezervacija, "aktivna");
+            return IshodRezervacije.USPESNO;
+        } catch (IllegalArgumentException | DateTimeException e) {
+            LOG.greska("rezervisi", LogEvent.BEZ_ID, "Greška pri rezervisanju opreme", e);
+            Metrics.oznaciGresku();
+            return IshodRezervacije.GRESKA;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Kao i {@link #rezervisi}, radi pod bravom trake opreme; produženje se
+     * proverava zauzetošću opreme u dodatnim danima.
+     * </p>
+     */
+    @Override
+    public int azurirajDatumVracanja(int id, String noviDatumVracanja) {
+        try {
+            int posle = dan(noviDatumVracanja);
+            Rezervacija r = kolone.get(id);
+            if (r == null) {
+                return 0;
+            }
+            ReentrantLock brava = braveOpreme.get(r.getOpremaId());
+            brava.lock();
+            try {
+                // Datum je mogao da se promeni dok se čekalo na bravu
+                r = kolone.get(id);
+                if (r == null) {
+                    return 0;
+                }
+                int stari = dan(r.getDatumVracanja());
+                if ("aktivna".equals(r.getStatus()) && posle > stari
+                        && oprema.getKolicina(r.getOpremaId()) - zauzetoMax(r.getOpremaId(), stari, posle) < r.getKolicina()) {
+                    return NEDOVOLJNO_OPREME;
+                }
+                return kolone.azurirajDatumVracanja(id, noviDatumVracanja) ? 1 : 0;
+            } finally {
+                brava.unlock();
+            }
+        } catch (DateTimeException e) {
+            LOG.greska("azurirajDatumVracanja", id, "Greška pri ažuriranju rezervacije", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public int obrisi(int id) {
+        Rezervacija r = kolone.get(id);
+        if (r == null || !kolone.ukloni(id)) {
+            return 0;
+        }
+        poredak.remove(kljuc(dan(r.getDatumRezervacije()), id));
+        return 1;
+    }
+
+    /**
+     * Proverava korisnika, opremu i datume, dodeljuje ID i upisuje rezervaciju
+     * u kolone i u uređen skup ključeva. Pozivalac drži bravu trake opreme.
+     *
+     * @return dodeljeni ID
+     * @throws IllegalArgumentException ako korisnik ili oprema ne postoje, ili količina nije ispravna
+     * @throws DateTimeException        ako datum nije u formatu YYYY-MM-DD
+     */
+    private int upisi(Rezervacija rezervacija, String status) {
+        String ime = korisnici.getIme(rezervacija.getKorisnikId());
+        if (ime == null) {
+            throw new IllegalArgumentException("Korisnik " + rezervacija.getKorisnikId() + " ne postoji.");
+        }
+        String naziv = oprema.getNaziv(rezervacija.getOpremaId());
+        if (naziv == null) {
+            throw new IllegalArgumentException("Oprema " + rezervacija.getOpremaId() + " ne postoji.");
+        }
+        int od = dan(rezervacija.getDatumRezervacije());
+        dan(rezervacija.getDatumVracanja());
+
+        int id = sledeciId.incrementAndGet();
+        kolone.dodaj(new Rezervacija(id, rezervacija.getKorisnikId(), rezervacija.getOpremaId(), ime, naziv,
+                rezervacija.getDatumRezervacije(), rezervacija.getDatumVracanja(), rezervacija.getKolicina(), status));
+        poredak.add(kljuc(od, id));
+        rezervacija.setId(id);
+        rezervacija.setStatus(status);
+        return id;
+    }
+
+    /** Najveća količina opreme u aktivnim rezervacijama za neki dan iz {@code [od, doDana)}. */
+    private int zauzetoMax(int opremaId, int od, int doDana) {
+        RoaringBitmap aktivne = RoaringBitmap.and(kolone.getPoOpremi(opremaId), kolone.getPoStatusu("aktivna"));
+        // Događaj je (dan << 32) | POCETAK | količina, pa na isti dan kraj dolazi pre početka
+        List<Long> dogadjaji = new ArrayList<>();
+        kolone.forEach(aktivne, r -> {
+            int pocetak = danRezervacije(r);
+            int kraj = dan(r.getDatumVracanja());
+            if (pocetak < doDana && kraj > od) {
+                dogadjaji.add(kljuc(Math.max(pocetak, od), POCETAK | r.getKolicina()));
+                dogadjaji.add(kljuc(Math.min(kraj, doDana), r.getKolicina()));
+            }
+        });
+        long[] sortirani = new long[dogadjaji.size()];
+        for (int i = 0; i < sortirani.length; i++) {
+            sortirani[i] = dogadjaji.get(i);
+        }
+        Arrays.sort(sortirani);
+        int tekuce = 0;
+        int max = 0;
+        for (long d : sortirani) {
+            int kolicina = (int) d & ~POCETAK;
+            tekuce += ((int) d & POCETAK) != 0 ? kolicina : -kolicina;
+            max = Math.max(max, tekuce);
+        }
+        return max;
+    }
+
+    /** Ključevi rezervacija iz skupa ID-jeva, sortirani rastuće po (dan, ID). */
+    private long[] kljucevi(RoaringBitmap ids) {
+        long[] kljucevi = new long[ids.getKardinalnost()];
+        int[] broj = {0};
+        kolone.forEach(ids, r -> {
+            if (broj[0] < kljucevi.length) {
+                kljucevi[broj[0]++] = kljuc(danRezervacije(r), r.getId());
+            }
+        });
+        long[] rezultat = broj[0] == kljucevi.length ? kljucevi : Arrays.copyOf(kljucevi, broj[0]);
+        Arrays.sort(rezultat);
+        return rezultat;
+    }
+
+    /** Podskup ključeva unutar granica datuma iz filtera (obe uključene). */
+    private NavigableSet<Long> opseg(RezervacijaFilter filter) {
+        if (filter == null || (filter.getDatumOd() == null && filter.getDatumDo() == null)) {
+            return poredak;
+        }
+        long od = filter.getDatumOd() != null ? kljuc(dan(filter.getDatumOd()), 0) : Long.MIN_VALUE;
+        long doKljuca = filter.getDatumDo() != null ? kljuc(dan(filter.getDatumDo()) + 1, 0) : Long.MAX_VALUE;
+        return poredak.subSet(od, true, doKljuca, false);
+    }
+
+    /**
+     * ID-jevi koji zadovoljavaju uslove filtera po korisniku, opremi i statusu,
+     * ili {@code null} ako takvih uslova nema. Datume rešava {@link #opseg}.
+     */
+    private RoaringBitmap dozvoljeni(RezervacijaFilter filter) {
+        if (filter == null || (filter.getKorisnikId() == null && filter.getOpremaId() == null
+                && filter.getStatus() == null)) {
+            return null;
+        }
+        RezervacijaFilter bezDatuma = new RezervacijaFilter();
+        bezDatuma.setKorisnikId(filter.getKorisnikId());
+        bezDatuma.setOpremaId(filter.getOpremaId());
+        bezDatuma.setStatus(filter.getStatus());
+        return kolone.filtriraj(bezDatuma);
+    }
+
+    /** Rezervacija za ključ, ako je još u skladištu i u dozvoljenom skupu. */
+    private Rezervacija procitaj(long kljuc, RoaringBitmap dozvoljeni) {
+        int id = (int) kljuc;
+        if (dozvoljeni != null && !dozvoljeni.sadrzi(id)) {
+            return null;
+        }
+        return kolone.get(id);
+    }
+
+    /** Poređenje po svojstvu rezervacije, za {@link #getOpseg}. */
+    private static Comparator<Rezervacija> komparator(String kolona) {
+        switch (kolona) {
+            case "id":
+                return Comparator.comparingInt(Rezervacija::getId);
+            case "korisnikIme":
+                return Comparator.comparing(Rezervacija::getKorisnikIme, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "opremaNaziv":
+                return Comparator.comparing(Rezervacija::getOpremaNaziv, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "datumVracanja":
+                return Comparator.comparing(Rezervacija::getDatumVracanja);
+            case "kolicina":
+                return Comparator.comparingInt(Rezervacija::getKolicina);
+            case "status":
+                return Comparator.comparing(Rezervacija::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new IllegalArgumentException("Nepoznata kolona za sortiranje: " + kolona);
+        }
+    }
+
+    private static Object kljucGrupe(Grupisanje grupisanje, Rezervacija r) {
+        switch (grupisanje) {
+            case KORISNIK:
+                return r.getKorisnikId();
+            case OPREMA:
+                return r.getOpremaId();
+            case STATUS:
+                return r.getStatus();
+            case DAN:
+                return r.getDatumRezervacije();
+            case MESEC:
+                return r.getDatumRezervacije().substring(0, 7);
+            case GODINA:
+                return r.getDatumRezervacije().substring(0, 4);
+            default:
+                throw new IllegalArgumentException("Nepoznato grupisanje: " + grupisanje);
+        }
+    }
+
+    /** Da li svaka reč upita počinje neku reč teksta. */
+    private static boolean sadrziPrefikse(String tekst, String[] reci) {
+        if (tekst == null) {
+            return false;
+        }
+        String[] reciTeksta = tekst.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        for (String rec : reci) {
+            boolean nadjena = false;
+            for (String r : reciTeksta) {
+                if (r.startsWith(rec)) {
+                    nadjena = true;
+                    break;
+                }
+            }
+            if (!nadjena) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Dan rezervacije bez parsiranja, kada je red pogled na kolone. */
+    private static int danRezervacije(Rezervacija r) {
+        return r instanceof RezervacijaKolone.Pogled
+                ? ((RezervacijaKolone.Pogled) r).getDanRezervacije()
+                : dan(r.getDatumRezervacije());
+    }
+
+    private static long kljuc(int dan, int id) {
+        return ((long) dan << 32) | id;
+    }
+
+    private static int dan(String datum) {
+        return (int) LocalDate.parse(datum).toEpochDay();
+    }
+}
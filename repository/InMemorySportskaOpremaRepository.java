@@ -0,0 +1,236 @@
+package repository;
+
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import model.Poredak;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Skladište sportske opreme u memoriji procesa, bez baze.
+ * <p>
+ * Oprema se čuva u {@link TreeMap}-i po ID-u, pa {@link #getSve()} vraća
+ * isti redosled kao baza. Spolja se uvek vraćaju kopije.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class InMemorySportskaOpremaRepository implements SportskaOpremaRepository {
+
+    private static final Logger LOG = Logging.logger("oprema");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<Integer, SportskaOprema> poId = new TreeMap<>();
+
+    private final AtomicInteger sledeciId = new AtomicInteger();
+
+    @Override
+    public boolean dodaj(SportskaOprema oprema) {
+        lock.writeLock().lock();
+        try {
+            upisi(oprema);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public RezultatUnosa dodajSve(List<SportskaOprema> oprema) {
+        int[] ids = new int[oprema.size()];
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = upisi(oprema.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new RezultatUnosa(ids, new ArrayList<>());
+    }
+
+    @Override
+    public List<SportskaOprema> getSve() {
+        lock.readLock().lock();
+        try {
+            List<SportskaOprema> opreme = new ArrayList<>(poId.size());
+            for (SportskaOprema o : poId.values()) {
+                opreme.add(kopija(o));
+            }
+            return opreme;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Po ID-u se čita direktno iz uređene mape; za ostala svojstva oprema se
+     * sortira pri svakom pozivu.
+     * </p>
+     */
+    @Override
+    public List<SportskaOprema> getOpseg(Poredak poredak, int od, int limit) {
+        Comparator<SportskaOprema> redosled;
+        try {
+            redosled = poredak == null ? null : komparator(poredak.getKolona());
+        } catch (IllegalArgumentException e) {
+            LOG.upozorenje("getOpseg", LogEvent.BEZ_ID, e.getMessage());
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            List<SportskaOprema> opreme = new ArrayList<>(limit);
+            if (redosled == null || poredak.getKolona().equals("id")) {
+                Collection<SportskaOprema> poRedu = poredak != null && poredak.isOpadajuce()
+                        ? poId.descendingMap().values() : poId.values();
+                int preskoceno = 0;
+                for (SportskaOprema o : poRedu) {
+                    if (opreme.size() >= limit) {
+                        break;
+                    }
+                    if (preskoceno++ >= od) {
+                        opreme.add(kopija(o));
+                    }
+                }
+                return opreme;
+            }
+            List<SportskaOprema> sve = new ArrayList<>(poId.values());
+            redosled = redosled.thenComparingInt(SportskaOprema::getId);
+            sve.sort(poredak.isOpadajuce() ? redosled.reversed() : redosled);
+            for (SportskaOprema o : sve.subList(Math.min(od, sve.size()), Math.min(od + limit, sve.size()))) {
+                opreme.add(kopija(o));
+            }
+            return opreme;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int prebroj() {
+        lock.readLock().lock();
+        try {
+            return poId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SportskaOprema getPoId(int id) {
+        lock.readLock().lock();
+        try {
+            SportskaOprema o = poId.get(id);
+            return o == null ? null : kopija(o);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int azuriraj(int id, double novaCena, int novaKolicina) {
+        lock.writeLock().lock();
+        try {
+            SportskaOprema o = poId.get(id);
+            if (o == null) {
+                return 0;
+            }
+            o.setCena(novaCena);
+            o.setKolicina(novaKolicina);
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int obrisi(int id) {
+        lock.writeLock().lock();
+        try {
+            return poId.remove(id) != null ? 1 : 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Naziv opreme; skladište rezervacija ga koristi umesto spoja i stranog ključa.
+     *
+     * @param id ID opreme
+     * @return naziv opreme ili {@code null} ako ne postoji
+     */
+    String getNaziv(int id) {
+        lock.readLock().lock();
+        try {
+            SportskaOprema o = poId.get(id);
+            return o == null ? null : o.getNaziv();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ukupna količina opreme, za proveru dostupnosti pri rezervaciji.
+     *
+     * @param id ID opreme
+     * @return količina ili {@code -1} ako oprema ne postoji
+     */
+    int getKolicina(int id) {
+        lock.readLock().lock();
+        try {
+            SportskaOprema o = poId.get(id);
+            return o == null ? -1 : o.getKolicina();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Poziva se pod bravom za pisanje; dodeljuje ID i vraća ga. */
+    private int upisi(SportskaOprema oprema) {
+        int id = sledeciId.incrementAndGet();
+        oprema.setId(id);
+        poId.put(id, kopija(oprema));
+        return id;
+    }
+
+    /** Poređenje po svojstvu opreme, za {@link #getOpseg}. */
+    private static Comparator<SportskaOprema> komparator(String kolona) {
+        switch (kolona) {
+            case "id":
+                return Comparator.comparingInt(SportskaOprema::getId);
+            case "naziv":
+                return Comparator.comparing(SportskaOprema::getNaziv, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case "tipId":
+                return Comparator.comparingInt(SportskaOprema::getTipId);
+            case "dostupnost":
+                return Comparator.comparing(SportskaOprema::isDostupnost);
+            case "cena":
+                return Comparator.comparingDouble(SportskaOprema::getCena);
+            case "kolicina":
+                return Comparator.comparingInt(SportskaOprema::getKolicina);
+            case "lokacija":
+                return Comparator.comparing(SportskaOprema::getLokacija, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new IllegalArgumentException("Nepoznata kolona za sortiranje: " + kolona);
+        }
+    }
+
+    private static SportskaOprema kopija(SportskaOprema o) {
+        return new SportskaOprema(o.getId(), o.getNaziv(), o.getTipId(), o.isDostupnost(),
+                o.getCena(), o.getKolicina(), o.getLokacija());
+    }
+}
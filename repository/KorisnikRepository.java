@@ -0,0 +1,68 @@
+package repository;
+
+import model.Korisnik;
+import model.RezultatUnosa;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Skladište korisnika. Greške pri radu sa skladištem implementacija prijavljuje
+ * sama, a pozivaocu vraća prazan rezultat, {@code false} ili {@code -1}.
+ *
+ * @author DjuroPopara6271
+ */
+public interface KorisnikRepository {
+
+    /**
+     * Upisuje novog korisnika.
+     *
+     * @param korisnik korisnik; posle uspeha dobija ID
+     * @return {@code true} ako je korisnik upisan
+     */
+    boolean dodaj(Korisnik korisnik);
+
+    /**
+     * Grupno upisuje korisnike; upisanim korisnicima postavlja ID.
+     *
+     * @param korisnici korisnici za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    RezultatUnosa dodajSve(List<Korisnik> korisnici);
+
+    /** @return svi korisnici */
+    List<Korisnik> getSve();
+
+    /**
+     * Email adrese svih korisnika, bez ostalih kolona. Za razliku od ostalih
+     * čitanja, greška se prosleđuje: prazna lista bi pri uvozu značila da
+     * nijedna adresa još ne postoji.
+     *
+     * @return email adrese
+     * @throws SQLException ako čitanje nije uspelo
+     */
+    List<String> getEmailove() throws SQLException;
+
+    /**
+     * @param id ID korisnika
+     * @return korisnik ili {@code null} ako ne postoji
+     */
+    Korisnik getPoId(int id);
+
+    /**
+     * Menja telefon korisnika sa datom email adresom.
+     *
+     * @param email       email korisnika
+     * @param noviTelefon novi broj telefona
+     * @return broj izmenjenih korisnika, ili {@code -1} ako izmena nije uspela
+     */
+    int azurirajTelefon(String email, String noviTelefon);
+
+    /**
+     * Briše korisnika sa datom email adresom.
+     *
+     * @param email email korisnika
+     * @return broj obrisanih korisnika, ili {@code -1} ako brisanje nije uspelo
+     */
+    int obrisiPoEmailu(String email);
+}
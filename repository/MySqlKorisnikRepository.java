@@ -0,0 +1,182 @@
+package repository;
+
+import database.DatabaseConnection;
+import database.StatementRegistry;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+import model.Korisnik;
+import model.RezultatUnosa;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Skladište korisnika nad MySQL tabelom {@code korisnik}.
+ *
+ * @author DjuroPopara6271
+ */
+public class MySqlKorisnikRepository implements KorisnikRepository {
+
+    private static final Logger LOG = Logging.logger("korisnici");
+
+    /** Unos novog korisnika. */
+    private static final String SQL_DODAJ = StatementRegistry.registruj("korisnik.dodaj",
+            "INSERT INTO korisnik (ime, email, telefon) VALUES (?, ?, ?)");
+
+    /** Svi korisnici. */
+    private static final String SQL_SVI = StatementRegistry.registruj("korisnik.svi",
+            "SELECT * FROM korisnik");
+
+    /** Samo email adrese, za proveru duplikata pri uvozu. */
+    private static final String SQL_EMAILOVI = StatementRegistry.registruj("korisnik.emailovi",
+            "SELECT email FROM korisnik");
+
+    /** Promena telefona po email adresi. */
+    private static final String SQL_AZURIRAJ = StatementRegistry.registruj("korisnik.azuriraj",
+            "UPDATE korisnik SET telefon = ? WHERE email = ?");
+
+    /** Brisanje po email adresi. */
+    private static final String SQL_OBRISI = StatementRegistry.registruj("korisnik.obrisi",
+            "DELETE FROM korisnik WHERE email = ?");
+
+    /** Jedan korisnik po ID-u. */
+    private static final String SQL_PO_ID = StatementRegistry.registruj("korisnik.poId",
+            "SELECT * FROM korisnik WHERE id = ?");
+
+    @Override
+    public boolean dodaj(Korisnik korisnik) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_DODAJ, Statement.RETURN_GENERATED_KEYS)) {
+            preparedStatement.setString(1, korisnik.getIme());
+            preparedStatement.setString(2, korisnik.getEmail());
+            preparedStatement.setString(3, korisnik.getTelefon());
+            preparedStatement.executeUpdate();
+            try (ResultSet kljucevi = preparedStatement.getGeneratedKeys()) {
+                if (kljucevi.next()) {
+                    korisnik.setId(kljucevi.getInt(1));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            LOG.greska("dodaj", LogEvent.BEZ_ID, "Greška pri dodavanju korisnika", e);
+            Metrics.oznaciGresku();
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Redovi se upisuju JDBC batch-om, u transakcijama od po
+     * {@value BatchInsert#VELICINA_GRUPE} redova.
+     * </p>
+     */
+    @Override
+    public RezultatUnosa dodajSve(List<Korisnik> korisnici) {
+        RezultatUnosa rezultat = BatchInsert.izvrsi(SQL_DODAJ, korisnici, (ps, k) -> {
+            ps.setString(1, k.getIme());
+            ps.setString(2, k.getEmail());
+            ps.setString(3, k.getTelefon());
+        });
+        int[] ids = rezultat.getGenerisaniId();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                korisnici.get(i).setId(ids[i]);
+            }
+        }
+        return rezultat;
+    }
+
+    @Override
+    public List<Korisnik> getSve() {
+        List<Korisnik> korisnici = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SVI);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                korisnici.add(mapiraj(resultSet));
+            }
+        } catch (SQLException e) {
+            LOG.greska("getSve", LogEvent.BEZ_ID, "Greška pri čitanju korisnika", e);
+            Metrics.oznaciGresku();
+        }
+        return korisnici;
+    }
+
+    @Override
+    public List<String> getEmailove() throws SQLException {
+        List<String> emailovi = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_EMAILOVI);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                emailovi.add(resultSet.getString(1));
+            }
+        } catch (SQLException e) {
+            LOG.greska("getEmailove", LogEvent.BEZ_ID, "Greška pri čitanju email adresa korisnika", e);
+            Metrics.oznaciGresku();
+            throw e;
+        }
+        return emailovi;
+    }
+
+    @Override
+    public Korisnik getPoId(int id) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_PO_ID)) {
+            preparedStatement.setInt(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return mapiraj(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.greska("getPoId", id, "Greška pri čitanju korisnika", e);
+            Metrics.oznaciGresku();
+        }
+        return null;
+    }
+
+    @Override
+    public int azurirajTelefon(String email, String noviTelefon) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_AZURIRAJ)) {
+            preparedStatement.setString(1, noviTelefon);
+            preparedStatement.setString(2, email);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOG.greska("azurirajTelefon", LogEvent.BEZ_ID, "Greška pri ažuriranju korisnika", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public int obrisiPoEmailu(String email) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_OBRISI)) {
+            preparedStatement.setString(1, email);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOG.greska("obrisiPoEmailu", LogEvent.BEZ_ID, "Greška pri brisanju korisnika", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    /** Pravi {@link Korisnik}-a od tekućeg reda upita nad tabelom {@code korisnik}. */
+    private static Korisnik mapiraj(ResultSet resultSet) throws SQLException {
+        int id = resultSet.getInt("id");
+        String ime = resultSet.getString("ime");
+        String email = resultSet.getString("email");
+        String telefon = resultSet.getString("telefon");
+        return new Korisnik(id, ime, email, telefon);
+    }
+}
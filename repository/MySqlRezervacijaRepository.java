@@ -0,0 +1,1156 @@
+package repository;
+
+import database.DatabaseConnection;
+import database.Migracije;
+import database.StatementRegistry;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+import model.Agregat;
+import model.Grupisanje;
+import model.IshodRezervacije;
+import model.IzmenaRezervacije;
+import model.Poredak;
+import model.PromenaRezervacije;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.RezultatUnosa;
+import model.Strana;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Skladište rezervacija nad MySQL tabelom {@code rezervacija}. Filteri,
+ * sortiranje, pretraga i grupisanje izvršavaju se u bazi, preko indeksa.
+ *
+ * @author DjuroPopara6271
+ */
+public class MySqlRezervacijaRepository implements RezervacijaRepository {
+
+    private static final Logger LOG = Logging.logger("rezervacije");
+
+
+    /** Broj redova koje drajver dohvata odjednom pri {@link #stream}. */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    /**
+     * Čita materijalizovane brojače po korisniku, sa imenom za prikaz. Tabela
+     * {@code rezervacija_brojac (dimenzija CHAR(1), kljuc INT, broj INT, kolicina INT,
+     * PRIMARY KEY (dimenzija, kljuc))} drži po jedan red za svakog korisnika ('K') i
+     * opremu ('O'); održavaju je okidači nad {@code rezervacija} iz migracije
+     * {@value Migracije#VERZIJA_BROJACA}, pa su tačni bez obzira na to ko upisuje.
+     */
+    private static final String SQL_BROJAC_KORISNIK = StatementRegistry.registruj("brojac.korisnik",
+            "SELECT b.kljuc, k.ime AS oznaka, b.broj, b.kolicina FROM rezervacija_brojac b " +
+                    "JOIN korisnik k ON k.id = b.kljuc WHERE b.dimenzija = 'K' AND b.broj > 0 ORDER BY b.broj DESC");
+
+    /** Čita materijalizovane brojače po opremi, sa nazivom za prikaz. */
+    private static final String SQL_BROJAC_OPREMA = StatementRegistry.registruj("brojac.oprema",
+            "SELECT b.kljuc, o.naziv AS oznaka, b.broj, b.kolicina FROM rezervacija_brojac b " +
+                    "JOIN oprema o ON o.id = b.kljuc WHERE b.dimenzija = 'O' AND b.broj > 0 ORDER BY b.broj DESC");
+
+    /**
+     * Količina i verzija opreme. Kolona {@code oprema.verzija INT NOT NULL DEFAULT 0}
+     * se uvećava pri svakoj rezervaciji, pa istovremena rezervacija iste opreme
+     * sa drugog računara otkriva da je pročitala zastarelo stanje.
+     */
+    private static final String SQL_OPREMA_VERZIJA = StatementRegistry.registruj("oprema.verzija",
+            "SELECT kolicina, verzija FROM oprema WHERE id = ?");
+
+    /** Uvećava verziju opreme samo ako je nije u međuvremenu promenio neko drugi. */
+    private static final String SQL_OPREMA_UVECAJ_VERZIJU = StatementRegistry.registruj("oprema.uvecajVerziju",
+            "UPDATE oprema SET verzija = verzija + 1 WHERE id = ? AND verzija = ?");
+
+    /**
+     * Najveća količina opreme rezervisana za neki dan iz {@code [od, do)}.
+     * Zauzetost može da poraste samo na početku neke rezervacije, pa se
+     * proveravaju samo prvi dan perioda i dani početka rezervacija u periodu.
+     * Parametri: od, oprema_id, od, do, oprema_id.
+     */
+    private static final String SQL_ZAUZETO_MAX = StatementRegistry.registruj("rezervacija.zauzetoMax",
+            "SELECT COALESCE(MAX(z.ukupno), 0) FROM (" +
+                    "SELECT SUM(r.kolicina) AS ukupno FROM (" +
+                    "SELECT CAST(? AS DATE) AS dan UNION SELECT datum_rezervacije FROM rezervacija " +
+                    "WHERE oprema_id = ? AND status = 'aktivna' AND datum_rezervacije > ? AND datum_rezervacije < ?) d " +
+                    "JOIN rezervacija r ON r.oprema_id = ? AND r.status = 'aktivna' " +
+                    "AND r.datum_rezervacije <= d.dan AND r.datum_vracanja > d.dan " +
+                    "GROUP BY d.dan) z");
+
+    /** Najveći broj pokušaja atomične rezervacije kada verzija opreme ne odgovara. */
+    private static final int MAX_POKUSAJA_REZERVACIJE = 5;
+
+    /** Brave po opremi, da se rezervacije iste opreme u ovom procesu ne bi sudarale u bazi. */
+    private static final StripedLocks BRAVE_OPREME = new StripedLocks();
+
+    /**
+     * Da li baza održava brojače. Pamti se samo potvrdan odgovor: šema se ne
+     * vraća na stariju verziju, a dok migracija nije primenjena, proverava se ponovo.
+     */
+    private volatile boolean brojaciUBazi;
+
+
+    /** Kolone rezervacije sa imenom korisnika i nazivom opreme, bez uslova. */
+    private static final String SELECT_SA_IMENIMA =
+            "SELECT r.id, r.korisnik_id, r.oprema_id, k.ime AS korisnik_ime, o.naziv AS oprema_naziv, " +
+                    "r.datum_rezervacije, r.datum_vracanja, r.kolicina, r.status " +
+                    "FROM rezervacija r " +
+                    "JOIN korisnik k ON r.korisnik_id = k.id " +
+                    "JOIN oprema o ON r.oprema_id = o.id";
+
+    /** Najkraći upit za koji se koristi FULLTEXT (MySQL {@code innodb_ft_min_token_size}). */
+    private static final int FULLTEXT_MIN_DUZINA = 3;
+
+    /**
+     * Pretraga po celim rečima i prefiksima preko FULLTEXT indeksa
+     * {@code ft_korisnik_ime} i {@code ft_oprema_naziv}. Delovi {@code UNION}-a prvo nađu
+     * mali broj odgovarajućih korisnika, odnosno opreme, i preko indeksa na
+     * {@code korisnik_id} i {@code oprema_id} ID-jeve njihovih rezervacija; uslov
+     * {@code korisnik_id IN (...) OR oprema_id IN (...)} MySQL bi rešio čitanjem cele tabele.
+     */
+    private static final String SQL_PRETRAGA_FULLTEXT = StatementRegistry.registruj("rezervacija.pretraga",
+            "SELECT r.id, r.korisnik_id, r.oprema_id, k.ime AS korisnik_ime, o.naziv AS oprema_naziv, " +
+                    "r.datum_rezervacije, r.datum_vracanja, r.kolicina, r.status, " +
+                    "MATCH(k.ime) AGAINST (? IN BOOLEAN MODE) + MATCH(o.naziv) AGAINST (? IN BOOLEAN MODE) AS relevantnost " +
+                    "FROM (SELECT r.id FROM rezervacija r JOIN korisnik k ON r.korisnik_id = k.id " +
+                    "WHERE MATCH(k.ime) AGAINST (? IN BOOLEAN MODE) " +
+                    "UNION SELECT r.id FROM rezervacija r JOIN oprema o ON r.oprema_id = o.id " +
+                    "WHERE MATCH(o.naziv) AGAINST (? IN BOOLEAN MODE)) p " +
+                    "JOIN rezervacija r ON r.id = p.id " +
+                    "JOIN korisnik k ON r.korisnik_id = k.id " +
+                    "JOIN oprema o ON r.oprema_id = o.id " +
+                    "ORDER BY relevantnost DESC, r.datum_rezervacije DESC, r.id DESC " +
+                    "LIMIT ? OFFSET ?");
+
+    /**
+     * Pretraga za kratke upite (kraće od {@value #FULLTEXT_MIN_DUZINA} znaka) koje
+     * FULLTEXT ne indeksira: prefiks {@code LIKE} preko B-tree indeksa
+     * {@code idx_korisnik_ime} i {@code idx_oprema_naziv}, istim {@code UNION}-om.
+     */
+    private static final String SQL_PRETRAGA_PREFIKS = StatementRegistry.registruj("rezervacija.pretraga.prefiks",
+            "SELECT r.id, r.korisnik_id, r.oprema_id, k.ime AS korisnik_ime, o.naziv AS oprema_naziv, " +
+                    "r.datum_rezervacije, r.datum_vracanja, r.kolicina, r.status, " +
+                    "(k.ime LIKE ?) + (o.naziv LIKE ?) AS relevantnost " +
+                    "FROM (SELECT r.id FROM rezervacija r JOIN korisnik k ON r.korisnik_id = k.id WHERE k.ime LIKE ? " +
+                    "UNION SELECT r.id FROM rezervacija r JOIN oprema o ON r.oprema_id = o.id WHERE o.naziv LIKE ?) p " +
+                    "JOIN rezervacija r ON r.id = p.id " +
+                    "JOIN korisnik k ON r.korisnik_id = k.id " +
+                    "JOIN oprema o ON r.oprema_id = o.id " +
+                    "ORDER BY relevantnost DESC, r.datum_rezervacije DESC, r.id DESC " +
+                    "LIMIT ? OFFSET ?");
+
+    /**
+     * Kolone po kojima se sortira {@link #getOpseg}, po imenu svojstva modela.
+     * Samo ove vrednosti ulaze u tekst upita, pa naziv kolone iz pogleda ne može da ubaci SQL.
+     */
+    private static final Map<String, String> KOLONE_SORTIRANJA = Map.of(
+            "id", "r.id",
+            "korisnikIme", "k.ime",
+            "opremaNaziv", "o.naziv",
+            "datumRezervacije", "r.datum_rezervacije",
+            "datumVracanja", "r.datum_vracanja",
+            "kolicina", "r.kolicina",
+            "status", "r.status");
+
+    /** Sve rezervacije sa imenom korisnika i nazivom opreme. */
+    private static final String SQL_SVE = StatementRegistry.registruj("rezervacija.sve", SELECT_SA_IMENIMA);
+
+    /** Broj parametara u {@link #SQL_PO_ID}; duže liste idu u više upita, a kraće se dopunjuju. */
+    private static final int PO_ID_GRUPA = 32;
+
+    /** Rezervacije po listi ID-jeva; broj parametara je uvek isti, pa se naredba priprema jednom. */
+    private static final String SQL_PO_ID = StatementRegistry.registruj("rezervacija.poId",
+            SELECT_SA_IMENIMA + " WHERE r.id IN (" + String.join(", ", Collections.nCopies(PO_ID_GRUPA, "?")) + ")");
+
+    /**
+     * Promene posle zadate verzije. Tabelu {@code rezervacija_promena (verzija BIGINT AUTO_INCREMENT
+     * PRIMARY KEY, rezervacija_id INT NOT NULL, vrsta CHAR(1) NOT NULL, vreme TIMESTAMP NOT NULL
+     * DEFAULT CURRENT_TIMESTAMP)} pune okidači nad
+     * {@code rezervacija}, pa se beleže i izmene sa drugih računara i iz drugih alata, kao i brisanja,
+     * koja se iz same tabele rezervacija ne bi mogla videti:
+     * <pre>
+     * CREATE TRIGGER rezervacija_ai AFTER INSERT ON rezervacija FOR EACH ROW
+     *     INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (NEW.id, 'I');
+     * CREATE TRIGGER rezervacija_au AFTER UPDATE ON rezervacija FOR EACH ROW
+     *     INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (NEW.id, 'U');
+     * CREATE TRIGGER rezervacija_ad AFTER DELETE ON rezervacija FOR EACH ROW
+     *     INSERT INTO rezervacija_promena (rezervacija_id, vrsta) VALUES (OLD.id, 'D');
+     * </pre>
+     */
+    private static final String SQL_PROMENE = StatementRegistry.registruj("rezervacija.promene",
+            "SELECT verzija, rezervacija_id, vrsta FROM rezervacija_promena WHERE verzija > ? ORDER BY verzija LIMIT ?");
+
+    /** Poslednja verzija u dnevniku promena. */
+    private static final String SQL_POSLEDNJA_VERZIJA = StatementRegistry.registruj("rezervacija.poslednjaVerzija",
+            "SELECT COALESCE(MAX(verzija), 0) FROM rezervacija_promena");
+
+    /**
+     * Čišćenje dnevnika promena, u delovima od {@value #BRISANJE_PROMENA_GRUPA} redova,
+     * da jedno brisanje ne drži dugo zaključane redove u koje okidači upisuju.
+     */
+    private static final String SQL_OBRISI_PROMENE = StatementRegistry.registruj("rezervacija.obrisiPromene",
+            "DELETE FROM rezervacija_promena WHERE vreme < ? AND verzija < ? LIMIT ?");
+
+    private static final int BRISANJE_PROMENA_GRUPA = 10_000;
+
+    /** Promena datuma vraćanja po ID-u. */
+    private static final String SQL_AZURIRAJ = StatementRegistry.registruj("rezervacija.azuriraj",
+            "UPDATE rezervacija SET datum_vracanja = ? WHERE id = ?");
+
+    /** Brisanje po ID-u. */
+    private static final String SQL_OBRISI = StatementRegistry.registruj("rezervacija.obrisi",
+            "DELETE FROM rezervacija WHERE id = ?");
+
+    /** Unos nove rezervacije. */
+    private static final String SQL_DODAJ = StatementRegistry.registruj("rezervacija.dodaj",
+            "INSERT INTO rezervacija (korisnik_id, oprema_id, datum_rezervacije, datum_vracanja, kolicina, status) VALUES (?, ?, ?, ?, ?, ?)");
+
+    @Override
+    public List<Rezervacija> getSve() {
+        List<Rezervacija> rezervacije = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SVE);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            while (rs.next()) {
+                rezervacije.add(mapiraj(rs));
+            }
+        } catch (SQLException e) {
+            LOG.greska("getSve", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+        }
+        return rezervacije;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * ID-jevi se šalju u grupama od po {@value #PO_ID_GRUPA}, preko iste pripremljene naredbe.
+     * </p>
+     */
+    @Override
+    public List<Rezervacija> getPoId(Collection<Integer> ids) throws SQLException {
+        List<Rezervacija> rezervacije = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return rezervacije;
+        }
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            citajPoId(connection, ids, rezervacije::add);
+        } catch (SQLException e) {
+            LOG.greska("getPoId", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+            throw e;
+        }
+        return rezervacije;
+    }
+
+    private static void citajPoId(Connection connection, Collection<Integer> ids,
+                                  Consumer<Rezervacija> potrosac) throws SQLException {
+        Integer[] niz = ids.toArray(new Integer[0]);
+        try (PreparedStatement preparedStatement = connection.prepareStatement(SQL_PO_ID)) {
+            for (int od = 0; od < niz.length; od += PO_ID_GRUPA) {
+                for (int i = 0; i < PO_ID_GRUPA; i++) {
+                    // Poslednja, kraća grupa se dopunjuje poslednjim ID-jem; IN ga samo ponovi
+                    preparedStatement.setInt(i + 1, niz[Math.min(od + i, niz.length - 1)]);
+                }
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        potrosac.accept(mapiraj(rs));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public long getPoslednjaVerzija() {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_POSLEDNJA_VERZIJA);
+             ResultSet rs = preparedStatement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            LOG.greska("getPoslednjaVerzija", LogEvent.BEZ_ID, "Greška pri čitanju dnevnika promena", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public List<PromenaRezervacije> getPromene(long posleVerzije, int limit) {
+        List<PromenaRezervacije> promene = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_PROMENE)) {
+            preparedStatement.setLong(1, posleVerzije);
+            preparedStatement.setInt(2, limit);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    promene.add(new PromenaRezervacije(rs.getLong(1), rs.getInt(2),
+                            PromenaRezervacije.Vrsta.poOznaci(rs.getString(3).charAt(0))));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.greska("getPromene", LogEvent.BEZ_ID, "Greška pri čitanju dnevnika promena", e);
+            Metrics.oznaciGresku();
+        }
+        return promene;
+    }
+
+    @Override
+    public int obrisiPromene(long starijeOd) {
+        long pocetak = System.nanoTime();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            long poslednja;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SQL_POSLEDNJA_VERZIJA);
+                 ResultSet rs = preparedStatement.executeQuery()) {
+                poslednja = rs.next() ? rs.getLong(1) : 0;
+            }
+            int obrisano = 0;
+            try (PreparedStatement preparedStatement = connection.prepareStatement(SQL_OBRISI_PROMENE)) {
+                preparedStatement.setTimestamp(1, new Timestamp(starijeOd));
+                preparedStatement.setLong(2, poslednja);
+                preparedStatement.setInt(3, BRISANJE_PROMENA_GRUPA);
+                int n;
+                do {
+                    n = preparedStatement.executeUpdate();
+                    obrisano += n;
+                } while (n == BRISANJE_PROMENA_GRUPA);
+            }
+            LOG.info("obrisiPromene", LogEvent.BEZ_ID, System.nanoTime() - pocetak,
+                    "Obrisano " + obrisano + " starih promena iz dnevnika.");
+            return obrisano;
+        } catch (SQLException e) {
+            LOG.greska("obrisiPromene", LogEvent.BEZ_ID, "Greška pri čišćenju dnevnika promena", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Umesto {@code OFFSET}-a koristi se kursor (datum, id), pa je cena svake
+     * strane ista bez obzira na to koliko je daleko od početka.
+     * </p>
+     */
+    @Override
+    public Strana<Rezervacija> getStrana(RezervacijaFilter filter, String posleDatuma, int posleId, int limit) {
+        List<Rezervacija> rezervacije = new ArrayList<>(limit + 1);
+        List<Object> parametri = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     sqlStrana(filter, posleDatuma, posleId, limit, parametri))) {
+            postaviParametre(preparedStatement, parametri);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    rezervacije.add(mapiraj(rs));
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("getStrana", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+            return Strana.neuspela();
+        }
+        return Strane.napravi(rezervacije, limit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * {@code OFFSET} se primenjuje u podupitu koji čita samo ID-jeve, pa preskočeni
+     * redovi ne zahtevaju čitanje celog reda ni spoj sa korisnikom i opremom; pun
+     * red se dohvata samo za {@code limit} rezervacija. Korisnik i oprema se u
+     * podupit spajaju samo kada se po njima sortira.
+     * </p>
+     */
+    @Override
+    public List<Rezervacija> getOpseg(RezervacijaFilter filter, Poredak poredak, int od, int limit) {
+        List<Rezervacija> rezervacije = new ArrayList<>(limit);
+        try {
+            List<Object> parametri = new ArrayList<>();
+            String sql = sqlOpseg(filter, poredak, od, limit, parametri);
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                postaviParametre(preparedStatement, parametri);
+                try (ResultSet rs = preparedStatement.executeQuery()) {
+                    while (rs.next()) {
+                        rezervacije.add(mapiraj(rs));
+                    }
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("getOpseg", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+        }
+        return rezervacije;
+    }
+
+    @Override
+    public int prebroj(RezervacijaFilter filter) {
+        List<Object> parametri = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sqlBroj(filter, parametri))) {
+            postaviParametre(preparedStatement, parametri);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("prebroj", LogEvent.BEZ_ID, "Greška pri brojanju rezervacija", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Drajver dohvata redove u blokovima od {@value #STREAM_FETCH_SIZE}
+     * (serverski kursor), pa zauzeće memorije ne zavisi od broja redova.
+     * Konekcija je zauzeta dok potrošač radi, zato potrošač treba da bude brz.
+     * </p>
+     */
+    @Override
+    public int stream(RezervacijaFilter filter, Consumer<Rezervacija> potrosac) {
+        List<Object> parametri = new ArrayList<>();
+        int broj = 0;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sqlStream(filter, parametri))) {
+            preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+            postaviParametre(preparedStatement, parametri);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    potrosac.accept(mapiraj(rs));
+                    broj++;
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("stream", LogEvent.BEZ_ID, "Greška pri prikazu rezervacija", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+        return broj;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Upiti od bar {@value #FULLTEXT_MIN_DUZINA} znaka idu preko FULLTEXT indeksa,
+     * a kraći preko prefiksa {@code LIKE} nad B-tree indeksima.
+     * </p>
+     */
+    @Override
+    public List<Rezervacija> pretrazi(String upit, int limit, int offset) {
+        List<Rezervacija> rezervacije = new ArrayList<>();
+        boolean fulltext = upit.length() >= FULLTEXT_MIN_DUZINA;
+        String izraz = fulltext ? fulltextIzraz(upit) : likePrefiks(upit);
+        if (izraz.isEmpty()) {
+            return rezervacije;
+        }
+
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     fulltext ? SQL_PRETRAGA_FULLTEXT : SQL_PRETRAGA_PREFIKS)) {
+            for (int i = 1; i <= 4; i++) {
+                preparedStatement.setString(i, izraz);
+            }
+            preparedStatement.setInt(5, limit);
+            preparedStatement.setInt(6, offset);
+            try (ResultSet rs = preparedStatement.executeQuery()) {
+                while (rs.next()) {
+                    rezervacije.add(mapiraj(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.greska("pretrazi", LogEvent.BEZ_ID, "Greška pri pretrazi rezervacija", e);
+            Metrics.oznaciGresku();
+        }
+        return rezervacije;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Grupisanje i brojanje se izvršavaju u bazi ({@code GROUP BY}), pa se
+     * prenosi samo po jedan red za svaku grupu. Korisnici i oprema se grupišu
+     * po ID-u, tako da se dva korisnika sa istim imenom ne spajaju.
+     * </p>
+     */
+    @Override
+    public List<Agregat> agregiraj(Grupisanje grupisanje, RezervacijaFilter filter) {
+        List<Object> parametri = new ArrayList<>();
+        String sql = sqlAgregat(grupisanje, filter, parametri);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            postaviParametre(preparedStatement, parametri);
+            return citajAgregate(preparedStatement);
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("agregiraj", LogEvent.BEZ_ID, "Greška pri grupisanju rezervacija", e);
+            Metrics.oznaciGresku();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ako baza održava brojače, čita se tabela {@code rezervacija_brojac}, pa
+     * je cena srazmerna broju kolona na grafikonu.
+     * </p>
+     */
+    @Override
+    public List<Agregat> getBrojRezervacija(Grupisanje grupisanje) {
+        if (!isMaterijalizovaniBrojaci()) {
+            return agregiraj(grupisanje, null);
+        }
+        String sql = grupisanje == Grupisanje.KORISNIK ? SQL_BROJAC_KORISNIK : SQL_BROJAC_OPREMA;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            return citajAgregate(preparedStatement);
+        } catch (SQLException e) {
+            LOG.greska("getBrojRezervacija", LogEvent.BEZ_ID, "Greška pri čitanju brojača rezervacija", e);
+            Metrics.oznaciGresku();
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean dodaj(Rezervacija rezervacija) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_DODAJ, Statement.RETURN_GENERATED_KEYS)) {
+
+            // Konvertuj string datume u LocalDate
+            java.sql.Date datumRez = java.sql.Date.valueOf(rezervacija.getDatumRezervacije());
+            java.sql.Date datumVrac = java.sql.Date.valueOf(rezervacija.getDatumVracanja());
+
+            preparedStatement.setInt(1, rezervacija.getKorisnikId());
+            preparedStatement.setInt(2, rezervacija.getOpremaId());
+            preparedStatement.setDate(3, datumRez);
+            preparedStatement.setDate(4, datumVrac);
+            preparedStatement.setInt(5, rezervacija.getKolicina());
+            preparedStatement.setString(6, rezervacija.getStatus() != null ? rezervacija.getStatus() : "aktivna");
+
+            preparedStatement.executeUpdate();
+            try (ResultSet kljucevi = preparedStatement.getGeneratedKeys()) {
+                if (kljucevi.next()) {
+                    rezervacija.setId(kljucevi.getInt(1));
+                }
+            }
+            if (rezervacija.getStatus() == null) {
+                rezervacija.setStatus("aktivna");
+            }
+            return true;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("dodaj", LogEvent.BEZ_ID, "Greška pri dodavanju rezervacije", e);
+            Metrics.oznaciGresku();
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Redovi se upisuju JDBC batch-om u transakcijama od po
+     * {@value BatchInsert#VELICINA_GRUPE}.
+     * </p>
+     */
+    @Override
+    public RezultatUnosa dodajSve(List<Rezervacija> rezervacije) {
+        RezultatUnosa rezultat = BatchInsert.izvrsi(SQL_DODAJ, rezervacije, (ps, r) -> {
+            ps.setInt(1, r.getKorisnikId());
+            ps.setInt(2, r.getOpremaId());
+            ps.setDate(3, java.sql.Date.valueOf(r.getDatumRezervacije()));
+            ps.setDate(4, java.sql.Date.valueOf(r.getDatumVracanja()));
+            ps.setInt(5, r.getKolicina());
+            ps.setString(6, r.getStatus() != null ? r.getStatus() : "aktivna");
+        });
+
+        int[] ids = rezultat.getGenerisaniId();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                Rezervacija r = rezervacije.get(i);
+                r.setId(ids[i]);
+                if (r.getStatus() == null) {
+                    r.setStatus("aktivna");
+                }
+            }
+        }
+        return rezultat;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Provera se radi u bazi, nad trenutnim stanjem, a ne nad objektom opreme
+     * učitanim ranije u formi. Odmah posle provere zauzetosti, pre unosa rezervacije,
+     * verzija opreme se uvećava uslovno ({@code WHERE verzija = ?}); ako ju je drugi
+     * računar u međuvremenu promenio, transakcija se poništava i ponavlja, najviše
+     * {@value #MAX_POKUSAJA_REZERVACIJE} puta. Unutar procesa rezervacije iste
+     * opreme čekaju na bravu trake ({@link StripedLocks}), pa se ne sudaraju u bazi,
+     * a rezervacije različite opreme idu paralelno.
+     * </p>
+     */
+    @Override
+    public IshodRezervacije rezervisi(Rezervacija rezervacija) {
+        ReentrantLock brava = BRAVE_OPREME.get(rezervacija.getOpremaId());
+        brava.lock();
+        try {
+            for (int pokusaj = 1; pokusaj <= MAX_POKUSAJA_REZERVACIJE; pokusaj++) {
+                IshodRezervacije ishod = pokusajRezervacije(rezervacija);
+                if (ishod != IshodRezervacije.KONFLIKT) {
+                    return ishod;
+                }
+                // Kratko, rastuće čekanje da se istovremeni pokušaji razmaknu
+                Thread.sleep(ThreadLocalRandom.current().nextInt(5, 10 * pokusaj + 5));
+            }
+            LOG.upozorenje("rezervisi", LogEvent.BEZ_ID,
+                    "Rezervacija opreme " + rezervacija.getOpremaId() + " nije uspela zbog istovremenih izmena.");
+            return IshodRezervacije.KONFLIKT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return IshodRezervacije.GRESKA;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    private IshodRezervacije pokusajRezervacije(Rezervacija rezervacija) {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            // Ako commit izostane zbog greške, pul poništava transakciju pri vraćanju konekcije
+            connection.setAutoCommit(false);
+            java.sql.Date od = java.sql.Date.valueOf(rezervacija.getDatumRezervacije());
+            java.sql.Date doDatuma = java.sql.Date.valueOf(rezervacija.getDatumVracanja());
+            int opremaId = rezervacija.getOpremaId();
+
+            int ukupno;
+            int verzija;
+            try (PreparedStatement ps = connection.prepareStatement(SQL_OPREMA_VERZIJA)) {
+                ps.setInt(1, opremaId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        connection.rollback();
+                        return IshodRezervacije.NEPOSTOJECA_OPREMA;
+                    }
+                    ukupno = rs.getInt(1);
+                    verzija = rs.getInt(2);
+                }
+            }
+
+            int zauzeto;
+            try (PreparedStatement ps = connection.prepareStatement(SQL_ZAUZETO_MAX)) {
+                ps.setDate(1, od);
+                ps.setInt(2, opremaId);
+                ps.setDate(3, od);
+                ps.setDate(4, doDatuma);
+                ps.setInt(5, opremaId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    zauzeto = rs.getInt(1);
+                }
+            }
+            if (ukupno - zauzeto < rezervacija.getKolicina()) {
+                connection.rollback();
+                return IshodRezervacije.NEDOVOLJNO_OPREME;
+            }
+
+            // Uslovna izmena zaključava red opreme; 0 redova znači da je stanje zastarelo,
+            // pa se unos (i okidači nad njim) radi tek kad je oprema zaključana
+            try (PreparedStatement ps = connection.prepareStatement(SQL_OPREMA_UVECAJ_VERZIJU)) {
+                ps.setInt(1, opremaId);
+                ps.setInt(2, verzija);
+                if (ps.executeUpdate() == 0) {
+                    connection.rollback();
+                    return IshodRezervacije.KONFLIKT;
+                }
+            }
+
+            try (PreparedStatement ps = connection.prepareStatement(SQL_DODAJ, Statement.RETURN_GENERATED_KEYS)) {
+                ps.setInt(1, rezervacija.getKorisnikId());
+                ps.setInt(2, opremaId);
+                ps.setDate(3, od);
+                ps.setDate(4, doDatuma);
+                ps.setInt(5, rezervacija.getKolicina());
+                ps.setString(6, "aktivna");
+                ps.executeUpdate();
+                try (ResultSet kljucevi = ps.getGeneratedKeys()) {
+                    if (kljucevi.next()) {
+                        rezervacija.setId(kljucevi.getInt(1));
+                    }
+                }
+            }
+            connection.commit();
+
+            rezervacija.setStatus("aktivna");
+            return IshodRezervacije.USPESNO;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            rezervacija.setId(0);
+            LOG.greska("rezervisi", LogEvent.BEZ_ID, "Greška pri rezervisanju opreme", e);
+            Metrics.oznaciGresku();
+            return IshodRezervacije.GRESKA;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Ide istim putem kao {@link #primeniIzmene}, sa jednom izmenom.
+     * </p>
+     */
+    @Override
+    public int azurirajDatumVracanja(int id, String noviDatumVracanja) {
+        return primeniIzmene(List.of(new IzmenaRezervacije(id, noviDatumVracanja)))[0];
+    }
+
+    @Override
+    public int obrisi(int id) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_OBRISI)) {
+            preparedStatement.setInt(1, id);
+            return preparedStatement.executeUpdate();
+
+        } catch (SQLException e) {
+            LOG.greska("obrisi", id, "Greška pri brisanju rezervacije", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Sve izmene se upisuju preko jedne konekcije i potvrđuju jednim
+     * {@code COMMIT}-om. Brisanja idu JDBC batch-om, prva, pa oprema koju
+     * oslobađaju može da primi produženja iz iste grupe.
+     * </p>
+     * <p>
+     * Promene datuma vraćanja idu kao u {@link #rezervisi}: pod bravama traka
+     * opreme, produženje aktivne rezervacije se proverava upitom zauzetosti za
+     * dodatne dane, a na kraju se verzija svake opreme uvećava uslovno. Ako je
+     * neku opremu u međuvremenu promenio drugi računar, transakcija se poništava
+     * i ponavlja, najviše {@value #MAX_POKUSAJA_REZERVACIJE} puta.
+     * </p>
+     */
+    @Override
+    public int[] primeniIzmene(List<IzmenaRezervacije> izmene) {
+        int[] rezultat = new int[izmene.size()];
+        try {
+            List<Integer> azurirane = new ArrayList<>();
+            for (IzmenaRezervacije izmena : izmene) {
+                if (!izmena.isBrisanje()) {
+                    azurirane.add(izmena.getId());
+                }
+            }
+            // Oprema rezervacije se ne menja, pa se za izbor brava čita van transakcije
+            Set<Integer> oprema = new HashSet<>();
+            if (!azurirane.isEmpty()) {
+                try (Connection connection = DatabaseConnection.getConnection()) {
+                    citajPoId(connection, azurirane, r -> oprema.add(r.getOpremaId()));
+                }
+            }
+            List<ReentrantLock> brave = BRAVE_OPREME.get(oprema);
+            brave.forEach(ReentrantLock::lock);
+            try {
+                for (int pokusaj = 1; pokusaj <= MAX_POKUSAJA_REZERVACIJE; pokusaj++) {
+                    if (pokusajIzmena(izmene, azurirane, oprema, rezultat)) {
+                        return rezultat;
+                    }
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(5, 10 * pokusaj + 5));
+                }
+                LOG.upozorenje("primeniIzmene", LogEvent.BEZ_ID,
+                        "Grupa od " + izmene.size() + " izmena nije upisana zbog istovremenih izmena opreme.");
+            } finally {
+                for (int i = brave.size() - 1; i >= 0; i--) {
+                    brave.get(i).unlock();
+                }
+            }
+        } catch (SQLException | IllegalArgumentException e) {
+            LOG.greska("primeniIzmene", LogEvent.BEZ_ID, "Greška pri grupnom upisu " + izmene.size() + " izmena", e);
+            Metrics.oznaciGresku();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Arrays.fill(rezultat, -1);
+        return rezultat;
+    }
+
+    /**
+     * Jedan pokušaj grupe izmena u jednoj transakciji.
+     *
+     * @return {@code false} ako je verzija neke opreme zastarela; transakcija je tada poništena
+     */
+    private boolean pokusajIzmena(List<IzmenaRezervacije> izmene, List<Integer> azurirane, Set<Integer> oprema,
+                                  int[] rezultat) throws SQLException {
+        List<Integer> brisanja = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement obrisi = connection.prepareStatement(SQL_OBRISI);
+             PreparedStatement verzija = connection.prepareStatement(SQL_OPREMA_VERZIJA);
+             PreparedStatement zauzeto = connection.prepareStatement(SQL_ZAUZETO_MAX);
+             PreparedStatement azuriraj = connection.prepareStatement(SQL_AZURIRAJ);
+             PreparedStatement uvecajVerziju = connection.prepareStatement(SQL_OPREMA_UVECAJ_VERZIJU)) {
+            // Ako commit izostane zbog greške, pul poništava transakciju pri vraćanju konekcije
+            connection.setAutoCommit(false);
+            for (int i = 0; i < rezultat.length; i++) {
+                IzmenaRezervacije izmena = izmene.get(i);
+                if (izmena.isBrisanje()) {
+                    obrisi.setInt(1, izmena.getId());
+                    obrisi.addBatch();
+                    brisanja.add(i);
+                }
+            }
+            if (!brisanja.isEmpty()) {
+                prepisiBrojeve(obrisi.executeBatch(), brisanja, rezultat);
+            }
+
+            // Opremi: {ukupna količina, verzija na početku transakcije}
+            Map<Integer, int[]> stanja = new HashMap<>();
+            for (int opremaId : oprema) {
+                verzija.setInt(1, opremaId);
+                try (ResultSet rs = verzija.executeQuery()) {
+                    if (rs.next()) {
+                        stanja.put(opremaId, new int[]{rs.getInt(1), rs.getInt(2)});
+                    }
+                }
+            }
+            Map<Integer, Rezervacija> trenutne = new HashMap<>();
+            if (!azurirane.isEmpty()) {
+                citajPoId(connection, azurirane, r -> trenutne.put(r.getId(), r));
+            }
+
+            for (int i = 0; i < rezultat.length; i++) {
+                IzmenaRezervacije izmena = izmene.get(i);
+                if (izmena.isBrisanje()) {
+                    continue;
+                }
+                Rezervacija r = trenutne.get(izmena.getId());
+                if (r == null) {
+                    rezultat[i] = 0;
+                    continue;
+                }
+                java.sql.Date stari = java.sql.Date.valueOf(r.getDatumVracanja());
+                java.sql.Date novi = java.sql.Date.valueOf(izmena.getNoviDatumVracanja());
+                int[] stanje = stanja.get(r.getOpremaId());
+                if ("aktivna".equals(r.getStatus()) && novi.after(stari) && stanje != null) {
+                    // Rezervacija ne zauzima dane od starog datuma vraćanja, pa se proveravaju samo oni
+                    zauzeto.setDate(1, stari);
+                    zauzeto.setInt(2, r.getOpremaId());
+                    zauzeto.setDate(3, stari);
+                    zauzeto.setDate(4, novi);
+                    zauzeto.setInt(5, r.getOpremaId());
+                    int zauzetoMax;
+                    try (ResultSet rs = zauzeto.executeQuery()) {
+                        rs.next();
+                        zauzetoMax = rs.getInt(1);
+                    }
+                    if (stanje[0] - zauzetoMax < r.getKolicina()) {
+                        rezultat[i] = NEDOVOLJNO_OPREME;
+                        continue;
+                    }
+                }
+                azuriraj.setDate(1, novi);
+                azuriraj.setInt(2, izmena.getId());
+                rezultat[i] = azuriraj.executeUpdate();
+            }
+
+            // Uslovna izmena zaključava red opreme; 0 redova znači da je stanje zastarelo
+            for (Map.Entry<Integer, int[]> e : stanja.entrySet()) {
+                uvecajVerziju.setInt(1, e.getKey());
+                uvecajVerziju.setInt(2, e.getValue()[1]);
+                if (uvecajVerziju.executeUpdate() == 0) {
+                    connection.rollback();
+                    return false;
+                }
+            }
+            connection.commit();
+            return true;
+        }
+    }
+
+    /** Batch sa {@code rewriteBatchedStatements} ne mora da vrati broj redova; tada se računa kao jedan. */
+    private static void prepisiBrojeve(int[] brojevi, List<Integer> indeksi, int[] rezultat) {
+        for (int j = 0; j < indeksi.size(); j++) {
+            rezultat[indeksi.get(j)] = brojevi[j] == Statement.SUCCESS_NO_INFO ? 1 : brojevi[j];
+        }
+    }
+
+    /**
+     * Registruje u {@link StatementRegistry} sve oblike upita koji se sastavljaju
+     * pri pozivu (filteri, sortiranje, grupisanje), da bi {@link database.ProveraPlanova}
+     * proverila i one koji u ovom pokretanju još nisu izvršeni.
+     */
+    static void registrujOblike() {
+        List<RezervacijaFilter> filteri = new ArrayList<>();
+        filteri.add(null);
+        RezervacijaFilter poKorisniku = new RezervacijaFilter();
+        poKorisniku.setKorisnikId(1);
+        filteri.add(poKorisniku);
+        RezervacijaFilter poOpremi = new RezervacijaFilter();
+        poOpremi.setOpremaId(1);
+        filteri.add(poOpremi);
+        RezervacijaFilter poStatusu = new RezervacijaFilter();
+        poStatusu.setStatus("aktivna");
+        filteri.add(poStatusu);
+        RezervacijaFilter poDatumu = new RezervacijaFilter();
+        poDatumu.setDatumOd("2024-01-01");
+        poDatumu.setDatumDo("2024-12-31");
+        filteri.add(poDatumu);
+
+        // Svaki oblik dobija svoju listu parametara, kao pri pravom pozivu
+        for (RezervacijaFilter filter : filteri) {
+            sqlBroj(filter, new ArrayList<>());
+            sqlStream(filter, new ArrayList<>());
+            sqlStrana(filter, null, 0, 1, new ArrayList<>());
+            sqlStrana(filter, "2024-01-01", 1, 1, new ArrayList<>());
+            for (String kolona : KOLONE_SORTIRANJA.keySet()) {
+                sqlOpseg(filter, new Poredak(kolona, false), 0, 1, new ArrayList<>());
+            }
+            for (Grupisanje g : Grupisanje.values()) {
+                sqlAgregat(g, filter, new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Brojače održavaju okidači iz migracije {@value Migracije#VERZIJA_BROJACA},
+     * pa je odgovor isti za svaki proces nad istom bazom.
+     * </p>
+     */
+    @Override
+    public boolean isMaterijalizovaniBrojaci() {
+        if (!brojaciUBazi) {
+            try {
+                brojaciUBazi = Migracije.getVerzija() >= Migracije.VERZIJA_BROJACA;
+            } catch (SQLException e) {
+                LOG.greska("isMaterijalizovaniBrojaci", LogEvent.BEZ_ID, "Greška pri čitanju verzije šeme", e);
+                Metrics.oznaciGresku();
+            }
+        }
+        return brojaciUBazi;
+    }
+
+    private static List<Agregat> citajAgregate(PreparedStatement preparedStatement) throws SQLException {
+        List<Agregat> agregati = new ArrayList<>();
+        try (ResultSet rs = preparedStatement.executeQuery()) {
+            while (rs.next()) {
+                agregati.add(new Agregat(rs.getInt(1), rs.getString(2), rs.getLong(3), rs.getLong(4)));
+            }
+        }
+        return agregati;
+    }
+
+    /**
+     * Pretvara korisnički unos u FULLTEXT izraz u boolean modu: svaka reč je
+     * obavezna i traži se kao prefiks ({@code +rec*}). Operatori boolean moda
+     * iz unosa se uklanjaju.
+     */
+    private static String fulltextIzraz(String upit) {
+        StringBuilder izraz = new StringBuilder();
+        for (String rec : upit.split("\\s+")) {
+            String cista = rec.replaceAll("[+\\-<>()~*\"@]", "");
+            if (!cista.isEmpty()) {
+                if (izraz.length() > 0) {
+                    izraz.append(' ');
+                }
+                izraz.append('+').append(cista).append('*');
+            }
+        }
+        return izraz.toString();
+    }
+
+    /** Pravi {@code LIKE} prefiks, uz escape-ovanje džoker znakova iz unosa. */
+    private static String likePrefiks(String upit) {
+        return upit.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    /**
+     * Dodaje {@code WHERE} uslove za zadati filter; redosled uslova je uvek isti
+     * kako bi isti oblik filtera dao isti SQL (i istu keširanu naredbu).
+     */
+    private static String sqlAgregat(Grupisanje grupisanje, RezervacijaFilter filter, List<Object> parametri) {
+        String kljuc;
+        String oznaka;
+        String spoj = "";
+        String redosled = "broj DESC";
+        switch (grupisanje) {
+            case KORISNIK:
+                kljuc = "r.korisnik_id";
+                oznaka = "k.ime";
+                spoj = " JOIN korisnik k ON r.korisnik_id = k.id";
+                break;
+            case OPREMA:
+                kljuc = "r.oprema_id";
+                oznaka = "o.naziv";
+                spoj = " JOIN oprema o ON r.oprema_id = o.id";
+                break;
+            case STATUS:
+                kljuc = "0";
+                oznaka = "r.status";
+                break;
+            case DAN:
+                kljuc = "0";
+                oznaka = "DATE_FORMAT(r.datum_rezervacije, '%Y-%m-%d')";
+                redosled = "oznaka";
+                break;
+            case MESEC:
+                kljuc = "0";
+                oznaka = "DATE_FORMAT(r.datum_rezervacije, '%Y-%m')";
+                redosled = "oznaka";
+                break;
+            case GODINA:
+                kljuc = "0";
+                oznaka = "DATE_FORMAT(r.datum_rezervacije, '%Y')";
+                redosled = "oznaka";
+                break;
+            default:
+                throw new IllegalArgumentException("Nepoznato grupisanje: " + grupisanje);
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(kljuc).append(" AS kljuc, ")
+                .append(oznaka).append(" AS oznaka, COUNT(*) AS broj, SUM(r.kolicina) AS kolicina ")
+                .append("FROM rezervacija r").append(spoj);
+        dodajUslove(sql, parametri, filter);
+        // Grupiše se po izrazima, ne po aliasima, zbog ONLY_FULL_GROUP_BY režima
+        sql.append(" GROUP BY ").append(kljuc.equals("0") ? oznaka : kljuc + ", " + oznaka)
+                .append(" ORDER BY ").append(redosled);
+        return StatementRegistry.registruj("rezervacija.agregat." + grupisanje.name().toLowerCase(), sql.toString());
+    }
+
+    /**
+     * @throws IllegalArgumentException ako kolona za sortiranje nije poznata
+     */
+    private static String sqlOpseg(RezervacijaFilter filter, Poredak poredak, int od, int limit,
+                                   List<Object> parametri) {
+        String kolona = poredak == null ? "r.datum_rezervacije" : KOLONE_SORTIRANJA.get(poredak.getKolona());
+        if (kolona == null) {
+            throw new IllegalArgumentException("Nepoznata kolona za sortiranje: " + poredak.getKolona());
+        }
+        String smer = poredak != null && poredak.isOpadajuce() ? " DESC" : "";
+        String redosled = " ORDER BY " + kolona + smer + ", r.id" + smer;
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT r.id, r.korisnik_id, r.oprema_id, k.ime AS korisnik_ime, o.naziv AS oprema_naziv, " +
+                        "r.datum_rezervacije, r.datum_vracanja, r.kolicina, r.status " +
+                        "FROM (SELECT r.id FROM rezervacija r");
+        if (kolona.startsWith("k.")) {
+            sql.append(" JOIN korisnik k ON r.korisnik_id = k.id");
+        } else if (kolona.startsWith("o.")) {
+            sql.append(" JOIN oprema o ON r.oprema_id = o.id");
+        }
+        dodajUslove(sql, parametri, filter);
+        sql.append(redosled).append(" LIMIT ? OFFSET ?) s ")
+                .append("JOIN rezervacija r ON r.id = s.id ")
+                .append("JOIN korisnik k ON r.korisnik_id = k.id ")
+                .append("JOIN oprema o ON r.oprema_id = o.id")
+                .append(redosled);
+        parametri.add(limit);
+        parametri.add(od);
+        return StatementRegistry.registruj("rezervacija.opseg", sql.toString());
+    }
+
+    private static String sqlBroj(RezervacijaFilter filter, List<Object> parametri) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM rezervacija r");
+        dodajUslove(sql, parametri, filter);
+        return StatementRegistry.registruj("rezervacija.broj", sql.toString());
+    }
+
+    private static String sqlStream(RezervacijaFilter filter, List<Object> parametri) {
+        StringBuilder sql = new StringBuilder(SELECT_SA_IMENIMA);
+        dodajUslove(sql, parametri, filter);
+        sql.append(" ORDER BY r.datum_rezervacije, r.id");
+        return StatementRegistry.registruj("rezervacija.stream", sql.toString());
+    }
+
+    private static String sqlStrana(RezervacijaFilter filter, String posleDatuma, int posleId, int limit,
+                                    List<Object> parametri) {
+        StringBuilder sql = new StringBuilder(SELECT_SA_IMENIMA);
+        boolean imaUslova = dodajUslove(sql, parametri, filter);
+        if (posleDatuma != null) {
+            java.sql.Date kursor = java.sql.Date.valueOf(posleDatuma);
+            sql.append(imaUslova ? " AND " : " WHERE ");
+            sql.append("(r.datum_rezervacije > ? OR (r.datum_rezervacije = ? AND r.id > ?))");
+            parametri.add(kursor);
+            parametri.add(kursor);
+            parametri.add(posleId);
+        }
+        // Jedan red više od strane govori da li postoji sledeća
+        sql.append(" ORDER BY r.datum_rezervacije, r.id LIMIT ?");
+        parametri.add(limit + 1);
+        return StatementRegistry.registruj("rezervacija.strana", sql.toString());
+    }
+
+    /**
+     * Dodaje {@code WHERE} sa uslovima filtera, ako ih ima.
+     *
+     * @return {@code true} ako je {@code WHERE} dodat
+     */
+    private static boolean dodajUslove(StringBuilder sql, List<Object> parametri, RezervacijaFilter filter) {
+        if (filter == null) {
+            return false;
+        }
+        List<String> uslovi = new ArrayList<>();
+        if (filter.getKorisnikId() != null) {
+            uslovi.add("r.korisnik_id = ?");
+            parametri.add(filter.getKorisnikId());
+        }
+        if (filter.getOpremaId() != null) {
+            uslovi.add("r.oprema_id = ?");
+            parametri.add(filter.getOpremaId());
+        }
+        if (filter.getStatus() != null) {
+            uslovi.add("r.status = ?");
+            parametri.add(filter.getStatus());
+        }
+        if (filter.getDatumOd() != null) {
+            uslovi.add("r.datum_rezervacije >= ?");
+            parametri.add(java.sql.Date.valueOf(filter.getDatumOd()));
+        }
+        if (filter.getDatumDo() != null) {
+            uslovi.add("r.datum_rezervacije <= ?");
+            parametri.add(java.sql.Date.valueOf(filter.getDatumDo()));
+        }
+        if (uslovi.isEmpty()) {
+            return false;
+        }
+        sql.append(" WHERE ").append(String.join(" AND ", uslovi));
+        return true;
+    }
+
+    private static void postaviParametre(PreparedStatement ps, List<Object> parametri) throws SQLException {
+        for (int i = 0; i < parametri.size(); i++) {
+            ps.setObject(i + 1, parametri.get(i));
+        }
+    }
+
+    /** Pravi {@link Rezervacija} od tekućeg reda upita zasnovanog na {@link #SELECT_SA_IMENIMA}. */
+    private static Rezervacija mapiraj(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        int korisnikId = rs.getInt("korisnik_id");
+        int opremaId = rs.getInt("oprema_id");
+        String datumRezervacije = rs.getDate("datum_rezervacije").toString();
+        String datumVracanja = rs.getDate("datum_vracanja").toString();
+        int kolicina = rs.getInt("kolicina");
+        String status = rs.getString("status");
+        String korisnikIme = rs.getString("korisnik_ime");
+        String opremaNaziv = rs.getString("oprema_naziv");
+        return new Rezervacija(id, korisnikId, opremaId, korisnikIme, opremaNaziv,
+                datumRezervacije, datumVracanja, kolicina, status);
+    }
+}
@@ -0,0 +1,225 @@
+package repository;
+
+import database.DatabaseConnection;
+import database.StatementRegistry;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+import model.Poredak;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Skladište sportske opreme nad MySQL tabelom {@code oprema}.
+ *
+ * @author DjuroPopara6271
+ */
+public class MySqlSportskaOpremaRepository implements SportskaOpremaRepository {
+
+    private static final Logger LOG = Logging.logger("oprema");
+
+    /** Unos nove opreme. */
+    private static final String SQL_DODAJ = StatementRegistry.registruj("oprema.dodaj",
+            "INSERT INTO oprema (naziv, tip_id, dostupnost, cena, kolicina, lokacija) VALUES (?, ?, ?, ?, ?, ?)");
+
+    /** Sva oprema. */
+    private static final String SQL_SVA = StatementRegistry.registruj("oprema.sva",
+            "SELECT * FROM oprema");
+
+    /** Broj stavki opreme. */
+    private static final String SQL_BROJ = StatementRegistry.registruj("oprema.broj",
+            "SELECT COUNT(*) FROM oprema");
+
+    /** Kolone po kojima se sortira {@link #getOpseg}, po imenu svojstva modela. */
+    private static final Map<String, String> KOLONE_SORTIRANJA = Map.of(
+            "id", "id",
+            "naziv", "naziv",
+            "tipId", "tip_id",
+            "dostupnost", "dostupnost",
+            "cena", "cena",
+            "kolicina", "kolicina",
+            "lokacija", "lokacija");
+
+    /** Promena cene i količine po ID-u. */
+    private static final String SQL_AZURIRAJ = StatementRegistry.registruj("oprema.azuriraj",
+            "UPDATE oprema SET cena = ?, kolicina = ? WHERE id = ?");
+
+    /** Brisanje po ID-u. */
+    private static final String SQL_OBRISI = StatementRegistry.registruj("oprema.obrisi",
+            "DELETE FROM oprema WHERE id = ?");
+
+    /** Jedna stavka opreme po ID-u. */
+    private static final String SQL_PO_ID = StatementRegistry.registruj("oprema.poId",
+            "SELECT * FROM oprema WHERE id = ?");
+
+    @Override
+    public boolean dodaj(SportskaOprema oprema) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_DODAJ, Statement.RETURN_GENERATED_KEYS)) {
+            postaviParametre(preparedStatement, oprema);
+            preparedStatement.executeUpdate();
+            try (ResultSet kljucevi = preparedStatement.getGeneratedKeys()) {
+                if (kljucevi.next()) {
+                    oprema.setId(kljucevi.getInt(1));
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            LOG.greska("dodaj", LogEvent.BEZ_ID, "Greška pri dodavanju opreme", e);
+            Metrics.oznaciGresku();
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Redovi se upisuju JDBC batch-om, u transakcijama od po
+     * {@value BatchInsert#VELICINA_GRUPE} redova.
+     * </p>
+     */
+    @Override
+    public RezultatUnosa dodajSve(List<SportskaOprema> oprema) {
+        RezultatUnosa rezultat = BatchInsert.izvrsi(SQL_DODAJ, oprema,
+                MySqlSportskaOpremaRepository::postaviParametre);
+        int[] ids = rezultat.getGenerisaniId();
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                oprema.get(i).setId(ids[i]);
+            }
+        }
+        return rezultat;
+    }
+
+    @Override
+    public List<SportskaOprema> getSve() {
+        List<SportskaOprema> opreme = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_SVA);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                opreme.add(mapiraj(resultSet));
+            }
+        } catch (SQLException e) {
+            LOG.greska("getSve", LogEvent.BEZ_ID, "Greška pri prikazu opreme", e);
+            Metrics.oznaciGresku();
+        }
+        return opreme;
+    }
+
+    @Override
+    public List<SportskaOprema> getOpseg(Poredak poredak, int od, int limit) {
+        List<SportskaOprema> opreme = new ArrayList<>(limit);
+        String kolona = poredak == null ? "id" : KOLONE_SORTIRANJA.get(poredak.getKolona());
+        if (kolona == null) {
+            LOG.upozorenje("getOpseg", LogEvent.BEZ_ID, "Nepoznata kolona za sortiranje: " + poredak.getKolona());
+            return opreme;
+        }
+        String smer = poredak != null && poredak.isOpadajuce() ? " DESC" : "";
+        String sql = "SELECT * FROM oprema ORDER BY " + kolona + smer + ", id" + smer + " LIMIT ? OFFSET ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     StatementRegistry.registruj("oprema.opseg", sql))) {
+            preparedStatement.setInt(1, limit);
+            preparedStatement.setInt(2, od);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    opreme.add(mapiraj(resultSet));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.greska("getOpseg", LogEvent.BEZ_ID, "Greška pri prikazu opreme", e);
+            Metrics.oznaciGresku();
+        }
+        return opreme;
+    }
+
+    @Override
+    public int prebroj() {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_BROJ);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        } catch (SQLException e) {
+            LOG.greska("prebroj", LogEvent.BEZ_ID, "Greška pri brojanju opreme", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public SportskaOprema getPoId(int id) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_PO_ID)) {
+            preparedStatement.setInt(1, id);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return mapiraj(resultSet);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.greska("getPoId", id, "Greška pri prikazu opreme", e);
+            Metrics.oznaciGresku();
+        }
+        return null;
+    }
+
+    @Override
+    public int azuriraj(int id, double novaCena, int novaKolicina) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_AZURIRAJ)) {
+            preparedStatement.setDouble(1, novaCena);
+            preparedStatement.setInt(2, novaKolicina);
+            preparedStatement.setInt(3, id);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOG.greska("azuriraj", id, "Greška pri ažuriranju opreme", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    @Override
+    public int obrisi(int id) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SQL_OBRISI)) {
+            preparedStatement.setInt(1, id);
+            return preparedStatement.executeUpdate();
+        } catch (SQLException e) {
+            LOG.greska("obrisi", id, "Greška pri brisanju opreme", e);
+            Metrics.oznaciGresku();
+            return -1;
+        }
+    }
+
+    private static void postaviParametre(PreparedStatement ps, SportskaOprema oprema) throws SQLException {
+        ps.setString(1, oprema.getNaziv());
+        ps.setInt(2, oprema.getTipId());
+        ps.setBoolean(3, oprema.isDostupnost());
+        ps.setDouble(4, oprema.getCena());
+        ps.setInt(5, oprema.getKolicina());
+        ps.setString(6, oprema.getLokacija());
+    }
+
+    /** Pravi {@link SportskaOprema} od tekućeg reda upita nad tabelom {@code oprema}. */
+    private static SportskaOprema mapiraj(ResultSet resultSet) throws SQLException {
+        int id = resultSet.getInt("id");
+        String naziv = resultSet.getString("naziv");
+        int tipId = resultSet.getInt("tip_id");
+        boolean dostupnost = resultSet.getBoolean("dostupnost");
+        double cena = resultSet.getDouble("cena");
+        int kolicina = resultSet.getInt("kolicina");
+        String lokacija = resultSet.getString("lokacija");
+        return new SportskaOprema(id, naziv, tipId, dostupnost, cena, kolicina, lokacija);
+    }
+}
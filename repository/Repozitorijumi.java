@@ -0,0 +1,188 @@
+package repository;
+
+import database.Migracije;
+import database.ProveraPlanova;
+import database.StatementRegistry;
+import logging.Logger;
+import logging.Logging;
+import metrics.Metrics;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bira i drži skladišta koja kontroleri koriste.
+ * <p>
+ * Motor se bira jednom, pre prvog pristupa: pozivom {@link #izaberi(Motor)} ili
+ * sistemskim svojstvom {@code -Drepozitorijum=mysql|memorija}; podrazumevano je MySQL.
+ * Sva tri skladišta uvek rade nad istim motorom, jer rezervacije u memoriji
+ * čitaju korisnike i opremu iz memorije umesto spoja u bazi.
+ * </p>
+ * <p>
+ * Skladišta su obmotana merenjem ({@link Metrics#meri}), pa se za svaki poziv
+ * beleže trajanje, broj redova i greške, bez obzira na motor.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Repozitorijumi {
+
+    private static final Logger LOG = Logging.logger("repozitorijumi");
+
+    /** Sistemsko svojstvo za izbor motora. */
+    public static final String SVOJSTVO = "repozitorijum";
+
+    /**
+     * Sistemsko svojstvo: {@code da} pri pokretanju primenjuje migracije šeme
+     * i proverava planove upita ({@link #pripremiBazu()}).
+     */
+    public static final String SVOJSTVO_MIGRACIJE = "baza.migracije";
+
+    /** Motor skladišta. */
+    public enum Motor {
+        /** MySQL baza preko JDBC-a ({@link database.DatabaseConnection}). */
+        MYSQL,
+        /** Indeksi u memoriji procesa; podaci se gube pri gašenju. */
+        MEMORIJA;
+
+        /**
+         * Motor po nazivu, bez obzira na velika i mala slova.
+         *
+         * @param naziv "mysql" ili "memorija"
+         * @return motor
+         * @throws IllegalArgumentException ako naziv nije poznat
+         */
+        public static Motor poNazivu(String naziv) {
+            for (Motor m : values()) {
+                if (m.name().equalsIgnoreCase(naziv.trim())) {
+                    return m;
+                }
+            }
+            throw new IllegalArgumentException("Nepoznat motor skladišta: " + naziv);
+        }
+    }
+
+    private static Motor motor;
+    private static KorisnikRepository korisnici;
+    private static SportskaOpremaRepository oprema;
+    private static RezervacijaRepository rezervacije;
+
+    private Repozitorijumi() {
+    }
+
+    /**
+     * Bira motor skladišta. Mora se pozvati pre prvog pristupa skladištima.
+     *
+     * @param izabrani motor
+     * @throws IllegalStateException ako su skladišta već napravljena sa drugim motorom
+     */
+    public static synchronized void izaberi(Motor izabrani) {
+        if (korisnici != null && motor != izabrani) {
+            throw new IllegalStateException("Skladišta već koriste motor " + motor + ".");
+        }
+        motor = izabrani;
+    }
+
+    /** @return izabrani motor; pri prvom pozivu pravi skladišta */
+    public static synchronized Motor getMotor() {
+        napravi();
+        return motor;
+    }
+
+    /** @return skladište korisnika */
+    public static synchronized KorisnikRepository korisnici() {
+        napravi();
+        return korisnici;
+    }
+
+    /** @return skladište sportske opreme */
+    public static synchronized SportskaOpremaRepository oprema() {
+        napravi();
+        return oprema;
+    }
+
+    /** @return skladište rezervacija */
+    public static synchronized RezervacijaRepository rezervacije() {
+        napravi();
+        return rezervacije;
+    }
+
+    /**
+     * Za MySQL motor primenjuje nove migracije šeme ({@link Migracije}) i zatim
+     * proverava planove svih naredbi skladišta ({@link #proveriPlanove()}).
+     *
+     * @throws SQLException          ako migracija ne uspe
+     * @throws IllegalStateException ako neka naredba nema indeks za svoj uslov
+     */
+    public static void pripremiBazu() throws SQLException {
+        if (getMotor() != Motor.MYSQL) {
+            return;
+        }
+        Migracije.primeni();
+        List<String> problemi = proveriPlanove();
+        if (!problemi.isEmpty()) {
+            throw new IllegalStateException("Naredbe bez indeksa za uslov:\n" + String.join("\n", problemi));
+        }
+    }
+
+    /**
+     * Pokreće {@link #pripremiBazu()} ako je zadato svojstvo {@code -Dbaza.migracije=da}.
+     *
+     * @throws SQLException ako migracija ne uspe
+     */
+    public static void pripremiBazuIzSvojstva() throws SQLException {
+        if ("da".equalsIgnoreCase(System.getProperty(SVOJSTVO_MIGRACIJE))) {
+            pripremiBazu();
+        }
+    }
+
+    /**
+     * Proverava {@code EXPLAIN}-om sve naredbe MySQL skladišta, uključujući sve
+     * oblike upita koji se sastavljaju pri pozivu.
+     *
+     * @return opisi naredbi koje bi čitale celu tabelu; prazna lista ako ih nema
+     * @throws SQLException ako konekcija ne uspe
+     */
+    public static List<String> proveriPlanove() throws SQLException {
+        // Statičke naredbe se registruju pri učitavanju klasa
+        new MySqlKorisnikRepository();
+        new MySqlSportskaOpremaRepository();
+        MySqlRezervacijaRepository.registrujOblike();
+
+        Map<String, String> naredbe = new LinkedHashMap<>();
+        for (StatementRegistry.Statistika s : StatementRegistry.getStatistika()) {
+            naredbe.put(s.getSql(), s.getNaziv());
+        }
+        return ProveraPlanova.proveri(naredbe);
+    }
+
+    private static void napravi() {
+        if (korisnici != null) {
+            return;
+        }
+        if (motor == null) {
+            motor = Motor.poNazivu(System.getProperty(SVOJSTVO, Motor.MYSQL.name()));
+        }
+        KorisnikRepository k;
+        SportskaOpremaRepository o;
+        RezervacijaRepository r;
+        if (motor == Motor.MEMORIJA) {
+            InMemoryKorisnikRepository mk = new InMemoryKorisnikRepository();
+            InMemorySportskaOpremaRepository mo = new InMemorySportskaOpremaRepository();
+            r = new InMemoryRezervacijaRepository(mk, mo);
+            o = mo;
+            k = mk;
+        } else {
+            r = new MySqlRezervacijaRepository();
+            o = new MySqlSportskaOpremaRepository();
+            k = new MySqlKorisnikRepository();
+        }
+        // Svaki poziv skladišta se meri; vidi Metrics#izvestaj()
+        rezervacije = Metrics.meri(RezervacijaRepository.class, "rezervacije", r);
+        oprema = Metrics.meri(SportskaOpremaRepository.class, "oprema", o);
+        korisnici = Metrics.meri(KorisnikRepository.class, "korisnici", k);
+        LOG.info("Skladište podataka: " + motor);
+    }
+}
@@ -0,0 +1,229 @@
+package repository;
+
+import model.Agregat;
+import model.Grupisanje;
+import model.IshodRezervacije;
+import model.IzmenaRezervacije;
+import model.Poredak;
+import model.PromenaRezervacije;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+import model.RezultatUnosa;
+import model.Strana;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Skladište rezervacija. Rezervacije koje se vraćaju imaju popunjeno ime
+ * korisnika i naziv opreme. Greške pri radu sa skladištem implementacija
+ * prijavljuje sama, a pozivaocu vraća prazan rezultat, {@code false} ili {@code -1}.
+ *
+ * @author DjuroPopara6271
+ */
+public interface RezervacijaRepository {
+
+    /**
+     * Rezultat promene datuma vraćanja koja bi produžila aktivnu rezervaciju
+     * preko slobodne količine opreme; rezervacija ostaje nepromenjena.
+     */
+    int NEDOVOLJNO_OPREME = -2;
+
+    /** @return sve rezervacije */
+    List<Rezervacija> getSve();
+
+    /**
+     * Vraća jednu stranu rezervacija sortiranih po datumu rezervacije i ID-u,
+     * posle kursora (datum, id) prethodne strane.
+     *
+     * @param filter      kriterijumi, može biti {@code null}
+     * @param posleDatuma datum kursora ili {@code null} za prvu stranu
+     * @param posleId     ID kursora
+     * @param limit       broj redova na strani
+     * @return strana sa kursorom za sledeću, ili {@link Strana#neuspela()} ako čitanje nije uspelo
+     */
+    Strana<Rezervacija> getStrana(RezervacijaFilter filter, String posleDatuma, int posleId, int limit);
+
+    /**
+     * Vraća redove {@code [od, od + limit)} u zadatom redosledu, za tabelu koja
+     * stranu bira po poziciji skrola. Za redom čitanje bez skokova
+     * {@link #getStrana} je jeftiniji.
+     *
+     * @param filter   kriterijumi, može biti {@code null}
+     * @param poredak  redosled po svojstvu rezervacije, ili {@code null} za datum rezervacije i ID
+     * @param od       pozicija prvog reda
+     * @param limit    najveći broj redova
+     * @return rezervacije u opsegu
+     */
+    List<Rezervacija> getOpseg(RezervacijaFilter filter, Poredak poredak, int od, int limit);
+
+    /**
+     * @param filter kriterijumi, može biti {@code null}
+     * @return broj rezervacija koje zadovoljavaju filter, ili {@code -1} ako brojanje nije uspelo
+     */
+    int prebroj(RezervacijaFilter filter);
+
+    /**
+     * Predaje potrošaču rezervacije koje zadovoljavaju filter, po datumu rezervacije i ID-u.
+     *
+     * @param filter   kriterijumi, može biti {@code null}
+     * @param potrosac prima svaku rezervaciju
+     * @return broj predatih rezervacija, ili {@code -1} ako čitanje nije uspelo
+     *         (potrošač je možda već primio deo redova)
+     */
+    int stream(RezervacijaFilter filter, Consumer<Rezervacija> potrosac);
+
+    /**
+     * Traži rezervacije čije ime korisnika ili naziv opreme sadrži reči upita
+     * kao početke reči, po relevantnosti pa od najnovije.
+     *
+     * @param upit   neprazan, očišćen tekst pretrage
+     * @param limit  najveći broj rezultata
+     * @param offset broj preskočenih rezultata
+     * @return pronađene rezervacije
+     */
+    List<Rezervacija> pretrazi(String upit, int limit, int offset);
+
+    /**
+     * Vraća rezervacije sa zadatim ID-jevima, npr. one koje su se promenile.
+     * ID-jevi kojih nema se preskaču; redosled rezultata nije određen. Za
+     * razliku od ostalih čitanja, greška se prosleđuje: prazna lista bi
+     * značila da su sve tražene rezervacije obrisane.
+     *
+     * @param ids ID-jevi rezervacija
+     * @return pronađene rezervacije
+     * @throws SQLException ako čitanje nije uspelo
+     */
+    List<Rezervacija> getPoId(Collection<Integer> ids) throws SQLException;
+
+    /**
+     * Poslednja verzija u dnevniku promena, od koje pozivalac počinje da prati promene.
+     *
+     * @return verzija, {@code 0} ako promena još nema, ili {@code -1} ako skladište
+     * ne vodi dnevnik promena (ili on nije dostupan)
+     */
+    default long getPoslednjaVerzija() {
+        return -1;
+    }
+
+    /**
+     * Promene upisane posle zadate verzije, uključujući i one sa drugih računara.
+     *
+     * @param posleVerzije poslednja verzija koju pozivalac već ima
+     * @param limit        najveći broj promena
+     * @return promene po rastućoj verziji; prazna lista ako ih nema ili dnevnik ne postoji
+     */
+    default List<PromenaRezervacije> getPromene(long posleVerzije, int limit) {
+        return List.of();
+    }
+
+    /**
+     * Briše iz dnevnika promene starije od zadatog trenutka. Poslednja promena
+     * se uvek zadržava, da bi {@link #getPoslednjaVerzija()} i posle čišćenja
+     * vratila stvarnu poslednju verziju.
+     *
+     * @param starijeOd trenutak u milisekundama od epohe
+     * @return broj obrisanih promena, ili {@code -1} ako čišćenje nije uspelo
+     */
+    default int obrisiPromene(long starijeOd) {
+        return 0;
+    }
+
+    /**
+     * Grupiše rezervacije i vraća broj i ukupnu količinu po grupi.
+     *
+     * @param grupisanje dimenzija grupisanja
+     * @param filter     kriterijumi, može biti {@code null}
+     * @return grupe od najveće ka najmanjoj, za vremenske periode hronološki
+     */
+    List<Agregat> agregiraj(Grupisanje grupisanje, RezervacijaFilter filter);
+
+    /**
+     * Broj rezervacija po korisniku ili opremi, za grafikone.
+     *
+     * @param grupisanje {@link Grupisanje#KORISNIK} ili {@link Grupisanje#OPREMA}
+     * @return grupe od najveće ka najmanjoj
+     */
+    default List<Agregat> getBrojRezervacija(Grupisanje grupisanje) {
+        return agregiraj(grupisanje, null);
+    }
+
+    /**
+     * Upisuje rezervaciju bez provere dostupnosti; bez statusa dobija "aktivna".
+     *
+     * @param rezervacija rezervacija; posle uspeha dobija ID
+     * @return {@code true} ako je rezervacija upisana
+     */
+    boolean dodaj(Rezervacija rezervacija);
+
+    /**
+     * Grupno upisuje rezervacije; upisanim postavlja ID.
+     *
+     * @param rezervacije rezervacije za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    RezultatUnosa dodajSve(List<Rezervacija> rezervacije);
+
+    /**
+     * Atomično proverava slobodnu količinu opreme u periodu
+     * {@code [datumRezervacije, datumVracanja)} i upisuje aktivnu rezervaciju.
+     *
+     * @param rezervacija rezervacija; posle uspeha dobija ID i status "aktivna"
+     * @return ishod rezervacije
+     */
+    IshodRezervacije rezervisi(Rezervacija rezervacija);
+
+    /**
+     * Menja datum vraćanja. Produženje aktivne rezervacije se, kao i
+     * {@link #rezervisi}, atomično proverava prema slobodnoj količini opreme
+     * u dodatnim danima {@code [stariDatumVracanja, noviDatumVracanja)}.
+     *
+     * @param id                ID rezervacije
+     * @param noviDatumVracanja novi datum vraćanja (YYYY-MM-DD)
+     * @return broj izmenjenih redova, {@link #NEDOVOLJNO_OPREME} ako za produženje
+     *         nema dovoljno opreme, ili {@code -1} ako izmena nije uspela
+     */
+    int azurirajDatumVracanja(int id, String noviDatumVracanja);
+
+    /**
+     * Briše rezervaciju.
+     *
+     * @param id ID rezervacije
+     * @return broj obrisanih redova, ili {@code -1} ako brisanje nije uspelo
+     */
+    int obrisi(int id);
+
+    /**
+     * Primenjuje grupu izmena, po najviše jednu po rezervaciji.
+     * <p>
+     * Podrazumevano se izmene primenjuju jedna po jedna; skladište sa
+     * transakcijama ih primenjuje u jednoj, pa pri grešci nijedna nije upisana.
+     * </p>
+     *
+     * @param izmene izmene različitih rezervacija
+     * @return broj izmenjenih redova po izmeni, {@link #NEDOVOLJNO_OPREME} za
+     *         produženje bez dovoljno opreme, ili {@code -1} za izmenu koja nije uspela
+     */
+    default int[] primeniIzmene(List<IzmenaRezervacije> izmene) {
+        int[] rezultat = new int[izmene.size()];
+        for (int i = 0; i < rezultat.length; i++) {
+            IzmenaRezervacije izmena = izmene.get(i);
+            rezultat[i] = izmena.isBrisanje()
+                    ? obrisi(izmena.getId())
+                    : azurirajDatumVracanja(izmena.getId(), izmena.getNoviDatumVracanja());
+        }
+        return rezultat;
+    }
+
+    /**
+     * Da li skladište ima materijalizovane brojače za {@link #getBrojRezervacija}.
+     * Podrazumevano nema: skladište bez brojača računa grupe direktno.
+     *
+     * @return {@code true} ako se materijalizovani brojači održavaju
+     */
+    default boolean isMaterijalizovaniBrojaci() {
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package repository;
+
+import model.Poredak;
+import model.RezultatUnosa;
+import model.SportskaOprema;
+
+import java.util.List;
+
+/**
+ * Skladište sportske opreme. Greške pri radu sa skladištem implementacija
+ * prijavljuje sama, a pozivaocu vraća prazan rezultat, {@code false} ili {@code -1}.
+ *
+ * @author DjuroPopara6271
+ */
+public interface SportskaOpremaRepository {
+
+    /**
+     * Upisuje novu opremu.
+     *
+     * @param oprema oprema; posle uspeha dobija ID
+     * @return {@code true} ako je oprema upisana
+     */
+    boolean dodaj(SportskaOprema oprema);
+
+    /**
+     * Grupno upisuje opremu; upisanoj opremi postavlja ID.
+     *
+     * @param oprema oprema za unos
+     * @return dodeljeni ID-jevi i greške po indeksu u listi
+     */
+    RezultatUnosa dodajSve(List<SportskaOprema> oprema);
+
+    /** @return sva oprema */
+    List<SportskaOprema> getSve();
+
+    /**
+     * Vraća opremu na pozicijama {@code [od, od + limit)} u zadatom redosledu.
+     *
+     * @param poredak redosled po svojstvu opreme, ili {@code null} za ID
+     * @param od      pozicija prvog reda
+     * @param limit   najveći broj redova
+     * @return oprema u opsegu
+     */
+    List<SportskaOprema> getOpseg(Poredak poredak, int od, int limit);
+
+    /** @return broj stavki opreme, ili {@code -1} ako brojanje nije uspelo */
+    int prebroj();
+
+    /**
+     * @param id ID opreme
+     * @return oprema ili {@code null} ako ne postoji
+     */
+    SportskaOprema getPoId(int id);
+
+    /**
+     * Menja cenu i količinu opreme.
+     *
+     * @param id           ID opreme
+     * @param novaCena     nova cena
+     * @param novaKolicina nova količina
+     * @return broj izmenjenih redova, ili {@code -1} ako izmena nije uspela
+     */
+    int azuriraj(int id, double novaCena, int novaKolicina);
+
+    /**
+     * Briše opremu.
+     *
+     * @param id ID opreme
+     * @return broj obrisanih redova, ili {@code -1} ako brisanje nije uspelo
+     */
+    int obrisi(int id);
+}
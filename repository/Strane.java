@@ -0,0 +1,36 @@
+package repository;
+
+import model.Rezervacija;
+import model.Strana;
+
+import java.util.List;
+
+/**
+ * Pravljenje {@link Strana} rezervacija od upita koji vraća jedan red više od strane.
+ *
+ * @author DjuroPopara6271
+ */
+final class Strane {
+
+    private Strane() {
+    }
+
+    /**
+     * Odseca višak i postavlja kursor na poslednji red strane.
+     *
+     * @param rezervacije najviše {@code limit + 1} redova; višak govori da postoji sledeća strana
+     * @param limit       broj redova na strani
+     * @return strana sa kursorom za sledeću
+     */
+    static Strana<Rezervacija> napravi(List<Rezervacija> rezervacije, int limit) {
+        boolean imaSledecu = rezervacije.size() > limit;
+        if (imaSledecu) {
+            rezervacije.remove(limit);
+        }
+        if (rezervacije.isEmpty()) {
+            return new Strana<>(rezervacije, null, 0, false);
+        }
+        Rezervacija poslednja = rezervacije.get(rezervacije.size() - 1);
+        return new Strana<>(rezervacije, poslednja.getDatumRezervacije(), poslednja.getId(), imaSledecu);
+    }
+}
@@ -0,0 +1,79 @@
+package repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Skup brava raspoređenih po ključu (lock striping).
+ * <p>
+ * Operacije nad istim ključem (npr. istom opremom) čekaju jedna drugu, dok
+ * se operacije nad različitim ključevima uglavnom izvršavaju paralelno,
+ * bez jedne globalne brave. Broj traka je stepen dvojke, nekoliko puta
+ * veći od broja jezgara, pa su sudari različitih ključeva retki.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class StripedLocks {
+
+    private final ReentrantLock[] trake;
+
+    /** Pravi skup sa četiri trake po jezgru. */
+    public StripedLocks() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param najmanjeTraka najmanji broj traka; zaokružuje se naviše na stepen dvojke
+     */
+    public StripedLocks(int najmanjeTraka) {
+        int broj = Integer.highestOneBit(Math.max(1, najmanjeTraka - 1)) << 1;
+        trake = new ReentrantLock[broj];
+        for (int i = 0; i < broj; i++) {
+            trake[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Vraća bravu za zadati ključ; isti ključ uvek dobija istu bravu.
+     *
+     * @param kljuc ključ
+     * @return brava trake kojoj ključ pripada
+     */
+    public ReentrantLock get(int kljuc) {
+        return trake[traka(kljuc)];
+    }
+
+    /**
+     * Vraća brave za više ključeva, bez ponavljanja i uvek redom traka. Niti
+     * koje ih zaključavaju tim redom ne mogu da čekaju jedna drugu u krug.
+     *
+     * @param kljucevi ključevi
+     * @return brave traka kojima ključevi pripadaju, redom traka
+     */
+    public List<ReentrantLock> get(Collection<Integer> kljucevi) {
+        TreeSet<Integer> indeksi = new TreeSet<>();
+        for (int kljuc : kljucevi) {
+            indeksi.add(traka(kljuc));
+        }
+        List<ReentrantLock> brave = new ArrayList<>(indeksi.size());
+        for (int i : indeksi) {
+            brave.add(trake[i]);
+        }
+        return brave;
+    }
+
+    private int traka(int kljuc) {
+        // Mešanje bitova da uzastopni ID-jevi ne bi zavisili samo od najnižih bitova
+        int h = kljuc * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (trake.length - 1);
+    }
+
+    /** @return broj traka */
+    public int getBrojTraka() {
+        return trake.length;
+    }
+}
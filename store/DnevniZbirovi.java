@@ -0,0 +1,221 @@
+package store;
+
+import model.Rezervacija;
+import model.Rezolucija;
+import model.TackaNiza;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Zbirovi rezervacija po danu rezervacije, ukupno i po opremi, za vremenske grafikone.
+ * <p>
+ * Za svaki dan se čuvaju broj rezervacija i zbir količina u nizovima indeksiranim
+ * brojem dana od 1970-01-01, pa je upis jedna izmena niza, a zbir za period
+ * prolazak kroz njegove dane; nedelje i meseci se sabiraju iz dana pri čitanju.
+ * Nizovi rastu u oba smera do najranijeg i najkasnijeg dana sa rezervacijom.
+ * </p>
+ * <p>
+ * Da bi brisanje moglo da se oduzme, za svaku rezervaciju se pamte dan,
+ * oprema i količina (12 bajtova po rezervaciji).
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class DnevniZbirovi {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Niz ukupno = new Niz();
+    private final Map<Integer, Niz> poOpremi = new HashMap<>();
+
+    /** ID rezervacije → red u nizovima ispod. */
+    private final IntIntMapa redPoId = new IntIntMapa();
+    private int[] id = new int[1024];
+    private int[] dan = new int[1024];
+    private int[] opremaId = new int[1024];
+    private int[] kolicina = new int[1024];
+    private int broj;
+
+    /**
+     * Dodaje rezervaciju u zbirove; postojeća sa istim ID-jem se prvo oduzima.
+     *
+     * @param r rezervacija sa ID-jem i datumom rezervacije (YYYY-MM-DD)
+     */
+    public void dodaj(Rezervacija r) {
+        int d = (int) LocalDate.parse(r.getDatumRezervacije()).toEpochDay();
+        lock.writeLock().lock();
+        try {
+            ukloniPodBravom(r.getId());
+            if (broj == id.length) {
+                int nova = broj * 2;
+                id = Arrays.copyOf(id, nova);
+                dan = Arrays.copyOf(dan, nova);
+                opremaId = Arrays.copyOf(opremaId, nova);
+                kolicina = Arrays.copyOf(kolicina, nova);
+            }
+            id[broj] = r.getId();
+            dan[broj] = d;
+            opremaId[broj] = r.getOpremaId();
+            kolicina[broj] = r.getKolicina();
+            redPoId.put(r.getId(), broj);
+            broj++;
+            promeni(d, r.getOpremaId(), 1, r.getKolicina());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Oduzima rezervaciju iz zbirova, ako je bila dodata.
+     *
+     * @param idRezervacije ID rezervacije
+     */
+    public void ukloni(int idRezervacije) {
+        lock.writeLock().lock();
+        try {
+            ukloniPodBravom(idRezervacije);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** @return broj rezervacija u zbirovima */
+    public int getBroj() {
+        lock.readLock().lock();
+        try {
+            return broj;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param opremaId ID opreme, ili {@code null} za svu opremu
+     * @return prvi i poslednji dan sa rezervacijom, ili {@code null} ako ih nema
+     */
+    public LocalDate[] getPeriod(Integer opremaId) {
+        lock.readLock().lock();
+        try {
+            Niz niz = opremaId == null ? ukupno : poOpremi.get(opremaId);
+            return niz == null ? null : niz.period();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Zbirovi po intervalima zadate rezolucije za period {@code [od, doDatuma)}.
+     * Intervali bez rezervacija su uključeni sa nulama, pa je niz bez rupa.
+     *
+     * @param opremaId   ID opreme, ili {@code null} za svu opremu
+     * @param od         prvi dan perioda; prvi interval počinje na početku njegovog intervala
+     * @param doDatuma   dan posle poslednjeg dana perioda
+     * @param rezolucija širina intervala
+     * @return po jedna tačka za svaki interval, hronološki
+     */
+    public List<TackaNiza> getNiz(Integer opremaId, LocalDate od, LocalDate doDatuma, Rezolucija rezolucija) {
+        List<TackaNiza> tacke = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Niz niz = opremaId == null ? ukupno : poOpremi.get(opremaId);
+            for (LocalDate p = rezolucija.pocetak(od); p.isBefore(doDatuma); ) {
+                LocalDate sledeci = rezolucija.sledeci(p);
+                int odDana = (int) p.toEpochDay();
+                int doDana = (int) sledeci.toEpochDay();
+                long b = 0;
+                long k = 0;
+                if (niz != null) {
+                    for (int d = Math.max(odDana, niz.prviDan); d < doDana && d - niz.prviDan < niz.broj.length; d++) {
+                        b += niz.broj[d - niz.prviDan];
+                        k += niz.kolicina[d - niz.prviDan];
+                    }
+                }
+                tacke.add(new TackaNiza(odDana, b, k));
+                p = sledeci;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return tacke;
+    }
+
+    /** Poziva se pod bravom za pisanje. */
+    private void ukloniPodBravom(int idRezervacije) {
+        int red = redPoId.get(idRezervacije);
+        if (red == IntIntMapa.NEMA) {
+            return;
+        }
+        promeni(dan[red], opremaId[red], -1, -kolicina[red]);
+        redPoId.remove(idRezervacije);
+        // Poslednji red prelazi na mesto uklonjenog, pa nizovi ostaju bez rupa
+        int poslednji = --broj;
+        if (red != poslednji) {
+            id[red] = id[poslednji];
+            dan[red] = dan[poslednji];
+            opremaId[red] = opremaId[poslednji];
+            kolicina[red] = kolicina[poslednji];
+            redPoId.put(id[red], red);
+        }
+    }
+
+    private void promeni(int d, int oprema, int brojRazlika, int kolicinaRazlika) {
+        ukupno.promeni(d, brojRazlika, kolicinaRazlika);
+        poOpremi.computeIfAbsent(oprema, o -> new Niz()).promeni(d, brojRazlika, kolicinaRazlika);
+    }
+
+    /** Zbirovi po danu za jednu dimenziju, od dana {@link #prviDan}. */
+    private static final class Niz {
+
+        private int prviDan;
+        private int[] broj = new int[0];
+        private long[] kolicina = new long[0];
+
+        void promeni(int d, int brojRazlika, int kolicinaRazlika) {
+            if (broj.length == 0) {
+                prviDan = d;
+                broj = new int[64];
+                kolicina = new long[64];
+            } else if (d < prviDan) {
+                // Širi se unazad bar za trenutnu dužinu, da pomeranje bude retko
+                int noviPrvi = Math.min(d, prviDan - broj.length);
+                pomeri(noviPrvi, broj.length + (prviDan - noviPrvi));
+            } else if (d - prviDan >= broj.length) {
+                pomeri(prviDan, Math.max(broj.length * 2, d - prviDan + 1));
+            }
+            broj[d - prviDan] += brojRazlika;
+            kolicina[d - prviDan] += kolicinaRazlika;
+        }
+
+        private void pomeri(int noviPrvi, int duzina) {
+            int[] noviBroj = new int[duzina];
+            long[] novaKolicina = new long[duzina];
+            System.arraycopy(broj, 0, noviBroj, prviDan - noviPrvi, broj.length);
+            System.arraycopy(kolicina, 0, novaKolicina, prviDan - noviPrvi, kolicina.length);
+            prviDan = noviPrvi;
+            broj = noviBroj;
+            kolicina = novaKolicina;
+        }
+
+        LocalDate[] period() {
+            int prvi = 0;
+            while (prvi < broj.length && broj[prvi] == 0) {
+                prvi++;
+            }
+            if (prvi == broj.length) {
+                return null;
+            }
+            int poslednji = broj.length - 1;
+            while (broj[poslednji] == 0) {
+                poslednji--;
+            }
+            return new LocalDate[]{LocalDate.ofEpochDay(prviDan + prvi), LocalDate.ofEpochDay(prviDan + poslednji)};
+        }
+    }
+}
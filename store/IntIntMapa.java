@@ -0,0 +1,112 @@
+package store;
+
+import java.util.Arrays;
+
+/**
+ * Mapa {@code int → int} sa otvorenim adresiranjem, bez objekata po unosu.
+ * Ključevi moraju biti pozitivni; {@code 0} označava prazno mesto.
+ * Nije bezbedna za istovremeni pristup.
+ *
+ * @author DjuroPopara6271
+ */
+final class IntIntMapa {
+
+    /** Vrednost koju {@link #get} vraća za nepostojeći ključ. */
+    static final int NEMA = -1;
+
+    private int[] kljucevi = new int[16];
+    private int[] vrednosti = new int[16];
+    private int broj;
+
+    int get(int kljuc) {
+        int maska = kljucevi.length - 1;
+        for (int i = mesto(kljuc, maska); ; i = (i + 1) & maska) {
+            int k = kljucevi[i];
+            if (k == kljuc) {
+                return vrednosti[i];
+            }
+            if (k == 0) {
+                return NEMA;
+            }
+        }
+    }
+
+    void put(int kljuc, int vrednost) {
+        if (kljuc <= 0) {
+            throw new IllegalArgumentException("Ključ mora biti pozitivan: " + kljuc);
+        }
+        if (2 * (broj + 1) > kljucevi.length) {
+            prosiri();
+        }
+        int maska = kljucevi.length - 1;
+        for (int i = mesto(kljuc, maska); ; i = (i + 1) & maska) {
+            if (kljucevi[i] == kljuc) {
+                vrednosti[i] = vrednost;
+                return;
+            }
+            if (kljucevi[i] == 0) {
+                kljucevi[i] = kljuc;
+                vrednosti[i] = vrednost;
+                broj++;
+                return;
+            }
+        }
+    }
+
+    /** Uklanja ključ i pomera naredne unose unazad, da lanci pretrage ostanu neprekinuti. */
+    int remove(int kljuc) {
+        int maska = kljucevi.length - 1;
+        int i = mesto(kljuc, maska);
+        while (kljucevi[i] != kljuc) {
+            if (kljucevi[i] == 0) {
+                return NEMA;
+            }
+            i = (i + 1) & maska;
+        }
+        int stara = vrednosti[i];
+        broj--;
+        int prazno = i;
+        for (int j = (i + 1) & maska; kljucevi[j] != 0; j = (j + 1) & maska) {
+            int zeljeno = mesto(kljucevi[j], maska);
+            // Unos j sme na prazno mesto samo ako mu ono nije pre željenog mesta u lancu
+            if (((j - zeljeno) & maska) >= ((j - prazno) & maska)) {
+                kljucevi[prazno] = kljucevi[j];
+                vrednosti[prazno] = vrednosti[j];
+                prazno = j;
+            }
+        }
+        kljucevi[prazno] = 0;
+        return stara;
+    }
+
+    int size() {
+        return broj;
+    }
+
+    void clear() {
+        Arrays.fill(kljucevi, 0);
+        broj = 0;
+    }
+
+    long procenaMemorijeBajtova() {
+        return 8L * kljucevi.length;
+    }
+
+    private void prosiri() {
+        int[] stariKljucevi = kljucevi;
+        int[] stareVrednosti = vrednosti;
+        kljucevi = new int[stariKljucevi.length * 2];
+        vrednosti = new int[stariKljucevi.length * 2];
+        broj = 0;
+        for (int i = 0; i < stariKljucevi.length; i++) {
+            if (stariKljucevi[i] != 0) {
+                put(stariKljucevi[i], stareVrednosti[i]);
+            }
+        }
+    }
+
+    private static int mesto(int kljuc, int maska) {
+        int h = kljuc * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & maska;
+    }
+}
@@ -0,0 +1,89 @@
+package store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Smanjivanje broja tačaka niza za grafikon algoritmom
+ * Largest-Triangle-Three-Buckets (Steinarsson, 2013).
+ * <p>
+ * Prva i poslednja tačka se zadržavaju, a ostale se dele u jednake grupe; iz
+ * svake grupe bira se tačka koja sa prethodno izabranom i prosekom sledeće
+ * grupe čini najveći trougao. Tako ostaju vrhovi i padovi koje bi prosek
+ * grupe izgladio, a posao je linearan po broju tačaka.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Bira najviše {@code maxTacaka} tačaka iz niza.
+     *
+     * @param tacke     tačke sortirane po x
+     * @param x         x koordinata tačke
+     * @param y         y koordinata tačke
+     * @param maxTacaka najveći broj tačaka u rezultatu; ispod 3 se niz vraća ceo
+     * @param <T>       tip tačke
+     * @return izabrane tačke, istim redosledom; ceo niz ako ima najviše {@code maxTacaka} tačaka
+     */
+    public static <T> List<T> smanji(List<T> tacke, ToDoubleFunction<T> x, ToDoubleFunction<T> y, int maxTacaka) {
+        int n = tacke.size();
+        if (n <= maxTacaka || maxTacaka < 3) {
+            return new ArrayList<>(tacke);
+        }
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = x.applyAsDouble(tacke.get(i));
+            ys[i] = y.applyAsDouble(tacke.get(i));
+        }
+
+        List<T> izabrane = new ArrayList<>(maxTacaka);
+        izabrane.add(tacke.get(0));
+        // Grupe za sve tačke osim prve i poslednje
+        double sirina = (double) (n - 2) / (maxTacaka - 2);
+        int prethodna = 0;
+        for (int g = 0; g < maxTacaka - 2; g++) {
+            int od = (int) (g * sirina) + 1;
+            int doIsk = (int) ((g + 1) * sirina) + 1;
+
+            // Prosek sledeće grupe; za poslednju grupu to je poslednja tačka
+            int sledOd = doIsk;
+            int sledDo = Math.min((int) ((g + 2) * sirina) + 1, n);
+            if (sledOd >= sledDo) {
+                sledOd = n - 1;
+                sledDo = n;
+            }
+            double prosekX = 0;
+            double prosekY = 0;
+            for (int i = sledOd; i < sledDo; i++) {
+                prosekX += xs[i];
+                prosekY += ys[i];
+            }
+            prosekX /= sledDo - sledOd;
+            prosekY /= sledDo - sledOd;
+
+            double ax = xs[prethodna];
+            double ay = ys[prethodna];
+            double najvecaPovrsina = -1;
+            int izabrana = od;
+            for (int i = od; i < doIsk; i++) {
+                // Dvostruka površina trougla; konstanta ne menja izbor
+                double povrsina = Math.abs((ax - prosekX) * (ys[i] - ay) - (ax - xs[i]) * (prosekY - ay));
+                if (povrsina > najvecaPovrsina) {
+                    najvecaPovrsina = povrsina;
+                    izabrana = i;
+                }
+            }
+            izabrane.add(tacke.get(izabrana));
+            prethodna = izabrana;
+        }
+        izabrane.add(tacke.get(n - 1));
+        return izabrane;
+    }
+}
@@ -0,0 +1,625 @@
+package store;
+
+import index.RoaringBitmap;
+import model.Rezervacija;
+import model.RezervacijaFilter;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Kolonsko skladište rezervacija u memoriji.
+ * <p>
+ * Svaki atribut čuva se u sopstvenom nizu primitivnih vrednosti: ID-jevi kao
+ * {@code int}, datumi kao broj dana od 1970-01-01 ({@code int}), količina kao
+ * {@code short} i status kao kod od jednog bajta. Imena korisnika i nazivi
+ * opreme čuvaju se jednom po korisniku, odnosno opremi, a ne po rezervaciji.
+ * Jedan red zauzima oko 50 bajtova zajedno sa indeksima, pa milion rezervacija staje u pedesetak MB,
+ * a pretraga po periodu poredi cele brojeve bez parsiranja datuma.
+ * </p>
+ * <p>
+ * Za status, opremu i korisnika održavaju se bitmap indeksi ({@link RoaringBitmap})
+ * nad ID-jevima rezervacija, pa se kombinovani filteri i prebrojavanja
+ * ({@link #filtriraj}) računaju presekom skupova, bez čitanja redova.
+ * </p>
+ * <p>
+ * Redovi se čitaju preko {@link Pogled}-a, jednog objekta {@link Rezervacija}
+ * koji se pomera sa reda na red (flyweight). Pogled važi samo unutar poziva
+ * potrošača; ko želi da ga zadrži, treba da pozove {@link Pogled#kopija()}.
+ * Potrošač se poziva pod bravom za čitanje i ne sme da menja skladište.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+public class RezervacijaKolone {
+
+    /** Statusi sa unapred dodeljenim kodovima; ostali dobijaju kod pri prvom pojavljivanju. */
+    private static final String[] POZNATI_STATUSI = {"aktivna", "otkazana", "završena"};
+
+    /** Prazan skup za ključeve bez rezervacija; nikada se ne menja. */
+    private static final RoaringBitmap PRAZAN = new RoaringBitmap();
+
+    /** Kod za rezervaciju bez statusa. */
+    private static final byte BEZ_STATUSA = -1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int[] id = new int[1024];
+    private int[] korisnikId = new int[1024];
+    private int[] opremaId = new int[1024];
+    private int[] datumOd = new int[1024];
+    private int[] datumDo = new int[1024];
+    private short[] kolicina = new short[1024];
+    private byte[] status = new byte[1024];
+    private int broj;
+
+    /** ID rezervacije → red u kolonama. */
+    private final IntIntMapa redPoId = new IntIntMapa();
+
+    /** Kod statusa → naziv. */
+    private final List<String> statusi = new ArrayList<>(Arrays.asList(POZNATI_STATUSI));
+
+    /** Bitmap indeksi nad ID-jevima rezervacija: sve, po kodu statusa, po opremi i po korisniku. */
+    private final RoaringBitmap sve = new RoaringBitmap();
+    private final RoaringBitmap[] poStatusu = new RoaringBitmap[Byte.MAX_VALUE + 1];
+    private final RoaringBitmap bezStatusa = new RoaringBitmap();
+    private final Map<Integer, RoaringBitmap> poOpremi = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> poKorisniku = new HashMap<>();
+
+    private final Map<Integer, String> imenaKorisnika = new HashMap<>();
+    private final Map<Integer, String> naziviOpreme = new HashMap<>();
+
+    /**
+     * Dodaje rezervaciju ili zamenjuje postojeću sa istim ID-jem.
+     *
+     * @param r rezervacija sa ID-jem koji je dodelila baza
+     * @throws IllegalArgumentException ako ID nije pozitivan, količina ne staje u {@code short},
+     *                                  ili datum nije u formatu YYYY-MM-DD
+     */
+    public void dodaj(Rezervacija r) {
+        if (r.getId() <= 0) {
+            throw new IllegalArgumentException("Rezervacija nema ID.");
+        }
+        if (r.getKolicina() < 0 || r.getKolicina() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Količina van opsega: " + r.getKolicina());
+        }
+        int od = dan(r.getDatumRezervacije());
+        int doDatuma = dan(r.getDatumVracanja());
+
+        lock.writeLock().lock();
+        try {
+            byte kod = kodStatusa(r.getStatus());
+            int red = redPoId.get(r.getId());
+            if (red == IntIntMapa.NEMA) {
+                if (broj == id.length) {
+                    prosiri();
+                }
+                red = broj++;
+                redPoId.put(r.getId(), red);
+            } else {
+                ukloniIzIndeksa(red);
+            }
+            id[red] = r.getId();
+            korisnikId[red] = r.getKorisnikId();
+            opremaId[red] = r.getOpremaId();
+            datumOd[red] = od;
+            datumDo[red] = doDatuma;
+            kolicina[red] = (short) r.getKolicina();
+            status[red] = kod;
+            dodajUIndekse(red);
+            if (r.getKorisnikIme() != null) {
+                imenaKorisnika.put(r.getKorisnikId(), r.getKorisnikIme());
+            }
+            if (r.getOpremaNaziv() != null) {
+                naziviOpreme.put(r.getOpremaId(), r.getOpremaNaziv());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Menja datum vraćanja rezervacije.
+     *
+     * @param idRezervacije ID rezervacije
+     * @param datumVracanja novi datum vraćanja (YYYY-MM-DD)
+     * @return {@code true} ako rezervacija postoji
+     */
+    public boolean azurirajDatumVracanja(int idRezervacije, String datumVracanja) {
+        int doDatuma = dan(datumVracanja);
+        lock.writeLock().lock();
+        try {
+            int red = redPoId.get(idRezervacije);
+            if (red == IntIntMapa.NEMA) {
+                return false;
+            }
+            datumDo[red] = doDatuma;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Uklanja rezervaciju. Poslednji red se premešta na njeno mesto,
+     * pa redosled redova nije stalan.
+     *
+     * @param idRezervacije ID rezervacije
+     * @return {@code true} ako je rezervacija postojala
+     */
+    public boolean ukloni(int idRezervacije) {
+        lock.writeLock().lock();
+        try {
+            int red = redPoId.remove(idRezervacije);
+            if (red == IntIntMapa.NEMA) {
+                return false;
+            }
+            ukloniIzIndeksa(red);
+            int poslednji = --broj;
+            if (red != poslednji) {
+                id[red] = id[poslednji];
+                korisnikId[red] = korisnikId[poslednji];
+                opremaId[red] = opremaId[poslednji];
+                datumOd[red] = datumOd[poslednji];
+                datumDo[red] = datumDo[poslednji];
+                kolicina[red] = kolicina[poslednji];
+                status[red] = status[poslednji];
+                redPoId.put(id[red], red);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Uklanja sve rezervacije. */
+    public void ocisti() {
+        lock.writeLock().lock();
+        try {
+            broj = 0;
+            redPoId.clear();
+            ocistiIndekse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća kopiju rezervacije sa datim ID-jem.
+     *
+     * @param idRezervacije ID rezervacije
+     * @return nova {@link Rezervacija} ili {@code null} ako ne postoji
+     */
+    public Rezervacija get(int idRezervacije) {
+        lock.readLock().lock();
+        try {
+            int red = redPoId.get(idRezervacije);
+            return red == IntIntMapa.NEMA ? null : new Pogled(red).kopija();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return broj rezervacija */
+    public int getBroj() {
+        lock.readLock().lock();
+        try {
+            return broj;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Predaje potrošaču svaku rezervaciju, preko jednog pogleda koji se pomera.
+     *
+     * @param potrosac prima pogled na tekući red
+     */
+    public void forEach(Consumer<? super Rezervacija> potrosac) {
+        lock.readLock().lock();
+        try {
+            Pogled pogled = new Pogled(0);
+            for (int red = 0; red < broj; red++) {
+                pogled.red = red;
+                potrosac.accept(pogled);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Predaje potrošaču rezervacije čiji se period {@code [datumRezervacije, datumVracanja)}
+     * preklapa sa {@code [od, doDatuma)}. Poređenje je nad celim brojevima, bez parsiranja.
+     *
+     * @param od       prvi dan perioda
+     * @param doDatuma dan posle poslednjeg dana perioda
+     * @param potrosac prima pogled na svaki pronađeni red
+     * @return broj pronađenih rezervacija
+     */
+    public int skenirajPeriod(LocalDate od, LocalDate doDatuma, Consumer<? super Rezervacija> potrosac) {
+        int prvi = (int) od.toEpochDay();
+        int posle = (int) doDatuma.toEpochDay();
+        lock.readLock().lock();
+        try {
+            Pogled pogled = new Pogled(0);
+            int pronadjeno = 0;
+            int[] pocetak = datumOd;
+            int[] kraj = datumDo;
+            for (int red = 0; red < broj; red++) {
+                if (pocetak[red] < posle && kraj[red] > prvi) {
+                    pogled.red = red;
+                    potrosac.accept(pogled);
+                    pronadjeno++;
+                }
+            }
+            return pronadjeno;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća ID-jeve rezervacija koje zadovoljavaju filter.
+     * <p>
+     * Status, oprema i korisnik se rešavaju presekom bitmap indeksa. Uslovi po
+     * datumu rezervacije ({@code datumOd} i {@code datumDo}, oba uključena) proveravaju
+     * se samo za preostale redove, poređenjem celih brojeva.
+     * </p>
+     *
+     * @param filter kriterijumi, može biti {@code null}
+     * @return novi skup ID-jeva; {@link RoaringBitmap#getKardinalnost()} je broj pogodaka
+     */
+    public RoaringBitmap filtriraj(RezervacijaFilter filter) {
+        int odDana = filter != null && filter.getDatumOd() != null ? dan(filter.getDatumOd()) : Integer.MIN_VALUE;
+        int doDana = filter != null && filter.getDatumDo() != null ? dan(filter.getDatumDo()) : Integer.MAX_VALUE;
+        lock.readLock().lock();
+        try {
+            RoaringBitmap rezultat = sve;
+            if (filter != null) {
+                if (filter.getStatus() != null) {
+                    rezultat = RoaringBitmap.and(rezultat, indeksStatusa(filter.getStatus()));
+                }
+                if (filter.getOpremaId() != null) {
+                    rezultat = RoaringBitmap.and(rezultat, poOpremi.getOrDefault(filter.getOpremaId(), PRAZAN));
+                }
+                if (filter.getKorisnikId() != null) {
+                    rezultat = RoaringBitmap.and(rezultat, poKorisniku.getOrDefault(filter.getKorisnikId(), PRAZAN));
+                }
+            }
+            if (rezultat == sve) {
+                rezultat = sve.kopija();
+            }
+            if (odDana != Integer.MIN_VALUE || doDana != Integer.MAX_VALUE) {
+                RoaringBitmap uPeriodu = new RoaringBitmap();
+                rezultat.forEach(idRezervacije -> {
+                    int dan = datumOd[redPoId.get(idRezervacije)];
+                    if (dan >= odDana && dan <= doDana) {
+                        uPeriodu.dodaj(idRezervacije);
+                    }
+                });
+                rezultat = uPeriodu;
+            }
+            return rezultat;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Vraća broj rezervacija koje zadovoljavaju filter, bez čitanja redova kada filter nema datume.
+     *
+     * @param filter kriterijumi, može biti {@code null}
+     * @return broj rezervacija
+     */
+    public int prebroj(RezervacijaFilter filter) {
+        return filtriraj(filter).getKardinalnost();
+    }
+
+    /** @return kopija skupa ID-jeva svih rezervacija, npr. za negaciju preko {@link RoaringBitmap#andNot} */
+    public RoaringBitmap getSve() {
+        lock.readLock().lock();
+        try {
+            return sve.kopija();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param naziv status rezervacije
+     * @return kopija skupa ID-jeva rezervacija sa tim statusom
+     */
+    public RoaringBitmap getPoStatusu(String naziv) {
+        lock.readLock().lock();
+        try {
+            return indeksStatusa(naziv).kopija();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param idOpreme ID opreme
+     * @return kopija skupa ID-jeva rezervacija te opreme
+     */
+    public RoaringBitmap getPoOpremi(int idOpreme) {
+        lock.readLock().lock();
+        try {
+            return poOpremi.getOrDefault(idOpreme, PRAZAN).kopija();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param idKorisnika ID korisnika
+     * @return kopija skupa ID-jeva rezervacija tog korisnika
+     */
+    public RoaringBitmap getPoKorisniku(int idKorisnika) {
+        lock.readLock().lock();
+        try {
+            return poKorisniku.getOrDefault(idKorisnika, PRAZAN).kopija();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Predaje potrošaču rezervacije iz skupa ID-jeva, preko jednog pogleda koji se pomera.
+     * ID-jevi koji više nisu u skladištu se preskaču.
+     *
+     * @param idRezervacija skup ID-jeva, npr. rezultat {@link #filtriraj}
+     * @param potrosac      prima pogled na svaki pronađeni red
+     * @return broj predatih rezervacija
+     */
+    public int forEach(RoaringBitmap idRezervacija, Consumer<? super Rezervacija> potrosac) {
+        lock.readLock().lock();
+        try {
+            Pogled pogled = new Pogled(0);
+            int[] predato = {0};
+            idRezervacija.forEach(idRezervacije -> {
+                int red = redPoId.get(idRezervacije);
+                if (red != IntIntMapa.NEMA) {
+                    pogled.red = red;
+                    potrosac.accept(pogled);
+                    predato[0]++;
+                }
+            });
+            return predato[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return približno zauzeće memorije u bajtovima, sa indeksima, bez zajedničkih imena i naziva */
+    public long procenaMemorijeBajtova() {
+        lock.readLock().lock();
+        try {
+            long ukupno = (long) id.length * (5 * Integer.BYTES + Short.BYTES + Byte.BYTES) + redPoId.procenaMemorijeBajtova();
+            ukupno += sve.procenaMemorijeBajtova() + bezStatusa.procenaMemorijeBajtova();
+            for (RoaringBitmap b : poStatusu) {
+                ukupno += b != null ? b.procenaMemorijeBajtova() : 0;
+            }
+            for (RoaringBitmap b : poOpremi.values()) {
+                ukupno += b.procenaMemorijeBajtova();
+            }
+            for (RoaringBitmap b : poKorisniku.values()) {
+                ukupno += b.procenaMemorijeBajtova();
+            }
+            return ukupno;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap indeksStatusa(String naziv) {
+        int kod = statusi.indexOf(naziv);
+        return kod < 0 ? PRAZAN : poStatusu[kod] != null ? poStatusu[kod] : PRAZAN;
+    }
+
+    private void dodajUIndekse(int red) {
+        int idRezervacije = id[red];
+        sve.dodaj(idRezervacije);
+        indeksZaKod(status[red]).dodaj(idRezervacije);
+        poOpremi.computeIfAbsent(opremaId[red], k -> new RoaringBitmap()).dodaj(idRezervacije);
+        poKorisniku.computeIfAbsent(korisnikId[red], k -> new RoaringBitmap()).dodaj(idRezervacije);
+    }
+
+    private void ukloniIzIndeksa(int red) {
+        int idRezervacije = id[red];
+        sve.ukloni(idRezervacije);
+        indeksZaKod(status[red]).ukloni(idRezervacije);
+        ukloniIzMape(poOpremi, opremaId[red], idRezervacije);
+        ukloniIzMape(poKorisniku, korisnikId[red], idRezervacije);
+    }
+
+    private RoaringBitmap indeksZaKod(byte kod) {
+        if (kod == BEZ_STATUSA) {
+            return bezStatusa;
+        }
+        if (poStatusu[kod] == null) {
+            poStatusu[kod] = new RoaringBitmap();
+        }
+        return poStatusu[kod];
+    }
+
+    private static void ukloniIzMape(Map<Integer, RoaringBitmap> indeks, int kljuc, int idRezervacije) {
+        RoaringBitmap b = indeks.get(kljuc);
+        if (b != null && b.ukloni(idRezervacije) && b.isPrazan()) {
+            indeks.remove(kljuc);
+        }
+    }
+
+    private void ocistiIndekse() {
+        sve.ocisti();
+        bezStatusa.ocisti();
+        Arrays.fill(poStatusu, null);
+        poOpremi.clear();
+        poKorisniku.clear();
+    }
+
+    private byte kodStatusa(String naziv) {
+        if (naziv == null) {
+            return BEZ_STATUSA;
+        }
+        int kod = statusi.indexOf(naziv);
+        if (kod < 0) {
+            if (statusi.size() > Byte.MAX_VALUE) {
+                throw new IllegalArgumentException("Previše različitih statusa.");
+            }
+            statusi.add(naziv);
+            kod = statusi.size() - 1;
+        }
+        return (byte) kod;
+    }
+
+    private void prosiri() {
+        int kapacitet = id.length * 2;
+        id = Arrays.copyOf(id, kapacitet);
+        korisnikId = Arrays.copyOf(korisnikId, kapacitet);
+        opremaId = Arrays.copyOf(opremaId, kapacitet);
+        datumOd = Arrays.copyOf(datumOd, kapacitet);
+        datumDo = Arrays.copyOf(datumDo, kapacitet);
+        kolicina = Arrays.copyOf(kolicina, kapacitet);
+        status = Arrays.copyOf(status, kapacitet);
+    }
+
+    private static int dan(String datum) {
+        return (int) LocalDate.parse(datum).toEpochDay();
+    }
+
+    /**
+     * Pogled na jedan red skladišta kao {@link Rezervacija}.
+     * Vrednosti se čitaju iz kolona pri svakom pozivu getera; izmene nisu dozvoljene.
+     */
+    public final class Pogled extends Rezervacija {
+
+        private static final String SAMO_CITANJE = "Pogled na skladište ne može da se menja.";
+
+        private int red;
+
+        private Pogled(int red) {
+            super(0, 0, null, null, 0, null);
+            this.red = red;
+        }
+
+        /** @return broj dana od 1970-01-01 za datum rezervacije */
+        public int getDanRezervacije() {
+            return datumOd[red];
+        }
+
+        /** @return broj dana od 1970-01-01 za datum vraćanja */
+        public int getDanVracanja() {
+            return datumDo[red];
+        }
+
+        /**
+         * Pravi samostalnu kopiju tekućeg reda, koja ostaje ispravna i posle pomeranja pogleda.
+         *
+         * @return nova rezervacija sa vrednostima tekućeg reda
+         */
+        public Rezervacija kopija() {
+            return new Rezervacija(getId(), getKorisnikId(), getOpremaId(), getKorisnikIme(), getOpremaNaziv(),
+                    getDatumRezervacije(), getDatumVracanja(), getKolicina(), getStatus());
+        }
+
+        @Override
+        public int getId() {
+            return id[red];
+        }
+
+        @Override
+        public int getKorisnikId() {
+            return korisnikId[red];
+        }
+
+        @Override
+        public int getOpremaId() {
+            return opremaId[red];
+        }
+
+        @Override
+        public String getKorisnikIme() {
+            return imenaKorisnika.get(korisnikId[red]);
+        }
+
+        @Override
+        public String getOpremaNaziv() {
+            return naziviOpreme.get(opremaId[red]);
+        }
+
+        @Override
+        public String getDatumRezervacije() {
+            return LocalDate.ofEpochDay(datumOd[red]).toString();
+        }
+
+        @Override
+        public String getDatumVracanja() {
+            return LocalDate.ofEpochDay(datumDo[red]).toString();
+        }
+
+        @Override
+        public int getKolicina() {
+            return kolicina[red];
+        }
+
+        @Override
+        public String getStatus() {
+            byte kod = status[red];
+            return kod == BEZ_STATUSA ? null : statusi.get(kod);
+        }
+
+        @Override
+        public void setId(int id) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setKorisnikId(int korisnikId) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setOpremaId(int opremaId) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setKorisnikIme(String korisnikIme) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setOpremaNaziv(String opremaNaziv) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setDatumRezervacije(String datumRezervacije) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setDatumVracanja(String datumVracanja) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setKolicina(int kolicina) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+
+        @Override
+        public void setStatus(String status) {
+            throw new UnsupportedOperationException(SAMO_CITANJE);
+        }
+    }
+}
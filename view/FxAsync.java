@@ -0,0 +1,79 @@
+package view;
+
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableView;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Pomoćne metode za prikaz rezultata asinhronih poziva kontrolera na JavaFX niti.
+ *
+ * @author DjuroPopara6271
+ */
+final class FxAsync {
+
+    private FxAsync() {
+    }
+
+    /**
+     * Kada se future završi, predaje rezultat ili grešku JavaFX niti.
+     * Otkazan future se ignoriše, pa pogled koji je u međuvremenu napušten
+     * ili pokrenuo novo učitavanje ne dobija zastareli rezultat.
+     *
+     * @param future  asinhroni poziv kontrolera
+     * @param uspeh   prima rezultat na JavaFX niti
+     * @param greska  prima uzrok greške na JavaFX niti
+     * @param <T>     tip rezultata
+     */
+    static <T> void naFxNiti(CompletableFuture<T> future, Consumer<T> uspeh, Consumer<Throwable> greska) {
+        future.whenComplete((rezultat, izuzetak) -> Platform.runLater(() -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            if (izuzetak == null) {
+                uspeh.accept(rezultat);
+            } else if (izuzetak instanceof CompletionException && izuzetak.getCause() != null) {
+                greska.accept(izuzetak.getCause());
+            } else {
+                greska.accept(izuzetak);
+            }
+        }));
+    }
+
+    /**
+     * Otkazuje prethodno pokrenut poziv, ako još traje.
+     *
+     * @param future poziv koji se otkazuje, može biti {@code null}
+     */
+    static void otkazi(CompletableFuture<?> future) {
+        if (future != null && !future.isDone()) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Prikazuje indikator učitavanja u praznoj tabeli. {@link LenjaLista} se ne
+     * prazni, pa tabela do novih redova prikazuje stare.
+     *
+     * @param tabela tabela koja se puni
+     */
+    static void prikaziUcitavanje(TableView<?> tabela) {
+        if (!(tabela.getItems() instanceof LenjaLista)) {
+            tabela.getItems().clear();
+        }
+        tabela.setPlaceholder(new ProgressIndicator());
+    }
+
+    /**
+     * Vraća uobičajenu poruku za praznu tabelu posle učitavanja.
+     *
+     * @param tabela tabela koja je napunjena
+     */
+    static void zavrsiUcitavanje(TableView<?> tabela) {
+        tabela.setPlaceholder(new Label("Nema podataka."));
+    }
+}
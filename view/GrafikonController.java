@@ -1,24 +1,42 @@
 package view;
 
 import controller.RezervacijaController;
+import controller.VremenskiZbirovi;
 import javafx.fxml.FXML;
 import javafx.scene.chart.BarChart;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Button;
-import model.Rezervacija;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.util.StringConverter;
+import model.Agregat;
+import model.Grupisanje;
+import model.TackaNiza;
+import model.VremenskiNiz;
 
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Kontroler za prikaz BarChart‑a koji pokazuje broj rezervacija po korisniku.
- * Učitava sve rezervacije iz baze, grupiše ih po imenu korisnika
- * i iscrtava kolone na barChart.
+ * Broj rezervacija po korisniku izračunava baza (ili ga čita iz materijalizovanih
+ * brojača), a kontroler samo iscrtava po jednu kolonu za svakog korisnika.
+ * <p>
+ * Ispod njega je LineChart broja rezervacija i količine kroz vreme, iz zbirova
+ * {@link VremenskiZbirovi}. Točkić miša približava ili udaljava period oko kursora,
+ * a dvoklik vraća celu istoriju; svaki period se ponovo traži u rezoluciji
+ * koja mu odgovara, sa najviše {@link #MAX_TACAKA} tačaka po seriji.
+ * </p>
  *
  * @author DjuroPopara6271
  */
-public class GrafikonController {
+public class GrafikonController implements RefreshableView {
 
     /** BarChart iz FXML‑a u kojem crtamo podatke. */
     @FXML
@@ -28,37 +46,195 @@ public class GrafikonController {
     @FXML
     private Button btnNazad;
 
+    /** Najveći broj tačaka po seriji vremenskog grafikona. */
+    private static final int MAX_TACAKA = 400;
+
+    /** Najkraći period, u danima, na koji se grafikon može približiti. */
+    private static final int MIN_DANA = 14;
+
+    /** Grafikon kroz vreme; x osa je broj dana od 1970-01-01. */
+    private LineChart<Number, Number> lineChart;
+
     /** Kontroler za rad sa rezervacijama. */
     private final RezervacijaController rezervacijaController = new RezervacijaController();
 
+    /** Učitavanje koje je u toku; otkazuje se pri napuštanju ekrana. */
+    private CompletableFuture<List<Agregat>> ucitavanje;
+
+    /** Naslov grafikona iz FXML-a, dok se umesto njega prikazuje stanje učitavanja. */
+    private String naslov;
+
+    /** Učitavanje vremenskog niza koje je u toku. */
+    private CompletableFuture<VremenskiNiz> ucitavanjeNiza;
+
+    /** Prikazani period [od, do); {@code null} za celu istoriju. */
+    private LocalDate prikazanoOd;
+    private LocalDate prikazanoDo;
+
     /**
      * Inicijalizacija se pokreće nakon što FXML bude učitan:
-     * dohvatamo sve rezervacije, brojimo po korisniku i iscrtavamo seriju.
+     * u pozadini dohvatamo broj rezervacija po korisniku i zatim iscrtavamo seriju.
+     * Vremenski grafikon se dodaje odmah ispod BarChart‑a.
      */
     @FXML
     public void initialize() {
-        List<Rezervacija> rezervacije = rezervacijaController.getSveRezervacije();
-        Map<String, Integer> brojPoKorisniku = new HashMap<>();
+        naslov = barChart.getTitle();
+        napraviLineChart();
+        ucitaj();
+        ucitajNiz();
+    }
+
+    /**
+     * Ponovo računa grafikon pri povratku na ekran.
+     */
+    @Override
+    public void osvezi() {
+        ucitaj();
+        ucitajNiz();
+    }
+
+    private void ucitaj() {
+        FxAsync.otkazi(ucitavanje);
+        barChart.setTitle("Učitavanje...");
+        ucitavanje = rezervacijaController.getBrojRezervacijaAsync(Grupisanje.KORISNIK);
+        FxAsync.naFxNiti(ucitavanje, poKorisniku -> {
+            barChart.setTitle(naslov);
+            iscrtaj(poKorisniku);
+        }, greska -> barChart.setTitle("Greška pri učitavanju: " + greska.getMessage()));
+    }
+
+    /**
+     * Iscrtava po jednu kolonu za svakog korisnika.
+     *
+     * @param poKorisniku broj rezervacija po korisniku
+     */
+    private void iscrtaj(List<Agregat> poKorisniku) {
 
-        // Grupisanje po korisničkom imenu
-        for (Rezervacija r : rezervacije) {
-            brojPoKorisniku.merge(r.getKorisnikIme(), 1, Integer::sum);
+        // Korisnici se grupišu po ID-u; isto ime se razlikuje dodavanjem ID-a
+        Map<String, Integer> brojIstihImena = new HashMap<>();
+        for (Agregat a : poKorisniku) {
+            brojIstihImena.merge(a.getOznaka(), 1, Integer::sum);
         }
 
         // Priprema serije podataka
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Rezervacije po korisniku");
-        brojPoKorisniku.forEach((ime, count) ->
-                series.getData().add(new XYChart.Data<>(ime, count))
-        );
+        for (Agregat a : poKorisniku) {
+            String oznaka = brojIstihImena.get(a.getOznaka()) > 1
+                    ? a.getOznaka() + " #" + a.getKljuc()
+                    : a.getOznaka();
+            series.getData().add(new XYChart.Data<>(oznaka, a.getBrojRezervacija()));
+        }
+
+        // Serija zamenjuje prethodnu, ako je grafikon već bio iscrtan
+        barChart.getData().setAll(List.of(series));
+    }
 
-        // Dodavanje serije u chart
-        barChart.getData().add(series);
+    private void napraviLineChart() {
+        NumberAxis xOsa = new NumberAxis();
+        xOsa.setAutoRanging(false);
+        xOsa.setTickLabelFormatter(new StringConverter<>() {
+            @Override
+            public String toString(Number dan) {
+                return LocalDate.ofEpochDay(dan.longValue()).toString();
+            }
+
+            @Override
+            public Number fromString(String datum) {
+                return LocalDate.parse(datum).toEpochDay();
+            }
+        });
+        lineChart = new LineChart<>(xOsa, new NumberAxis());
+        lineChart.setCreateSymbols(false);
+        lineChart.setAnimated(false);
+        lineChart.setOnScroll(this::zumiraj);
+        lineChart.setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                prikazanoOd = null;
+                prikazanoDo = null;
+                ucitajNiz();
+            }
+        });
+
+        if (barChart.getParent() instanceof Pane roditelj) {
+            roditelj.getChildren().add(roditelj.getChildren().indexOf(barChart) + 1, lineChart);
+        }
+    }
+
+    private void ucitajNiz() {
+        FxAsync.otkazi(ucitavanjeNiza);
+        lineChart.setTitle("Učitavanje...");
+        LocalDate od = prikazanoOd;
+        LocalDate doDatuma = prikazanoDo;
+        ucitavanjeNiza = VremenskiZbirovi.getInstanceAsync().thenApply(z -> od == null
+                ? z.getNiz(null, MAX_TACAKA)
+                : z.getNiz(null, od, doDatuma, MAX_TACAKA));
+        FxAsync.naFxNiti(ucitavanjeNiza, this::iscrtajNiz,
+                greska -> lineChart.setTitle("Greška pri učitavanju: " + greska.getMessage()));
+    }
+
+    /**
+     * Iscrtava broj rezervacija i količinu za učitani period.
+     *
+     * @param niz tačke u rezoluciji izabranoj za period
+     */
+    private void iscrtajNiz(VremenskiNiz niz) {
+        prikazanoOd = niz.getOd();
+        prikazanoDo = niz.getDoDatuma();
+        String rezolucija = niz.getRezolucija().name().toLowerCase();
+        lineChart.setTitle("Rezervacije kroz vreme (" + rezolucija + ")");
+
+        NumberAxis xOsa = (NumberAxis) lineChart.getXAxis();
+        long od = prikazanoOd.toEpochDay();
+        long doDana = prikazanoDo.toEpochDay();
+        xOsa.setLowerBound(od);
+        xOsa.setUpperBound(doDana);
+        xOsa.setTickUnit(Math.max(1, (doDana - od) / 8));
+
+        XYChart.Series<Number, Number> broj = new XYChart.Series<>();
+        broj.setName("Broj rezervacija");
+        for (TackaNiza t : niz.getPoBroju()) {
+            broj.getData().add(new XYChart.Data<>(t.getDan(), t.getBrojRezervacija()));
+        }
+        XYChart.Series<Number, Number> kolicina = new XYChart.Series<>();
+        kolicina.setName("Količina");
+        for (TackaNiza t : niz.getPoKolicini()) {
+            kolicina.getData().add(new XYChart.Data<>(t.getDan(), t.getUkupnaKolicina()));
+        }
+        lineChart.getData().setAll(List.of(broj, kolicina));
+    }
+
+    /**
+     * Točkić nagore približava period oko dana pod kursorom, nadole ga udaljava.
+     */
+    private void zumiraj(ScrollEvent e) {
+        if (prikazanoOd == null || e.getDeltaY() == 0) {
+            return;
+        }
+        NumberAxis xOsa = (NumberAxis) lineChart.getXAxis();
+        double x = xOsa.sceneToLocal(e.getSceneX(), e.getSceneY()).getX();
+        double centar = xOsa.getValueForDisplay(x).doubleValue();
+        double faktor = e.getDeltaY() > 0 ? 0.5 : 2;
+
+        long od = prikazanoOd.toEpochDay();
+        long doDana = prikazanoDo.toEpochDay();
+        centar = Math.max(od, Math.min(doDana, centar));
+        long noviOd = Math.round(centar - (centar - od) * faktor);
+        long noviDo = Math.round(centar + (doDana - centar) * faktor);
+        if (noviDo - noviOd < MIN_DANA) {
+            return;
+        }
+        prikazanoOd = LocalDate.ofEpochDay(noviOd);
+        prikazanoDo = LocalDate.ofEpochDay(noviDo);
+        e.consume();
+        ucitajNiz();
     }
 
     /** Vraća na glavni prozor. */
     @FXML
     private void handleNazad() {
+        FxAsync.otkazi(ucitavanje);
+        FxAsync.otkazi(ucitavanjeNiza);
         SceneSwitcher.switchScene(btnNazad, "MainView.fxml");
     }
 }
@@ -0,0 +1,338 @@
+package view;
+
+import controller.AsyncIzvrsilac;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.PropertyValueFactory;
+import model.Poredak;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lista za {@link TableView} koja redove učitava po stranama, tek kada ih tabela zatraži.
+ * <p>
+ * Tabela traži samo redove koji se vide, pa {@link #get} za red čija strana još
+ * nije učitana vraća {@code null} (prazan red) i u pozadini učitava tu stranu,
+ * kao i sledeću u smeru skrolovanja; kada strana stigne, tabela dobija obaveštenje
+ * o zameni tih redova. U memoriji se drži najviše {@value #MAX_STRANA} strana od po
+ * {@value #VELICINA_STRANE} redova, a izbacuje se ona koja je najdavnije tražena.
+ * Veličina liste je broj redova u skladištu, pa klizač odgovara celoj tabeli.
+ * </p>
+ * <p>
+ * Klik na zaglavlje kolone ne sortira listu nego, preko {@link #povezi}, ponovo
+ * učitava strane u novom redosledu, koji izvršava skladište. Lista se koristi
+ * samo sa JavaFX niti i ne može se menjati spolja.
+ * </p>
+ *
+ * @param <T> tip reda
+ * @author DjuroPopara6271
+ */
+final class LenjaLista<T> extends ObservableListBase<T> {
+
+    /** Izvor jedne strane redova; poziva se van JavaFX niti. */
+    @FunctionalInterface
+    interface Izvor<T> {
+
+        /**
+         * @param poredak redosled, ili {@code null} za podrazumevani
+         * @param od      pozicija prvog reda
+         * @param limit   najveći broj redova
+         * @return redovi {@code [od, od + limit)}
+         */
+        List<T> ucitaj(Poredak poredak, int od, int limit);
+    }
+
+    /** Broj redova na jednoj strani. */
+    static final int VELICINA_STRANE = 100;
+
+    /** Najveći broj strana u memoriji. */
+    static final int MAX_STRANA = 10;
+
+    /** Broj strana koje se učitavaju unapred u smeru skrolovanja. */
+    private static final int UNAPRED = 1;
+
+    private final IntSupplier brojac;
+    private final Izvor<T> izvor;
+    private final ToIntFunction<T> id;
+
+    /** Učitane strane po rednom broju, od najdavnije do poslednje tražene. */
+    private final Map<Integer, List<T>> strane = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> najstarija) {
+            return size() > MAX_STRANA;
+        }
+    };
+
+    /** Strane čije je učitavanje u toku. */
+    private final Set<Integer> uToku = new HashSet<>();
+
+    /**
+     * Strane čije učitavanje nije uspelo; ne traže se ponovo dok se ne pređe
+     * na drugu stranu, da crtanje tabele ne ponavlja zahtev za svaki red.
+     */
+    private final Set<Integer> neuspele = new HashSet<>();
+
+    private Consumer<Throwable> greska = e -> {
+    };
+
+    private int velicina;
+    private Poredak poredak;
+
+    /** Raste pri svakom ponovnom učitavanju; strane iz ranijih učitavanja se odbacuju. */
+    private int generacija;
+
+    /** Strana poslednjeg traženog reda, za smer skrolovanja. */
+    private int poslednjaStrana;
+
+    /**
+     * Kreira praznu listu; redovi se pojavljuju posle {@link #ucitaj}.
+     *
+     * @param brojac ukupan broj redova, ili negativan broj ako brojanje nije uspelo
+     * @param izvor  učitava jednu stranu
+     * @param id     ID reda, za {@link #zameni}
+     */
+    LenjaLista(IntSupplier brojac, Izvor<T> izvor, ToIntFunction<T> id) {
+        this.brojac = brojac;
+        this.izvor = izvor;
+        this.id = id;
+    }
+
+    /**
+     * Postavlja sortiranje tabele tako da se, dok je u njoj lenja lista, redosled
+     * prosleđuje skladištu; obična lista se sortira kao i do sada.
+     *
+     * @param tabela tabela
+     * @param <S>    tip reda
+     */
+    @SuppressWarnings("unchecked")
+    static <S> void povezi(TableView<S> tabela) {
+        tabela.setSortPolicy(t -> {
+            if (!(t.getItems() instanceof LenjaLista)) {
+                return TableView.DEFAULT_SORT_POLICY.call(t);
+            }
+            LenjaLista<S> lista = (LenjaLista<S>) t.getItems();
+            Poredak novi = poredak(t);
+            if (!Objects.equals(novi, lista.poredak)) {
+                lista.ucitaj(novi);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Redosled iz prve kolone po kojoj se tabela sortira, ako joj je vrednost
+     * svojstvo modela ({@link PropertyValueFactory}).
+     *
+     * @param tabela tabela
+     * @return redosled, ili {@code null} ako se ne sortira
+     */
+    static Poredak poredak(TableView<?> tabela) {
+        for (TableColumn<?, ?> kolona : tabela.getSortOrder()) {
+            Object vrednost = kolona.getCellValueFactory();
+            if (vrednost instanceof PropertyValueFactory) {
+                String svojstvo = ((PropertyValueFactory<?, ?>) vrednost).getProperty();
+                return new Poredak(svojstvo, kolona.getSortType() == TableColumn.SortType.DESCENDING);
+            }
+        }
+        return null;
+    }
+
+    /** @param greska prima grešku pri učitavanju, na JavaFX niti */
+    void setGreska(Consumer<Throwable> greska) {
+        this.greska = greska;
+    }
+
+    /**
+     * Učitava broj redova i strane koje su bile u memoriji u novom redosledu,
+     * pa ih zamenjuje odjednom; do tada tabela prikazuje stare redove.
+     *
+     * @param noviPoredak redosled, ili {@code null} za podrazumevani
+     * @return završava se na JavaFX niti, kada su novi redovi u listi
+     */
+    CompletableFuture<Void> ucitaj(Poredak noviPoredak) {
+        poredak = noviPoredak;
+        return osvezi();
+    }
+
+    /**
+     * Ponovo učitava broj redova i strane koje su u memoriji, npr. posle
+     * dodavanja ili brisanja, koji pomeraju redove.
+     *
+     * @return završava se na JavaFX niti, kada su novi redovi u listi
+     */
+    CompletableFuture<Void> osvezi() {
+        int gen = ++generacija;
+        uToku.clear();
+        neuspele.clear();
+        Poredak p = poredak;
+        List<Integer> zaCitanje = new ArrayList<>(strane.keySet());
+        if (zaCitanje.isEmpty()) {
+            zaCitanje.add(0);
+        }
+
+        CompletableFuture<Void> gotovo = new CompletableFuture<>();
+        FxAsync.naFxNiti(AsyncIzvrsilac.izvrsi(() -> {
+            Ucitano<T> ucitano = new Ucitano<>(Math.max(0, brojac.getAsInt()));
+            for (int s : zaCitanje) {
+                int od = s * VELICINA_STRANE;
+                if (od < ucitano.broj) {
+                    ucitano.strane.put(s, izvor.ucitaj(p, od, VELICINA_STRANE));
+                }
+            }
+            return ucitano;
+        }), ucitano -> {
+            if (gen == generacija) {
+                zameniSve(ucitano);
+            }
+            gotovo.complete(null);
+        }, e -> {
+            greska.accept(e);
+            gotovo.complete(null);
+        });
+        return gotovo;
+    }
+
+    /**
+     * Zamenjuje red sa istim ID-jem, ako mu je strana učitana; pozicija reda se ne menja.
+     *
+     * @param novi novo stanje reda
+     * @return {@code true} ako je red nađen i zamenjen
+     */
+    boolean zameni(T novi) {
+        int trazeni = id.applyAsInt(novi);
+        for (Map.Entry<Integer, List<T>> strana : strane.entrySet()) {
+            List<T> stavke = strana.getValue();
+            for (int j = 0; j < stavke.size(); j++) {
+                if (id.applyAsInt(stavke.get(j)) == trazeni) {
+                    List<T> izmenjena = new ArrayList<>(stavke);
+                    T stari = izmenjena.set(j, novi);
+                    strana.setValue(izmenjena);
+                    int indeks = strana.getKey() * VELICINA_STRANE + j;
+                    if (indeks < velicina) {
+                        beginChange();
+                        nextSet(indeks, stari);
+                        endChange();
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return velicina;
+    }
+
+    @Override
+    public T get(int indeks) {
+        Objects.checkIndex(indeks, velicina);
+        int s = indeks / VELICINA_STRANE;
+        if (s != poslednjaStrana) {
+            int smer = s > poslednjaStrana ? 1 : -1;
+            poslednjaStrana = s;
+            neuspele.clear();
+            for (int i = 1; i <= UNAPRED; i++) {
+                zatrazi(s + smer * i);
+            }
+        }
+        List<T> strana = strane.get(s);
+        if (strana == null) {
+            zatrazi(s);
+            return null;
+        }
+        int j = indeks % VELICINA_STRANE;
+        return j < strana.size() ? strana.get(j) : null;
+    }
+
+    /**
+     * Traži samo među učitanim stranama, jer bi prolazak kroz celu listu
+     * učitao sve strane.
+     *
+     * @return pozicija reda, ili {@code -1} ako nije među učitanim
+     */
+    @Override
+    public int indexOf(Object o) {
+        for (Map.Entry<Integer, List<T>> strana : strane.entrySet()) {
+            int j = strana.getValue().indexOf(o);
+            if (j >= 0) {
+                return strana.getKey() * VELICINA_STRANE + j;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private void zatrazi(int s) {
+        if (s < 0 || (long) s * VELICINA_STRANE >= velicina || strane.containsKey(s) || neuspele.contains(s)
+                || !uToku.add(s)) {
+            return;
+        }
+        int gen = generacija;
+        Poredak p = poredak;
+        int od = s * VELICINA_STRANE;
+        FxAsync.naFxNiti(AsyncIzvrsilac.izvrsi(() -> izvor.ucitaj(p, od, VELICINA_STRANE)), stavke -> {
+            if (gen != generacija) {
+                return;
+            }
+            uToku.remove(s);
+            strane.put(s, stavke);
+            int doPozicije = Math.min(od + stavke.size(), velicina);
+            if (od < doPozicije) {
+                beginChange();
+                nextReplace(od, doPozicije, Collections.nCopies(doPozicije - od, null));
+                endChange();
+            }
+        }, e -> {
+            if (gen != generacija) {
+                return;
+            }
+            uToku.remove(s);
+            neuspele.add(s);
+            greska.accept(e);
+        });
+    }
+
+    private void zameniSve(Ucitano<T> ucitano) {
+        int stara = velicina;
+        velicina = ucitano.broj;
+        strane.clear();
+        strane.putAll(ucitano.strane);
+        beginChange();
+        if (stara > 0) {
+            nextRemove(0, Collections.nCopies(stara, null));
+        }
+        if (velicina > 0) {
+            nextAdd(0, velicina);
+        }
+        endChange();
+    }
+
+    /** Rezultat ponovnog učitavanja: broj redova i strane koje su bile u memoriji. */
+    private static final class Ucitano<T> {
+
+        private final int broj;
+        private final Map<Integer, List<T>> strane = new LinkedHashMap<>();
+
+        Ucitano(int broj) {
+            this.broj = broj;
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package view;
 
+import controller.OdlozeniUpis;
+import database.DatabaseConnection;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
 import javafx.stage.Stage;
+import logging.Logging;
+import metrics.Metrics;
+import repository.Repozitorijumi;
 
-import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * Glavna JavaFX aplikacija za upravljanje sistemom rezervacije sportske opreme.
@@ -16,31 +20,68 @@ import java.io.IOException;
  */
 public class MainApp extends Application {
 
+    /**
+     * Bira motor skladišta iz argumenta {@code --repozitorijum=mysql|memorija},
+     * pre nego što bilo koji kontroler pristupi podacima, pokreće periodičan
+     * ispis metrika ako je zadat svojstvom {@code -Dmetrike.ispis=<sekundi>}
+     * i uključuje odloženi upis izmena ako je zadat svojstvom {@code -Dupis.odlaganje=<ms>}.
+     * Uz {@code -Dbaza.migracije=da} ažurira šemu baze i ne pokreće se ako nekom
+     * upitu nedostaje indeks.
+     *
+     * @throws SQLException ako migracija šeme ne uspe
+     */
+    @Override
+    public void init() throws SQLException {
+        String motor = getParameters().getNamed().get(Repozitorijumi.SVOJSTVO);
+        if (motor != null) {
+            Repozitorijumi.izaberi(Repozitorijumi.Motor.poNazivu(motor));
+        }
+        Repozitorijumi.pripremiBazuIzSvojstva();
+        Metrics.pokreniIspisIzSvojstva();
+        OdlozeniUpis.ukljuciIzSvojstva();
+    }
+
     /**
      * Metoda koja se poziva pri pokretanju JavaFX aplikacije.
-     * Učitava FXML fajl, postavlja naslov, dimenzije i prikazuje glavni scene.
+     * Učitava glavni pogled preko {@link SceneSwitcher}-a, postavlja naslov i dimenzije,
+     * a ostale poglede učitava u pozadini.
      *
      * @param primaryStage primarni JavaFX Stage (prozor) u kome se prikazuje UI
      */
     @Override
     public void start(Stage primaryStage) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/MainView.fxml"));
-            Parent root = loader.load();
-
-            primaryStage.setTitle("Rezervacija sportske opreme");
-            Scene scene = new Scene(root, 600, 400);
-            primaryStage.setScene(scene);
-
-            // Sprečava neočekivano zatvaranje (trenutno samo loguje događaj)
-            primaryStage.setOnCloseRequest(event -> {
-                System.out.println("Aplikacija se zatvara...");
-            });
-
-            primaryStage.show();
-        } catch (IOException e) {
-            System.err.println("❌ Greška pri učitavanju FXML-a: " + e.getMessage());
+        primaryStage.setTitle("Rezervacija sportske opreme");
+        // Jedna scena za ceo život prozora; SceneSwitcher joj menja samo koren
+        primaryStage.setScene(new Scene(new Pane(), 600, 400));
+        if (SceneSwitcher.prikazi(primaryStage, "MainView.fxml") == null) {
+            return;
+        }
+
+        // Sprečava neočekivano zatvaranje (trenutno samo loguje događaj)
+        primaryStage.setOnCloseRequest(event -> {
+            System.out.println("Aplikacija se zatvara...");
+        });
+
+        primaryStage.show();
+
+        // Ostali ekrani se učitavaju u pozadini, dok korisnik radi na glavnom
+        SceneSwitcher.zagrej("RezervacijaView.fxml", "OpremaView.fxml", "GrafikonView.fxml");
+    }
+
+    /**
+     * Poziva se pri gašenju aplikacije; upisuje izmene rezervacija koje još
+     * čekaju u redu odloženog upisa, zatvara pul konekcija ka bazi,
+     * upisuje u dnevnik završni izveštaj metrika ako je periodičan ispis bio
+     * uključen i na kraju upisuje poruke koje još čekaju.
+     */
+    @Override
+    public void stop() {
+        OdlozeniUpis.zaustavi();
+        if (Metrics.zaustaviIspis()) {
+            Logging.logger("metrike").info("Metrike (µs):\n" + Metrics.izvestaj());
         }
+        DatabaseConnection.zatvori();
+        Logging.zatvori();
     }
 
     /**
@@ -1,5 +1,6 @@
 package view;
 
+import controller.DostupnostOpreme;
 import controller.KorisnikController;
 import controller.RezervacijaController;
 import controller.SportskaOpremaController;
@@ -13,6 +14,8 @@ import model.Rezervacija;
 import model.SportskaOprema;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Kontroler za glavni ekran aplikacije.
@@ -21,7 +24,7 @@ import java.time.LocalDate;
  *
  * @author DjuroPopara6271
  */
-public class MainController {
+public class MainController implements RefreshableView {
 
     @FXML private Label lblNaslov;
     @FXML private ComboBox<Korisnik> comboKorisnik;
@@ -43,18 +46,21 @@ public class MainController {
     private final SportskaOpremaController opremaController = new SportskaOpremaController();
     private final RezervacijaController rezervacijaController = new RezervacijaController();
 
+    /** Učitavanja koja su u toku; otkazuju se pri napuštanju ekrana. */
+    private CompletableFuture<List<Korisnik>> ucitavanjeKorisnika;
+    private CompletableFuture<List<SportskaOprema>> ucitavanjeOpreme;
+
     /**
      * Poziva se nakon učitavanja FXML-a.
-     * Podešava TableView korisnika i ComboBox-e za korisnika i opremu.
+     * Podešava TableView korisnika i ComboBox-e za korisnika i opremu,
+     * a korisnike i opremu učitava istovremeno u pozadini.
      */
     @FXML
     public void initialize() {
         imeColumn.setCellValueFactory(new PropertyValueFactory<>("ime"));
         telefonColumn.setCellValueFactory(new PropertyValueFactory<>("telefon"));
         ucitajKorisnike();
-
-        comboKorisnik.setItems(FXCollections.observableArrayList(korisnikController.getSviKorisnici()));
-        comboOprema.setItems(FXCollections.observableArrayList(opremaController.getSvaOprema()));
+        ucitajOpremu();
 
         // Prikaz samo imena/naziva u ComboBox-evima
         comboKorisnik.setCellFactory(list -> new ListCell<>() {
@@ -75,11 +81,49 @@ public class MainController {
     }
 
     /**
-     * Učitava sve postojeće korisnike u tabelu.
+     * Ponovo učitava korisnike i opremu kada se vrati na glavni ekran,
+     * jer su u međuvremenu mogli biti izmenjeni na drugim ekranima.
+     */
+    @Override
+    public void osvezi() {
+        ucitajKorisnike();
+        ucitajOpremu();
+    }
+
+    /**
+     * Učitava sve postojeće korisnike u tabelu i ComboBox, u pozadini.
      */
     private void ucitajKorisnike() {
-        ObservableList<Korisnik> korisnici = FXCollections.observableArrayList(korisnikController.getSviKorisnici());
-        tabelaKorisnika.setItems(korisnici);
+        FxAsync.otkazi(ucitavanjeKorisnika);
+        FxAsync.prikaziUcitavanje(tabelaKorisnika);
+        comboKorisnik.setDisable(true);
+        ucitavanjeKorisnika = korisnikController.getSviKorisniciAsync();
+        FxAsync.naFxNiti(ucitavanjeKorisnika, lista -> {
+            ObservableList<Korisnik> korisnici = FXCollections.observableArrayList(lista);
+            tabelaKorisnika.setItems(korisnici);
+            FxAsync.zavrsiUcitavanje(tabelaKorisnika);
+            comboKorisnik.setItems(FXCollections.observableArrayList(lista));
+            comboKorisnik.setDisable(false);
+        }, this::prikaziGreskuUcitavanja);
+    }
+
+    /**
+     * Učitava svu opremu u ComboBox, u pozadini.
+     */
+    private void ucitajOpremu() {
+        FxAsync.otkazi(ucitavanjeOpreme);
+        comboOprema.setDisable(true);
+        ucitavanjeOpreme = opremaController.getSvaOpremaAsync();
+        FxAsync.naFxNiti(ucitavanjeOpreme, lista -> {
+            comboOprema.setItems(FXCollections.observableArrayList(lista));
+            comboOprema.setDisable(false);
+        }, this::prikaziGreskuUcitavanja);
+    }
+
+    /** Otkazuje učitavanja koja su još u toku, pre prelaska na drugi ekran. */
+    private void otkaziUcitavanja() {
+        FxAsync.otkazi(ucitavanjeKorisnika);
+        FxAsync.otkazi(ucitavanjeOpreme);
     }
 
     /**
@@ -137,8 +181,77 @@ public class MainController {
                 kolicina,
                 status
         );
-        rezervacijaController.dodajRezervaciju(nova);
-        prikaziInfo("Rezervacija uspešno dodata!");
+        btnRezervisi.setDisable(true);
+        if (!status.equals("aktivna")) {
+            // Otkazana i završena rezervacija ne zauzimaju opremu
+            dodajRezervaciju(nova);
+            return;
+        }
+        // Oprema je možda već rezervisana u delu perioda, pa se proverava slobodna količina
+        FxAsync.naFxNiti(DostupnostOpreme.getSlobodnaKolicinaAsync(oprema, datumRez, datumVrac), slobodno -> {
+            if (kolicina > slobodno) {
+                btnRezervisi.setDisable(false);
+                prikaziUpozorenje("Nema dovoljno slobodne opreme u izabranom periodu. Max: " + slobodno);
+                return;
+            }
+            rezervisi(nova);
+        }, greska -> {
+            btnRezervisi.setDisable(false);
+            prikaziUpozorenje("Greška pri proveri dostupnosti: " + greska.getMessage());
+        });
+    }
+
+    /**
+     * Atomično rezerviše opremu; baza ponovo proverava slobodnu količinu,
+     * jer je istu opremu u međuvremenu mogao da rezerviše neko drugi.
+     * @param nova aktivna rezervacija za unos
+     */
+    private void rezervisi(Rezervacija nova) {
+        FxAsync.naFxNiti(rezervacijaController.rezervisiAsync(nova), ishod -> {
+            btnRezervisi.setDisable(false);
+            switch (ishod) {
+                case USPESNO:
+                    prikaziInfo("Rezervacija uspešno dodata!");
+                    break;
+                case NEDOVOLJNO_OPREME:
+                    prikaziUpozorenje("Oprema je u međuvremenu rezervisana; nema dovoljno slobodne opreme u izabranom periodu.");
+                    break;
+                case NEPOSTOJECA_OPREMA:
+                    prikaziUpozorenje("Izabrana oprema više ne postoji.");
+                    break;
+                case KONFLIKT:
+                    prikaziUpozorenje("Oprema se upravo rezerviše sa drugog mesta, pokušajte ponovo.");
+                    break;
+                default:
+                    prikaziUpozorenje("Greška pri dodavanju rezervacije.");
+                    break;
+            }
+        }, greska -> {
+            btnRezervisi.setDisable(false);
+            prikaziUpozorenje("Greška pri dodavanju rezervacije: " + greska.getMessage());
+        });
+    }
+
+    /**
+     * Upisuje proverenu rezervaciju u pozadini i prijavljuje ishod.
+     * @param nova rezervacija za unos
+     */
+    private void dodajRezervaciju(Rezervacija nova) {
+        FxAsync.naFxNiti(rezervacijaController.dodajRezervacijuAsync(nova), v -> {
+            btnRezervisi.setDisable(false);
+            prikaziInfo("Rezervacija uspešno dodata!");
+        }, greska -> {
+            btnRezervisi.setDisable(false);
+            prikaziUpozorenje("Greška pri dodavanju rezervacije: " + greska.getMessage());
+        });
+    }
+
+    /**
+     * Prikazuje grešku nastalu pri učitavanju podataka.
+     * @param greska uzrok greške
+     */
+    private void prikaziGreskuUcitavanja(Throwable greska) {
+        prikaziUpozorenje("Greška pri učitavanju podataka: " + greska.getMessage());
     }
 
     /**
@@ -168,6 +281,7 @@ public class MainController {
      */
     @FXML
     private void handleOpenRezervacije() {
+        otkaziUcitavanja();
         SceneSwitcher.switchScene(btnPregledRezervacija, "RezervacijaView.fxml");
     }
 
@@ -176,6 +290,7 @@ public class MainController {
      */
     @FXML
     private void handleOpenOprema() {
+        otkaziUcitavanja();
         SceneSwitcher.switchScene(btnPregledOpreme, "OpremaView.fxml");
     }
 
@@ -184,6 +299,7 @@ public class MainController {
      */
     @FXML
     private void handleGrafikon() {
+        otkaziUcitavanja();
         SceneSwitcher.switchScene(btnPregledRezervacija, "GrafikonView.fxml");
     }
 }
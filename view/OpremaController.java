@@ -1,8 +1,6 @@
 package view;
 
 import controller.SportskaOpremaController;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -13,11 +11,13 @@ import model.SportskaOprema;
  * <p>
  * Povezuje kolone tabele sa svojstvima modela i učitava
  * listu opreme iz baze, kao i omogućava povratak na glavni meni.
+ * Oprema se učitava po stranama dok korisnik skroluje ({@link LenjaLista}),
+ * a sortiranje po koloni izvršava baza.
  * </p>
  *
  * @author DjuroPopara
  */
-public class OpremaController {
+public class OpremaController implements RefreshableView {
 
     /** Tabela koja prikazuje listu sportske opreme. */
     @FXML
@@ -49,11 +49,18 @@ public class OpremaController {
     @FXML
     private Button btnNazadOprema;
 
+    /** Kontroler koji upravlja operacijama nad opremom. */
+    private final SportskaOpremaController opremaController = new SportskaOpremaController();
+
+    /** Redovi tabele, učitani po stranama. */
+    private final LenjaLista<SportskaOprema> oprema = new LenjaLista<>(
+            opremaController::prebrojOpremu, opremaController::getOpremaOpseg, SportskaOprema::getId);
+
     /**
      * Inicijalizuje kontroler.
      * <p>
      * Postavlja {@code PropertyValueFactory}-e za svaku kolonu
-     * i učitava podatke iz baze u tabelu.
+     * i u pozadini učitava prvu stranu opreme iz baze u tabelu.
      * </p>
      */
     @FXML
@@ -66,10 +73,32 @@ public class OpremaController {
         kolicinaColumn.setCellValueFactory(new PropertyValueFactory<>("kolicina"));
         lokacijaColumn.setCellValueFactory(new PropertyValueFactory<>("lokacija"));
 
-        SportskaOpremaController controller = new SportskaOpremaController();
-        ObservableList<SportskaOprema> lista =
-                FXCollections.observableArrayList(controller.getSvaOprema());
-        tableOprema.setItems(lista);
+        LenjaLista.povezi(tableOprema);
+        oprema.setGreska(greska -> {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle("Upozorenje");
+            alert.setContentText("Greška pri učitavanju opreme: " + greska.getMessage());
+            alert.showAndWait();
+        });
+        tableOprema.setItems(oprema);
+        ucitajOpremu();
+    }
+
+    /**
+     * Ponovo učitava opremu pri povratku na ekran.
+     */
+    @Override
+    public void osvezi() {
+        ucitajOpremu();
+    }
+
+    /**
+     * Ponovo učitava broj stavki i strane opreme koje su u memoriji, u pozadini.
+     */
+    private void ucitajOpremu() {
+        FxAsync.prikaziUcitavanje(tableOprema);
+        oprema.ucitaj(LenjaLista.poredak(tableOprema))
+                .thenRun(() -> FxAsync.zavrsiUcitavanje(tableOprema));
     }
 
     /**
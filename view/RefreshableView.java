@@ -0,0 +1,21 @@
+package view;
+
+/**
+ * Kontroler pogleda koji {@link SceneSwitcher} čuva i ponovo prikazuje umesto
+ * da ga pravi iznova.
+ * <p>
+ * Pri svakom ponovnom prikazu poziva se {@link #osvezi()}, koji treba samo da
+ * ponovo učita podatke; kolone, fabrike ćelija i listeneri postavljeni u
+ * {@code initialize()} ostaju.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
+interface RefreshableView {
+
+    /**
+     * Ponovo učitava podatke prikaza. Poziva se na JavaFX niti, svaki put kada
+     * se keširani pogled vrati na ekran.
+     */
+    void osvezi();
+}
@@ -1,13 +1,26 @@
 package view;
 
+import controller.PromeneRezervacija;
 import controller.RezervacijaController;
+import controller.RezervacijaIndeksPretrage;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import logging.Logger;
+import logging.Logging;
 import model.Rezervacija;
+import repository.RezervacijaRepository;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * JavaFX kontroler za prikaz, pretragu, ažuriranje i brisanje rezervacija.
@@ -16,10 +29,22 @@ import java.util.List;
  * upravlja akcijama korisnika (brisanje, pretraga, promena datuma vraćanja)
  * i vraćanjem na glavni meni.
  * </p>
+ * <p>
+ * Bez pretrage tabela prikazuje sve rezervacije preko {@link LenjaLista}, koja
+ * učitava samo strane do kojih korisnik skroluje i sortira u bazi; rezultati
+ * pretrage su obična lista.
+ * </p>
+ * <p>
+ * Posle prvog učitavanja tabela se održava preko {@link PromeneRezervacija}:
+ * izmenjeni redovi se zamenjuju na svom mestu, a obrisani uklanjaju, pa se
+ * pozicija skrola i selekcija ne gube kao pri ponovnom učitavanju cele tabele.
+ * </p>
  *
  * @author DjuroPopara
  */
-public class RezervacijaViewController {
+public class RezervacijaViewController implements RefreshableView {
+
+    private static final Logger LOG = Logging.logger("prikaz");
 
     /** Tabela sa rezervacijama prikazanim za korisnika. */
     @FXML
@@ -68,10 +93,19 @@ public class RezervacijaViewController {
     /** Kontroler koji upravlja operacijama nad rezervacijama. */
     private final RezervacijaController rezervacijaController = new RezervacijaController();
 
+    /** Sve rezervacije, učitane po stranama; prikazuju se kada pretraga nije uneta. */
+    private final LenjaLista<Rezervacija> sveRezervacije = new LenjaLista<>(
+            () -> rezervacijaController.prebrojRezervacije(null),
+            (poredak, od, limit) -> rezervacijaController.getRezervacijeOpseg(null, poredak, od, limit),
+            Rezervacija::getId);
+
+    /** Pretraga koja je u toku; nova zamenjuje i otkazuje prethodnu. */
+    private CompletableFuture<List<Rezervacija>> tekuceUcitavanje;
+
     /**
      * Inicijalizuje tabelu rezervacija i postavlja sortiranje po datumu rezervacije.
      * <p>
-     * Povezuje kolone sa odgovarajućim svojstvima modela i učitava sve rezervacije iz baze.
+     * Povezuje kolone sa odgovarajućim svojstvima modela i učitava prvu stranu rezervacija iz baze.
      * </p>
      */
     @FXML
@@ -82,20 +116,155 @@ public class RezervacijaViewController {
         vracanjeColumn.setCellValueFactory(new PropertyValueFactory<>("datumVracanja"));
         statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
 
-        ucitajRezervacije();
-
-        // Sortiraj po datumu rezervacije uzlazno
+        // Sortiraj po datumu rezervacije uzlazno; za sve rezervacije sortira baza
+        LenjaLista.povezi(tableRezervacije);
         datumRezColumn.setSortType(TableColumn.SortType.ASCENDING);
         tableRezervacije.getSortOrder().add(datumRezColumn);
+        sveRezervacije.setGreska(greska ->
+                prikaziUpozorenje("Greška pri učitavanju rezervacija: " + greska.getMessage()));
+
+        // Pretplata pre učitavanja, da se ne izgubi promena koja stigne između
+        PromeneRezervacija.getInstance().pretplati(izmene -> Platform.runLater(() -> primeni(izmene)));
+        ucitajRezervacije();
+
+        // Pretraga dok korisnik kuca, preko indeksa u memoriji
+        txtPretraga.textProperty().addListener((obs, stari, novi) -> filtrirajDokKuca(novi));
     }
 
     /**
-     * Učitava sve rezervacije iz baze u tabelu.
+     * Pri povratku na ekran ponovo učitava tabelu, zadržavajući unetu pretragu,
+     * samo ako tok promena ne prati izmene sa drugih računara; inače je tabela
+     * već ažurna.
+     */
+    @Override
+    public void osvezi() {
+        if (!PromeneRezervacija.getInstance().isPratiDrugeRacunare()) {
+            filtrirajDokKuca(txtPretraga.getText());
+        }
+    }
+
+    /**
+     * Primenjuje promene na redove koji su već u tabeli, u jednom prolazu kroz listu.
+     * <p>
+     * Nove rezervacije se dodaju samo kada pretraga nije uneta, jer ne moraju
+     * da odgovaraju pretrazi. Ako je pretraga u toku, promene se primenjuju
+     * na njen rezultat.
+     * </p>
+     *
+     * @param izmene promene iz {@link PromeneRezervacija}
+     */
+    private void primeni(PromeneRezervacija.Izmene izmene) {
+        if (tekuceUcitavanje != null && !tekuceUcitavanje.isDone()) {
+            tekuceUcitavanje.thenRun(() -> Platform.runLater(() -> primeni(izmene)));
+            return;
+        }
+        if (tableRezervacije.getItems() == sveRezervacije) {
+            primeniNaSve(izmene);
+            return;
+        }
+
+        ObservableList<Rezervacija> redovi = tableRezervacije.getItems();
+        Rezervacija selektovana = tableRezervacije.getSelectionModel().getSelectedItem();
+
+        Map<Integer, Rezervacija> nove = new HashMap<>();
+        for (Rezervacija r : izmene.getDodateIliIzmenjene()) {
+            nove.put(r.getId(), r);
+        }
+        Set<Integer> obrisane = izmene.getObrisane();
+        List<Rezervacija> zaBrisanje = new ArrayList<>();
+        for (int i = 0; i < redovi.size(); i++) {
+            Rezervacija r = redovi.get(i);
+            if (obrisane.contains(r.getId())) {
+                zaBrisanje.add(r);
+            } else {
+                Rezervacija nova = nove.remove(r.getId());
+                if (nova != null) {
+                    redovi.set(i, nova);
+                }
+            }
+        }
+        if (!zaBrisanje.isEmpty()) {
+            // Rezervacije su jednake po ID-u, pa skup čini uklanjanje linearnim
+            redovi.removeAll(new HashSet<>(zaBrisanje));
+        }
+        if (!nove.isEmpty() && txtPretraga.getText().isBlank()) {
+            redovi.addAll(nove.values());
+        }
+        tableRezervacije.sort();
+        vratiSelekciju(selektovana, obrisane);
+    }
+
+    /**
+     * Primenjuje promene na {@link #sveRezervacije}. Izmenjeni redovi sa učitanih
+     * strana menjaju se na mestu; za dodate i obrisane, kao i za izmenjene van
+     * učitanih strana, ponovo se učitavaju broj redova i strane koje su u
+     * memoriji, jer se pozicije redova pomeraju.
+     *
+     * @param izmene promene iz {@link PromeneRezervacija}
+     */
+    private void primeniNaSve(PromeneRezervacija.Izmene izmene) {
+        boolean pomereno = !izmene.getObrisane().isEmpty();
+        for (Rezervacija r : izmene.getDodateIliIzmenjene()) {
+            if (!sveRezervacije.zameni(r)) {
+                pomereno = true;
+            }
+        }
+        if (pomereno) {
+            Rezervacija selektovana = tableRezervacije.getSelectionModel().getSelectedItem();
+            sveRezervacije.osvezi().thenRun(() -> vratiSelekciju(selektovana, izmene.getObrisane()));
+        }
+    }
+
+    /**
+     * Ponovo selektuje rezervaciju koja je bila selektovana pre promena, ako je još u tabeli.
+     *
+     * @param selektovana ranije selektovana rezervacija, može biti {@code null}
+     * @param obrisane    ID-jevi obrisanih rezervacija
+     */
+    private void vratiSelekciju(Rezervacija selektovana, Set<Integer> obrisane) {
+        if (selektovana == null || obrisane.contains(selektovana.getId())
+                || selektovana.equals(tableRezervacije.getSelectionModel().getSelectedItem())) {
+            return;
+        }
+        int indeks = tableRezervacije.getItems().indexOf(selektovana);
+        if (indeks >= 0) {
+            tableRezervacije.getSelectionModel().select(indeks);
+        }
+    }
+
+    /**
+     * Prikazuje sve rezervacije po stranama i ponovo učitava njihov broj i
+     * strane koje su u memoriji, u pozadini. Pretraga u toku se otkazuje.
      */
     private void ucitajRezervacije() {
-        List<Rezervacija> rezervacije = rezervacijaController.getSveRezervacije();
-        tableRezervacije.setItems(FXCollections.observableArrayList(rezervacije));
-        tableRezervacije.refresh();
+        FxAsync.otkazi(tekuceUcitavanje);
+        tekuceUcitavanje = null;
+        // Redosled se postavlja pre zamene liste, pa sortiranje tabele ne pokreće drugo učitavanje
+        CompletableFuture<Void> ucitavanje = sveRezervacije.ucitaj(LenjaLista.poredak(tableRezervacije));
+        tableRezervacije.setItems(sveRezervacije);
+        FxAsync.prikaziUcitavanje(tableRezervacije);
+        ucitavanje.thenRun(() -> FxAsync.zavrsiUcitavanje(tableRezervacije));
+    }
+
+    /**
+     * Prikazuje rezultat asinhrone pretrage u tabeli.
+     * Prethodna pretraga koja još traje se otkazuje, pa sporiji stariji
+     * rezultat ne može da prepiše noviji.
+     *
+     * @param ucitavanje asinhroni poziv kontrolera
+     */
+    private void prikazi(CompletableFuture<List<Rezervacija>> ucitavanje) {
+        FxAsync.otkazi(tekuceUcitavanje);
+        tekuceUcitavanje = ucitavanje;
+        FxAsync.prikaziUcitavanje(tableRezervacije);
+        FxAsync.naFxNiti(ucitavanje, rezervacije -> {
+            tableRezervacije.setItems(FXCollections.observableArrayList(rezervacije));
+            tableRezervacije.refresh();
+            FxAsync.zavrsiUcitavanje(tableRezervacije);
+        }, greska -> {
+            FxAsync.zavrsiUcitavanje(tableRezervacije);
+            prikaziUpozorenje("Greška pri učitavanju rezervacija: " + greska.getMessage());
+        });
     }
 
     /**
@@ -103,11 +272,12 @@ public class RezervacijaViewController {
      */
     @FXML
     private void handleBack() {
+        FxAsync.otkazi(tekuceUcitavanje);
         SceneSwitcher.switchScene(btnNazad, "MainView.fxml");
     }
 
     /**
-     * Briše trenutno selektovanu rezervaciju iz baze i osvežava prikaz.
+     * Briše trenutno selektovanu rezervaciju iz baze; red iz tabele uklanja tok promena.
      * Ako nije ništa selektovano, prikazuje upozorenje.
      */
     @FXML
@@ -118,14 +288,23 @@ public class RezervacijaViewController {
             return;
         }
 
-        System.out.println("Brisanje rezervacije sa ID: " + selektovana.getId());
-        rezervacijaController.obrisiRezervaciju(selektovana.getId());
-        prikaziInfo("Rezervacija uspešno obrisana!");
-        ucitajRezervacije();
+        LOG.debug("Brisanje rezervacije sa ID: " + selektovana.getId());
+        FxAsync.naFxNiti(rezervacijaController.obrisiRezervacijuAsync(selektovana.getId()),
+                obrisano -> {
+                    if (obrisano > 0) {
+                        prikaziInfo("Rezervacija uspešno obrisana!");
+                    } else if (obrisano == 0) {
+                        prikaziUpozorenje("Rezervacija više ne postoji.");
+                    } else {
+                        prikaziUpozorenje("Rezervacija nije obrisana.");
+                    }
+                },
+                greska -> prikaziUpozorenje("Greška pri brisanju rezervacije: " + greska.getMessage()));
     }
 
     /**
-     * Ažurira datum vraćanja za selektovanu rezervaciju na onaj iz {@code dateNovoVracanje}.
+     * Ažurira datum vraćanja za selektovanu rezervaciju na onaj iz {@code dateNovoVracanje};
+     * red u tabeli osvežava tok promena.
      * Ako nema selekcije ili nije odabran novi datum, prikazuje upozorenje.
      */
     @FXML
@@ -141,31 +320,51 @@ public class RezervacijaViewController {
         }
 
         String noviDatum = dateNovoVracanje.getValue().toString();
-        rezervacijaController.azurirajRezervaciju(selektovana.getId(), noviDatum);
-        prikaziInfo("Datum vraćanja uspešno ažuriran.");
-        ucitajRezervacije();
+        FxAsync.naFxNiti(rezervacijaController.azurirajRezervacijuAsync(selektovana.getId(), noviDatum),
+                izmenjeno -> {
+                    if (izmenjeno == RezervacijaRepository.NEDOVOLJNO_OPREME) {
+                        prikaziUpozorenje("Nema dovoljno slobodne opreme za produženje do " + noviDatum + ".");
+                    } else if (izmenjeno > 0) {
+                        prikaziInfo("Datum vraćanja uspešno ažuriran.");
+                    } else {
+                        prikaziUpozorenje("Datum vraćanja nije ažuriran.");
+                    }
+                },
+                greska -> prikaziUpozorenje("Greška pri ažuriranju rezervacije: " + greska.getMessage()));
     }
 
     /**
      * Filtrira prikaz rezervacija po unetom tekstu u {@code txtPretraga}.
+     * <p>
+     * Pretraga se izvršava u bazi i vraća prvu stranu najrelevantnijih pogodaka.
      * </p>
      */
     @FXML
     private void handlePretraga() {
-        String unos = txtPretraga.getText().toLowerCase().trim();
+        String unos = txtPretraga.getText().trim();
         if (unos.isEmpty()) {
             ucitajRezervacije();
             return;
         }
 
-        List<Rezervacija> sve = rezervacijaController.getSveRezervacije();
-        var filtrirane = sve.stream()
-                .filter(r ->
-                        (r.getKorisnikIme() != null && r.getKorisnikIme().toLowerCase().contains(unos)) ||
-                                (r.getOpremaNaziv() != null && r.getOpremaNaziv().toLowerCase().contains(unos)))
-                .toList();
+        prikazi(rezervacijaController.pretraziRezervacijeAsync(
+                unos, 0, RezervacijaController.MAX_VELICINA_STRANE));
+    }
 
-        tableRezervacije.setItems(FXCollections.observableArrayList(filtrirane));
+    /**
+     * Filtrira tabelu dok korisnik kuca, tražeći podstring u imenu korisnika
+     * ili nazivu opreme preko {@link RezervacijaIndeksPretrage}. Indeks se pri
+     * prvoj upotrebi učitava u pozadini.
+     *
+     * @param unos trenutni tekst u polju za pretragu
+     */
+    private void filtrirajDokKuca(String unos) {
+        if (unos == null || unos.isBlank()) {
+            ucitajRezervacije();
+            return;
+        }
+        prikazi(RezervacijaIndeksPretrage.getInstanceAsync()
+                .thenApply(indeks -> indeks.pretrazi(unos, RezervacijaController.MAX_VELICINA_STRANE)));
     }
 
     /**
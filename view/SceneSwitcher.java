@@ -1,21 +1,184 @@
 package view;
 
+import controller.AsyncIzvrsilac;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import logging.LogEvent;
+import logging.Logger;
+import logging.Logging;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
 
+/**
+ * Registar pogleda: učitava FXML jednom i čuva stablo čvorova i kontroler.
+ * <p>
+ * Prozor ima jednu {@link Scene} kojoj se pri prelasku samo menja koren, pa se
+ * FXML ne parsira ponovo, kontroleri se ne prave iznova i veličina prozora i
+ * stilovi ostaju. Pogled koji se ponovo prikazuje dobija poziv
+ * {@link RefreshableView#osvezi()} umesto ponovnog učitavanja celog ekrana.
+ * </p>
+ * <p>
+ * {@link #zagrej(String...)} učitava poglede u pozadini pri pokretanju, pa je
+ * i prvi prelazak na njih trenutan. Učitavanje pogleda koji nije prikazan ne
+ * dira živu scenu, pa sme da se radi van JavaFX niti.
+ * </p>
+ *
+ * @author DjuroPopara6271
+ */
 public class SceneSwitcher {
+
+    private static final Logger LOG = Logging.logger("prikaz");
+
+    /** Učitani ili pogledi koji se učitavaju, po imenu FXML fajla. */
+    private static final Map<String, CompletableFuture<Pogled>> POGLEDI = new ConcurrentHashMap<>();
+
+    /**
+     * Prikazuje pogled u prozoru kome pripada {@code node}.
+     * <p>
+     * Pogled se uzima iz keša ili učitava pri prvom prikazu. Ako je ranije bio
+     * učitan, njegov kontroler se osvežava.
+     * </p>
+     *
+     * @param node     bilo koji čvor u tekućoj sceni prozora
+     * @param fxmlFile ime FXML fajla u {@code /view/}, npr. {@code "MainView.fxml"}
+     */
     public static void switchScene(Node node, String fxmlFile) {
+        Stage stage = (Stage) node.getScene().getWindow();
+        prikazi(stage, fxmlFile);
+    }
+
+    /**
+     * Prikazuje pogled u prozoru; ako prozor još nema scenu, pravi je.
+     *
+     * @param stage    prozor
+     * @param fxmlFile ime FXML fajla u {@code /view/}
+     * @return kontroler pogleda ili {@code null} ako učitavanje nije uspelo
+     */
+    public static Object prikazi(Stage stage, String fxmlFile) {
+        boolean vecUcitan = POGLEDI.containsKey(fxmlFile);
+        Pogled pogled;
         try {
-            Parent root = FXMLLoader.load(SceneSwitcher.class.getResource("/view/" + fxmlFile));
-            Stage stage = (Stage) node.getScene().getWindow();
-            stage.setScene(new Scene(root));
+            pogled = pogled(fxmlFile).join();
+        } catch (CompletionException e) {
+            POGLEDI.remove(fxmlFile);
+            LOG.greska("prikazi", LogEvent.BEZ_ID, "Greška pri učitavanju pogleda " + fxmlFile, e.getCause());
+            return null;
+        }
+
+        Scene scena = stage.getScene();
+        if (scena == null) {
+            stage.setScene(new Scene(pogled.koren));
+        } else if (scena.getRoot() != pogled.koren) {
+            scena.setRoot(pogled.koren);
+        }
+        // Pogled učitan upravo sada ima sveže podatke iz initialize()
+        if (vecUcitan && pogled.kontroler instanceof RefreshableView) {
+            ((RefreshableView) pogled.kontroler).osvezi();
+        }
+        return pogled.kontroler;
+    }
+
+    /**
+     * Učitava poglede u pozadini, da bi prvi prelazak na njih bio trenutan.
+     * Pogledi koji su već učitani ili se učitavaju se preskaču.
+     *
+     * @param fxmlFajlovi imena FXML fajlova u {@code /view/}
+     * @return future koji se završava kada su svi pogledi učitani
+     */
+    public static CompletableFuture<Void> zagrej(String... fxmlFajlovi) {
+        CompletableFuture<?>[] ucitavanja = new CompletableFuture<?>[fxmlFajlovi.length];
+        for (int i = 0; i < fxmlFajlovi.length; i++) {
+            String fxml = fxmlFajlovi[i];
+            ucitavanja[i] = POGLEDI.computeIfAbsent(fxml, f -> AsyncIzvrsilac.izvrsi(() -> ucitaj(f)))
+                    .whenComplete((pogled, greska) -> {
+                        if (greska != null) {
+                            POGLEDI.remove(fxml);
+                            LOG.upozorenje("zagrej", LogEvent.BEZ_ID, "Pogled " + fxml + " nije učitan unapred: "
+                                    + greska.getMessage());
+                        }
+                    });
+        }
+        return CompletableFuture.allOf(ucitavanja);
+    }
+
+    /**
+     * Osvežava keširani pogled bez prikazivanja, npr. posle izmene podataka na drugom ekranu.
+     *
+     * @param fxmlFile ime FXML fajla
+     */
+    public static void osvezi(String fxmlFile) {
+        CompletableFuture<Pogled> pogled = POGLEDI.get(fxmlFile);
+        if (pogled != null) {
+            pogled.thenAccept(p -> {
+                if (p.kontroler instanceof RefreshableView) {
+                    Platform.runLater(((RefreshableView) p.kontroler)::osvezi);
+                }
+            });
+        }
+    }
+
+    /**
+     * Izbacuje pogled iz keša; sledeći prikaz ga učitava iznova.
+     *
+     * @param fxmlFile ime FXML fajla
+     */
+    public static void zaboravi(String fxmlFile) {
+        POGLEDI.remove(fxmlFile);
+    }
+
+    private static CompletableFuture<Pogled> pogled(String fxmlFile) {
+        CompletableFuture<Pogled> postojeci = POGLEDI.get(fxmlFile);
+        if (postojeci != null) {
+            return postojeci;
+        }
+        // Prvi prikaz bez zagrevanja: učitava se odmah, na pozivajućoj niti
+        CompletableFuture<Pogled> novi = new CompletableFuture<>();
+        postojeci = POGLEDI.putIfAbsent(fxmlFile, novi);
+        if (postojeci != null) {
+            return postojeci;
+        }
+        try {
+            novi.complete(ucitaj(fxmlFile));
+        } catch (RuntimeException e) {
+            novi.completeExceptionally(e);
+        }
+        return novi;
+    }
+
+    private static Pogled ucitaj(String fxmlFile) {
+        URL url = SceneSwitcher.class.getResource("/view/" + fxmlFile);
+        if (url == null) {
+            throw new IllegalArgumentException("FXML " + fxmlFile + " ne postoji.");
+        }
+        long pocetak = System.nanoTime();
+        FXMLLoader loader = new FXMLLoader(url);
+        try {
+            Parent koren = loader.load();
+            LOG.info("ucitaj", LogEvent.BEZ_ID, System.nanoTime() - pocetak, "Učitan pogled " + fxmlFile);
+            return new Pogled(koren, loader.getController());
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Učitano stablo čvorova i njegov kontroler. */
+    private static final class Pogled {
+        final Parent koren;
+        final Object kontroler;
+
+        Pogled(Parent koren, Object kontroler) {
+            this.koren = koren;
+            this.kontroler = kontroler;
         }
     }
 }